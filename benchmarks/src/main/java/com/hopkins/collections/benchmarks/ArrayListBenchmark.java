@@ -0,0 +1,99 @@
+package com.hopkins.collections.benchmarks;
+
+import com.hopkins.collections.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArrayListBenchmark {
+  @Param({"100", "10000", "1000000"})
+  int size;
+
+  private Integer[] elements;
+  private ArrayList<Integer> hopkinsList;
+  private java.util.ArrayList<Integer> jdkList;
+
+  @Setup
+  public void setup() {
+    elements = KeyDistribution.RANDOM.boxedKeys(size);
+    hopkinsList = new ArrayList<>();
+    jdkList = new java.util.ArrayList<>();
+    for (Integer element : elements) {
+      hopkinsList.add(element);
+      jdkList.add(element);
+    }
+  }
+
+  @Benchmark
+  public ArrayList<Integer> hopkinsAdd() {
+    ArrayList<Integer> list = new ArrayList<>();
+    for (Integer element : elements) {
+      list.add(element);
+    }
+    return list;
+  }
+
+  @Benchmark
+  public java.util.ArrayList<Integer> jdkAdd() {
+    java.util.ArrayList<Integer> list = new java.util.ArrayList<>();
+    for (Integer element : elements) {
+      list.add(element);
+    }
+    return list;
+  }
+
+  @Benchmark
+  public void hopkinsGet(Blackhole bh) {
+    for (int i = 0; i < size; i++) {
+      bh.consume(hopkinsList.get(i));
+    }
+  }
+
+  @Benchmark
+  public void jdkGet(Blackhole bh) {
+    for (int i = 0; i < size; i++) {
+      bh.consume(jdkList.get(i));
+    }
+  }
+
+  @Benchmark
+  public void hopkinsIterate(Blackhole bh) {
+    com.hopkins.collections.Iterator<Integer> iter = hopkinsList.iterator();
+    while (iter.hasNext()) {
+      bh.consume(iter.next());
+    }
+  }
+
+  @Benchmark
+  public void jdkIterate(Blackhole bh) {
+    for (Integer element : jdkList) {
+      bh.consume(element);
+    }
+  }
+
+  @Benchmark
+  public int hopkinsIndexOfMissing() {
+    return hopkinsList.indexOf(-1);
+  }
+
+  @Benchmark
+  public int jdkIndexOfMissing() {
+    return jdkList.indexOf(-1);
+  }
+}
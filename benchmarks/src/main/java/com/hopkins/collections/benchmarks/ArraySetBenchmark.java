@@ -0,0 +1,94 @@
+package com.hopkins.collections.benchmarks;
+
+import com.hopkins.collections.ArraySet;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArraySetBenchmark {
+  @Param({"10", "100", "1000", "10000"})
+  int size;
+
+  @Param
+  KeyDistribution distribution;
+
+  private Integer[] keys;
+  private Integer[] lookups;
+  private ArraySet<Integer> hopkinsSet;
+  private java.util.HashSet<Integer> jdkSet;
+
+  @Setup
+  public void setup() {
+    keys = distribution.boxedKeys(size);
+    lookups = KeyDistribution.lookups(distribution.keys(size), size);
+    hopkinsSet = new ArraySet<>();
+    jdkSet = new java.util.HashSet<>();
+    for (Integer key : keys) {
+      hopkinsSet.add(key);
+      jdkSet.add(key);
+    }
+  }
+
+  @Benchmark
+  public ArraySet<Integer> hopkinsAdd() {
+    ArraySet<Integer> set = new ArraySet<>();
+    for (Integer key : keys) {
+      set.add(key);
+    }
+    return set;
+  }
+
+  @Benchmark
+  public java.util.HashSet<Integer> jdkAdd() {
+    java.util.HashSet<Integer> set = new java.util.HashSet<>();
+    for (Integer key : keys) {
+      set.add(key);
+    }
+    return set;
+  }
+
+  @Benchmark
+  public void hopkinsContains(Blackhole bh) {
+    for (Integer key : lookups) {
+      bh.consume(hopkinsSet.contains(key));
+    }
+  }
+
+  @Benchmark
+  public void jdkContains(Blackhole bh) {
+    for (Integer key : lookups) {
+      bh.consume(jdkSet.contains(key));
+    }
+  }
+
+  @Benchmark
+  public void hopkinsIterate(Blackhole bh) {
+    com.hopkins.collections.Iterator<Integer> iter = hopkinsSet.iterator();
+    while (iter.hasNext()) {
+      bh.consume(iter.next());
+    }
+  }
+
+  @Benchmark
+  public void jdkIterate(Blackhole bh) {
+    for (Integer key : jdkSet) {
+      bh.consume(key);
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.hopkins.collections.benchmarks;
+
+import com.hopkins.collections.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashMapBenchmark {
+  @Param({"100", "10000", "1000000"})
+  int size;
+
+  @Param
+  KeyDistribution distribution;
+
+  private Integer[] keys;
+  private Integer[] lookups;
+  private HashMap<Integer, Integer> hopkinsMap;
+  private java.util.HashMap<Integer, Integer> jdkMap;
+
+  @Setup
+  public void setup() {
+    int[] rawKeys = distribution.keys(size);
+    keys = distribution.boxedKeys(size);
+    lookups = KeyDistribution.lookups(rawKeys, size);
+    hopkinsMap = new HashMap<>();
+    jdkMap = new java.util.HashMap<>();
+    for (Integer key : keys) {
+      hopkinsMap.put(key, key);
+      jdkMap.put(key, key);
+    }
+  }
+
+  @Benchmark
+  public HashMap<Integer, Integer> hopkinsPut() {
+    HashMap<Integer, Integer> map = new HashMap<>();
+    for (Integer key : keys) {
+      map.put(key, key);
+    }
+    return map;
+  }
+
+  @Benchmark
+  public java.util.HashMap<Integer, Integer> jdkPut() {
+    java.util.HashMap<Integer, Integer> map = new java.util.HashMap<>();
+    for (Integer key : keys) {
+      map.put(key, key);
+    }
+    return map;
+  }
+
+  @Benchmark
+  public void hopkinsGet(Blackhole bh) {
+    for (Integer key : lookups) {
+      bh.consume(hopkinsMap.get(key));
+    }
+  }
+
+  @Benchmark
+  public void jdkGet(Blackhole bh) {
+    for (Integer key : lookups) {
+      bh.consume(jdkMap.get(key));
+    }
+  }
+
+  @Benchmark
+  public int hopkinsPutRemove() {
+    HashMap<Integer, Integer> map = new HashMap<>();
+    for (Integer key : keys) {
+      map.put(key, key);
+    }
+    for (Integer key : keys) {
+      map.remove(key);
+    }
+    return map.size();
+  }
+
+  @Benchmark
+  public int jdkPutRemove() {
+    java.util.HashMap<Integer, Integer> map = new java.util.HashMap<>();
+    for (Integer key : keys) {
+      map.put(key, key);
+    }
+    for (Integer key : keys) {
+      map.remove(key);
+    }
+    return map.size();
+  }
+
+  @Benchmark
+  public void hopkinsIterate(Blackhole bh) {
+    com.hopkins.collections.Iterator<Integer> iter = hopkinsMap.keySet().iterator();
+    while (iter.hasNext()) {
+      bh.consume(iter.next());
+    }
+  }
+
+  @Benchmark
+  public void jdkIterate(Blackhole bh) {
+    for (Integer key : jdkMap.keySet()) {
+      bh.consume(key);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.hopkins.collections.benchmarks;
+
+import java.util.Random;
+
+/**
+ * The shapes of keys that the benchmarks are run against.
+ */
+public enum KeyDistribution {
+  /** The keys 0 to size - 1, in order. */
+  SEQUENTIAL {
+    @Override
+    int key(int index, Random random) {
+      return index;
+    }
+  },
+  /** Uniformly random keys. */
+  RANDOM {
+    @Override
+    int key(int index, Random random) {
+      return random.nextInt();
+    }
+  },
+  /** Multiples of 1024, which collide in the low bits unless the hash is spread. */
+  STRIDED {
+    @Override
+    int key(int index, Random random) {
+      return index << 10;
+    }
+  };
+
+  private static final long SEED = 42;
+
+  abstract int key(int index, Random random);
+
+  /**
+   * Returns {@code size} keys.  The same distribution and size always give
+   * the same keys.
+   */
+  public int[] keys(int size) {
+    Random random = new Random(SEED);
+    int[] keys = new int[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = key(i, random);
+    }
+    return keys;
+  }
+
+  /**
+   * Returns {@code size} keys, boxed.
+   */
+  public Integer[] boxedKeys(int size) {
+    int[] keys = keys(size);
+    Integer[] boxed = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      boxed[i] = keys[i];
+    }
+    return boxed;
+  }
+
+  /**
+   * Returns {@code count} keys to look up, half of which are in
+   * {@code keys} and half of which are most likely not.
+   */
+  public static Integer[] lookups(int[] keys, int count) {
+    Random random = new Random(SEED + 1);
+    Integer[] lookups = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      lookups[i] = (i & 1) == 0 ? keys[random.nextInt(keys.length)] : random.nextInt();
+    }
+    return lookups;
+  }
+}
@@ -0,0 +1,107 @@
+package com.hopkins.collections.benchmarks;
+
+import com.hopkins.collections.LinkedList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LinkedListBenchmark {
+  @Param({"100", "10000", "100000"})
+  int size;
+
+  private Integer[] elements;
+  private LinkedList<Integer> hopkinsList;
+  private java.util.LinkedList<Integer> jdkList;
+
+  @Setup
+  public void setup() {
+    elements = KeyDistribution.RANDOM.boxedKeys(size);
+    hopkinsList = new LinkedList<>();
+    jdkList = new java.util.LinkedList<>();
+    for (Integer element : elements) {
+      hopkinsList.add(element);
+      jdkList.add(element);
+    }
+  }
+
+  @Benchmark
+  public LinkedList<Integer> hopkinsAddLast() {
+    LinkedList<Integer> list = new LinkedList<>();
+    for (Integer element : elements) {
+      list.addLast(element);
+    }
+    return list;
+  }
+
+  @Benchmark
+  public java.util.LinkedList<Integer> jdkAddLast() {
+    java.util.LinkedList<Integer> list = new java.util.LinkedList<>();
+    for (Integer element : elements) {
+      list.addLast(element);
+    }
+    return list;
+  }
+
+  @Benchmark
+  public void hopkinsQueue(Blackhole bh) {
+    LinkedList<Integer> queue = new LinkedList<>();
+    for (Integer element : elements) {
+      queue.offer(element);
+    }
+    while (!queue.isEmpty()) {
+      bh.consume(queue.poll());
+    }
+  }
+
+  @Benchmark
+  public void jdkQueue(Blackhole bh) {
+    java.util.LinkedList<Integer> queue = new java.util.LinkedList<>();
+    for (Integer element : elements) {
+      queue.offer(element);
+    }
+    while (!queue.isEmpty()) {
+      bh.consume(queue.poll());
+    }
+  }
+
+  @Benchmark
+  public void hopkinsIterate(Blackhole bh) {
+    com.hopkins.collections.Iterator<Integer> iter = hopkinsList.iterator();
+    while (iter.hasNext()) {
+      bh.consume(iter.next());
+    }
+  }
+
+  @Benchmark
+  public void jdkIterate(Blackhole bh) {
+    for (Integer element : jdkList) {
+      bh.consume(element);
+    }
+  }
+
+  @Benchmark
+  public Integer hopkinsGetMiddle() {
+    return hopkinsList.get(size / 2);
+  }
+
+  @Benchmark
+  public Integer jdkGetMiddle() {
+    return jdkList.get(size / 2);
+  }
+}
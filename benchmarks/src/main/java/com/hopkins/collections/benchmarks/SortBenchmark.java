@@ -0,0 +1,91 @@
+package com.hopkins.collections.benchmarks;
+
+import com.hopkins.collections.ArrayList;
+import com.hopkins.collections.Arrays;
+import com.hopkins.collections.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+  @Param({"100", "10000", "1000000"})
+  int size;
+
+  @Param
+  KeyDistribution distribution;
+
+  private int[] ints;
+  private Integer[] boxed;
+
+  @Setup
+  public void setup() {
+    ints = distribution.keys(size);
+    boxed = distribution.boxedKeys(size);
+  }
+
+  // Each benchmark sorts a fresh copy, so the copy is part of the measured
+  // time for both implementations
+
+  @Benchmark
+  public int[] hopkinsSortInts() {
+    int[] array = ints.clone();
+    Arrays.sort(array);
+    return array;
+  }
+
+  @Benchmark
+  public int[] jdkSortInts() {
+    int[] array = ints.clone();
+    java.util.Arrays.sort(array);
+    return array;
+  }
+
+  @Benchmark
+  public Integer[] hopkinsSortObjects() {
+    Integer[] array = boxed.clone();
+    Arrays.sort(array);
+    return array;
+  }
+
+  @Benchmark
+  public Integer[] jdkSortObjects() {
+    Integer[] array = boxed.clone();
+    java.util.Arrays.sort(array);
+    return array;
+  }
+
+  @Benchmark
+  public ArrayList<Integer> hopkinsSortList() {
+    ArrayList<Integer> list = new ArrayList<>(size);
+    for (Integer element : boxed) {
+      list.add(element);
+    }
+    Collections.sort(list);
+    return list;
+  }
+
+  @Benchmark
+  public java.util.ArrayList<Integer> jdkSortList() {
+    java.util.ArrayList<Integer> list = new java.util.ArrayList<>(size);
+    for (Integer element : boxed) {
+      list.add(element);
+    }
+    java.util.Collections.sort(list);
+    return list;
+  }
+}
@@ -0,0 +1,102 @@
+package com.hopkins.collections.benchmarks;
+
+import com.hopkins.collections.SparseArray;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SparseArrayBenchmark {
+  @Param({"10", "100", "1000", "10000"})
+  int size;
+
+  @Param
+  KeyDistribution distribution;
+
+  private int[] keys;
+  private Integer[] boxedKeys;
+  private int[] lookups;
+  private Integer[] boxedLookups;
+  private SparseArray<Integer> hopkinsArray;
+  private java.util.HashMap<Integer, Integer> jdkMap;
+
+  @Setup
+  public void setup() {
+    keys = distribution.keys(size);
+    boxedKeys = distribution.boxedKeys(size);
+    boxedLookups = KeyDistribution.lookups(keys, size);
+    lookups = new int[size];
+    for (int i = 0; i < size; i++) {
+      lookups[i] = boxedLookups[i];
+    }
+    hopkinsArray = new SparseArray<>();
+    jdkMap = new java.util.HashMap<>();
+    for (Integer key : boxedKeys) {
+      hopkinsArray.put(key, key);
+      jdkMap.put(key, key);
+    }
+  }
+
+  @Benchmark
+  public SparseArray<Integer> hopkinsPut() {
+    SparseArray<Integer> array = new SparseArray<>();
+    for (int i = 0; i < size; i++) {
+      array.put(keys[i], boxedKeys[i]);
+    }
+    return array;
+  }
+
+  @Benchmark
+  public java.util.HashMap<Integer, Integer> jdkPut() {
+    java.util.HashMap<Integer, Integer> map = new java.util.HashMap<>();
+    for (Integer key : boxedKeys) {
+      map.put(key, key);
+    }
+    return map;
+  }
+
+  @Benchmark
+  public void hopkinsGet(Blackhole bh) {
+    for (int key : lookups) {
+      bh.consume(hopkinsArray.get(key));
+    }
+  }
+
+  @Benchmark
+  public void jdkGet(Blackhole bh) {
+    for (Integer key : boxedLookups) {
+      bh.consume(jdkMap.get(key));
+    }
+  }
+
+  @Benchmark
+  public void hopkinsIterate(Blackhole bh) {
+    for (int i = 0; i < hopkinsArray.size(); i++) {
+      bh.consume(hopkinsArray.keyAt(i));
+      bh.consume(hopkinsArray.valueAt(i));
+    }
+  }
+
+  @Benchmark
+  public void jdkIterate(Blackhole bh) {
+    for (java.util.Map.Entry<Integer, Integer> entry : jdkMap.entrySet()) {
+      bh.consume(entry.getKey());
+      bh.consume(entry.getValue());
+    }
+  }
+}
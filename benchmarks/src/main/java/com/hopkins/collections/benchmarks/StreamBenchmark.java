@@ -0,0 +1,105 @@
+package com.hopkins.collections.benchmarks;
+
+import com.hopkins.collections.List;
+import com.hopkins.collections.stream.Collectors;
+import com.hopkins.collections.stream.Stream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StreamBenchmark {
+  @Param({"100", "10000", "1000000"})
+  int size;
+
+  @Param
+  KeyDistribution distribution;
+
+  private Integer[] elements;
+
+  @Setup
+  public void setup() {
+    elements = distribution.boxedKeys(size);
+  }
+
+  @Benchmark
+  public List<Integer> hopkinsFilterMapCollect() {
+    return Stream.of(elements)
+        .filter(x -> (x & 1) == 0)
+        .map(x -> x + 1)
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public java.util.List<Integer> jdkFilterMapCollect() {
+    return java.util.Arrays.stream(elements)
+        .filter(x -> (x & 1) == 0)
+        .map(x -> x + 1)
+        .collect(java.util.stream.Collectors.toList());
+  }
+
+  @Benchmark
+  public long hopkinsCount() {
+    return Stream.of(elements).filter(x -> x > 0).count();
+  }
+
+  @Benchmark
+  public long jdkCount() {
+    return java.util.Arrays.stream(elements).filter(x -> x > 0).count();
+  }
+
+  @Benchmark
+  public Object[] hopkinsSortedLimit() {
+    return Stream.of(elements).sorted().limit(10).toArray();
+  }
+
+  @Benchmark
+  public Object[] jdkSortedLimit() {
+    return java.util.Arrays.stream(elements).sorted().limit(10).toArray();
+  }
+
+  @Benchmark
+  public Object[] hopkinsDistinct() {
+    return Stream.of(elements).map(x -> x & 1023).distinct().toArray();
+  }
+
+  @Benchmark
+  public Object[] jdkDistinct() {
+    return java.util.Arrays.stream(elements).map(x -> x & 1023).distinct().toArray();
+  }
+
+  @Benchmark
+  public boolean hopkinsAnyMatch() {
+    return Stream.of(elements).anyMatch(x -> x == Integer.MIN_VALUE);
+  }
+
+  @Benchmark
+  public boolean jdkAnyMatch() {
+    return java.util.Arrays.stream(elements).anyMatch(x -> x == Integer.MIN_VALUE);
+  }
+
+  @Benchmark
+  public void hopkinsForEach(Blackhole bh) {
+    Stream.of(elements).map(x -> x * 31).forEach(bh::consume);
+  }
+
+  @Benchmark
+  public void jdkForEach(Blackhole bh) {
+    java.util.Arrays.stream(elements).map(x -> x * 31).forEach(bh::consume);
+  }
+}
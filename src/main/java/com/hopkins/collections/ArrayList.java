@@ -217,6 +217,13 @@ public class ArrayList<E> implements List<E>, RandomAccess {
     return size;
   }
 
+  /**
+   * Sorts the items in place in the backing array.
+   */
+  void sort(Comparator<? super E> c) {
+    Arrays.sort((E[]) data, 0, size, c);
+  }
+
   @Override
   public List<E> subList(int fromIndex, int toIndex) {
     return new RandomAccessSubList<>(this, fromIndex, toIndex);
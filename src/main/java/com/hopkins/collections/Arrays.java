@@ -48,6 +48,110 @@ public class Arrays {
     }
   }
 
+  public static int binarySearch(int[] array, int key) {
+    return binarySearch(array, 0, array.length, key);
+  }
+
+  /**
+   * Returns the index of the key in the sorted range of the array, or
+   * {@link List#INDEX_NOT_FOUND} if the key is not present.
+   */
+  public static int binarySearch(int[] array, int fromIndex, int toIndex, int key) {
+    checkRange(array.length, fromIndex, toIndex);
+    int low = fromIndex;
+    int high = toIndex - 1;
+    while (low <= high) {
+      int middleIndex = (low + high) >>> 1;
+      int order = Integer.compare(array[middleIndex], key);
+      if (order < 0) {
+        low = middleIndex + 1;
+      } else if (order > 0) {
+        high = middleIndex - 1;
+      } else {
+        return middleIndex;
+      }
+    }
+    return List.INDEX_NOT_FOUND;
+  }
+
+  public static int binarySearch(long[] array, long key) {
+    return binarySearch(array, 0, array.length, key);
+  }
+
+  /**
+   * Returns the index of the key in the sorted range of the array, or
+   * {@link List#INDEX_NOT_FOUND} if the key is not present.
+   */
+  public static int binarySearch(long[] array, int fromIndex, int toIndex, long key) {
+    checkRange(array.length, fromIndex, toIndex);
+    int low = fromIndex;
+    int high = toIndex - 1;
+    while (low <= high) {
+      int middleIndex = (low + high) >>> 1;
+      int order = Long.compare(array[middleIndex], key);
+      if (order < 0) {
+        low = middleIndex + 1;
+      } else if (order > 0) {
+        high = middleIndex - 1;
+      } else {
+        return middleIndex;
+      }
+    }
+    return List.INDEX_NOT_FOUND;
+  }
+
+  public static int binarySearch(double[] array, double key) {
+    return binarySearch(array, 0, array.length, key);
+  }
+
+  /**
+   * Returns the index of the key in the sorted range of the array, or
+   * {@link List#INDEX_NOT_FOUND} if the key is not present.
+   */
+  public static int binarySearch(double[] array, int fromIndex, int toIndex, double key) {
+    checkRange(array.length, fromIndex, toIndex);
+    int low = fromIndex;
+    int high = toIndex - 1;
+    while (low <= high) {
+      int middleIndex = (low + high) >>> 1;
+      int order = Double.compare(array[middleIndex], key);
+      if (order < 0) {
+        low = middleIndex + 1;
+      } else if (order > 0) {
+        high = middleIndex - 1;
+      } else {
+        return middleIndex;
+      }
+    }
+    return List.INDEX_NOT_FOUND;
+  }
+
+  /**
+   * Returns the position of the key in the keys of the index, or
+   * {@link List#INDEX_NOT_FOUND} if the key is not present.  For a table
+   * that is searched many times, an index built with {@link SortedIndex#of}
+   * is faster than searching the sorted array.
+   */
+  public static int binarySearch(SortedIndex.OfInt index, int key) {
+    return index.indexOf(key);
+  }
+
+  /**
+   * Returns the position of the key in the keys of the index, or
+   * {@link List#INDEX_NOT_FOUND} if the key is not present.
+   */
+  public static int binarySearch(SortedIndex.OfLong index, long key) {
+    return index.indexOf(key);
+  }
+
+  /**
+   * Returns the position of the key in the keys of the index, or
+   * {@link List#INDEX_NOT_FOUND} if no key compares equal to it.
+   */
+  public static <T> int binarySearch(SortedIndex.OfObject<T> index, T key) {
+    return index.indexOf(key);
+  }
+
   public static <T> T[] copyOf(T[] original, int newLength) {
     return copyOfRange(original, 0, newLength);
   }
@@ -66,6 +170,84 @@ public class Arrays {
     return newArray;
   }
 
+  /**
+   * Returns a copy of the array, truncated or padded with zeros to the new
+   * length.
+   */
+  public static int[] copyOf(int[] original, int newLength) {
+    int[] copy = new int[newLength];
+    System.arraycopy(original, 0, copy, 0, Math.min(newLength, original.length));
+    return copy;
+  }
+
+  /**
+   * Returns a copy of the range of the array, padded with zeros if
+   * {@code toIndex} is past its end.
+   */
+  public static int[] copyOfRange(int[] original, int fromIndex, int toIndex) {
+    if (fromIndex < 0 || fromIndex > original.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (fromIndex > toIndex) {
+      throw new IllegalArgumentException();
+    }
+    int[] copy = new int[toIndex - fromIndex];
+    System.arraycopy(original, fromIndex, copy, 0, Math.min(toIndex, original.length) - fromIndex);
+    return copy;
+  }
+
+  /**
+   * Returns a copy of the array, truncated or padded with zeros to the new
+   * length.
+   */
+  public static long[] copyOf(long[] original, int newLength) {
+    long[] copy = new long[newLength];
+    System.arraycopy(original, 0, copy, 0, Math.min(newLength, original.length));
+    return copy;
+  }
+
+  /**
+   * Returns a copy of the range of the array, padded with zeros if
+   * {@code toIndex} is past its end.
+   */
+  public static long[] copyOfRange(long[] original, int fromIndex, int toIndex) {
+    if (fromIndex < 0 || fromIndex > original.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (fromIndex > toIndex) {
+      throw new IllegalArgumentException();
+    }
+    long[] copy = new long[toIndex - fromIndex];
+    System.arraycopy(original, fromIndex, copy, 0, Math.min(toIndex, original.length) - fromIndex);
+    return copy;
+  }
+
+  /**
+   * Returns a copy of the array, truncated or padded with zeros to the new
+   * length.
+   */
+  public static double[] copyOf(double[] original, int newLength) {
+    double[] copy = new double[newLength];
+    System.arraycopy(original, 0, copy, 0, Math.min(newLength, original.length));
+    return copy;
+  }
+
+  /**
+   * Returns a copy of the range of the array, padded with zeros if
+   * {@code toIndex} is past its end.
+   */
+  public static double[] copyOfRange(double[] original, int fromIndex, int toIndex) {
+    if (fromIndex < 0 || fromIndex > original.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    if (fromIndex > toIndex) {
+      throw new IllegalArgumentException();
+    }
+    double[] copy = new double[toIndex - fromIndex];
+    System.arraycopy(original, fromIndex, copy, 0, Math.min(toIndex, original.length) - fromIndex);
+    return copy;
+  }
+
   public static void fill(Object[] array, Object value) {
     fill(array, 0, array.length, value);
   }
@@ -82,68 +264,145 @@ public class Arrays {
     }
   }
 
+  public static void fill(int[] array, int value) {
+    fill(array, 0, array.length, value);
+  }
+
+  public static void fill(int[] array, int fromIndex, int toIndex, int value) {
+    checkRange(array.length, fromIndex, toIndex);
+    for (int i = fromIndex; i < toIndex; i++) {
+      array[i] = value;
+    }
+  }
+
+  public static void fill(long[] array, long value) {
+    fill(array, 0, array.length, value);
+  }
+
+  public static void fill(long[] array, int fromIndex, int toIndex, long value) {
+    checkRange(array.length, fromIndex, toIndex);
+    for (int i = fromIndex; i < toIndex; i++) {
+      array[i] = value;
+    }
+  }
+
+  public static void fill(double[] array, double value) {
+    fill(array, 0, array.length, value);
+  }
+
+  public static void fill(double[] array, int fromIndex, int toIndex, double value) {
+    checkRange(array.length, fromIndex, toIndex);
+    for (int i = fromIndex; i < toIndex; i++) {
+      array[i] = value;
+    }
+  }
+
   public static void sort(Object[] array) {
     sort(array, Comparator.NATURAL_ORDER);
   }
 
+  /**
+   * Sorts the array into the order given by the {@link Comparator}.  The
+   * sort is stable, and it is adaptive: an array that is already sorted, or
+   * made of a few sorted stretches, takes close to O(n) comparisons.
+   */
   public static <T> void sort(T[] array, Comparator<? super T> comparator) {
-    quickSort(array, 0, array.length, comparator);
-  }
-
-  private static <T> void quickSort(T[] array, int fromIndex, int toIndex, Comparator<? super T> c) {
-    int size = toIndex - fromIndex;
-    if (size < 2) {
-      // Lists of size 0/1 are sorted by definition
-      return;
-    }
-    if (size < 10) {
-      // Use selection sort for small lists
-      selectionSort(array, fromIndex, toIndex, c);
-      return;
-    }
-    int pivotIndex = fromIndex + (int) Math.floor(Math.random() * size);
-    T pivot = array[pivotIndex];
-    int minListEndIndex = fromIndex;
-    swap(array, pivotIndex, fromIndex);
-    for (int i = fromIndex + 1; i < toIndex; i++) {
-      T item = array[i];
-      if (c.compare(pivot, item) > 0) {
-        minListEndIndex++;
-        swap(array, minListEndIndex, i);
-      }
-    }
-    swap(array, fromIndex, minListEndIndex);
-    quickSort(array, fromIndex, minListEndIndex, c);
-    quickSort(array, minListEndIndex + 1, toIndex, c);
+    sort(array, 0, array.length, comparator);
   }
 
-  private static <T> void selectionSort(T[] array, int fromIndex, int toIndex, Comparator<? super T> c) {
-    int size = toIndex - fromIndex;
-    if (size < 2) {
-      // Lists of size 0/1 are sorted by definition
-      return;
+  /**
+   * Sorts the range of the array into the order given by the
+   * {@link Comparator}.  The sort is stable.
+   */
+  public static <T> void sort(T[] array, int fromIndex, int toIndex, Comparator<? super T> comparator) {
+    checkRange(array.length, fromIndex, toIndex);
+    TimSort.sort(array, fromIndex, toIndex, comparator);
+  }
+
+  /**
+   * Sorts the array into the order given by the {@link Comparator}, using
+   * the threads of the common {@link java.util.concurrent.ForkJoinPool}.
+   * Arrays of up to 8192 items are sorted on the calling thread.  The sort
+   * is stable.
+   */
+  public static <T> void parallelSort(T[] array, Comparator<? super T> comparator) {
+    parallelSort(array, 0, array.length, comparator);
+  }
+
+  public static <T> void parallelSort(T[] array, int fromIndex, int toIndex, Comparator<? super T> comparator) {
+    checkRange(array.length, fromIndex, toIndex);
+    ParallelMergeSort.sort(array, fromIndex, toIndex, comparator);
+  }
+
+  public static void sort(int[] array) {
+    sort(array, 0, array.length);
+  }
+
+  /**
+   * Sorts the range of the array into ascending order.  Ranges of 4096
+   * values or more are radix sorted in O(n) with a buffer of the same
+   * length; shorter ones with a dual-pivot quicksort in place.
+   */
+  public static void sort(int[] array, int fromIndex, int toIndex) {
+    checkRange(array.length, fromIndex, toIndex);
+    if (toIndex - fromIndex >= RadixSort.MIN_RADIX_SORT) {
+      RadixSort.sort(array, fromIndex, toIndex);
+    } else {
+      DualPivotQuicksort.sort(array, fromIndex, toIndex);
     }
-    for (int i = fromIndex; i < toIndex; i++) {
-      T minItem = null;
-      int minIndex = -1;
-      for (int j = i; j < toIndex; j++) {
-        T item = array[j];
-        if (minItem == null || c.compare(minItem, item) > 0) {
-          minIndex = j;
-          minItem = item;
-        }
-      }
-      swap(array, i, minIndex);
+  }
+
+  public static void sort(long[] array) {
+    sort(array, 0, array.length);
+  }
+
+  /**
+   * Sorts the range of the array into ascending order.  Ranges of 4096
+   * values or more are radix sorted in O(n) with a buffer of the same
+   * length; shorter ones with a dual-pivot quicksort in place.
+   */
+  public static void sort(long[] array, int fromIndex, int toIndex) {
+    checkRange(array.length, fromIndex, toIndex);
+    if (toIndex - fromIndex >= RadixSort.MIN_RADIX_SORT) {
+      RadixSort.sort(array, fromIndex, toIndex);
+    } else {
+      DualPivotQuicksort.sort(array, fromIndex, toIndex);
     }
   }
 
-  private  static void swap(Object[] array, int i, int j) {
-    if (i == j) {
-      return;
+  public static void sort(double[] array) {
+    sort(array, 0, array.length);
+  }
+
+  /**
+   * Sorts the range of the array into ascending order with a dual-pivot
+   * quicksort.  Values are ordered as by {@link Double#compare}, so
+   * {@code -0.0} sorts before {@code 0.0} and {@code NaN} sorts last.
+   */
+  public static void sort(double[] array, int fromIndex, int toIndex) {
+    checkRange(array.length, fromIndex, toIndex);
+    DualPivotQuicksort.sort(array, fromIndex, toIndex);
+  }
+
+  /**
+   * Returns the permutation that sorts the keys, without moving them:
+   * {@code keys[result[0]]} is the smallest key, {@code keys[result[1]]}
+   * the next, and so on.  Equal keys keep their relative order, so the
+   * permutation can be used to sort other arrays that run alongside the
+   * keys.
+   */
+  public static int[] sortIndices(long[] keys) {
+    return RadixSort.sortIndices(keys);
+  }
+
+  private static void checkRange(int length, int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > length) {
+      throw new IndexOutOfBoundsException(
+          "fromIndex: " + fromIndex + " toIndex: " + toIndex + " length: " + length);
+    }
+    if (fromIndex > toIndex) {
+      throw new IllegalArgumentException("fromIndex: " + fromIndex + " > toIndex: " + toIndex);
     }
-    Object o = array[i];
-    array[i] = array[j];
-    array[j] = o;
   }
 
   /**
@@ -0,0 +1,520 @@
+package com.hopkins.collections;
+
+import java.util.Objects;
+
+/**
+ * A sorted {@link Map} implemented with a B+tree.
+ * <p>Each node packs up to {@code nodeCapacity} keys into an array, so a
+ * lookup touches one node per level of a shallow tree and binary searches
+ * within it, rather than following a pointer per comparison.  All entries
+ * live in the leaves, which are linked to their right sibling so that an
+ * in-order scan walks the leaves without climbing back up the tree.
+ * <p>Every node except the root holds at least half of {@code nodeCapacity}
+ * keys.  Inserting into a full node splits it and removing from a node that
+ * drops below half full borrows a key from, or merges with, a sibling, so
+ * lookups, insertions and removals all take O(log n).
+ */
+public class BTreeMap<K, V> implements Map<K, V> {
+  private static final int DEFAULT_NODE_CAPACITY = 32;
+  private static final int MIN_NODE_CAPACITY = 3;
+
+  private final Comparator<? super K> comparator;
+  private final int maxKeys;
+  private final int minKeys;
+  private final MapEntryIteratorFactory<K, V> iteratorFactory = new MapEntryIteratorFactory<K, V>() {
+    @Override
+    public Iterator<Entry<K, V>> newIterator() {
+      return new BTreeMapEntryIterator<>(BTreeMap.this);
+    }
+  };
+
+  private Node root;
+  private int size;
+
+  /**
+   * The separator key pushed up by the last split.  Set by
+   * {@link #insert} together with the new right-hand node it returns.
+   */
+  private Object splitKey;
+
+  /**
+   * Create a new, empty BTreeMap ordered by the natural order of its keys
+   * with the default node capacity (32).
+   */
+  public BTreeMap() {
+    this((Comparator<K>) Comparator.naturalOrder(), DEFAULT_NODE_CAPACITY);
+  }
+
+  /**
+   * Create a new, empty BTreeMap ordered by the specified comparator with
+   * the default node capacity (32).
+   */
+  public BTreeMap(Comparator<? super K> comparator) {
+    this(comparator, DEFAULT_NODE_CAPACITY);
+  }
+
+  /**
+   * Create a new, empty BTreeMap ordered by the specified comparator whose
+   * nodes hold up to {@code nodeCapacity} keys.
+   */
+  public BTreeMap(Comparator<? super K> comparator, int nodeCapacity) {
+    if (comparator == null) {
+      throw new NullPointerException();
+    }
+    if (nodeCapacity < MIN_NODE_CAPACITY) {
+      throw new IllegalArgumentException("nodeCapacity: " + nodeCapacity);
+    }
+    this.comparator = comparator;
+    this.maxKeys = nodeCapacity;
+    this.minKeys = nodeCapacity / 2;
+    this.root = new LeafNode(maxKeys);
+  }
+
+  /**
+   * Create a new BTreeMap with contents from the specified {@link Map},
+   * ordered by the natural order of its keys.
+   */
+  public BTreeMap(Map<? extends K, ? extends V> map) {
+    this();
+    putAll(map);
+  }
+
+  @Override
+  public void clear() {
+    root = new LeafNode(maxKeys);
+    size = 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    LeafNode leaf = findLeaf((K) key);
+    return indexOf(leaf, (K) key) >= 0;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    for (LeafNode leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+      for (int i = 0; i < leaf.count; i++) {
+        if (Objects.equals(leaf.values[i], value)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new MapEntrySet<>(this, iteratorFactory);
+  }
+
+  /**
+   * Returns the smallest key in the map.
+   */
+  public K firstKey() {
+    LeafNode leaf = firstLeaf();
+    if (leaf.count == 0) {
+      throw new NoSuchElementException();
+    }
+    return (K) leaf.keys[0];
+  }
+
+  /**
+   * Returns the largest key in the map.
+   */
+  public K lastKey() {
+    Node node = root;
+    while (node instanceof InnerNode) {
+      node = ((InnerNode) node).children[node.count];
+    }
+    if (node.count == 0) {
+      throw new NoSuchElementException();
+    }
+    return (K) node.keys[node.count - 1];
+  }
+
+  @Override
+  public V get(Object key) {
+    LeafNode leaf = findLeaf((K) key);
+    int index = indexOf(leaf, (K) key);
+    return index < 0 ? null : (V) leaf.values[index];
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new MapKeySet<>(this, iteratorFactory);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    LeafNode leaf = findLeaf(key);
+    int index = indexOf(leaf, key);
+    if (index >= 0) {
+      // Replace an existing value without touching the structure
+      V oldValue = (V) leaf.values[index];
+      leaf.values[index] = value;
+      return oldValue;
+    }
+    Node sibling = insert(root, key, value);
+    if (sibling != null) {
+      // The root was split, grow the tree by one level
+      InnerNode newRoot = new InnerNode(maxKeys);
+      newRoot.keys[0] = splitKey;
+      newRoot.children[0] = root;
+      newRoot.children[1] = sibling;
+      newRoot.count = 1;
+      root = newRoot;
+    }
+    splitKey = null;
+    size++;
+    return null;
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> map) {
+    Iterator<?> iter = map.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<K, V> entry = (Map.Entry<K, V>) iter.next();
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public V remove(Object key) {
+    LeafNode leaf = findLeaf((K) key);
+    int index = indexOf(leaf, (K) key);
+    if (index < 0) {
+      return null;
+    }
+    V oldValue = (V) leaf.values[index];
+    delete(root, (K) key);
+    if (root instanceof InnerNode && root.count == 0) {
+      // The root lost its last separator, shrink the tree by one level
+      root = ((InnerNode) root).children[0];
+    }
+    size--;
+    return oldValue;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new MapValueCollection<>(this, iteratorFactory);
+  }
+
+  /**
+   * Returns the height of the tree, counting the leaves as one level.
+   */
+  int height() {
+    int height = 1;
+    for (Node node = root; node instanceof InnerNode; node = ((InnerNode) node).children[0]) {
+      height++;
+    }
+    return height;
+  }
+
+  /**
+   * Returns the leftmost leaf of the tree.
+   */
+  LeafNode firstLeaf() {
+    Node node = root;
+    while (node instanceof InnerNode) {
+      node = ((InnerNode) node).children[0];
+    }
+    return (LeafNode) node;
+  }
+
+  /**
+   * Returns the leaf that holds, or would hold, the specified key.
+   */
+  LeafNode findLeaf(K key) {
+    Node node = root;
+    while (node instanceof InnerNode) {
+      node = ((InnerNode) node).children[childIndex(node, key)];
+    }
+    return (LeafNode) node;
+  }
+
+  /**
+   * Returns the index of the specified key in the leaf, or a negative value
+   * {@code -(insertionPoint + 1)} if it is not there.
+   */
+  int indexOf(LeafNode leaf, K key) {
+    return search(leaf, key);
+  }
+
+  /**
+   * Binary searches the keys of a node.  Returns the index of the key if it
+   * is present, otherwise {@code -(insertionPoint + 1)}.
+   */
+  private int search(Node node, K key) {
+    int low = 0;
+    int high = node.count - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int order = comparator.compare((K) node.keys[middle], key);
+      if (order < 0) {
+        low = middle + 1;
+      } else if (order > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * Returns the index of the child of an inner node whose subtree covers the
+   * specified key.  Keys equal to a separator belong to the right of it.
+   */
+  private int childIndex(Node node, K key) {
+    int index = search(node, key);
+    return index >= 0 ? index + 1 : -(index + 1);
+  }
+
+  /**
+   * Inserts a key that is not yet in the subtree.  If the node had to be
+   * split, returns the new right-hand node and leaves the separator between
+   * the two in {@link #splitKey}, otherwise returns {@code null}.
+   */
+  private Node insert(Node node, K key, V value) {
+    if (node instanceof LeafNode) {
+      LeafNode leaf = (LeafNode) node;
+      int index = -(search(leaf, key) + 1);
+      leaf.insert(index, key, value);
+      return leaf.count > maxKeys ? splitLeaf(leaf) : null;
+    }
+    InnerNode inner = (InnerNode) node;
+    int index = childIndex(inner, key);
+    Node sibling = insert(inner.children[index], key, value);
+    if (sibling == null) {
+      return null;
+    }
+    inner.insert(index, splitKey, sibling);
+    return inner.count > maxKeys ? splitInner(inner) : null;
+  }
+
+  private LeafNode splitLeaf(LeafNode leaf) {
+    LeafNode right = new LeafNode(maxKeys);
+    int leftCount = leaf.count / 2;
+    int rightCount = leaf.count - leftCount;
+    System.arraycopy(leaf.keys, leftCount, right.keys, 0, rightCount);
+    System.arraycopy(leaf.values, leftCount, right.values, 0, rightCount);
+    Arrays.fill(leaf.keys, leftCount, leaf.count, null);
+    Arrays.fill(leaf.values, leftCount, leaf.count, null);
+    leaf.count = leftCount;
+    right.count = rightCount;
+    right.next = leaf.next;
+    leaf.next = right;
+    splitKey = right.keys[0];
+    return right;
+  }
+
+  private InnerNode splitInner(InnerNode inner) {
+    InnerNode right = new InnerNode(maxKeys);
+    int middle = inner.count / 2;
+    int rightCount = inner.count - middle - 1;
+    splitKey = inner.keys[middle];
+    System.arraycopy(inner.keys, middle + 1, right.keys, 0, rightCount);
+    System.arraycopy(inner.children, middle + 1, right.children, 0, rightCount + 1);
+    Arrays.fill(inner.keys, middle, inner.count, null);
+    Arrays.fill(inner.children, middle + 1, inner.count + 1, null);
+    inner.count = middle;
+    right.count = rightCount;
+    return right;
+  }
+
+  /**
+   * Removes a key that is known to be in the subtree, then restores the
+   * minimum occupancy of the child it was removed from.
+   */
+  private void delete(Node node, K key) {
+    if (node instanceof LeafNode) {
+      LeafNode leaf = (LeafNode) node;
+      leaf.remove(search(leaf, key));
+      return;
+    }
+    InnerNode inner = (InnerNode) node;
+    int index = childIndex(inner, key);
+    Node child = inner.children[index];
+    delete(child, key);
+    if (child.count < minKeys) {
+      rebalance(inner, index);
+    }
+  }
+
+  /**
+   * Fixes up the underfull child at {@code index} of {@code parent} by
+   * borrowing a key from a sibling that can spare one, or else by merging it
+   * with a sibling.
+   */
+  private void rebalance(InnerNode parent, int index) {
+    Node child = parent.children[index];
+    Node left = index > 0 ? parent.children[index - 1] : null;
+    Node right = index < parent.count ? parent.children[index + 1] : null;
+    if (left != null && left.count > minKeys) {
+      borrowFromLeft(parent, index, left, child);
+    } else if (right != null && right.count > minKeys) {
+      borrowFromRight(parent, index, child, right);
+    } else if (left != null) {
+      merge(parent, index - 1, left, child);
+    } else {
+      merge(parent, index, child, right);
+    }
+  }
+
+  private void borrowFromLeft(InnerNode parent, int index, Node left, Node child) {
+    if (child instanceof LeafNode) {
+      LeafNode leftLeaf = (LeafNode) left;
+      int last = leftLeaf.count - 1;
+      ((LeafNode) child).insert(0, leftLeaf.keys[last], leftLeaf.values[last]);
+      leftLeaf.remove(last);
+      parent.keys[index - 1] = child.keys[0];
+    } else {
+      // Rotate through the parent: the separator moves down into the child
+      // and the last key of the left sibling moves up to replace it
+      InnerNode leftInner = (InnerNode) left;
+      InnerNode childInner = (InnerNode) child;
+      System.arraycopy(childInner.keys, 0, childInner.keys, 1, childInner.count);
+      System.arraycopy(childInner.children, 0, childInner.children, 1, childInner.count + 1);
+      childInner.keys[0] = parent.keys[index - 1];
+      childInner.children[0] = leftInner.children[leftInner.count];
+      childInner.count++;
+      parent.keys[index - 1] = leftInner.keys[leftInner.count - 1];
+      leftInner.keys[leftInner.count - 1] = null;
+      leftInner.children[leftInner.count] = null;
+      leftInner.count--;
+    }
+  }
+
+  private void borrowFromRight(InnerNode parent, int index, Node child, Node right) {
+    if (child instanceof LeafNode) {
+      LeafNode rightLeaf = (LeafNode) right;
+      ((LeafNode) child).insert(child.count, rightLeaf.keys[0], rightLeaf.values[0]);
+      rightLeaf.remove(0);
+      parent.keys[index] = rightLeaf.keys[0];
+    } else {
+      InnerNode childInner = (InnerNode) child;
+      InnerNode rightInner = (InnerNode) right;
+      childInner.keys[childInner.count] = parent.keys[index];
+      childInner.children[childInner.count + 1] = rightInner.children[0];
+      childInner.count++;
+      parent.keys[index] = rightInner.keys[0];
+      System.arraycopy(rightInner.keys, 1, rightInner.keys, 0, rightInner.count - 1);
+      System.arraycopy(rightInner.children, 1, rightInner.children, 0, rightInner.count);
+      rightInner.keys[rightInner.count - 1] = null;
+      rightInner.children[rightInner.count] = null;
+      rightInner.count--;
+    }
+  }
+
+  /**
+   * Merges the child at {@code separatorIndex + 1} into the child at
+   * {@code separatorIndex} and removes the separator between them from the
+   * parent.
+   */
+  private void merge(InnerNode parent, int separatorIndex, Node left, Node right) {
+    if (left instanceof LeafNode) {
+      LeafNode leftLeaf = (LeafNode) left;
+      LeafNode rightLeaf = (LeafNode) right;
+      System.arraycopy(rightLeaf.keys, 0, leftLeaf.keys, leftLeaf.count, rightLeaf.count);
+      System.arraycopy(rightLeaf.values, 0, leftLeaf.values, leftLeaf.count, rightLeaf.count);
+      leftLeaf.count += rightLeaf.count;
+      leftLeaf.next = rightLeaf.next;
+    } else {
+      InnerNode leftInner = (InnerNode) left;
+      InnerNode rightInner = (InnerNode) right;
+      leftInner.keys[leftInner.count] = parent.keys[separatorIndex];
+      System.arraycopy(rightInner.keys, 0, leftInner.keys, leftInner.count + 1, rightInner.count);
+      System.arraycopy(
+          rightInner.children, 0, leftInner.children, leftInner.count + 1, rightInner.count + 1);
+      leftInner.count += rightInner.count + 1;
+    }
+    parent.remove(separatorIndex);
+  }
+
+  /**
+   * A node of the tree.  Inner nodes and leaves both keep their keys sorted
+   * in the first {@link #count} slots of {@link #keys}.
+   */
+  abstract static class Node {
+    final Object[] keys;
+    int count;
+
+    Node(int maxKeys) {
+      // One extra slot lets a node overflow briefly before it is split
+      this.keys = new Object[maxKeys + 1];
+    }
+  }
+
+  static final class InnerNode extends Node {
+    final Node[] children;
+
+    InnerNode(int maxKeys) {
+      super(maxKeys);
+      this.children = new Node[maxKeys + 2];
+    }
+
+    /**
+     * Inserts a separator and the child to its right after the child at
+     * {@code index}.
+     */
+    void insert(int index, Object key, Node child) {
+      System.arraycopy(keys, index, keys, index + 1, count - index);
+      System.arraycopy(children, index + 1, children, index + 2, count - index);
+      keys[index] = key;
+      children[index + 1] = child;
+      count++;
+    }
+
+    /**
+     * Removes the separator at {@code index} and the child to its right.
+     */
+    void remove(int index) {
+      System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+      System.arraycopy(children, index + 2, children, index + 1, count - index - 1);
+      keys[count - 1] = null;
+      children[count] = null;
+      count--;
+    }
+  }
+
+  static final class LeafNode extends Node {
+    final Object[] values;
+    LeafNode next;
+
+    LeafNode(int maxKeys) {
+      super(maxKeys);
+      this.values = new Object[maxKeys + 1];
+    }
+
+    void insert(int index, Object key, Object value) {
+      System.arraycopy(keys, index, keys, index + 1, count - index);
+      System.arraycopy(values, index, values, index + 1, count - index);
+      keys[index] = key;
+      values[index] = value;
+      count++;
+    }
+
+    void remove(int index) {
+      System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+      System.arraycopy(values, index + 1, values, index, count - index - 1);
+      count--;
+      keys[count] = null;
+      values[count] = null;
+    }
+  }
+}
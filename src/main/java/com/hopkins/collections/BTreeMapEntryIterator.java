@@ -0,0 +1,98 @@
+package com.hopkins.collections;
+
+import com.hopkins.collections.BTreeMap.LeafNode;
+
+/**
+ * An {@link Iterator} over the entries in a {@link BTreeMap}, in key order.
+ * <p>The iterator walks the linked list of leaves.  Removing an entry may
+ * merge or rebalance leaves, so after a removal the iterator finds its
+ * place again by looking up the key it was about to return.
+ */
+final class BTreeMapEntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+  private final BTreeMap<K, V> map;
+  private LeafNode leaf;
+  private int index;
+  private boolean canRemove = false;
+  private K keyToRemove = null;
+
+  BTreeMapEntryIterator(BTreeMap<K, V> map) {
+    this.map = map;
+    this.leaf = map.firstLeaf();
+    this.index = 0;
+    skipEmptyLeaves();
+  }
+
+  private void skipEmptyLeaves() {
+    while (leaf != null && index >= leaf.count) {
+      leaf = leaf.next;
+      index = 0;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return leaf != null;
+  }
+
+  @Override
+  public Map.Entry<K, V> next() {
+    if (leaf == null) {
+      throw new NoSuchElementException();
+    }
+    K key = (K) leaf.keys[index];
+    V value = (V) leaf.values[index];
+    index++;
+    skipEmptyLeaves();
+    keyToRemove = key;
+    canRemove = true;
+    return new BTreeMapEntry<>(map, key, value);
+  }
+
+  @Override
+  public void remove() {
+    if (!canRemove) {
+      throw new NoSuchElementException();
+    }
+    K nextKey = leaf == null ? null : (K) leaf.keys[index];
+    map.remove(keyToRemove);
+    if (nextKey != null) {
+      leaf = map.findLeaf(nextKey);
+      index = map.indexOf(leaf, nextKey);
+    }
+    keyToRemove = null;
+    canRemove = false;
+  }
+
+  /**
+   * A snapshot of an entry.  Setting its value writes through to the map.
+   */
+  static final class BTreeMapEntry<K, V> implements Map.Entry<K, V> {
+    private final BTreeMap<K, V> map;
+    private final K key;
+    private V value;
+
+    BTreeMapEntry(BTreeMap<K, V> map, K key, V value) {
+      this.map = map;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      V oldValue = this.value;
+      this.value = value;
+      map.put(key, value);
+      return oldValue;
+    }
+  }
+}
@@ -210,56 +210,52 @@ public final class Collections {
 
   /**
    * Sort the specified {@link List}, ordering items using the specified
-   * {@link Comparator}.
+   * {@link Comparator}.  The sort is stable.
+   * <p>An {@link ArrayList} or a list from {@link Arrays#asList} is sorted
+   * in place in its backing array.  Any other list is copied to an array,
+   * sorted and written back in order through a {@link ListIterator}, so the
+   * sort takes O(n log n) however slow the list is to index.
    */
   public static <T> void sort(List<T> list, Comparator<? super T> c) {
-    quickSort(list, 0, list.size(), c);
+    if (list instanceof ArrayList) {
+      ((ArrayList<T>) list).sort(c);
+    } else if (list instanceof FixedSizeList) {
+      ((FixedSizeList<T>) list).sort(c);
+    } else {
+      T[] items = (T[]) list.toArray();
+      Arrays.sort(items, c);
+      writeBack(list, items);
+    }
   }
 
-  private static <T> void quickSort(List<T> list, int fromIndex, int toIndex, Comparator<? super T> c) {
-    int size = toIndex - fromIndex;
-    if (size < 2) {
-      // Lists of size 0/1 are sorted by definition
-      return;
-    }
-    if (size < 10) {
-      // Use selection sort for small lists
-      selectionSort(list, fromIndex, toIndex, c);
-      return;
-    }
-    int pivotIndex = fromIndex + (int) Math.floor(Math.random() * size);
-    T pivot = list.get(pivotIndex);
-    int minListEndIndex = fromIndex;
-    swap(list, pivotIndex, fromIndex);
-    for (int i = fromIndex + 1; i < toIndex; i++) {
-      T item = list.get(i);
-      if (c.compare(pivot, item) > 0) {
-        minListEndIndex++;
-        swap(list, minListEndIndex, i);
-      }
-    }
-    swap(list, fromIndex, minListEndIndex);
-    quickSort(list, fromIndex, minListEndIndex, c);
-    quickSort(list, minListEndIndex + 1, toIndex, c);
+  /**
+   * Sort the specified {@link List} according to the ordering of the items,
+   * using several threads for large lists.
+   * <p>Note: the items must implement {@link Comparable}.
+   */
+  public static <T extends Comparable<? super T>> void parallelSort(List<T> list) {
+    parallelSort(list, Comparator.NATURAL_ORDER);
   }
 
-  static <T> void selectionSort(List<T> list, int fromIndex, int toIndex, Comparator<? super T> c) {
-    int size = toIndex - fromIndex;
-    if (size < 2) {
-      // Lists of size 0/1 are sorted by definition
-      return;
-    }
-    for (int i = fromIndex; i < toIndex; i++) {
-      T minItem = null;
-      int minIndex = -1;
-      for (int j = i; j < toIndex; j++) {
-        T item = list.get(j);
-        if (minItem == null || c.compare(minItem, item) > 0) {
-          minIndex = j;
-          minItem = item;
-        }
-      }
-      swap(list, i, minIndex);
+  /**
+   * Sort the specified {@link List}, ordering items using the specified
+   * {@link Comparator}.  The items are copied to an array, sorted with
+   * {@link Arrays#parallelSort} and written back in order.
+   */
+  public static <T> void parallelSort(List<T> list, Comparator<? super T> c) {
+    T[] items = (T[]) list.toArray();
+    Arrays.parallelSort(items, c);
+    writeBack(list, items);
+  }
+
+  /**
+   * Replaces the items of the list, in order, with the items of the array.
+   */
+  private static <T> void writeBack(List<T> list, T[] items) {
+    ListIterator<T> iter = list.listIterator();
+    for (int i = 0; i < items.length; i++) {
+      iter.next();
+      iter.set(items[i]);
     }
   }
 
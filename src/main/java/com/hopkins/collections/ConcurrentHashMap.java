@@ -0,0 +1,838 @@
+package com.hopkins.collections;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * A thread-safe {@link Map} that is backed by a hash table.
+ * <p>Reads never lock: they walk bucket chains whose links and values are
+ * published through volatile writes.  Writes to an empty bucket install the
+ * first node with a compare-and-set, and writes to a non-empty bucket lock
+ * the first node of that bucket, so threads only contend when they update the
+ * same bucket.
+ * <p>The table is doubled once it is three quarters full.  The thread that
+ * starts a resize and any thread that runs into a bucket that has already
+ * been moved share the work: each claims a range of buckets, moves them to
+ * the new table and leaves a {@link ForwardingNode} behind so that readers
+ * follow the entries to the new table.
+ * <p>{@link #putIfAbsent}, {@link #computeIfAbsent} and {@link #merge} are
+ * atomic.  Iterators are weakly consistent: they never throw because of
+ * concurrent updates and reflect some, but not necessarily all, changes made
+ * after they were created.  Neither keys nor values may be {@code null}.
+ */
+public class ConcurrentHashMap<K, V> implements Map<K, V> {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+  private static final int MIN_TRANSFER_STRIDE = 16;
+  private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+  /*
+   * While a resize is in progress sizeCtl holds a stamp identifying the
+   * table length being resized in its upper bits and the number of threads
+   * taking part (plus one) in its lower bits.
+   */
+  private static final int RESIZE_STAMP_BITS = 16;
+  private static final int RESIZE_STAMP_SHIFT = 32 - RESIZE_STAMP_BITS;
+  private static final int MAX_RESIZERS = (1 << (32 - RESIZE_STAMP_BITS)) - 1;
+
+  /*
+   * Hash codes of special nodes.  Hash codes of ordinary nodes are never
+   * negative.
+   */
+  static final int MOVED = -1;
+  static final int RESERVED = -2;
+  private static final int HASH_BITS = 0x7fffffff;
+
+  private final MapEntryIteratorFactory<K, V> iteratorFactory = new MapEntryIteratorFactory<K, V>() {
+    @Override
+    public Iterator<Map.Entry<K, V>> newIterator() {
+      return new ConcurrentHashMapEntryIterator<>(ConcurrentHashMap.this, table);
+    }
+  };
+
+  private final LongAdder count = new LongAdder();
+
+  /**
+   * Table initialization and resizing control.  Negative while the table is
+   * being initialized (-1) or resized (see {@link #RESIZE_STAMP_SHIFT}),
+   * otherwise the initial table size to use, or the element count at which
+   * to resize next.
+   */
+  private final AtomicInteger sizeCtl;
+
+  /**
+   * The next bucket index (plus one) of the old table to hand out to a
+   * thread helping with a resize.
+   */
+  private final AtomicInteger transferIndex = new AtomicInteger();
+
+  private volatile AtomicReferenceArray<Node<K, V>> table;
+  private volatile AtomicReferenceArray<Node<K, V>> nextTable;
+
+  /**
+   * Create a new, empty ConcurrentHashMap with the default initial capacity.
+   */
+  public ConcurrentHashMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create a new, empty ConcurrentHashMap able to hold the specified number
+   * of entries without resizing.
+   */
+  public ConcurrentHashMap(int initialCapacity) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("initialCapacity: " + initialCapacity);
+    }
+    this.sizeCtl = new AtomicInteger(tableSizeFor(initialCapacity + (initialCapacity >>> 1) + 1));
+  }
+
+  /**
+   * Create a new ConcurrentHashMap with contents from the specified
+   * {@link Map}.
+   */
+  public ConcurrentHashMap(Map<? extends K, ? extends V> m) {
+    this(m.size());
+    putAll(m);
+  }
+
+  /**
+   * Returns the capacity of the underlying table.
+   */
+  int capacity() {
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    return tab == null ? 0 : tab.length();
+  }
+
+  @Override
+  public void clear() {
+    long delta = 0;
+    int i = 0;
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    while (tab != null && i < tab.length()) {
+      Node<K, V> f = tab.get(i);
+      if (f == null) {
+        i++;
+      } else if (f.hash == MOVED) {
+        tab = helpTransfer(tab, f);
+        i = 0;
+      } else {
+        synchronized (f) {
+          if (tab.get(i) == f) {
+            for (Node<K, V> e = f.hash >= 0 ? f : null; e != null; e = e.next) {
+              delta--;
+            }
+            tab.set(i++, null);
+          }
+        }
+      }
+    }
+    if (delta != 0) {
+      addCount(delta, -1);
+    }
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    ConcurrentHashMapEntryIterator<K, V> iter = new ConcurrentHashMapEntryIterator<>(this, table);
+    while (iter.hasNext()) {
+      if (value.equals(iter.next().getValue())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new EntrySetView<>(this, iteratorFactory);
+  }
+
+  @Override
+  public V get(Object key) {
+    int hash = spread(key.hashCode());
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    if (tab == null) {
+      return null;
+    }
+    Node<K, V> e = tab.get((tab.length() - 1) & hash);
+    if (e == null) {
+      return null;
+    }
+    if (e.hash < 0) {
+      Node<K, V> found = e.find(hash, key);
+      return found == null ? null : found.value;
+    }
+    for (; e != null; e = e.next) {
+      if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+        return e.value;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return count.sum() <= 0L;
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new KeySetView<>(this, iteratorFactory);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    return putValue(key, value, false /* onlyIfAbsent */);
+  }
+
+  @Override
+  public V putIfAbsent(K key, V value) {
+    return putValue(key, value, true /* onlyIfAbsent */);
+  }
+
+  private V putValue(K key, V value, boolean onlyIfAbsent) {
+    if (key == null || value == null) {
+      throw new NullPointerException();
+    }
+    int hash = spread(key.hashCode());
+    int binCount = 0;
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    while (true) {
+      Node<K, V> f;
+      int i;
+      if (tab == null) {
+        tab = initTable();
+      } else if ((f = tab.get(i = (tab.length() - 1) & hash)) == null) {
+        if (tab.compareAndSet(i, null, new Node<>(hash, key, value))) {
+          break;
+        }
+      } else if (f.hash == MOVED) {
+        tab = helpTransfer(tab, f);
+      } else {
+        V oldValue = null;
+        synchronized (f) {
+          if (tab.get(i) == f && isChain(f)) {
+            binCount = 1;
+            for (Node<K, V> e = f; ; binCount++) {
+              if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                oldValue = e.value;
+                if (!onlyIfAbsent) {
+                  e.value = value;
+                }
+                break;
+              }
+              if (e.next == null) {
+                e.next = new Node<>(hash, key, value);
+                break;
+              }
+              e = e.next;
+            }
+          }
+        }
+        if (binCount != 0) {
+          if (oldValue != null) {
+            return oldValue;
+          }
+          break;
+        }
+      }
+    }
+    addCount(1L, binCount);
+    return null;
+  }
+
+  /**
+   * Returns the value for the specified key, first computing and storing it
+   * with the mapping function if the key is absent.  The whole operation is
+   * atomic, so the function is called at most once per absent key; other
+   * updates to the same bucket wait until it returns.
+   */
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    if (key == null || mappingFunction == null) {
+      throw new NullPointerException();
+    }
+    int hash = spread(key.hashCode());
+    V value = null;
+    int binCount = 0;
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    while (true) {
+      Node<K, V> f;
+      int i;
+      if (tab == null) {
+        tab = initTable();
+      } else if ((f = tab.get(i = (tab.length() - 1) & hash)) == null) {
+        // Reserve the empty bucket while the value is computed
+        Node<K, V> reservation = new ReservationNode<>();
+        synchronized (reservation) {
+          if (tab.compareAndSet(i, null, reservation)) {
+            binCount = 1;
+            Node<K, V> node = null;
+            try {
+              value = mappingFunction.apply(key);
+              if (value != null) {
+                node = new Node<>(hash, key, value);
+              }
+            } finally {
+              tab.set(i, node);
+            }
+          }
+        }
+        if (binCount != 0) {
+          break;
+        }
+      } else if (f.hash == MOVED) {
+        tab = helpTransfer(tab, f);
+      } else {
+        boolean added = false;
+        synchronized (f) {
+          if (tab.get(i) == f && isChain(f)) {
+            binCount = 1;
+            for (Node<K, V> e = f; ; binCount++) {
+              if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                value = e.value;
+                break;
+              }
+              if (e.next == null) {
+                value = mappingFunction.apply(key);
+                if (value != null) {
+                  e.next = new Node<>(hash, key, value);
+                  added = true;
+                }
+                break;
+              }
+              e = e.next;
+            }
+          }
+        }
+        if (binCount != 0) {
+          if (!added) {
+            return value;
+          }
+          break;
+        }
+      }
+    }
+    if (value != null) {
+      addCount(1L, binCount);
+    }
+    return value;
+  }
+
+  /**
+   * Atomically associates the specified value with the key if it is absent,
+   * otherwise replaces the existing value with the result of the remapping
+   * function, removing the entry if the result is {@code null}.
+   */
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    if (key == null || value == null || remappingFunction == null) {
+      throw new NullPointerException();
+    }
+    int hash = spread(key.hashCode());
+    V newValue = null;
+    int delta = 0;
+    int binCount = 0;
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    while (true) {
+      Node<K, V> f;
+      int i;
+      if (tab == null) {
+        tab = initTable();
+      } else if ((f = tab.get(i = (tab.length() - 1) & hash)) == null) {
+        if (tab.compareAndSet(i, null, new Node<>(hash, key, value))) {
+          delta = 1;
+          newValue = value;
+          break;
+        }
+      } else if (f.hash == MOVED) {
+        tab = helpTransfer(tab, f);
+      } else {
+        synchronized (f) {
+          if (tab.get(i) == f && isChain(f)) {
+            binCount = 1;
+            for (Node<K, V> e = f, pred = null; ; binCount++) {
+              if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                newValue = remappingFunction.apply(e.value, value);
+                if (newValue != null) {
+                  e.value = newValue;
+                } else {
+                  delta = -1;
+                  Node<K, V> next = e.next;
+                  if (pred != null) {
+                    pred.next = next;
+                  } else {
+                    tab.set(i, next);
+                  }
+                }
+                break;
+              }
+              pred = e;
+              if ((e = e.next) == null) {
+                delta = 1;
+                newValue = value;
+                pred.next = new Node<>(hash, key, value);
+                break;
+              }
+            }
+          }
+        }
+        if (binCount != 0) {
+          break;
+        }
+      }
+    }
+    if (delta != 0) {
+      addCount(delta, binCount);
+    }
+    return newValue;
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> map) {
+    Iterator<?> iter = map.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<K, V> entry = (Map.Entry<K, V>) iter.next();
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public V remove(Object key) {
+    int hash = spread(key.hashCode());
+    AtomicReferenceArray<Node<K, V>> tab = table;
+    while (true) {
+      Node<K, V> f;
+      int i;
+      if (tab == null || (f = tab.get(i = (tab.length() - 1) & hash)) == null) {
+        return null;
+      } else if (f.hash == MOVED) {
+        tab = helpTransfer(tab, f);
+      } else {
+        V oldValue = null;
+        boolean validated = false;
+        synchronized (f) {
+          if (tab.get(i) == f && isChain(f)) {
+            validated = true;
+            for (Node<K, V> e = f, pred = null; e != null; pred = e, e = e.next) {
+              if (e.hash == hash && (e.key == key || key.equals(e.key))) {
+                oldValue = e.value;
+                if (pred != null) {
+                  pred.next = e.next;
+                } else {
+                  tab.set(i, e.next);
+                }
+                break;
+              }
+            }
+          }
+        }
+        if (validated) {
+          if (oldValue != null) {
+            addCount(-1L, -1);
+          }
+          return oldValue;
+        }
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    long n = count.sum();
+    return n < 0L ? 0 : n > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n;
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new ValuesView<>(this, iteratorFactory);
+  }
+
+  private AtomicReferenceArray<Node<K, V>> initTable() {
+    AtomicReferenceArray<Node<K, V>> tab;
+    while ((tab = table) == null) {
+      int sc = sizeCtl.get();
+      if (sc < 0) {
+        // Another thread is initializing the table
+        Thread.yield();
+      } else if (sizeCtl.compareAndSet(sc, -1)) {
+        try {
+          if ((tab = table) == null) {
+            int n = sc > 0 ? sc : DEFAULT_CAPACITY;
+            tab = new AtomicReferenceArray<>(n);
+            table = tab;
+            sc = n - (n >>> 2);
+          }
+        } finally {
+          sizeCtl.set(sc);
+        }
+        break;
+      }
+    }
+    return tab;
+  }
+
+  /**
+   * Adds to the element count and, if {@code check} is not negative, starts
+   * or joins a resize once the count reaches the threshold.
+   */
+  private void addCount(long delta, int check) {
+    count.add(delta);
+    if (check < 0) {
+      return;
+    }
+    long s = count.sum();
+    AtomicReferenceArray<Node<K, V>> tab;
+    AtomicReferenceArray<Node<K, V>> nextTab;
+    int sc;
+    while (s >= (long) (sc = sizeCtl.get()) && (tab = table) != null
+        && tab.length() < MAXIMUM_CAPACITY) {
+      int rs = resizeStamp(tab.length()) << RESIZE_STAMP_SHIFT;
+      if (sc < 0) {
+        if (sc == rs + MAX_RESIZERS || sc == rs + 1 || (nextTab = nextTable) == null
+            || transferIndex.get() <= 0) {
+          break;
+        }
+        if (sizeCtl.compareAndSet(sc, sc + 1)) {
+          transfer(tab, nextTab);
+        }
+      } else if (sizeCtl.compareAndSet(sc, rs + 2)) {
+        transfer(tab, null);
+      }
+      s = count.sum();
+    }
+  }
+
+  /**
+   * Helps with the resize that moved the specified bucket, then returns the
+   * table to retry the operation on.
+   */
+  private AtomicReferenceArray<Node<K, V>> helpTransfer(
+      AtomicReferenceArray<Node<K, V>> tab, Node<K, V> f) {
+    AtomicReferenceArray<Node<K, V>> nextTab = ((ForwardingNode<K, V>) f).nextTable;
+    int rs = resizeStamp(tab.length()) << RESIZE_STAMP_SHIFT;
+    int sc;
+    while (nextTab == nextTable && table == tab && (sc = sizeCtl.get()) < 0) {
+      if (sc == rs + MAX_RESIZERS || sc == rs + 1 || transferIndex.get() <= 0) {
+        break;
+      }
+      if (sizeCtl.compareAndSet(sc, sc + 1)) {
+        transfer(tab, nextTab);
+        break;
+      }
+    }
+    return nextTab;
+  }
+
+  /**
+   * Moves buckets of {@code tab} into {@code nextTab}, claiming ranges of
+   * buckets from {@link #transferIndex} until none are left.  The thread that
+   * starts a resize passes {@code null} for {@code nextTab}.
+   */
+  private void transfer(AtomicReferenceArray<Node<K, V>> tab, AtomicReferenceArray<Node<K, V>> nextTab) {
+    int n = tab.length();
+    int stride = NCPU > 1 ? (n >>> 3) / NCPU : n;
+    if (stride < MIN_TRANSFER_STRIDE) {
+      stride = MIN_TRANSFER_STRIDE;
+    }
+    if (nextTab == null) {
+      try {
+        nextTab = new AtomicReferenceArray<>(n << 1);
+      } catch (OutOfMemoryError e) {
+        sizeCtl.set(Integer.MAX_VALUE);
+        return;
+      }
+      nextTable = nextTab;
+      transferIndex.set(n);
+    }
+    int nextN = nextTab.length();
+    ForwardingNode<K, V> forward = new ForwardingNode<>(nextTab);
+    boolean advance = true;
+    boolean finishing = false;
+    int i = 0;
+    int bound = 0;
+    while (true) {
+      while (advance) {
+        int nextIndex;
+        int nextBound;
+        if (--i >= bound || finishing) {
+          advance = false;
+        } else if ((nextIndex = transferIndex.get()) <= 0) {
+          i = -1;
+          advance = false;
+        } else if (transferIndex.compareAndSet(
+            nextIndex, nextBound = nextIndex > stride ? nextIndex - stride : 0)) {
+          bound = nextBound;
+          i = nextIndex - 1;
+          advance = false;
+        }
+      }
+      if (i < 0 || i >= n || i + n >= nextN) {
+        if (finishing) {
+          nextTable = null;
+          table = nextTab;
+          sizeCtl.set((n << 1) - (n >>> 1));
+          return;
+        }
+        int sc = sizeCtl.get();
+        if (sizeCtl.compareAndSet(sc, sc - 1)) {
+          if (sc - 2 != resizeStamp(n) << RESIZE_STAMP_SHIFT) {
+            // Other threads are still moving buckets
+            return;
+          }
+          // The last thread out rechecks the whole table before committing
+          finishing = true;
+          advance = true;
+          i = n;
+        }
+        continue;
+      }
+      Node<K, V> f = tab.get(i);
+      if (f == null) {
+        advance = tab.compareAndSet(i, null, forward);
+      } else if (f.hash == MOVED) {
+        advance = true;
+      } else {
+        synchronized (f) {
+          if (tab.get(i) == f && isChain(f)) {
+            splitBucket(f, n, i, nextTab);
+            tab.set(i, forward);
+            advance = true;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Splits the chain starting at {@code f} into the buckets {@code i} and
+   * {@code i + n} of the doubled table.  The trailing run of nodes that all
+   * move to the same bucket is reused, the nodes before it are copied so that
+   * readers still walking the old chain are not disturbed.
+   */
+  private static <K, V> void splitBucket(
+      Node<K, V> f, int n, int i, AtomicReferenceArray<Node<K, V>> nextTab) {
+    int runBit = f.hash & n;
+    Node<K, V> lastRun = f;
+    for (Node<K, V> p = f.next; p != null; p = p.next) {
+      int b = p.hash & n;
+      if (b != runBit) {
+        runBit = b;
+        lastRun = p;
+      }
+    }
+    Node<K, V> low = runBit == 0 ? lastRun : null;
+    Node<K, V> high = runBit == 0 ? null : lastRun;
+    for (Node<K, V> p = f; p != lastRun; p = p.next) {
+      if ((p.hash & n) == 0) {
+        low = new Node<>(p.hash, p.key, p.value, low);
+      } else {
+        high = new Node<>(p.hash, p.key, p.value, high);
+      }
+    }
+    nextTab.set(i, low);
+    nextTab.set(i + n, high);
+  }
+
+  /**
+   * Returns whether a locked bucket head starts an ordinary chain.  A
+   * reservation can only be locked here by the thread that is computing its
+   * value, so finding one means the mapping function updated the map.
+   */
+  private static boolean isChain(Node<?, ?> f) {
+    if (f.hash == RESERVED) {
+      throw new IllegalStateException("Recursive update");
+    }
+    return f.hash >= 0;
+  }
+
+  private static int resizeStamp(int n) {
+    return Integer.numberOfLeadingZeros(n) | (1 << (RESIZE_STAMP_BITS - 1));
+  }
+
+  static int spread(int hash) {
+    return (hash ^ (hash >>> 16)) & HASH_BITS;
+  }
+
+  private static int tableSizeFor(int c) {
+    int n = -1 >>> Integer.numberOfLeadingZeros(c - 1);
+    return n < 0 ? 1 : n >= MAXIMUM_CAPACITY ? MAXIMUM_CAPACITY : n + 1;
+  }
+
+  static class Node<K, V> {
+    final int hash;
+    final K key;
+    volatile V value;
+    volatile Node<K, V> next;
+
+    Node(int hash, K key, V value) {
+      this.hash = hash;
+      this.key = key;
+      this.value = value;
+    }
+
+    Node(int hash, K key, V value, Node<K, V> next) {
+      this(hash, key, value);
+      this.next = next;
+    }
+
+    /**
+     * Returns the node with the specified key in the chain starting at this
+     * node, or {@code null} if there is none.
+     */
+    Node<K, V> find(int h, Object k) {
+      for (Node<K, V> e = this; e != null; e = e.next) {
+        if (e.hash == h && (e.key == k || (e.key != null && k.equals(e.key)))) {
+          return e;
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Placed in a bucket of the old table once its entries have been moved to
+   * the new table.
+   */
+  static final class ForwardingNode<K, V> extends Node<K, V> {
+    final AtomicReferenceArray<Node<K, V>> nextTable;
+
+    ForwardingNode(AtomicReferenceArray<Node<K, V>> nextTable) {
+      super(MOVED, null, null);
+      this.nextTable = nextTable;
+    }
+
+    @Override
+    Node<K, V> find(int h, Object k) {
+      AtomicReferenceArray<Node<K, V>> tab = nextTable;
+      while (true) {
+        Node<K, V> e = tab.get((tab.length() - 1) & h);
+        if (e == null) {
+          return null;
+        }
+        if (e instanceof ForwardingNode) {
+          // The new table is itself being resized
+          tab = ((ForwardingNode<K, V>) e).nextTable;
+        } else {
+          return e.find(h, k);
+        }
+      }
+    }
+  }
+
+  /**
+   * Holds an empty bucket while {@link #computeIfAbsent} computes a value.
+   */
+  static final class ReservationNode<K, V> extends Node<K, V> {
+    ReservationNode() {
+      super(RESERVED, null, null);
+    }
+
+    @Override
+    Node<K, V> find(int h, Object k) {
+      return null;
+    }
+  }
+
+  /**
+   * Copies the items of a weakly consistent iterator into an array.  The
+   * map may grow or shrink while the iterator runs, so its size is only a
+   * first guess: the array grows as needed and is trimmed at the end.
+   */
+  private static Object[] toArray(Iterator<?> iter, int sizeHint) {
+    Object[] array = new Object[Math.max(sizeHint, 16)];
+    int size = 0;
+    while (iter.hasNext()) {
+      if (size == array.length) {
+        Object[] grown = new Object[size + (size >>> 1)];
+        System.arraycopy(array, 0, grown, 0, size);
+        array = grown;
+      }
+      array[size++] = iter.next();
+    }
+    if (size == array.length) {
+      return array;
+    }
+    Object[] trimmed = new Object[size];
+    System.arraycopy(array, 0, trimmed, 0, size);
+    return trimmed;
+  }
+
+  /**
+   * Copies the items of a weakly consistent iterator into {@code a} if they
+   * fit, followed by a {@code null}, or else into a new array of the same
+   * component type.
+   */
+  private static <T> T[] toArray(Iterator<?> iter, int sizeHint, T[] a) {
+    Object[] items = toArray(iter, sizeHint);
+    if (a.length < items.length) {
+      a = (T[]) Array.newInstance(a.getClass().getComponentType(), items.length);
+    }
+    System.arraycopy(items, 0, a, 0, items.length);
+    if (a.length > items.length) {
+      a[items.length] = null;
+    }
+    return a;
+  }
+
+  private static final class EntrySetView<K, V> extends MapEntrySet<K, V> implements WeaklyConsistent {
+    EntrySetView(Map<K, V> map, MapEntryIteratorFactory<K, V> factory) {
+      super(map, factory);
+    }
+
+    @Override
+    public Object[] toArray() {
+      return ConcurrentHashMap.toArray(iterator(), size());
+    }
+
+    @Override
+    public Map.Entry<K, V>[] toArray(Map.Entry<K, V>[] a) {
+      return ConcurrentHashMap.toArray(iterator(), size(), a);
+    }
+  }
+
+  private static final class KeySetView<K> extends MapKeySet<K> implements WeaklyConsistent {
+    KeySetView(Map<K, ?> map, MapEntryIteratorFactory<K, ?> factory) {
+      super(map, factory);
+    }
+
+    @Override
+    public Object[] toArray() {
+      return ConcurrentHashMap.toArray(iterator(), size());
+    }
+
+    @Override
+    public K[] toArray(K[] a) {
+      return ConcurrentHashMap.toArray(iterator(), size(), a);
+    }
+  }
+
+  private static final class ValuesView<V> extends MapValueCollection<V> implements WeaklyConsistent {
+    ValuesView(Map<?, V> map, MapEntryIteratorFactory<?, V> factory) {
+      super(map, factory);
+    }
+
+    @Override
+    public Object[] toArray() {
+      return ConcurrentHashMap.toArray(iterator(), size());
+    }
+
+    @Override
+    public V[] toArray(V[] a) {
+      return ConcurrentHashMap.toArray(iterator(), size(), a);
+    }
+  }
+}
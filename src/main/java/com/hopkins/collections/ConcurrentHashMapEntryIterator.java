@@ -0,0 +1,176 @@
+package com.hopkins.collections;
+
+import com.hopkins.collections.ConcurrentHashMap.ForwardingNode;
+import com.hopkins.collections.ConcurrentHashMap.Node;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A weakly consistent {@link Iterator} over the entries in a
+ * {@link ConcurrentHashMap}.
+ * <p>When the iterator reaches a bucket that has been moved by a resize it
+ * visits the two buckets of the new table that the entries were split into,
+ * then returns to the old table.  This way every entry that is present for
+ * the whole iteration is returned exactly once, even while the map is being
+ * resized.
+ */
+final class ConcurrentHashMapEntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+  private final ConcurrentHashMap<K, V> map;
+  private final int baseSize;
+  private AtomicReferenceArray<Node<K, V>> table;
+  private int index;
+  private int baseIndex;
+  private TableStack<K, V> stack;
+  private TableStack<K, V> spare;
+  private Node<K, V> next;
+  private boolean canRemove = false;
+  private K keyToRemove = null;
+
+  ConcurrentHashMapEntryIterator(ConcurrentHashMap<K, V> map, AtomicReferenceArray<Node<K, V>> table) {
+    this.map = map;
+    this.table = table;
+    this.baseSize = table == null ? 0 : table.length();
+    moveToNext();
+  }
+
+  private void moveToNext() {
+    Node<K, V> e = next;
+    if (e != null) {
+      e = e.next;
+    }
+    while (e == null) {
+      if (baseIndex >= baseSize || table == null || index < 0 || index >= table.length()) {
+        next = null;
+        return;
+      }
+      AtomicReferenceArray<Node<K, V>> tab = table;
+      int n = tab.length();
+      int i = index;
+      e = tab.get(i);
+      if (e != null && e.hash < 0) {
+        if (e instanceof ForwardingNode) {
+          table = ((ForwardingNode<K, V>) e).nextTable;
+          pushState(tab, i, n);
+          e = null;
+          continue;
+        }
+        // A reservation, which holds no entries
+        e = null;
+      }
+      if (stack != null) {
+        recoverState(n);
+      } else if ((index = i + baseSize) >= n) {
+        index = ++baseIndex;
+      }
+    }
+    next = e;
+  }
+
+  /**
+   * Saves the position in the current table before descending into the
+   * table that a forwarding node points to.
+   */
+  private void pushState(AtomicReferenceArray<Node<K, V>> tab, int i, int n) {
+    TableStack<K, V> s = spare;
+    if (s != null) {
+      spare = s.next;
+    } else {
+      s = new TableStack<>();
+    }
+    s.table = tab;
+    s.length = n;
+    s.index = i;
+    s.next = stack;
+    stack = s;
+  }
+
+  /**
+   * Moves to the next bucket, popping saved positions once both halves of a
+   * split bucket have been visited.
+   */
+  private void recoverState(int n) {
+    TableStack<K, V> s;
+    int length;
+    while ((s = stack) != null && (index += (length = s.length)) >= n) {
+      n = length;
+      index = s.index;
+      table = s.table;
+      s.table = null;
+      stack = s.next;
+      s.next = spare;
+      spare = s;
+    }
+    if (s == null && (index += baseSize) >= n) {
+      index = ++baseIndex;
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return next != null;
+  }
+
+  @Override
+  public Map.Entry<K, V> next() {
+    Node<K, V> node = next;
+    if (node == null) {
+      throw new NoSuchElementException();
+    }
+    keyToRemove = node.key;
+    canRemove = true;
+    moveToNext();
+    return new ConcurrentHashMapEntry<>(map, node.key, node.value);
+  }
+
+  @Override
+  public void remove() {
+    if (!canRemove) {
+      throw new NoSuchElementException();
+    }
+    map.remove(keyToRemove);
+    keyToRemove = null;
+    canRemove = false;
+  }
+
+  private static final class TableStack<K, V> {
+    AtomicReferenceArray<Node<K, V>> table;
+    int length;
+    int index;
+    TableStack<K, V> next;
+  }
+
+  /**
+   * A snapshot of an entry.  Setting its value writes through to the map.
+   */
+  static final class ConcurrentHashMapEntry<K, V> implements Map.Entry<K, V> {
+    private final ConcurrentHashMap<K, V> map;
+    private final K key;
+    private V value;
+
+    ConcurrentHashMapEntry(ConcurrentHashMap<K, V> map, K key, V value) {
+      this.map = map;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      if (value == null) {
+        throw new NullPointerException();
+      }
+      V oldValue = this.value;
+      this.value = value;
+      map.put(key, value);
+      return oldValue;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.hopkins.collections;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * An ordered sequence of {@code double} values, mirroring {@link List} without
+ * boxing the elements.
+ */
+public interface DoubleList {
+  /**
+   * Appends the value to the end of the list.  Always returns {@code true}.
+   */
+  boolean add(double value);
+
+  void add(int index, double value);
+
+  boolean addAll(DoubleList values);
+
+  boolean addAll(int index, DoubleList values);
+
+  void clear();
+
+  boolean contains(double value);
+
+  /**
+   * Performs the action for each value of the list, in order.
+   */
+  void forEach(DoubleConsumer action);
+
+  double get(int index);
+
+  int indexOf(double value);
+
+  boolean isEmpty();
+
+  int lastIndexOf(double value);
+
+  /**
+   * Removes and returns the value at the specified index.  This is not named
+   * {@code remove} so it cannot be confused with removing a value.
+   */
+  double removeAt(int index);
+
+  double set(int index, double value);
+
+  int size();
+
+  /**
+   * Returns a view of the portion of this list between {@code fromIndex}
+   * (inclusive) and {@code toIndex} (exclusive).
+   */
+  DoubleList subList(int fromIndex, int toIndex);
+
+  /**
+   * Returns a new array holding the values of the list, in order.
+   */
+  double[] toArray();
+}
@@ -0,0 +1,594 @@
+package com.hopkins.collections;
+
+/**
+ * A dual-pivot quicksort for arrays of primitives.
+ * <p>Each step sorts five evenly spaced samples, takes the second and
+ * fourth as pivots and splits the range into three parts: less than the
+ * first pivot, between the pivots, and greater than the second.  When the
+ * middle part is large, items equal to either pivot are moved out of it
+ * first, so arrays with many duplicates stay fast.  Short ranges are
+ * finished with an insertion sort.  If the recursion gets deeper than
+ * twice the log of the length, the range is heap sorted instead, which
+ * bounds the worst case at O(n log n).
+ */
+final class DualPivotQuicksort {
+  /**
+   * Ranges no longer than this are sorted with an insertion sort.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 32;
+
+  private DualPivotQuicksort() {
+  }
+
+  private static int maxDepth(int length) {
+    return 2 * (32 - Integer.numberOfLeadingZeros(length));
+  }
+
+  /**
+   * Sorts {@code array[low, high)}.
+   */
+  static void sort(int[] array, int low, int high) {
+    sort(array, low, high, maxDepth(high - low));
+  }
+
+  private static void sort(int[] array, int low, int high, int depth) {
+    while (high - low > INSERTION_SORT_THRESHOLD) {
+      if (--depth < 0) {
+        heapSort(array, low, high);
+        return;
+      }
+      int[] pivots = choosePivots(array, low, high);
+      int less = pivots[0];
+      int great = pivots[1];
+      int p1 = array[less];
+      int p2 = array[great];
+      // [low, less) < p1, [less + 1, great) between, [great + 1, high) > p2
+      int middleLow = less + 1;
+      int middleHigh = great;
+      if (p1 == p2) {
+        // Everything in the middle equals the pivots
+        middleLow = middleHigh;
+      } else if (middleHigh - middleLow > ((high - low) >>> 1)) {
+        // Many items may equal a pivot, so move them out of the middle
+        int k = middleLow;
+        int g = middleHigh - 1;
+        while (k <= g) {
+          int value = array[k];
+          if (value == p1) {
+            array[k] = array[middleLow];
+            array[middleLow++] = value;
+            k++;
+          } else if (value == p2) {
+            while (g > k && array[g] == p2) {
+              g--;
+            }
+            array[k] = array[g];
+            array[g--] = value;
+          } else {
+            k++;
+          }
+        }
+        middleHigh = g + 1;
+      }
+      // Recurse into the two smaller parts and loop on the largest, which
+      // bounds the stack depth
+      int leftLength = less - low;
+      int middleLength = middleHigh - middleLow;
+      int rightLength = high - great - 1;
+      if (leftLength >= middleLength && leftLength >= rightLength) {
+        sort(array, middleLow, middleHigh, depth);
+        sort(array, great + 1, high, depth);
+        high = less;
+      } else if (rightLength >= middleLength) {
+        sort(array, low, less, depth);
+        sort(array, middleLow, middleHigh, depth);
+        low = great + 1;
+      } else {
+        sort(array, low, less, depth);
+        sort(array, great + 1, high, depth);
+        low = middleLow;
+        high = middleHigh;
+      }
+    }
+    insertionSort(array, low, high);
+  }
+
+  /**
+   * Picks two pivots and partitions the range around them.  Returns the
+   * final positions of the two pivots.
+   */
+  private static int[] choosePivots(int[] array, int low, int high) {
+    // Sort five evenly spaced samples and take the second and fourth
+    int length = high - low;
+    int seventh = (length >>> 3) + (length >>> 6) + 1;
+    int e3 = (low + high) >>> 1;
+    int e2 = e3 - seventh;
+    int e1 = e2 - seventh;
+    int e4 = e3 + seventh;
+    int e5 = e4 + seventh;
+    sort2(array, e1, e2);
+    sort2(array, e4, e5);
+    sort2(array, e1, e3);
+    sort2(array, e2, e3);
+    sort2(array, e1, e4);
+    sort2(array, e3, e4);
+    sort2(array, e2, e5);
+    sort2(array, e2, e3);
+    sort2(array, e4, e5);
+    swap(array, e2, low);
+    swap(array, e4, high - 1);
+    int p1 = array[low];
+    int p2 = array[high - 1];
+
+    int less = low + 1;
+    int great = high - 2;
+    int k = less;
+    while (k <= great) {
+      int value = array[k];
+      if (value < p1) {
+        array[k] = array[less];
+        array[less++] = value;
+      } else if (value > p2) {
+        while (great > k && array[great] > p2) {
+          great--;
+        }
+        array[k] = array[great];
+        array[great--] = value;
+        value = array[k];
+        if (value < p1) {
+          array[k] = array[less];
+          array[less++] = value;
+        }
+      }
+      k++;
+    }
+    less--;
+    great++;
+    swap(array, low, less);
+    swap(array, high - 1, great);
+    return new int[] {less, great};
+  }
+
+  private static void insertionSort(int[] array, int low, int high) {
+    for (int i = low + 1; i < high; i++) {
+      int value = array[i];
+      int j = i - 1;
+      while (j >= low && value < array[j]) {
+        array[j + 1] = array[j];
+        j--;
+      }
+      array[j + 1] = value;
+    }
+  }
+
+  private static void heapSort(int[] array, int low, int high) {
+    int length = high - low;
+    for (int i = (length >>> 1) - 1; i >= 0; i--) {
+      siftDown(array, low, i, length);
+    }
+    for (int end = length - 1; end > 0; end--) {
+      swap(array, low, low + end);
+      siftDown(array, low, 0, end);
+    }
+  }
+
+  private static void siftDown(int[] array, int low, int index, int length) {
+    int value = array[low + index];
+    int half = length >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      if (child + 1 < length && array[low + child] < array[low + child + 1]) {
+        child++;
+      }
+      if (array[low + child] <= value) {
+        break;
+      }
+      array[low + index] = array[low + child];
+      index = child;
+    }
+    array[low + index] = value;
+  }
+
+  private static void sort2(int[] array, int a, int b) {
+    if (array[b] < array[a]) {
+      swap(array, a, b);
+    }
+  }
+
+  private static void swap(int[] array, int i, int j) {
+    int value = array[i];
+    array[i] = array[j];
+    array[j] = value;
+  }
+
+  /**
+   * Sorts {@code array[low, high)}.
+   */
+  static void sort(long[] array, int low, int high) {
+    sort(array, low, high, maxDepth(high - low));
+  }
+
+  private static void sort(long[] array, int low, int high, int depth) {
+    while (high - low > INSERTION_SORT_THRESHOLD) {
+      if (--depth < 0) {
+        heapSort(array, low, high);
+        return;
+      }
+      int[] pivots = choosePivots(array, low, high);
+      int less = pivots[0];
+      int great = pivots[1];
+      long p1 = array[less];
+      long p2 = array[great];
+      // [low, less) < p1, [less + 1, great) between, [great + 1, high) > p2
+      int middleLow = less + 1;
+      int middleHigh = great;
+      if (p1 == p2) {
+        // Everything in the middle equals the pivots
+        middleLow = middleHigh;
+      } else if (middleHigh - middleLow > ((high - low) >>> 1)) {
+        // Many items may equal a pivot, so move them out of the middle
+        int k = middleLow;
+        int g = middleHigh - 1;
+        while (k <= g) {
+          long value = array[k];
+          if (value == p1) {
+            array[k] = array[middleLow];
+            array[middleLow++] = value;
+            k++;
+          } else if (value == p2) {
+            while (g > k && array[g] == p2) {
+              g--;
+            }
+            array[k] = array[g];
+            array[g--] = value;
+          } else {
+            k++;
+          }
+        }
+        middleHigh = g + 1;
+      }
+      // Recurse into the two smaller parts and loop on the largest, which
+      // bounds the stack depth
+      int leftLength = less - low;
+      int middleLength = middleHigh - middleLow;
+      int rightLength = high - great - 1;
+      if (leftLength >= middleLength && leftLength >= rightLength) {
+        sort(array, middleLow, middleHigh, depth);
+        sort(array, great + 1, high, depth);
+        high = less;
+      } else if (rightLength >= middleLength) {
+        sort(array, low, less, depth);
+        sort(array, middleLow, middleHigh, depth);
+        low = great + 1;
+      } else {
+        sort(array, low, less, depth);
+        sort(array, great + 1, high, depth);
+        low = middleLow;
+        high = middleHigh;
+      }
+    }
+    insertionSort(array, low, high);
+  }
+
+  /**
+   * Picks two pivots and partitions the range around them.  Returns the
+   * final positions of the two pivots.
+   */
+  private static int[] choosePivots(long[] array, int low, int high) {
+    // Sort five evenly spaced samples and take the second and fourth
+    int length = high - low;
+    int seventh = (length >>> 3) + (length >>> 6) + 1;
+    int e3 = (low + high) >>> 1;
+    int e2 = e3 - seventh;
+    int e1 = e2 - seventh;
+    int e4 = e3 + seventh;
+    int e5 = e4 + seventh;
+    sort2(array, e1, e2);
+    sort2(array, e4, e5);
+    sort2(array, e1, e3);
+    sort2(array, e2, e3);
+    sort2(array, e1, e4);
+    sort2(array, e3, e4);
+    sort2(array, e2, e5);
+    sort2(array, e2, e3);
+    sort2(array, e4, e5);
+    swap(array, e2, low);
+    swap(array, e4, high - 1);
+    long p1 = array[low];
+    long p2 = array[high - 1];
+
+    int less = low + 1;
+    int great = high - 2;
+    int k = less;
+    while (k <= great) {
+      long value = array[k];
+      if (value < p1) {
+        array[k] = array[less];
+        array[less++] = value;
+      } else if (value > p2) {
+        while (great > k && array[great] > p2) {
+          great--;
+        }
+        array[k] = array[great];
+        array[great--] = value;
+        value = array[k];
+        if (value < p1) {
+          array[k] = array[less];
+          array[less++] = value;
+        }
+      }
+      k++;
+    }
+    less--;
+    great++;
+    swap(array, low, less);
+    swap(array, high - 1, great);
+    return new int[] {less, great};
+  }
+
+  private static void insertionSort(long[] array, int low, int high) {
+    for (int i = low + 1; i < high; i++) {
+      long value = array[i];
+      int j = i - 1;
+      while (j >= low && value < array[j]) {
+        array[j + 1] = array[j];
+        j--;
+      }
+      array[j + 1] = value;
+    }
+  }
+
+  private static void heapSort(long[] array, int low, int high) {
+    int length = high - low;
+    for (int i = (length >>> 1) - 1; i >= 0; i--) {
+      siftDown(array, low, i, length);
+    }
+    for (int end = length - 1; end > 0; end--) {
+      swap(array, low, low + end);
+      siftDown(array, low, 0, end);
+    }
+  }
+
+  private static void siftDown(long[] array, int low, int index, int length) {
+    long value = array[low + index];
+    int half = length >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      if (child + 1 < length && array[low + child] < array[low + child + 1]) {
+        child++;
+      }
+      if (array[low + child] <= value) {
+        break;
+      }
+      array[low + index] = array[low + child];
+      index = child;
+    }
+    array[low + index] = value;
+  }
+
+  private static void sort2(long[] array, int a, int b) {
+    if (array[b] < array[a]) {
+      swap(array, a, b);
+    }
+  }
+
+  private static void swap(long[] array, int i, int j) {
+    long value = array[i];
+    array[i] = array[j];
+    array[j] = value;
+  }
+
+  /**
+   * Sorts {@code array[low, high)} into the order of {@link Double#compare}.
+   * The NaNs are moved to the end first and each {@code -0.0} is counted and
+   * turned into {@code 0.0}, so that the sort itself can use the primitive
+   * comparisons.  The negative zeros are written back at the start of the
+   * zeros afterwards.
+   */
+  static void sort(double[] array, int low, int high) {
+    int end = high;
+    int negativeZeros = 0;
+    for (int k = high - 1; k >= low; k--) {
+      double value = array[k];
+      if (value != value) {
+        array[k] = array[--end];
+        array[end] = value;
+      } else if (value == 0.0 && Double.doubleToRawLongBits(value) < 0) {
+        array[k] = 0.0;
+        negativeZeros++;
+      }
+    }
+    sort(array, low, end, maxDepth(end - low));
+    if (negativeZeros > 0) {
+      int zero = firstZero(array, low, end);
+      for (int i = 0; i < negativeZeros; i++) {
+        array[zero + i] = -0.0;
+      }
+    }
+  }
+
+  /**
+   * Returns the index of the first zero in the sorted range.
+   */
+  private static int firstZero(double[] array, int low, int high) {
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (array[middle] < 0.0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static void sort(double[] array, int low, int high, int depth) {
+    while (high - low > INSERTION_SORT_THRESHOLD) {
+      if (--depth < 0) {
+        heapSort(array, low, high);
+        return;
+      }
+      int[] pivots = choosePivots(array, low, high);
+      int less = pivots[0];
+      int great = pivots[1];
+      double p1 = array[less];
+      double p2 = array[great];
+      // [low, less) < p1, [less + 1, great) between, [great + 1, high) > p2
+      int middleLow = less + 1;
+      int middleHigh = great;
+      if (p1 == p2) {
+        // Everything in the middle equals the pivots
+        middleLow = middleHigh;
+      } else if (middleHigh - middleLow > ((high - low) >>> 1)) {
+        // Many items may equal a pivot, so move them out of the middle
+        int k = middleLow;
+        int g = middleHigh - 1;
+        while (k <= g) {
+          double value = array[k];
+          if (value == p1) {
+            array[k] = array[middleLow];
+            array[middleLow++] = value;
+            k++;
+          } else if (value == p2) {
+            while (g > k && array[g] == p2) {
+              g--;
+            }
+            array[k] = array[g];
+            array[g--] = value;
+          } else {
+            k++;
+          }
+        }
+        middleHigh = g + 1;
+      }
+      // Recurse into the two smaller parts and loop on the largest, which
+      // bounds the stack depth
+      int leftLength = less - low;
+      int middleLength = middleHigh - middleLow;
+      int rightLength = high - great - 1;
+      if (leftLength >= middleLength && leftLength >= rightLength) {
+        sort(array, middleLow, middleHigh, depth);
+        sort(array, great + 1, high, depth);
+        high = less;
+      } else if (rightLength >= middleLength) {
+        sort(array, low, less, depth);
+        sort(array, middleLow, middleHigh, depth);
+        low = great + 1;
+      } else {
+        sort(array, low, less, depth);
+        sort(array, great + 1, high, depth);
+        low = middleLow;
+        high = middleHigh;
+      }
+    }
+    insertionSort(array, low, high);
+  }
+
+  /**
+   * Picks two pivots and partitions the range around them.  Returns the
+   * final positions of the two pivots.
+   */
+  private static int[] choosePivots(double[] array, int low, int high) {
+    // Sort five evenly spaced samples and take the second and fourth
+    int length = high - low;
+    int seventh = (length >>> 3) + (length >>> 6) + 1;
+    int e3 = (low + high) >>> 1;
+    int e2 = e3 - seventh;
+    int e1 = e2 - seventh;
+    int e4 = e3 + seventh;
+    int e5 = e4 + seventh;
+    sort2(array, e1, e2);
+    sort2(array, e4, e5);
+    sort2(array, e1, e3);
+    sort2(array, e2, e3);
+    sort2(array, e1, e4);
+    sort2(array, e3, e4);
+    sort2(array, e2, e5);
+    sort2(array, e2, e3);
+    sort2(array, e4, e5);
+    swap(array, e2, low);
+    swap(array, e4, high - 1);
+    double p1 = array[low];
+    double p2 = array[high - 1];
+
+    int less = low + 1;
+    int great = high - 2;
+    int k = less;
+    while (k <= great) {
+      double value = array[k];
+      if (value < p1) {
+        array[k] = array[less];
+        array[less++] = value;
+      } else if (value > p2) {
+        while (great > k && array[great] > p2) {
+          great--;
+        }
+        array[k] = array[great];
+        array[great--] = value;
+        value = array[k];
+        if (value < p1) {
+          array[k] = array[less];
+          array[less++] = value;
+        }
+      }
+      k++;
+    }
+    less--;
+    great++;
+    swap(array, low, less);
+    swap(array, high - 1, great);
+    return new int[] {less, great};
+  }
+
+  private static void insertionSort(double[] array, int low, int high) {
+    for (int i = low + 1; i < high; i++) {
+      double value = array[i];
+      int j = i - 1;
+      while (j >= low && value < array[j]) {
+        array[j + 1] = array[j];
+        j--;
+      }
+      array[j + 1] = value;
+    }
+  }
+
+  private static void heapSort(double[] array, int low, int high) {
+    int length = high - low;
+    for (int i = (length >>> 1) - 1; i >= 0; i--) {
+      siftDown(array, low, i, length);
+    }
+    for (int end = length - 1; end > 0; end--) {
+      swap(array, low, low + end);
+      siftDown(array, low, 0, end);
+    }
+  }
+
+  private static void siftDown(double[] array, int low, int index, int length) {
+    double value = array[low + index];
+    int half = length >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      if (child + 1 < length && array[low + child] < array[low + child + 1]) {
+        child++;
+      }
+      if (array[low + child] <= value) {
+        break;
+      }
+      array[low + index] = array[low + child];
+      index = child;
+    }
+    array[low + index] = value;
+  }
+
+  private static void sort2(double[] array, int a, int b) {
+    if (array[b] < array[a]) {
+      swap(array, a, b);
+    }
+  }
+
+  private static void swap(double[] array, int i, int j) {
+    double value = array[i];
+    array[i] = array[j];
+    array[j] = value;
+  }
+}
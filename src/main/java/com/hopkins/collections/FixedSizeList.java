@@ -136,6 +136,13 @@ final class FixedSizeList<T> implements List<T>, RandomAccess {
     return data.length;
   }
 
+  /**
+   * Sorts the items in place in the backing array.
+   */
+  void sort(Comparator<? super T> c) {
+    Arrays.sort(data, c);
+  }
+
   @Override
   public List<T> subList(int fromIndex, int toIndex) {
     return new RandomAccessSubList<>(this, fromIndex, toIndex);
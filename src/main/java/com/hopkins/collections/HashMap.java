@@ -1,26 +1,93 @@
 package com.hopkins.collections;
 
 import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
  * A {@link Map} that is backed by a hash table.  The hash table handles
  * collisions with separate chaining.
+ * <p>A bucket whose chain grows past {@link #TREEIFY_THRESHOLD} entries is
+ * converted to a {@link HashMapTreeBin}, which keeps lookups in that bucket
+ * O(log n) even when many keys share a hash code.  A tree bin is converted
+ * back to a chain once it shrinks, either by removals or by being split up
+ * when the table is resized.
+ * <p>By default the whole table is rehashed by the {@link #put} call that
+ * grows it.  A map created with {@code incrementalResize} instead keeps the
+ * old table alongside the new one and moves a few buckets across on every
+ * subsequent {@link #get}, {@link #put} or {@link #remove}, so no single
+ * call pays for rehashing the whole map.  The number of buckets moved per
+ * call is chosen when the resize starts so that the migration is done
+ * before enough entries have been added to need the next resize.  Lookups
+ * search both tables while a migration is in progress.  Reads stop moving
+ * entries while an iterator is open, so that reading the map while
+ * iterating over it remains safe, until the next update.
  */
 public class HashMap<K, V> implements Map<K, V> {
   private static final int DEFAULT_CAPACITY = 16;
   private static final float DEFAULT_LOAD_FACTOR = 0.75f;
 
+  /**
+   * The chain length at which a bucket is converted to a tree.
+   */
+  static final int TREEIFY_THRESHOLD = 8;
+
+  /**
+   * The size at which a tree bin is converted back to a chain.
+   */
+  static final int UNTREEIFY_THRESHOLD = 6;
+
+  /**
+   * The smallest table that buckets are converted to trees in.  Smaller
+   * tables are resized instead, since long chains there are more likely to
+   * be caused by the table size than by poor hash codes.
+   */
+  static final int MIN_TREEIFY_CAPACITY = 64;
+
+  /**
+   * The fewest buckets of the old table that are moved to the new table by
+   * each call while an incremental resize is in progress.
+   */
+  static final int MIGRATION_STEP = 4;
+
   private final float loadFactor;
+  private final boolean incrementalResize;
   private final MapEntryIteratorFactory<K, V> iteratorFactory = new MapEntryIteratorFactory<K, V>() {
     @Override
     public Iterator<Map.Entry<K, V>> newIterator() {
-      return new HashMapEntryIterator(HashMap.this, table);
+      // Moving a bucket would move entries under the iterator, so reads
+      // leave the tables alone until the next update
+      readsMigrate = false;
+      return new HashMapEntryIterator(HashMap.this, oldTable, table);
     }
   };
 
   private HashMapEntry[] table;
   private int size;
 
+  /**
+   * Counts the changes that add, remove or move entries, so that an update
+   * which calls a function between finding a bucket and inserting into it
+   * can tell whether the bucket is still the right one.
+   */
+  private int modCount;
+
+  /**
+   * The table being migrated into {@link #table} during an incremental
+   * resize, or {@code null} when no resize is in progress.  Buckets below
+   * {@link #migrationIndex} have already been moved.
+   */
+  private HashMapEntry[] oldTable;
+  private int migrationIndex;
+  private int migrationStep;
+
+  /**
+   * Whether {@link #get} and {@link #containsKey} may move buckets.  It is
+   * cleared when an iterator is made and set again by the next update,
+   * which ends the iteration anyway.
+   */
+  private boolean readsMigrate = true;
+
   /**
    * Create a new HashMap with default initial capacity and load factor.
    */
@@ -40,8 +107,18 @@ public class HashMap<K, V> implements Map<K, V> {
    * Create a new HashMap with the specified initial capacity and load factor.
    */
   public HashMap(int initialCapacity, float loadFactor) {
+    this(initialCapacity, loadFactor, false /* incrementalResize */);
+  }
+
+  /**
+   * Create a new HashMap with the specified initial capacity and load factor.
+   * If {@code incrementalResize} is {@code true} the table is grown a few
+   * buckets at a time rather than all at once.
+   */
+  public HashMap(int initialCapacity, float loadFactor, boolean incrementalResize) {
     this.table = new HashMapEntry[initialCapacity];
     this.loadFactor = loadFactor;
+    this.incrementalResize = incrementalResize;
   }
 
   /**
@@ -59,31 +136,51 @@ public class HashMap<K, V> implements Map<K, V> {
     return table.length;
   }
 
+  /**
+   * Returns {@code true} if an incremental resize is in progress.
+   */
+  boolean isResizing() {
+    return oldTable != null;
+  }
+
+  /**
+   * Returns {@code true} if the bucket holding the specified key has been
+   * converted to a tree.
+   */
+  boolean isTreeBin(Object key) {
+    return table[indexFor(hash(key), table.length)] instanceof HashMapTreeBin;
+  }
+
   @Override
   public void clear() {
+    oldTable = null;
     if (isEmpty()) {
       return;
     }
+    modCount++;
     size = 0;
     Arrays.fill(table, null);
   }
 
   @Override
   public boolean containsKey(Object key) {
-    int position = (Objects.hashCode(key) & 0x7fffffff) % table.length;
-    HashMapEntry<K, V> entry = table[position];
-    while (entry != null) {
-      if (Objects.equals(entry.key, key)) {
-        return true;
-      }
-      entry = entry.next;
+    if (readsMigrate) {
+      migrateStep();
     }
-    return false;
+    return findEntry(key) != null;
   }
 
   @Override
   public boolean containsValue(Object value) {
-    for (HashMapEntry<K, V> entry : table) {
+    return containsValue(oldTable, value) || containsValue(table, value);
+  }
+
+  private static boolean containsValue(HashMapEntry[] table, Object value) {
+    if (table == null) {
+      return false;
+    }
+    for (HashMapEntry<?, ?> bucket : table) {
+      HashMapEntry<?, ?> entry = firstEntry(bucket);
       while (entry != null) {
         if (Objects.equals(entry.value, value)) {
           return true;
@@ -101,15 +198,11 @@ public class HashMap<K, V> implements Map<K, V> {
 
   @Override
   public V get(Object key) {
-    int position = Objects.hashCode(key) % table.length;
-    HashMapEntry<K, V> entry = table[position];
-    while (entry != null) {
-      if (Objects.equals(entry.key, key)) {
-        return entry.value;
-      }
-      entry = entry.next;
+    if (readsMigrate) {
+      migrateStep();
     }
-    return null;
+    HashMapEntry<K, V> entry = findEntry(key);
+    return entry == null ? null : entry.value;
   }
 
   @Override
@@ -124,29 +217,185 @@ public class HashMap<K, V> implements Map<K, V> {
 
   @Override
   public V put(K key, V value) {
+    updateStep();
     ensureCapacity(size + 1);
 
-    int position = Objects.hashCode(key) % table.length;
-    HashMapEntry<K, V> entry = table[position];
+    int hash = hash(key);
+    if (oldTable != null) {
+      HashMapEntry<K, V> entry = findEntry(oldTable, hash, key);
+      if (entry != null) {
+        V oldValue = entry.value;
+        entry.value = value;
+        return oldValue;
+      }
+    }
+
+    int position = indexFor(hash, table.length);
+    HashMapEntry<K, V> bucket = table[position];
+    if (bucket instanceof HashMapTreeBin) {
+      HashMapTreeBin<K, V> treeBin = (HashMapTreeBin<K, V>) bucket;
+      HashMapEntry<K, V> entry = treeBin.find(hash, key);
+      if (entry != null) {
+        V oldValue = entry.value;
+        entry.value = value;
+        return oldValue;
+      }
+      treeBin.add(hash, key, value);
+      size++;
+      modCount++;
+      return null;
+    }
+
+    HashMapEntry<K, V> entry = bucket;
     HashMapEntry<K, V> last = null;
+    int chainLength = 0;
     while (entry != null) {
-      if (Objects.equals(entry.key, key)) {
+      if (entry.hash == hash && Objects.equals(entry.key, key)) {
         V oldValue = entry.value;
         entry.value = value;
         return oldValue;
       }
       last = entry;
       entry = entry.next;
+      chainLength++;
     }
     if (last == null) {
-      table[position] = new HashMapEntry<>(key, value);
+      table[position] = new HashMapEntry<>(hash, key, value);
     } else {
-      last.next = new HashMapEntry<>(key, value);
+      last.next = new HashMapEntry<>(hash, key, value);
     }
     size++;
+    modCount++;
+    if (chainLength + 1 >= TREEIFY_THRESHOLD) {
+      treeifyBucket(position);
+    }
     return null;
   }
 
+  /**
+   * Returns the value for the specified key, first computing and storing it
+   * if the key is not associated with a non-null value.  The key is looked
+   * up once: a new entry goes into the bucket found by that lookup, unless
+   * the mapping function changed the map, in which case it is looked up
+   * again.
+   */
+  @Override
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    Objects.requireNonNull(mappingFunction);
+    updateStep();
+    int hash = hash(key);
+    HashMapEntry<K, V> entry = oldTable == null ? null : findEntry(oldTable, hash, key);
+    HashMapEntry<K, V> last = null;
+    int chainLength = 0;
+    if (entry == null) {
+      HashMapEntry<K, V> bucket = table[indexFor(hash, table.length)];
+      if (bucket instanceof HashMapTreeBin) {
+        entry = ((HashMapTreeBin<K, V>) bucket).find(hash, key);
+      } else {
+        for (entry = bucket; entry != null; entry = entry.next) {
+          if (entry.hash == hash && Objects.equals(entry.key, key)) {
+            break;
+          }
+          last = entry;
+          chainLength++;
+        }
+      }
+    }
+    if (entry != null && entry.value != null) {
+      return entry.value;
+    }
+
+    int expectedModCount = modCount;
+    V value = mappingFunction.apply(key);
+    if (value == null) {
+      return null;
+    }
+    if (modCount != expectedModCount) {
+      put(key, value);
+    } else if (entry != null) {
+      entry.value = value;
+    } else {
+      addEntry(hash, key, value, last, chainLength);
+    }
+    return value;
+  }
+
+  /**
+   * Associates the specified value with the key if it has no value, otherwise
+   * replaces the existing value with the result of the remapping function.
+   * The key is looked up once, whether it is updated in place or added to
+   * the bucket found by that lookup.
+   */
+  @Override
+  public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    Objects.requireNonNull(value);
+    Objects.requireNonNull(remappingFunction);
+    updateStep();
+    int hash = hash(key);
+    HashMapEntry<K, V> entry = oldTable == null ? null : findEntry(oldTable, hash, key);
+    HashMapEntry<K, V> last = null;
+    int chainLength = 0;
+    if (entry == null) {
+      HashMapEntry<K, V> bucket = table[indexFor(hash, table.length)];
+      if (bucket instanceof HashMapTreeBin) {
+        entry = ((HashMapTreeBin<K, V>) bucket).find(hash, key);
+      } else {
+        for (entry = bucket; entry != null; entry = entry.next) {
+          if (entry.hash == hash && Objects.equals(entry.key, key)) {
+            break;
+          }
+          last = entry;
+          chainLength++;
+        }
+      }
+    }
+    if (entry == null) {
+      addEntry(hash, key, value, last, chainLength);
+      return value;
+    }
+    if (entry.value == null) {
+      entry.value = value;
+      return value;
+    }
+
+    int expectedModCount = modCount;
+    V newValue = remappingFunction.apply(entry.value, value);
+    if (newValue == null) {
+      remove(key);
+    } else if (modCount != expectedModCount) {
+      put(key, newValue);
+    } else {
+      entry.value = newValue;
+    }
+    return newValue;
+  }
+
+  /**
+   * Adds an entry for a key that a lookup has just failed to find, after
+   * {@code last} in its chain of {@code chainLength} entries in the new
+   * table, or to its tree bin.  The table grows afterwards if it is now too
+   * full.
+   */
+  private void addEntry(int hash, K key, V value, HashMapEntry<K, V> last, int chainLength) {
+    int position = indexFor(hash, table.length);
+    HashMapEntry<K, V> bucket = table[position];
+    size++;
+    modCount++;
+    if (bucket instanceof HashMapTreeBin) {
+      ((HashMapTreeBin<K, V>) bucket).add(hash, key, value);
+    } else {
+      if (last == null) {
+        table[position] = new HashMapEntry<>(hash, key, value);
+      } else {
+        last.next = new HashMapEntry<>(hash, key, value);
+      }
+      if (chainLength + 1 >= TREEIFY_THRESHOLD) {
+        treeifyBucket(position);
+      }
+    }
+    ensureCapacity(size);
+  }
+
   @Override
   public void putAll(Map<? extends K, ? extends V> map) {
     ensureCapacity(size + map.size());
@@ -160,18 +409,90 @@ public class HashMap<K, V> implements Map<K, V> {
 
   @Override
   public V remove(Object key) {
-    int position = Objects.hashCode(key) % table.length;
-    HashMapEntry<K, V> entry = table[position];
+    return remove(key, true /* migrate */);
+  }
+
+  /**
+   * Removes the entry with the specified key.  Iterators pass {@code false}
+   * for {@code migrate} so that the tables they are walking stay in place.
+   */
+  V remove(Object key, boolean migrate) {
+    if (migrate) {
+      updateStep();
+    }
+    int hash = hash(key);
+    HashMapEntry<K, V> removed = null;
+    if (oldTable != null) {
+      removed = removeEntry(oldTable, hash, key);
+    }
+    if (removed == null) {
+      removed = removeEntry(table, hash, key);
+    }
+    if (removed == null) {
+      return null;
+    }
+    size--;
+    modCount++;
+    return removed.value;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new MapValueCollection<>(this, iteratorFactory);
+  }
+
+  private HashMapEntry<K, V> findEntry(Object key) {
+    int hash = hash(key);
+    if (oldTable != null) {
+      HashMapEntry<K, V> entry = findEntry(oldTable, hash, key);
+      if (entry != null) {
+        return entry;
+      }
+    }
+    return findEntry(table, hash, key);
+  }
+
+  private static <K, V> HashMapEntry<K, V> findEntry(HashMapEntry[] table, int hash, Object key) {
+    HashMapEntry<K, V> entry = table[indexFor(hash, table.length)];
+    if (entry instanceof HashMapTreeBin) {
+      return ((HashMapTreeBin<K, V>) entry).find(hash, key);
+    }
+    while (entry != null) {
+      if (entry.hash == hash && Objects.equals(entry.key, key)) {
+        return entry;
+      }
+      entry = entry.next;
+    }
+    return null;
+  }
+
+  private static <K, V> HashMapEntry<K, V> removeEntry(HashMapEntry[] table, int hash, Object key) {
+    int position = indexFor(hash, table.length);
+    HashMapEntry<K, V> bucket = table[position];
+    if (bucket instanceof HashMapTreeBin) {
+      HashMapTreeBin<K, V> treeBin = (HashMapTreeBin<K, V>) bucket;
+      HashMapEntry<K, V> removed = treeBin.remove(hash, key);
+      if (removed != null && treeBin.size() <= UNTREEIFY_THRESHOLD) {
+        table[position] = treeBin.first();
+      }
+      return removed;
+    }
+
+    HashMapEntry<K, V> entry = bucket;
     HashMapEntry<K, V> last = null;
     while (entry != null) {
-      if (Objects.equals(entry.key, key)) {
+      if (entry.hash == hash && Objects.equals(entry.key, key)) {
         if (last == null) {
           table[position] = entry.next;
         } else {
           last.next = entry.next;
         }
-        size--;
-        return entry.value;
+        return entry;
       }
       last = entry;
       entry = entry.next;
@@ -179,27 +500,47 @@ public class HashMap<K, V> implements Map<K, V> {
     return null;
   }
 
-  @Override
-  public int size() {
-    return size;
-  }
-
-  @Override
-  public Collection<V> values() {
-    return new MapValueCollection<>(this, iteratorFactory);
+  private void treeifyBucket(int position) {
+    if (table.length < MIN_TREEIFY_CAPACITY) {
+      // A table that is still migrating grows once the migration is done
+      if (oldTable == null) {
+        resize(table.length * 2);
+      }
+    } else {
+      table[position] = new HashMapTreeBin<>(table[position]);
+      modCount++;
+    }
   }
 
   private void ensureCapacity(int newSize) {
-    if (newSize <= table.length * loadFactor) {
+    // A table that is still migrating grows once the migration is done,
+    // which the step size makes sure of before the next threshold unless
+    // putAll asks for room in advance
+    if (newSize <= table.length * loadFactor || oldTable != null) {
       return;
     }
-    int newCapacity = Math.max(table.length * 2, newSize);
+    resize(Math.max(table.length * 2, (int) Math.ceil(newSize / loadFactor)));
+  }
+
+  private void resize(int newCapacity) {
+    modCount++;
     HashMapEntry[] newTable = new HashMapEntry[newCapacity];
+    if (incrementalResize) {
+      // Every put that adds an entry moves a step first, so spread the old
+      // buckets over the puts left before the new table is full
+      int putsLeft = Math.max(1, (int) (newCapacity * loadFactor) - size - 1);
+      migrationStep = Math.max(MIGRATION_STEP, (table.length + putsLeft - 1) / putsLeft);
+      oldTable = table;
+      migrationIndex = 0;
+      table = newTable;
+      return;
+    }
 
-    for (HashMapEntry<K, V> entry : table) {
+    for (HashMapEntry<K, V> bucket : table) {
+      HashMapEntry<K, V> entry = firstEntry(bucket);
       while (entry != null) {
         HashMapEntry<K, V> next = entry.next;
-        int newPosition = Objects.hashCode(entry.key) % newCapacity;
+        int newPosition = indexFor(entry.hash, newCapacity);
 
         entry.next = newTable[newPosition];
         newTable[newPosition] = entry;
@@ -208,15 +549,109 @@ public class HashMap<K, V> implements Map<K, V> {
       }
     }
 
+    // Buckets that are still long after being split up become trees again
+    if (newCapacity >= MIN_TREEIFY_CAPACITY) {
+      for (int i = 0; i < newCapacity; i++) {
+        int chainLength = 0;
+        for (HashMapEntry<K, V> entry = newTable[i]; entry != null; entry = entry.next) {
+          chainLength++;
+        }
+        if (chainLength >= TREEIFY_THRESHOLD) {
+          newTable[i] = new HashMapTreeBin<>(newTable[i]);
+        }
+      }
+    }
+
     this.table = newTable;
   }
 
-  static final class HashMapEntry<K, V> implements Entry<K, V> {
+  /**
+   * Moves a step of an incremental resize for an update, which also lets
+   * reads move steps again.
+   */
+  private void updateStep() {
+    readsMigrate = true;
+    migrateStep();
+  }
+
+  /**
+   * Moves the next {@link #migrationStep} buckets of an incremental resize
+   * into the new table.
+   */
+  private void migrateStep() {
+    if (oldTable == null) {
+      return;
+    }
+    modCount++;
+    int end = Math.min(migrationIndex + migrationStep, oldTable.length);
+    while (migrationIndex < end) {
+      migrateBucket(migrationIndex++);
+    }
+    if (migrationIndex == oldTable.length) {
+      oldTable = null;
+    }
+  }
+
+  private void migrateBucket(int oldPosition) {
+    HashMapEntry<K, V> entry = firstEntry(oldTable[oldPosition]);
+    oldTable[oldPosition] = null;
+    while (entry != null) {
+      HashMapEntry<K, V> next = entry.next;
+      int position = indexFor(entry.hash, table.length);
+      HashMapEntry<K, V> bucket = table[position];
+      if (bucket instanceof HashMapTreeBin) {
+        ((HashMapTreeBin<K, V>) bucket).add(entry.hash, entry.key, entry.value);
+      } else {
+        entry.next = bucket;
+        table[position] = entry;
+        if (table.length >= MIN_TREEIFY_CAPACITY && chainLength(entry) >= TREEIFY_THRESHOLD) {
+          table[position] = new HashMapTreeBin<>(entry);
+        }
+      }
+      entry = next;
+    }
+  }
+
+  private static int chainLength(HashMapEntry<?, ?> entry) {
+    int length = 0;
+    for (; entry != null && length < TREEIFY_THRESHOLD; entry = entry.next) {
+      length++;
+    }
+    return length;
+  }
+
+  /**
+   * Returns the first entry of the chain in the specified bucket, unwrapping
+   * tree bins.
+   */
+  static <K, V> HashMapEntry<K, V> firstEntry(HashMapEntry<K, V> bucket) {
+    if (bucket instanceof HashMapTreeBin) {
+      return ((HashMapTreeBin<K, V>) bucket).first();
+    }
+    return bucket;
+  }
+
+  /**
+   * Returns the hash code of the specified key with the upper bits spread
+   * into the lower bits.
+   */
+  static int hash(Object key) {
+    int h = Objects.hashCode(key);
+    return h ^ (h >>> 16);
+  }
+
+  static int indexFor(int hash, int length) {
+    return (hash & 0x7fffffff) % length;
+  }
+
+  static class HashMapEntry<K, V> implements Entry<K, V> {
+    final int hash;
     final K key;
     V value;
     HashMapEntry<K, V> next;
 
-    HashMapEntry(K key, V value) {
+    HashMapEntry(int hash, K key, V value) {
+      this.hash = hash;
       this.key = key;
       this.value = value;
     }
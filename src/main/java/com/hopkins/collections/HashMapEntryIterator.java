@@ -3,38 +3,46 @@ package com.hopkins.collections;
 import com.hopkins.collections.HashMap.HashMapEntry;
 
 /**
- * An {@link Iterator} over the entries in a {@link HashMap}.
+ * An {@link Iterator} over the entries in a {@link HashMap}.  While the map is
+ * being resized incrementally the buckets of the old table are visited before
+ * the buckets of the new table.
  */
 final class HashMapEntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
   private final HashMap<K, V> map;
-  private final HashMapEntry<K, V>[] table;
+  private final HashMapEntry<K, V>[] newTable;
+  private HashMapEntry<K, V>[] table;
   private int index = -1;
+  private boolean canRemove = false;
   private K keyToRemove = null;
   private HashMapEntry<K, V> next = null;
 
-  public HashMapEntryIterator(HashMap<K, V> map, HashMapEntry<K, V>[] table) {
+  public HashMapEntryIterator(HashMap<K, V> map, HashMapEntry<K, V>[] oldTable, HashMapEntry<K, V>[] table) {
     this.map = map;
-    this.table = table;
+    this.newTable = table;
+    this.table = oldTable == null ? table : oldTable;
     moveToNext();
   }
 
   private void moveToNext() {
     if (next != null) {
-      keyToRemove = next.key;
-    }
-    if (next != null && next.next != null) {
       next = next.next;
-      return;
+      if (next != null) {
+        return;
+      }
     }
-    index++;
-    while (table[index] == null) {
-      index++;
-      if (index >= table.length) {
-        next = null;
+    while (true) {
+      while (++index < table.length) {
+        next = HashMap.firstEntry(table[index]);
+        if (next != null) {
+          return;
+        }
+      }
+      if (table == newTable) {
         return;
       }
+      table = newTable;
+      index = -1;
     }
-    next = table[index];
   }
 
   @Override
@@ -48,16 +56,19 @@ final class HashMapEntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
       throw new NoSuchElementException();
     }
     HashMapEntry<K, V> entry = next;
+    keyToRemove = entry.key;
+    canRemove = true;
     moveToNext();
     return entry;
   }
 
   @Override
   public void remove() {
-    if (keyToRemove == null) {
+    if (!canRemove) {
       throw new NoSuchElementException();
     }
-    map.remove(keyToRemove);
+    map.remove(keyToRemove, false /* migrate */);
     keyToRemove = null;
+    canRemove = false;
   }
 }
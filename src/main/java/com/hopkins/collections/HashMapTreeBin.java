@@ -0,0 +1,323 @@
+package com.hopkins.collections;
+
+import com.hopkins.collections.HashMap.HashMapEntry;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Objects;
+
+/**
+ * A {@link HashMap} bucket that holds its entries in a balanced (AVL) tree
+ * rather than a list, so lookups in a bucket with many colliding keys take
+ * O(log n) rather than O(n).
+ * <p>Nodes are ordered by hash code, then by {@link Comparable#compareTo} when
+ * the keys are mutually comparable.  Keys that are neither distinguished by
+ * hash code nor by comparison are placed with an arbitrary but consistent
+ * tie-break, and lookups of such keys search both subtrees.
+ * <p>The entries of the bucket are also kept in a doubly-linked list through
+ * {@link HashMapEntry#next} so that iteration order does not change when the
+ * tree is rebalanced.  When the bucket shrinks back the list is handed back to
+ * {@link HashMap} and used as an ordinary bucket.
+ */
+final class HashMapTreeBin<K, V> extends HashMapEntry<K, V> {
+  private TreeNode<K, V> root;
+  private TreeNode<K, V> first;
+  private int count;
+
+  /**
+   * Creates a tree bin holding the entries of the specified bucket list.
+   */
+  HashMapTreeBin(HashMapEntry<K, V> bucket) {
+    super(0 /* hash */, null /* key */, null /* value */);
+    TreeNode<K, V> last = null;
+    for (HashMapEntry<K, V> entry = bucket; entry != null; ) {
+      HashMapEntry<K, V> next = entry.next;
+      TreeNode<K, V> node = entry instanceof TreeNode
+          ? resetNode((TreeNode<K, V>) entry)
+          : new TreeNode<>(entry.hash, entry.key, entry.value);
+      node.prev = last;
+      node.next = null;
+      if (last == null) {
+        first = node;
+      } else {
+        last.next = node;
+      }
+      last = node;
+      root = insert(root, node, comparableClassFor(node.key));
+      count++;
+      entry = next;
+    }
+  }
+
+  /**
+   * Returns the first entry in the list of this bin.
+   */
+  HashMapEntry<K, V> first() {
+    return first;
+  }
+
+  /**
+   * Returns the number of entries in this bin.
+   */
+  int size() {
+    return count;
+  }
+
+  /**
+   * Returns the entry with the specified key, or {@code null} if there is no
+   * such entry.
+   */
+  HashMapEntry<K, V> find(int hash, Object key) {
+    return find(root, hash, key, null /* keyClass */);
+  }
+
+  /**
+   * Adds a new entry to the bin.  The key must not already be present.
+   */
+  void add(int hash, K key, V value) {
+    TreeNode<K, V> node = new TreeNode<>(hash, key, value);
+    node.next = first;
+    if (first != null) {
+      first.prev = node;
+    }
+    first = node;
+    root = insert(root, node, comparableClassFor(key));
+    count++;
+  }
+
+  /**
+   * Removes and returns the entry with the specified key, or {@code null} if
+   * there is no such entry.
+   */
+  HashMapEntry<K, V> remove(int hash, Object key) {
+    TreeNode<K, V> node = find(root, hash, key, null /* keyClass */);
+    if (node == null) {
+      return null;
+    }
+    // Unlink the node from the list, leaving its next pointer intact so that
+    // an iterator positioned on it can still move on
+    if (node.prev == null) {
+      first = (TreeNode<K, V>) node.next;
+    } else {
+      node.prev.next = node.next;
+    }
+    if (node.next != null) {
+      ((TreeNode<K, V>) node.next).prev = node.prev;
+    }
+    root = removeFromTree(root, node, null /* keyClass */);
+    count--;
+    return node;
+  }
+
+  private static <K, V> TreeNode<K, V> resetNode(TreeNode<K, V> node) {
+    node.left = null;
+    node.right = null;
+    node.height = 1;
+    return node;
+  }
+
+  private static <K, V> TreeNode<K, V> find(TreeNode<K, V> node, int hash, Object key, Class<?> keyClass) {
+    while (node != null) {
+      if (hash < node.hash) {
+        node = node.left;
+      } else if (hash > node.hash) {
+        node = node.right;
+      } else if (Objects.equals(key, node.key)) {
+        return node;
+      } else {
+        if (keyClass == null) {
+          keyClass = comparableClassFor(key);
+        }
+        int direction = compareComparables(keyClass, key, node.key);
+        if (direction < 0) {
+          node = node.left;
+        } else if (direction > 0) {
+          node = node.right;
+        } else {
+          // The ordering cannot tell where the key is, search both sides
+          TreeNode<K, V> found = find(node.right, hash, key, keyClass);
+          if (found != null) {
+            return found;
+          }
+          node = node.left;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static <K, V> boolean containsNode(TreeNode<K, V> node, TreeNode<K, V> target) {
+    return node != null
+        && (node == target || containsNode(node.left, target) || containsNode(node.right, target));
+  }
+
+  private static <K, V> TreeNode<K, V> insert(
+      TreeNode<K, V> node, TreeNode<K, V> newNode, Class<?> keyClass) {
+    if (node == null) {
+      return newNode;
+    }
+    if (insertionOrder(newNode, node, keyClass) < 0) {
+      node.left = insert(node.left, newNode, keyClass);
+    } else {
+      node.right = insert(node.right, newNode, keyClass);
+    }
+    return balance(node);
+  }
+
+  private static <K, V> TreeNode<K, V> removeFromTree(
+      TreeNode<K, V> node, TreeNode<K, V> target, Class<?> keyClass) {
+    if (node == null) {
+      return null;
+    }
+    if (node == target) {
+      return removeRoot(node);
+    }
+    int direction;
+    if (target.hash != node.hash) {
+      direction = target.hash < node.hash ? -1 : 1;
+    } else {
+      if (keyClass == null) {
+        keyClass = comparableClassFor(target.key);
+      }
+      direction = compareComparables(keyClass, target.key, node.key);
+      if (direction == 0) {
+        direction = containsNode(node.left, target) ? -1 : 1;
+      }
+    }
+    if (direction < 0) {
+      node.left = removeFromTree(node.left, target, keyClass);
+    } else {
+      node.right = removeFromTree(node.right, target, keyClass);
+    }
+    return balance(node);
+  }
+
+  private static <K, V> TreeNode<K, V> removeRoot(TreeNode<K, V> node) {
+    if (node.left == null) {
+      return node.right;
+    } else if (node.right == null) {
+      return node.left;
+    }
+    // Replace the node with its in-order successor
+    TreeNode<K, V> successor = node.right;
+    while (successor.left != null) {
+      successor = successor.left;
+    }
+    successor.right = removeMin(node.right);
+    successor.left = node.left;
+    return balance(successor);
+  }
+
+  private static <K, V> TreeNode<K, V> removeMin(TreeNode<K, V> node) {
+    if (node.left == null) {
+      return node.right;
+    }
+    node.left = removeMin(node.left);
+    return balance(node);
+  }
+
+  private static <K, V> TreeNode<K, V> balance(TreeNode<K, V> node) {
+    int difference = height(node.left) - height(node.right);
+    if (difference > 1) {
+      if (height(node.left.left) < height(node.left.right)) {
+        node.left = rotateLeft(node.left);
+      }
+      node = rotateRight(node);
+    } else if (difference < -1) {
+      if (height(node.right.right) < height(node.right.left)) {
+        node.right = rotateRight(node.right);
+      }
+      node = rotateLeft(node);
+    } else {
+      updateHeight(node);
+    }
+    return node;
+  }
+
+  private static <K, V> TreeNode<K, V> rotateLeft(TreeNode<K, V> node) {
+    TreeNode<K, V> pivot = node.right;
+    node.right = pivot.left;
+    pivot.left = node;
+    updateHeight(node);
+    updateHeight(pivot);
+    return pivot;
+  }
+
+  private static <K, V> TreeNode<K, V> rotateRight(TreeNode<K, V> node) {
+    TreeNode<K, V> pivot = node.left;
+    node.left = pivot.right;
+    pivot.right = node;
+    updateHeight(node);
+    updateHeight(pivot);
+    return pivot;
+  }
+
+  private static void updateHeight(TreeNode<?, ?> node) {
+    node.height = 1 + Math.max(height(node.left), height(node.right));
+  }
+
+  private static int height(TreeNode<?, ?> node) {
+    return node == null ? 0 : node.height;
+  }
+
+  /**
+   * Returns the order in which a new node is inserted relative to an existing
+   * node.  Never returns 0.
+   */
+  private static int insertionOrder(TreeNode<?, ?> a, TreeNode<?, ?> b, Class<?> keyClass) {
+    if (a.hash != b.hash) {
+      return a.hash < b.hash ? -1 : 1;
+    }
+    int order = compareComparables(keyClass, a.key, b.key);
+    if (order != 0) {
+      return order;
+    }
+    return System.identityHashCode(a.key) <= System.identityHashCode(b.key) ? -1 : 1;
+  }
+
+  /**
+   * Returns the class of the specified object if it is of the form
+   * {@code class C implements Comparable<C>}, otherwise {@code null}.
+   */
+  private static Class<?> comparableClassFor(Object key) {
+    if (key instanceof Comparable) {
+      Class<?> keyClass = key.getClass();
+      if (keyClass == String.class) {
+        return keyClass;
+      }
+      for (Type type : keyClass.getGenericInterfaces()) {
+        if (type instanceof ParameterizedType) {
+          ParameterizedType parameterized = (ParameterizedType) type;
+          if (parameterized.getRawType() == Comparable.class) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (arguments.length == 1 && arguments[0] == keyClass) {
+              return keyClass;
+            }
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Compares two keys if the second is of the specified comparable class,
+   * otherwise returns 0.
+   */
+  private static int compareComparables(Class<?> keyClass, Object key, Object other) {
+    if (keyClass == null || other == null || other.getClass() != keyClass) {
+      return 0;
+    }
+    return ((Comparable) key).compareTo(other);
+  }
+
+  static final class TreeNode<K, V> extends HashMapEntry<K, V> {
+    TreeNode<K, V> prev;
+    TreeNode<K, V> left;
+    TreeNode<K, V> right;
+    int height = 1;
+
+    TreeNode(int hash, K key, V value) {
+      super(hash, key, value);
+    }
+  }
+}
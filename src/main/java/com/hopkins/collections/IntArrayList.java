@@ -0,0 +1,383 @@
+package com.hopkins.collections;
+
+import java.util.function.IntConsumer;
+
+/**
+ * An implementation of a {@link IntList} backed by a {@code int[]} that is
+ * resized as needed.  Values are stored unboxed, so appending to a list with
+ * enough capacity allocates nothing.
+ */
+public class IntArrayList implements IntList, RandomAccess {
+  private static final int DEFAULT_CAPACITY = 10;
+  private static final int[] EMPTY_DATA = new int[0];
+
+  private int[] data;
+  private int size;
+
+  /**
+   * Create a new, empty {@link IntArrayList} with the default capacity (10).
+   */
+  public IntArrayList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create a new, empty {@link IntArrayList} with the specified capacity.
+   */
+  public IntArrayList(int capacity) {
+    data = capacity == 0 ? EMPTY_DATA : new int[capacity];
+  }
+
+  /**
+   * Create a new list with content from the specified list.
+   */
+  public IntArrayList(IntList values) {
+    this(Math.max(DEFAULT_CAPACITY, values.size()));
+    addAll(values);
+  }
+
+  @Override
+  public boolean add(int value) {
+    if (size == data.length) {
+      ensureCapacity(size + 1);
+    }
+    data[size++] = value;
+    return true;
+  }
+
+  @Override
+  public void add(int index, int value) {
+    RandomAccessListHelper.checkIndex(index, size + 1);
+    ensureCapacity(size + 1);
+    System.arraycopy(data, index, data, index + 1, size - index);
+    data[index] = value;
+    size++;
+  }
+
+  @Override
+  public boolean addAll(IntList values) {
+    return addAll(size, values);
+  }
+
+  @Override
+  public boolean addAll(int index, IntList values) {
+    return addAll(index, values.toArray());
+  }
+
+  /**
+   * Appends all of the specified values to the end of the list.
+   */
+  public boolean addAll(int... values) {
+    return addAll(size, values);
+  }
+
+  private boolean addAll(int index, int[] values) {
+    RandomAccessListHelper.checkIndex(index, size + 1);
+    ensureCapacity(size + values.length);
+    System.arraycopy(data, index, data, index + values.length, size - index);
+    System.arraycopy(values, 0, data, index, values.length);
+    size += values.length;
+    return values.length > 0;
+  }
+
+  /**
+   * Returns the capacity of the underlying array.
+   */
+  int capacity() {
+    return data.length;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+  }
+
+  @Override
+  public boolean contains(int value) {
+    return indexOf(value) != List.INDEX_NOT_FOUND;
+  }
+
+  public void ensureCapacity(int minCapacity) {
+    if (minCapacity <= data.length) {
+      return;
+    }
+
+    int newCapacity = Math.max(Math.max(data.length * 2, minCapacity), DEFAULT_CAPACITY);
+    int[] newData = new int[newCapacity];
+    System.arraycopy(data, 0, newData, 0, size);
+    data = newData;
+  }
+
+  @Override
+  public void forEach(IntConsumer action) {
+    for (int i = 0; i < size; i++) {
+      action.accept(data[i]);
+    }
+  }
+
+  @Override
+  public int get(int index) {
+    RandomAccessListHelper.checkIndex(index, size);
+    return data[index];
+  }
+
+  @Override
+  public int indexOf(int value) {
+    for (int i = 0; i < size; i++) {
+      if (data[i] == value) {
+        return i;
+      }
+    }
+    return List.INDEX_NOT_FOUND;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int lastIndexOf(int value) {
+    for (int i = size - 1; i >= 0; i--) {
+      if (data[i] == value) {
+        return i;
+      }
+    }
+    return List.INDEX_NOT_FOUND;
+  }
+
+  @Override
+  public int removeAt(int index) {
+    RandomAccessListHelper.checkIndex(index, size);
+    int removed = data[index];
+    System.arraycopy(data, index + 1, data, index, size - index - 1);
+    size--;
+    return removed;
+  }
+
+  /**
+   * Removes the values between {@code fromIndex} (inclusive) and
+   * {@code toIndex} (exclusive).
+   */
+  void removeRange(int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException(
+          "fromIndex: " + fromIndex + " toIndex: " + toIndex + " size: " + size);
+    }
+    System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
+    size -= toIndex - fromIndex;
+  }
+
+  @Override
+  public int set(int index, int value) {
+    RandomAccessListHelper.checkIndex(index, size);
+    int old = data[index];
+    data[index] = value;
+    return old;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Sorts the values of the list into ascending order.
+   */
+  public void sort() {
+    Arrays.sort(data, 0, size);
+  }
+
+  /**
+   * Returns the index of the specified value in a list sorted into ascending
+   * order, or {@link List#INDEX_NOT_FOUND} if it is not present.
+   */
+  public int binarySearch(int value) {
+    return Arrays.binarySearch(data, 0, size, value);
+  }
+
+  @Override
+  public IntList subList(int fromIndex, int toIndex) {
+    return new IntSubList(this, fromIndex, toIndex);
+  }
+
+  @Override
+  public int[] toArray() {
+    int[] array = new int[size];
+    System.arraycopy(data, 0, array, 0, size);
+    return array;
+  }
+
+  /**
+   * Copies the values between {@code fromIndex} (inclusive) and
+   * {@code toIndex} (exclusive) into {@code dest}, starting at
+   * {@code destIndex}.
+   */
+  public void toArray(int fromIndex, int toIndex, int[] dest, int destIndex) {
+    if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException(
+          "fromIndex: " + fromIndex + " toIndex: " + toIndex + " size: " + size);
+    }
+    System.arraycopy(data, fromIndex, dest, destIndex, toIndex - fromIndex);
+  }
+
+  public void trimToSize() {
+    if (data.length == size) {
+      return;
+    }
+    int[] newData = new int[size];
+    System.arraycopy(data, 0, newData, 0, size);
+    data = newData;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("IntArrayList {")
+        .append("capacity: ")
+        .append(data.length)
+        .append(", size: ")
+        .append(size)
+        .append(", elements: [");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(data[i]);
+    }
+    sb.append("]}");
+    return sb.toString();
+  }
+
+  /**
+   * A view of a range of an {@link IntArrayList}.  Changes to the view are
+   * written through to the list.
+   */
+  private static final class IntSubList implements IntList, RandomAccess {
+    private final IntArrayList list;
+    private final int fromIndex;
+    private int toIndex;
+
+    IntSubList(IntArrayList list, int fromIndex, int toIndex) {
+      if (fromIndex < 0 || toIndex > list.size || fromIndex > toIndex) {
+        throw new IndexOutOfBoundsException(
+            "fromIndex: " + fromIndex + " toIndex: " + toIndex + " size: " + list.size);
+      }
+      this.list = list;
+      this.fromIndex = fromIndex;
+      this.toIndex = toIndex;
+    }
+
+    @Override
+    public boolean add(int value) {
+      list.add(toIndex, value);
+      toIndex++;
+      return true;
+    }
+
+    @Override
+    public void add(int index, int value) {
+      RandomAccessListHelper.checkIndex(index, size() + 1);
+      list.add(fromIndex + index, value);
+      toIndex++;
+    }
+
+    @Override
+    public boolean addAll(IntList values) {
+      return addAll(size(), values);
+    }
+
+    @Override
+    public boolean addAll(int index, IntList values) {
+      RandomAccessListHelper.checkIndex(index, size() + 1);
+      int count = values.size();
+      list.addAll(fromIndex + index, values.toArray());
+      toIndex += count;
+      return count > 0;
+    }
+
+    @Override
+    public void clear() {
+      list.removeRange(fromIndex, toIndex);
+      toIndex = fromIndex;
+    }
+
+    @Override
+    public boolean contains(int value) {
+      return indexOf(value) != List.INDEX_NOT_FOUND;
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+      for (int i = fromIndex; i < toIndex; i++) {
+        action.accept(list.data[i]);
+      }
+    }
+
+    @Override
+    public int get(int index) {
+      RandomAccessListHelper.checkIndex(index, size());
+      return list.data[fromIndex + index];
+    }
+
+    @Override
+    public int indexOf(int value) {
+      for (int i = fromIndex; i < toIndex; i++) {
+        if (list.data[i] == value) {
+          return i - fromIndex;
+        }
+      }
+      return List.INDEX_NOT_FOUND;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return fromIndex == toIndex;
+    }
+
+    @Override
+    public int lastIndexOf(int value) {
+      for (int i = toIndex - 1; i >= fromIndex; i--) {
+        if (list.data[i] == value) {
+          return i - fromIndex;
+        }
+      }
+      return List.INDEX_NOT_FOUND;
+    }
+
+    @Override
+    public int removeAt(int index) {
+      RandomAccessListHelper.checkIndex(index, size());
+      int removed = list.removeAt(fromIndex + index);
+      toIndex--;
+      return removed;
+    }
+
+    @Override
+    public int set(int index, int value) {
+      RandomAccessListHelper.checkIndex(index, size());
+      return list.set(fromIndex + index, value);
+    }
+
+    @Override
+    public int size() {
+      return toIndex - fromIndex;
+    }
+
+    @Override
+    public IntList subList(int fromIndex, int toIndex) {
+      if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+        throw new IndexOutOfBoundsException(
+            "fromIndex: " + fromIndex + " toIndex: " + toIndex + " size: " + size());
+      }
+      return new IntSubList(list, this.fromIndex + fromIndex, this.fromIndex + toIndex);
+    }
+
+    @Override
+    public int[] toArray() {
+      int[] array = new int[size()];
+      System.arraycopy(list.data, fromIndex, array, 0, array.length);
+      return array;
+    }
+  }
+}
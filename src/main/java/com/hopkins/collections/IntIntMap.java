@@ -0,0 +1,364 @@
+package com.hopkins.collections;
+
+/**
+ * A hash map from {@code int} keys to {@code int} values that stores keys
+ * and values in parallel primitive arrays, so no object is allocated per
+ * entry and neither keys nor values are boxed.
+ * <p>The table is open-addressing with linear probing and a power of two
+ * length, and removals shift later entries back instead of leaving
+ * tombstones.  An empty slot is marked by the key {@code 0}; the key
+ * {@code 0} itself is therefore kept outside the table.
+ * <p>Entries are visited with a reusable {@link Cursor} rather than an
+ * {@link Iterator}.  The map must not be modified while a cursor is in use,
+ * except through {@link Cursor#setValue}.
+ */
+public class IntIntMap {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+  private final float loadFactor;
+  private int[] keys;
+  private int[] values;
+  private int mask;
+  private int threshold;
+  private int size;
+  private boolean hasZeroKey;
+  private int zeroValue;
+
+  /**
+   * Create a new IntIntMap with default initial capacity and load factor.
+   */
+  public IntIntMap() {
+    this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Create a new IntIntMap able to hold the specified number of entries without
+   * resizing, using the default load factor.
+   */
+  public IntIntMap(int initialCapacity) {
+    this(initialCapacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Create a new IntIntMap able to hold the specified number of entries without
+   * resizing, using the specified load factor.  The load factor must be
+   * greater than 0 and less than 1.
+   */
+  public IntIntMap(int initialCapacity, float loadFactor) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("initialCapacity: " + initialCapacity);
+    }
+    if (!(loadFactor > 0 && loadFactor < 1)) {
+      throw new IllegalArgumentException("loadFactor: " + loadFactor);
+    }
+    this.loadFactor = loadFactor;
+    allocate(PrimitiveHashHelper.tableSizeFor(initialCapacity, loadFactor));
+  }
+
+  /**
+   * Returns the number of slots in the underlying arrays.
+   */
+  int capacity() {
+    return keys.length;
+  }
+
+  /**
+   * Remove all entries from the map.  The capacity is kept.
+   */
+  public void clear() {
+    if (size == 0) {
+      return;
+    }
+    size = 0;
+    hasZeroKey = false;
+    zeroValue = 0;
+    Arrays.fill(keys, 0);
+  }
+
+  /**
+   * Returns whether the map contains the specified key.
+   */
+  public boolean containsKey(int key) {
+    return key == 0 ? hasZeroKey : findSlot(key) >= 0;
+  }
+
+  /**
+   * Returns whether any key of the map is associated with the specified
+   * value.
+   */
+  public boolean containsValue(int value) {
+    if (hasZeroKey && zeroValue == value) {
+      return true;
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0 && values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the value associated with the specified key, or {@code 0} if
+   * there is no such key.
+   */
+  public int get(int key) {
+    return getOrDefault(key, 0);
+  }
+
+  /**
+   * Returns the value associated with the specified key, or
+   * {@code defaultValue} if there is no such key.
+   */
+  public int getOrDefault(int key, int defaultValue) {
+    if (key == 0) {
+      return hasZeroKey ? zeroValue : defaultValue;
+    }
+    int slot = findSlot(key);
+    return slot < 0 ? defaultValue : values[slot];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Associates the specified value with the key, returning the previous
+   * value, or {@code 0} if the key was not present.
+   */
+  public int put(int key, int value) {
+    if (key == 0) {
+      int oldValue = zeroValue;
+      zeroValue = value;
+      if (!hasZeroKey) {
+        hasZeroKey = true;
+        size++;
+      }
+      return oldValue;
+    }
+    int slot = PrimitiveHashHelper.mix(key) & mask;
+    int current;
+    while ((current = keys[slot]) != 0) {
+      if (current == key) {
+        int oldValue = values[slot];
+        values[slot] = value;
+        return oldValue;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+    if (size - (hasZeroKey ? 1 : 0) > threshold) {
+      rehash(keys.length * 2);
+    }
+    return 0;
+  }
+
+  /**
+   * Adds the specified amount to the value of the key, treating a missing
+   * key as {@code 0}, and returns the new value.
+   */
+  public int addTo(int key, int increment) {
+    if (key == 0) {
+      if (!hasZeroKey) {
+        hasZeroKey = true;
+        size++;
+      }
+      return zeroValue += increment;
+    }
+    int slot = findSlot(key);
+    if (slot >= 0) {
+      return values[slot] += increment;
+    }
+    put(key, increment);
+    return increment;
+  }
+
+  /**
+   * Removes the specified key, returning its value, or {@code 0} if the key
+   * was not present.
+   */
+  public int remove(int key) {
+    if (key == 0) {
+      int oldValue = zeroValue;
+      if (hasZeroKey) {
+        hasZeroKey = false;
+        zeroValue = 0;
+        size--;
+      }
+      return oldValue;
+    }
+    int slot = findSlot(key);
+    if (slot < 0) {
+      return 0;
+    }
+    int oldValue = values[slot];
+    removeSlot(slot);
+    return oldValue;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Ensures the map can hold the specified number of entries without
+   * resizing.
+   */
+  public void ensureCapacity(int expectedSize) {
+    int capacity = PrimitiveHashHelper.tableSizeFor(expectedSize, loadFactor);
+    if (capacity > keys.length) {
+      rehash(capacity);
+    }
+  }
+
+  /**
+   * Returns a new {@link Cursor} positioned before the first entry.
+   */
+  public Cursor cursor() {
+    return new Cursor(this);
+  }
+
+  private int findSlot(int key) {
+    int slot = PrimitiveHashHelper.mix(key) & mask;
+    int current;
+    while ((current = keys[slot]) != 0) {
+      if (current == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Clears the specified slot and shifts the following entries of its probe
+   * sequence back so that lookups never stop early at the hole.
+   */
+  private void removeSlot(int slot) {
+    size--;
+    int last = slot;
+    int pos = (last + 1) & mask;
+    int current;
+    while ((current = keys[pos]) != 0) {
+      int home = PrimitiveHashHelper.mix(current) & mask;
+      if (PrimitiveHashHelper.canShift(home, last, pos)) {
+        keys[last] = current;
+        values[last] = values[pos];
+        last = pos;
+      }
+      pos = (pos + 1) & mask;
+    }
+    keys[last] = 0;
+  }
+
+  private void rehash(int newCapacity) {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    allocate(newCapacity);
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      int key = oldKeys[i];
+      if (key == 0) {
+        continue;
+      }
+      int slot = PrimitiveHashHelper.mix(key) & mask;
+      while (keys[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = oldValues[i];
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity];
+    values = new int[capacity];
+    mask = capacity - 1;
+    threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+  }
+
+  /**
+   * Visits the entries of an IntIntMap without allocating.  A cursor starts
+   * before the first entry and can be rewound with {@link #reset} and used
+   * again.
+   *
+   * <pre>
+   *   IntIntMap.Cursor cursor = map.cursor();
+   *   while (cursor.next()) {
+   *     use(cursor.key(), cursor.value());
+   *   }
+   * </pre>
+   */
+  public static final class Cursor {
+    private final IntIntMap map;
+    private int slot;
+
+    Cursor(IntIntMap map) {
+      this.map = map;
+      reset();
+    }
+
+    /**
+     * Moves the cursor back before the first entry.
+     */
+    public void reset() {
+      // The zero key, which lives outside the table, is visited first
+      slot = map.keys.length + 1;
+    }
+
+    /**
+     * Moves to the next entry, returning {@code false} once there are no
+     * more entries.
+     */
+    public boolean next() {
+      if (slot > map.keys.length) {
+        slot = map.keys.length;
+        if (map.hasZeroKey) {
+          return true;
+        }
+      }
+      while (--slot >= 0) {
+        if (map.keys[slot] != 0) {
+          return true;
+        }
+      }
+      slot = -1;
+      return false;
+    }
+
+    public int key() {
+      checkPosition();
+      return slot == map.keys.length ? 0 : map.keys[slot];
+    }
+
+    public int value() {
+      checkPosition();
+      return slot == map.keys.length ? map.zeroValue : map.values[slot];
+    }
+
+    /**
+     * Replaces the value of the current entry, returning the previous value.
+     */
+    public int setValue(int value) {
+      checkPosition();
+      int oldValue;
+      if (slot == map.keys.length) {
+        oldValue = map.zeroValue;
+        map.zeroValue = value;
+      } else {
+        oldValue = map.values[slot];
+        map.values[slot] = value;
+      }
+      return oldValue;
+    }
+
+    private void checkPosition() {
+      if (slot < 0 || slot > map.keys.length) {
+        throw new NoSuchElementException();
+      }
+    }
+  }
+}
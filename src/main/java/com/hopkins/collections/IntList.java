@@ -0,0 +1,58 @@
+package com.hopkins.collections;
+
+import java.util.function.IntConsumer;
+
+/**
+ * An ordered sequence of {@code int} values, mirroring {@link List} without
+ * boxing the elements.
+ */
+public interface IntList {
+  /**
+   * Appends the value to the end of the list.  Always returns {@code true}.
+   */
+  boolean add(int value);
+
+  void add(int index, int value);
+
+  boolean addAll(IntList values);
+
+  boolean addAll(int index, IntList values);
+
+  void clear();
+
+  boolean contains(int value);
+
+  /**
+   * Performs the action for each value of the list, in order.
+   */
+  void forEach(IntConsumer action);
+
+  int get(int index);
+
+  int indexOf(int value);
+
+  boolean isEmpty();
+
+  int lastIndexOf(int value);
+
+  /**
+   * Removes and returns the value at the specified index.  This is not named
+   * {@code remove} so it cannot be confused with removing a value.
+   */
+  int removeAt(int index);
+
+  int set(int index, int value);
+
+  int size();
+
+  /**
+   * Returns a view of the portion of this list between {@code fromIndex}
+   * (inclusive) and {@code toIndex} (exclusive).
+   */
+  IntList subList(int fromIndex, int toIndex);
+
+  /**
+   * Returns a new array holding the values of the list, in order.
+   */
+  int[] toArray();
+}
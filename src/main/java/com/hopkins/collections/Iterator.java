@@ -1,5 +1,7 @@
 package com.hopkins.collections;
 
+import java.util.function.Consumer;
+
 public interface Iterator<T> {
 
   /**
@@ -12,6 +14,15 @@ public interface Iterator<T> {
    */
   T next();
 
+  /**
+   * Calls the action with each remaining element, in order.
+   */
+  default void forEachRemaining(Consumer<? super T> action) {
+    while (hasNext()) {
+      action.accept(next());
+    }
+  }
+
   /**
    * Removes from the underlying collection the last element returned by
    * this iterator (optional operation).
@@ -290,7 +290,7 @@ public class LinkedList<E> implements List<E>, Queue<E> {
         return cur;
       }
       cur = cur.next;
-      index++;
+      i++;
     }
     throw new IllegalStateException("Node structure corrupt");
   }
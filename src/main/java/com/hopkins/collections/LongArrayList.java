@@ -0,0 +1,383 @@
+package com.hopkins.collections;
+
+import java.util.function.LongConsumer;
+
+/**
+ * An implementation of a {@link LongList} backed by a {@code long[]} that is
+ * resized as needed.  Values are stored unboxed, so appending to a list with
+ * enough capacity allocates nothing.
+ */
+public class LongArrayList implements LongList, RandomAccess {
+  private static final int DEFAULT_CAPACITY = 10;
+  private static final long[] EMPTY_DATA = new long[0];
+
+  private long[] data;
+  private int size;
+
+  /**
+   * Create a new, empty {@link LongArrayList} with the default capacity (10).
+   */
+  public LongArrayList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Create a new, empty {@link LongArrayList} with the specified capacity.
+   */
+  public LongArrayList(int capacity) {
+    data = capacity == 0 ? EMPTY_DATA : new long[capacity];
+  }
+
+  /**
+   * Create a new list with content from the specified list.
+   */
+  public LongArrayList(LongList values) {
+    this(Math.max(DEFAULT_CAPACITY, values.size()));
+    addAll(values);
+  }
+
+  @Override
+  public boolean add(long value) {
+    if (size == data.length) {
+      ensureCapacity(size + 1);
+    }
+    data[size++] = value;
+    return true;
+  }
+
+  @Override
+  public void add(int index, long value) {
+    RandomAccessListHelper.checkIndex(index, size + 1);
+    ensureCapacity(size + 1);
+    System.arraycopy(data, index, data, index + 1, size - index);
+    data[index] = value;
+    size++;
+  }
+
+  @Override
+  public boolean addAll(LongList values) {
+    return addAll(size, values);
+  }
+
+  @Override
+  public boolean addAll(int index, LongList values) {
+    return addAll(index, values.toArray());
+  }
+
+  /**
+   * Appends all of the specified values to the end of the list.
+   */
+  public boolean addAll(long... values) {
+    return addAll(size, values);
+  }
+
+  private boolean addAll(int index, long[] values) {
+    RandomAccessListHelper.checkIndex(index, size + 1);
+    ensureCapacity(size + values.length);
+    System.arraycopy(data, index, data, index + values.length, size - index);
+    System.arraycopy(values, 0, data, index, values.length);
+    size += values.length;
+    return values.length > 0;
+  }
+
+  /**
+   * Returns the capacity of the underlying array.
+   */
+  int capacity() {
+    return data.length;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+  }
+
+  @Override
+  public boolean contains(long value) {
+    return indexOf(value) != List.INDEX_NOT_FOUND;
+  }
+
+  public void ensureCapacity(int minCapacity) {
+    if (minCapacity <= data.length) {
+      return;
+    }
+
+    int newCapacity = Math.max(Math.max(data.length * 2, minCapacity), DEFAULT_CAPACITY);
+    long[] newData = new long[newCapacity];
+    System.arraycopy(data, 0, newData, 0, size);
+    data = newData;
+  }
+
+  @Override
+  public void forEach(LongConsumer action) {
+    for (int i = 0; i < size; i++) {
+      action.accept(data[i]);
+    }
+  }
+
+  @Override
+  public long get(int index) {
+    RandomAccessListHelper.checkIndex(index, size);
+    return data[index];
+  }
+
+  @Override
+  public int indexOf(long value) {
+    for (int i = 0; i < size; i++) {
+      if (data[i] == value) {
+        return i;
+      }
+    }
+    return List.INDEX_NOT_FOUND;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public int lastIndexOf(long value) {
+    for (int i = size - 1; i >= 0; i--) {
+      if (data[i] == value) {
+        return i;
+      }
+    }
+    return List.INDEX_NOT_FOUND;
+  }
+
+  @Override
+  public long removeAt(int index) {
+    RandomAccessListHelper.checkIndex(index, size);
+    long removed = data[index];
+    System.arraycopy(data, index + 1, data, index, size - index - 1);
+    size--;
+    return removed;
+  }
+
+  /**
+   * Removes the values between {@code fromIndex} (inclusive) and
+   * {@code toIndex} (exclusive).
+   */
+  void removeRange(int fromIndex, int toIndex) {
+    if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException(
+          "fromIndex: " + fromIndex + " toIndex: " + toIndex + " size: " + size);
+    }
+    System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
+    size -= toIndex - fromIndex;
+  }
+
+  @Override
+  public long set(int index, long value) {
+    RandomAccessListHelper.checkIndex(index, size);
+    long old = data[index];
+    data[index] = value;
+    return old;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Sorts the values of the list into ascending order.
+   */
+  public void sort() {
+    Arrays.sort(data, 0, size);
+  }
+
+  /**
+   * Returns the index of the specified value in a list sorted into ascending
+   * order, or {@link List#INDEX_NOT_FOUND} if it is not present.
+   */
+  public int binarySearch(long value) {
+    return Arrays.binarySearch(data, 0, size, value);
+  }
+
+  @Override
+  public LongList subList(int fromIndex, int toIndex) {
+    return new LongSubList(this, fromIndex, toIndex);
+  }
+
+  @Override
+  public long[] toArray() {
+    long[] array = new long[size];
+    System.arraycopy(data, 0, array, 0, size);
+    return array;
+  }
+
+  /**
+   * Copies the values between {@code fromIndex} (inclusive) and
+   * {@code toIndex} (exclusive) into {@code dest}, starting at
+   * {@code destIndex}.
+   */
+  public void toArray(int fromIndex, int toIndex, long[] dest, int destIndex) {
+    if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+      throw new IndexOutOfBoundsException(
+          "fromIndex: " + fromIndex + " toIndex: " + toIndex + " size: " + size);
+    }
+    System.arraycopy(data, fromIndex, dest, destIndex, toIndex - fromIndex);
+  }
+
+  public void trimToSize() {
+    if (data.length == size) {
+      return;
+    }
+    long[] newData = new long[size];
+    System.arraycopy(data, 0, newData, 0, size);
+    data = newData;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("LongArrayList {")
+        .append("capacity: ")
+        .append(data.length)
+        .append(", size: ")
+        .append(size)
+        .append(", elements: [");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(data[i]);
+    }
+    sb.append("]}");
+    return sb.toString();
+  }
+
+  /**
+   * A view of a range of an {@link LongArrayList}.  Changes to the view are
+   * written through to the list.
+   */
+  private static final class LongSubList implements LongList, RandomAccess {
+    private final LongArrayList list;
+    private final int fromIndex;
+    private int toIndex;
+
+    LongSubList(LongArrayList list, int fromIndex, int toIndex) {
+      if (fromIndex < 0 || toIndex > list.size || fromIndex > toIndex) {
+        throw new IndexOutOfBoundsException(
+            "fromIndex: " + fromIndex + " toIndex: " + toIndex + " size: " + list.size);
+      }
+      this.list = list;
+      this.fromIndex = fromIndex;
+      this.toIndex = toIndex;
+    }
+
+    @Override
+    public boolean add(long value) {
+      list.add(toIndex, value);
+      toIndex++;
+      return true;
+    }
+
+    @Override
+    public void add(int index, long value) {
+      RandomAccessListHelper.checkIndex(index, size() + 1);
+      list.add(fromIndex + index, value);
+      toIndex++;
+    }
+
+    @Override
+    public boolean addAll(LongList values) {
+      return addAll(size(), values);
+    }
+
+    @Override
+    public boolean addAll(int index, LongList values) {
+      RandomAccessListHelper.checkIndex(index, size() + 1);
+      int count = values.size();
+      list.addAll(fromIndex + index, values.toArray());
+      toIndex += count;
+      return count > 0;
+    }
+
+    @Override
+    public void clear() {
+      list.removeRange(fromIndex, toIndex);
+      toIndex = fromIndex;
+    }
+
+    @Override
+    public boolean contains(long value) {
+      return indexOf(value) != List.INDEX_NOT_FOUND;
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+      for (int i = fromIndex; i < toIndex; i++) {
+        action.accept(list.data[i]);
+      }
+    }
+
+    @Override
+    public long get(int index) {
+      RandomAccessListHelper.checkIndex(index, size());
+      return list.data[fromIndex + index];
+    }
+
+    @Override
+    public int indexOf(long value) {
+      for (int i = fromIndex; i < toIndex; i++) {
+        if (list.data[i] == value) {
+          return i - fromIndex;
+        }
+      }
+      return List.INDEX_NOT_FOUND;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return fromIndex == toIndex;
+    }
+
+    @Override
+    public int lastIndexOf(long value) {
+      for (int i = toIndex - 1; i >= fromIndex; i--) {
+        if (list.data[i] == value) {
+          return i - fromIndex;
+        }
+      }
+      return List.INDEX_NOT_FOUND;
+    }
+
+    @Override
+    public long removeAt(int index) {
+      RandomAccessListHelper.checkIndex(index, size());
+      long removed = list.removeAt(fromIndex + index);
+      toIndex--;
+      return removed;
+    }
+
+    @Override
+    public long set(int index, long value) {
+      RandomAccessListHelper.checkIndex(index, size());
+      return list.set(fromIndex + index, value);
+    }
+
+    @Override
+    public int size() {
+      return toIndex - fromIndex;
+    }
+
+    @Override
+    public LongList subList(int fromIndex, int toIndex) {
+      if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+        throw new IndexOutOfBoundsException(
+            "fromIndex: " + fromIndex + " toIndex: " + toIndex + " size: " + size());
+      }
+      return new LongSubList(list, this.fromIndex + fromIndex, this.fromIndex + toIndex);
+    }
+
+    @Override
+    public long[] toArray() {
+      long[] array = new long[size()];
+      System.arraycopy(list.data, fromIndex, array, 0, array.length);
+      return array;
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package com.hopkins.collections;
+
+import java.util.function.LongConsumer;
+
+/**
+ * An ordered sequence of {@code long} values, mirroring {@link List} without
+ * boxing the elements.
+ */
+public interface LongList {
+  /**
+   * Appends the value to the end of the list.  Always returns {@code true}.
+   */
+  boolean add(long value);
+
+  void add(int index, long value);
+
+  boolean addAll(LongList values);
+
+  boolean addAll(int index, LongList values);
+
+  void clear();
+
+  boolean contains(long value);
+
+  /**
+   * Performs the action for each value of the list, in order.
+   */
+  void forEach(LongConsumer action);
+
+  long get(int index);
+
+  int indexOf(long value);
+
+  boolean isEmpty();
+
+  int lastIndexOf(long value);
+
+  /**
+   * Removes and returns the value at the specified index.  This is not named
+   * {@code remove} so it cannot be confused with removing a value.
+   */
+  long removeAt(int index);
+
+  long set(int index, long value);
+
+  int size();
+
+  /**
+   * Returns a view of the portion of this list between {@code fromIndex}
+   * (inclusive) and {@code toIndex} (exclusive).
+   */
+  LongList subList(int fromIndex, int toIndex);
+
+  /**
+   * Returns a new array holding the values of the list, in order.
+   */
+  long[] toArray();
+}
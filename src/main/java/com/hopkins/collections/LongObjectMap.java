@@ -0,0 +1,348 @@
+package com.hopkins.collections;
+
+import java.util.Objects;
+
+/**
+ * A hash map from {@code long} keys to object values that stores keys and
+ * values in parallel arrays, so no object is allocated per entry and keys
+ * are never boxed.
+ * <p>The table is open-addressing with linear probing and a power of two
+ * length, and removals shift later entries back instead of leaving
+ * tombstones.  An empty slot is marked by the key {@code 0}; the key
+ * {@code 0} itself is therefore kept outside the table.
+ * <p>Entries are visited with a reusable {@link Cursor} rather than an
+ * {@link Iterator}.  The map must not be modified while a cursor is in use,
+ * except through {@link Cursor#setValue}.
+ */
+public class LongObjectMap<V> {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+  private final float loadFactor;
+  private long[] keys;
+  private Object[] values;
+  private int mask;
+  private int threshold;
+  private int size;
+  private boolean hasZeroKey;
+  private V zeroValue;
+
+  /**
+   * Create a new LongObjectMap with default initial capacity and load factor.
+   */
+  public LongObjectMap() {
+    this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Create a new LongObjectMap able to hold the specified number of entries without
+   * resizing, using the default load factor.
+   */
+  public LongObjectMap(int initialCapacity) {
+    this(initialCapacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Create a new LongObjectMap able to hold the specified number of entries without
+   * resizing, using the specified load factor.  The load factor must be
+   * greater than 0 and less than 1.
+   */
+  public LongObjectMap(int initialCapacity, float loadFactor) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("initialCapacity: " + initialCapacity);
+    }
+    if (!(loadFactor > 0 && loadFactor < 1)) {
+      throw new IllegalArgumentException("loadFactor: " + loadFactor);
+    }
+    this.loadFactor = loadFactor;
+    allocate(PrimitiveHashHelper.tableSizeFor(initialCapacity, loadFactor));
+  }
+
+  /**
+   * Returns the number of slots in the underlying arrays.
+   */
+  int capacity() {
+    return keys.length;
+  }
+
+  /**
+   * Remove all entries from the map.  The capacity is kept.
+   */
+  public void clear() {
+    if (size == 0) {
+      return;
+    }
+    size = 0;
+    hasZeroKey = false;
+    zeroValue = null;
+    Arrays.fill(keys, 0L);
+    Arrays.fill(values, null);
+  }
+
+  /**
+   * Returns whether the map contains the specified key.
+   */
+  public boolean containsKey(long key) {
+    return key == 0 ? hasZeroKey : findSlot(key) >= 0;
+  }
+
+  /**
+   * Returns whether any key of the map is associated with the specified
+   * value.
+   */
+  public boolean containsValue(Object value) {
+    if (hasZeroKey && Objects.equals(zeroValue, value)) {
+      return true;
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != 0 && Objects.equals(values[i], value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the value associated with the specified key, or {@code null} if
+   * there is no such key.
+   */
+  public V get(long key) {
+    return getOrDefault(key, null);
+  }
+
+  /**
+   * Returns the value associated with the specified key, or
+   * {@code defaultValue} if there is no such key.
+   */
+  public V getOrDefault(long key, V defaultValue) {
+    if (key == 0) {
+      return hasZeroKey ? zeroValue : defaultValue;
+    }
+    int slot = findSlot(key);
+    return slot < 0 ? defaultValue : (V) values[slot];
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Associates the specified value with the key, returning the previous
+   * value, or {@code null} if the key was not present.
+   */
+  public V put(long key, V value) {
+    if (key == 0) {
+      V oldValue = zeroValue;
+      zeroValue = value;
+      if (!hasZeroKey) {
+        hasZeroKey = true;
+        size++;
+      }
+      return oldValue;
+    }
+    int slot = PrimitiveHashHelper.mix(key) & mask;
+    long current;
+    while ((current = keys[slot]) != 0) {
+      if (current == key) {
+        V oldValue = (V) values[slot];
+        values[slot] = value;
+        return oldValue;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+    if (size - (hasZeroKey ? 1 : 0) > threshold) {
+      rehash(keys.length * 2);
+    }
+    return null;
+  }
+
+  /**
+   * Removes the specified key, returning its value, or {@code null} if the key
+   * was not present.
+   */
+  public V remove(long key) {
+    if (key == 0) {
+      V oldValue = zeroValue;
+      if (hasZeroKey) {
+        hasZeroKey = false;
+        zeroValue = null;
+        size--;
+      }
+      return oldValue;
+    }
+    int slot = findSlot(key);
+    if (slot < 0) {
+      return null;
+    }
+    V oldValue = (V) values[slot];
+    removeSlot(slot);
+    return oldValue;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Ensures the map can hold the specified number of entries without
+   * resizing.
+   */
+  public void ensureCapacity(int expectedSize) {
+    int capacity = PrimitiveHashHelper.tableSizeFor(expectedSize, loadFactor);
+    if (capacity > keys.length) {
+      rehash(capacity);
+    }
+  }
+
+  /**
+   * Returns a new {@link Cursor} positioned before the first entry.
+   */
+  public Cursor<V> cursor() {
+    return new Cursor<>(this);
+  }
+
+  private int findSlot(long key) {
+    int slot = PrimitiveHashHelper.mix(key) & mask;
+    long current;
+    while ((current = keys[slot]) != 0) {
+      if (current == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Clears the specified slot and shifts the following entries of its probe
+   * sequence back so that lookups never stop early at the hole.
+   */
+  private void removeSlot(int slot) {
+    size--;
+    int last = slot;
+    int pos = (last + 1) & mask;
+    long current;
+    while ((current = keys[pos]) != 0) {
+      int home = PrimitiveHashHelper.mix(current) & mask;
+      if (PrimitiveHashHelper.canShift(home, last, pos)) {
+        keys[last] = current;
+        values[last] = values[pos];
+        last = pos;
+      }
+      pos = (pos + 1) & mask;
+    }
+    keys[last] = 0;
+    values[last] = null;
+  }
+
+  private void rehash(int newCapacity) {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    allocate(newCapacity);
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      long key = oldKeys[i];
+      if (key == 0) {
+        continue;
+      }
+      int slot = PrimitiveHashHelper.mix(key) & mask;
+      while (keys[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = oldValues[i];
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+    threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+  }
+
+  /**
+   * Visits the entries of a LongObjectMap without allocating.  A cursor starts
+   * before the first entry and can be rewound with {@link #reset} and used
+   * again.
+   *
+   * <pre>
+   *   LongObjectMap.Cursor<V> cursor = map.cursor();
+   *   while (cursor.next()) {
+   *     use(cursor.key(), cursor.value());
+   *   }
+   * </pre>
+   */
+  public static final class Cursor<V> {
+    private final LongObjectMap<V> map;
+    private int slot;
+
+    Cursor(LongObjectMap<V> map) {
+      this.map = map;
+      reset();
+    }
+
+    /**
+     * Moves the cursor back before the first entry.
+     */
+    public void reset() {
+      // The zero key, which lives outside the table, is visited first
+      slot = map.keys.length + 1;
+    }
+
+    /**
+     * Moves to the next entry, returning {@code false} once there are no
+     * more entries.
+     */
+    public boolean next() {
+      if (slot > map.keys.length) {
+        slot = map.keys.length;
+        if (map.hasZeroKey) {
+          return true;
+        }
+      }
+      while (--slot >= 0) {
+        if (map.keys[slot] != 0) {
+          return true;
+        }
+      }
+      slot = -1;
+      return false;
+    }
+
+    public long key() {
+      checkPosition();
+      return slot == map.keys.length ? 0 : map.keys[slot];
+    }
+
+    public V value() {
+      checkPosition();
+      return slot == map.keys.length ? map.zeroValue : (V) map.values[slot];
+    }
+
+    /**
+     * Replaces the value of the current entry, returning the previous value.
+     */
+    public V setValue(V value) {
+      checkPosition();
+      V oldValue;
+      if (slot == map.keys.length) {
+        oldValue = map.zeroValue;
+        map.zeroValue = value;
+      } else {
+        oldValue = (V) map.values[slot];
+        map.values[slot] = value;
+      }
+      return oldValue;
+    }
+
+    private void checkPosition() {
+      if (slot < 0 || slot > map.keys.length) {
+        throw new NoSuchElementException();
+      }
+    }
+  }
+}
@@ -1,5 +1,9 @@
 package com.hopkins.collections;
 
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
 public interface Map<K, V> {
   /**
    * Remove all items from the {@link Map}.
@@ -35,6 +39,55 @@ public interface Map<K, V> {
    */
   V put(K key, V value);
 
+  /**
+   * Puts a key-value pair into the Map if the key is not already associated
+   * with a non-null value.  Returns the existing value, or {@code null} if
+   * the new value was stored.
+   */
+  default V putIfAbsent(K key, V value) {
+    V existing = get(key);
+    if (existing == null) {
+      existing = put(key, value);
+    }
+    return existing;
+  }
+
+  /**
+   * Returns the value for the specified key, first computing and storing it
+   * with the mapping function if the key is not associated with a non-null
+   * value.  Nothing is stored if the function returns {@code null}.
+   */
+  default V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    Objects.requireNonNull(mappingFunction);
+    V value = get(key);
+    if (value == null) {
+      value = mappingFunction.apply(key);
+      if (value != null) {
+        put(key, value);
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Associates the specified value with the key if it has no value, otherwise
+   * replaces the existing value with the result of the remapping function.
+   * The entry is removed if the remapping function returns {@code null}.
+   * Returns the new value.
+   */
+  default V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+    Objects.requireNonNull(value);
+    Objects.requireNonNull(remappingFunction);
+    V oldValue = get(key);
+    V newValue = oldValue == null ? value : remappingFunction.apply(oldValue, value);
+    if (newValue == null) {
+      remove(key);
+    } else {
+      put(key, newValue);
+    }
+    return newValue;
+  }
+
   /**
    * Put all the key-value pair in the specified Map into this Map.
    */
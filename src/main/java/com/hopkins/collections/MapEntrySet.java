@@ -11,7 +11,7 @@ import java.util.Objects;
 /**
  * @author ian_000
  */
-final class MapEntrySet<K, V> implements Set<Map.Entry<K, V>> {
+class MapEntrySet<K, V> implements Set<Map.Entry<K, V>> {
   private final Map<K, V> map;
   private final MapEntryIteratorFactory<K, V> factory;
 
@@ -5,7 +5,7 @@ import java.lang.reflect.Array;
 /**
  * @author ian_000
  */
-final class MapKeySet<T> implements Set<T> {
+class MapKeySet<T> implements Set<T> {
   private final Map<T, ?> map;
   private final MapEntryIteratorFactory<T, ?> factory;
 
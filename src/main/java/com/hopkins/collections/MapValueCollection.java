@@ -5,7 +5,7 @@ import java.lang.reflect.Array;
 /**
  * @author ian_000
  */
-final class MapValueCollection<T> implements Collection<T> {
+class MapValueCollection<T> implements Collection<T> {
   private final Map<?, T> map;
   private final MapEntryIteratorFactory<?, T> factory;
 
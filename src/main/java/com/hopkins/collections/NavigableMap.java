@@ -0,0 +1,65 @@
+package com.hopkins.collections;
+
+/**
+ * A {@link Map} whose keys are kept in sorted order, with methods to find
+ * the keys nearest to a given key and views of ranges of keys.
+ * <p>The key lookups return {@code null} when there is no such key.  The
+ * range views are live: changes to the map show through the view and
+ * changes made through the view are written to the map.  Putting a key
+ * outside of the range of a view throws {@link IllegalArgumentException}.
+ */
+public interface NavigableMap<K, V> extends Map<K, V> {
+  /**
+   * Returns the smallest key, throwing {@link NoSuchElementException} if the
+   * map is empty.
+   */
+  K firstKey();
+
+  /**
+   * Returns the largest key, throwing {@link NoSuchElementException} if the
+   * map is empty.
+   */
+  K lastKey();
+
+  /**
+   * Returns the largest key less than or equal to the specified key.
+   */
+  K floorKey(K key);
+
+  /**
+   * Returns the smallest key greater than or equal to the specified key.
+   */
+  K ceilingKey(K key);
+
+  /**
+   * Returns the smallest key strictly greater than the specified key.
+   */
+  K higherKey(K key);
+
+  /**
+   * Returns the largest key strictly less than the specified key.
+   */
+  K lowerKey(K key);
+
+  /**
+   * Returns a view of the keys from {@code fromKey} (inclusive) to
+   * {@code toKey} (exclusive).
+   */
+  NavigableMap<K, V> subMap(K fromKey, K toKey);
+
+  NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive);
+
+  /**
+   * Returns a view of the keys less than {@code toKey}.
+   */
+  NavigableMap<K, V> headMap(K toKey);
+
+  NavigableMap<K, V> headMap(K toKey, boolean inclusive);
+
+  /**
+   * Returns a view of the keys greater than or equal to {@code fromKey}.
+   */
+  NavigableMap<K, V> tailMap(K fromKey);
+
+  NavigableMap<K, V> tailMap(K fromKey, boolean inclusive);
+}
@@ -0,0 +1,329 @@
+package com.hopkins.collections;
+
+import java.util.Objects;
+
+/**
+ * A {@link Map} that is backed by an open-addressing hash table.
+ * <p>Keys and values are stored in parallel arrays whose length is always a
+ * power of two, so a bucket is selected with a mask rather than a division.
+ * Collisions are resolved with linear probing and removals use backward
+ * shifting, so the table never contains tombstones.  Unlike {@link HashMap}
+ * no object is allocated per entry.
+ */
+public class OpenHashMap<K, V> implements Map<K, V> {
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  /**
+   * Stand-in for the {@code null} key, since a {@code null} slot in
+   * {@link #keys} marks an empty bucket.
+   */
+  private static final Object NULL_KEY = new Object();
+
+  private final float loadFactor;
+  private final MapEntryIteratorFactory<K, V> iteratorFactory = new MapEntryIteratorFactory<K, V>() {
+    @Override
+    public Iterator<Map.Entry<K, V>> newIterator() {
+      return new OpenHashMapEntryIterator<>(OpenHashMap.this);
+    }
+  };
+
+  private Object[] keys;
+  private Object[] values;
+  private int mask;
+  private int threshold;
+  private int size;
+
+  /**
+   * Create a new OpenHashMap with default initial capacity and load factor.
+   */
+  public OpenHashMap() {
+    this(DEFAULT_CAPACITY, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Create a new OpenHashMap able to hold the specified number of entries
+   * without resizing, using the default load factor.
+   */
+  public OpenHashMap(int initialCapacity) {
+    this(initialCapacity, DEFAULT_LOAD_FACTOR);
+  }
+
+  /**
+   * Create a new OpenHashMap able to hold the specified number of entries
+   * without resizing, using the specified load factor.  The load factor must
+   * be greater than 0 and less than 1.
+   */
+  public OpenHashMap(int initialCapacity, float loadFactor) {
+    if (initialCapacity < 0) {
+      throw new IllegalArgumentException("initialCapacity: " + initialCapacity);
+    }
+    if (!(loadFactor > 0 && loadFactor < 1)) {
+      throw new IllegalArgumentException("loadFactor: " + loadFactor);
+    }
+    this.loadFactor = loadFactor;
+    allocate(tableSizeFor(initialCapacity, loadFactor));
+  }
+
+  /**
+   * Create a new OpenHashMap with contents from the specified {@link Map}.
+   */
+  public OpenHashMap(Map<? extends K, ? extends V> m) {
+    this(m.size(), DEFAULT_LOAD_FACTOR);
+    putAll(m);
+  }
+
+  /**
+   * Returns the number of buckets in the underlying arrays.
+   */
+  int capacity() {
+    return keys.length;
+  }
+
+  @Override
+  public void clear() {
+    if (isEmpty()) {
+      return;
+    }
+    size = 0;
+    Arrays.fill(keys, null);
+    Arrays.fill(values, null);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return findSlot(key) >= 0;
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != null && Objects.equals(values[i], value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new MapEntrySet<>(this, iteratorFactory);
+  }
+
+  @Override
+  public V get(Object key) {
+    int slot = findSlot(key);
+    return slot < 0 ? null : (V) values[slot];
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new MapKeySet<>(this, iteratorFactory);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    Object maskedKey = maskNull(key);
+    int slot = mix(maskedKey.hashCode()) & mask;
+    Object current;
+    while ((current = keys[slot]) != null) {
+      if (current.equals(maskedKey)) {
+        V oldValue = (V) values[slot];
+        values[slot] = value;
+        return oldValue;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = maskedKey;
+    values[slot] = value;
+    if (++size > threshold) {
+      rehash(keys.length * 2);
+    }
+    return null;
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> map) {
+    ensureCapacity(size + map.size());
+
+    Iterator<?> iter = map.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<K, V> entry = (Map.Entry<K, V>) iter.next();
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public V remove(Object key) {
+    int slot = findSlot(key);
+    if (slot < 0) {
+      return null;
+    }
+    V oldValue = (V) values[slot];
+    removeSlot(slot, null /* wrappedKeys */);
+    return oldValue;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new MapValueCollection<>(this, iteratorFactory);
+  }
+
+  /**
+   * Returns the slot holding the specified key, or {@code -1} if the key is
+   * not in the table.
+   */
+  int findSlot(Object key) {
+    Object maskedKey = maskNull(key);
+    int slot = mix(maskedKey.hashCode()) & mask;
+    Object current;
+    while ((current = keys[slot]) != null) {
+      if (current.equals(maskedKey)) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  K keyAt(int slot) {
+    return (K) unmaskNull(keys[slot]);
+  }
+
+  V valueAt(int slot) {
+    return (V) values[slot];
+  }
+
+  boolean isOccupied(int slot) {
+    return keys[slot] != null;
+  }
+
+  /**
+   * Replaces the value of an existing key without changing the layout of the
+   * table.  Used by entries that have been handed out by an iterator.
+   */
+  V replaceValue(Object key, V value) {
+    int slot = findSlot(key);
+    if (slot < 0) {
+      throw new IllegalStateException();
+    }
+    V oldValue = (V) values[slot];
+    values[slot] = value;
+    return oldValue;
+  }
+
+  /**
+   * Clears the specified slot and shifts the following entries of its probe
+   * sequence back so that lookups never stop early at the hole.  An entry
+   * that is shifted from the start of the table across the wrap-around point
+   * to its end is added to {@code wrappedKeys} (if non-null), so that an
+   * iterator that walks the table from the end can still visit it.
+   */
+  void removeSlot(int slot, List<K> wrappedKeys) {
+    size--;
+    int last = slot;
+    int pos = (last + 1) & mask;
+    while (true) {
+      Object current = keys[pos];
+      if (current == null) {
+        keys[last] = null;
+        values[last] = null;
+        return;
+      }
+      int home = mix(current.hashCode()) & mask;
+      // The entry at pos can move back to last only if its home bucket is not
+      // cyclically between last (exclusive) and pos (inclusive).
+      boolean canMove = last <= pos
+          ? (home <= last || home > pos)
+          : (home <= last && home > pos);
+      if (canMove) {
+        if (pos < last && wrappedKeys != null) {
+          wrappedKeys.add((K) unmaskNull(current));
+        }
+        keys[last] = current;
+        values[last] = values[pos];
+        last = pos;
+      }
+      pos = (pos + 1) & mask;
+    }
+  }
+
+  private void ensureCapacity(int newSize) {
+    int capacity = tableSizeFor(newSize, loadFactor);
+    if (capacity > keys.length) {
+      rehash(capacity);
+    }
+  }
+
+  private void rehash(int newCapacity) {
+    Object[] oldKeys = keys;
+    Object[] oldValues = values;
+    allocate(newCapacity);
+
+    for (int i = 0; i < oldKeys.length; i++) {
+      Object key = oldKeys[i];
+      if (key == null) {
+        continue;
+      }
+      int slot = mix(key.hashCode()) & mask;
+      while (keys[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = oldValues[i];
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new Object[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+    threshold = Math.min((int) (capacity * loadFactor), capacity - 1);
+  }
+
+  /**
+   * Returns the smallest power of two table size that can hold the specified
+   * number of entries at the specified load factor.
+   */
+  private static int tableSizeFor(int expectedSize, float loadFactor) {
+    long needed = (long) Math.ceil(expectedSize / (double) loadFactor);
+    if (needed >= MAXIMUM_CAPACITY) {
+      return MAXIMUM_CAPACITY;
+    }
+    int capacity = needed <= 2 ? 2 : Integer.highestOneBit((int) needed - 1) << 1;
+    if (capacity - 1 < expectedSize) {
+      // Always leave at least one empty bucket to terminate probing
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  /**
+   * Spreads the bits of a hash code so that keys whose hash codes only
+   * differ in their upper bits still land in different buckets of a power of
+   * two table.
+   */
+  static int mix(int hash) {
+    int h = hash * 0x9e3779b9;
+    return h ^ (h >>> 16);
+  }
+
+  private static Object maskNull(Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  private static Object unmaskNull(Object key) {
+    return key == NULL_KEY ? null : key;
+  }
+}
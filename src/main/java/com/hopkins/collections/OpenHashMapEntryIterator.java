@@ -0,0 +1,106 @@
+package com.hopkins.collections;
+
+/**
+ * An {@link Iterator} over the entries in an {@link OpenHashMap}.
+ * <p>The table is walked from the last slot to the first.  Removing an entry
+ * shifts later entries of its probe sequence back into slots that have
+ * already been visited, which is harmless when walking backwards except for
+ * entries that wrap around from the start of the table to its end.  Those
+ * are collected by the map and visited once the table has been exhausted.
+ */
+final class OpenHashMapEntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+  private final OpenHashMap<K, V> map;
+  private int slot;
+  private List<K> wrappedKeys;
+  private int wrappedIndex;
+  private boolean hasLast;
+  private K lastKey;
+  private int lastSlot;
+
+  OpenHashMapEntryIterator(OpenHashMap<K, V> map) {
+    this.map = map;
+    this.slot = map.capacity();
+  }
+
+  /**
+   * Moves {@link #slot} down to the next occupied slot.  This is done lazily
+   * because a removal may shift entries into the unvisited part of the table.
+   */
+  private boolean moveToNext() {
+    while (slot > 0) {
+      if (map.isOccupied(slot - 1)) {
+        return true;
+      }
+      slot--;
+    }
+    return false;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return moveToNext() || (wrappedKeys != null && wrappedIndex < wrappedKeys.size());
+  }
+
+  @Override
+  public Map.Entry<K, V> next() {
+    if (moveToNext()) {
+      slot--;
+      lastSlot = slot;
+      lastKey = map.keyAt(lastSlot);
+    } else if (wrappedKeys != null && wrappedIndex < wrappedKeys.size()) {
+      lastKey = wrappedKeys.get(wrappedIndex++);
+      lastSlot = -1;
+    } else {
+      throw new NoSuchElementException();
+    }
+    hasLast = true;
+    V value = lastSlot < 0 ? map.get(lastKey) : map.valueAt(lastSlot);
+    return new OpenHashMapEntry<>(map, lastKey, value);
+  }
+
+  @Override
+  public void remove() {
+    if (!hasLast) {
+      throw new IllegalStateException();
+    }
+    hasLast = false;
+    if (lastSlot < 0) {
+      // Entries from the wrapped list have already been moved past the walk
+      map.remove(lastKey);
+      return;
+    }
+    if (wrappedKeys == null) {
+      wrappedKeys = new ArrayList<>(2);
+    }
+    map.removeSlot(lastSlot, wrappedKeys);
+  }
+
+  static final class OpenHashMapEntry<K, V> implements Map.Entry<K, V> {
+    private final OpenHashMap<K, V> map;
+    private final K key;
+    private V value;
+
+    OpenHashMapEntry(OpenHashMap<K, V> map, K key, V value) {
+      this.map = map;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V value) {
+      V oldValue = map.replaceValue(key, value);
+      this.value = value;
+      return oldValue;
+    }
+  }
+}
@@ -0,0 +1,228 @@
+package com.hopkins.collections;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A stable merge sort for arrays of objects that runs on the common
+ * {@link ForkJoinPool}.
+ * <p>The array is split in halves until the pieces are no larger than a
+ * granularity, which aims for about four pieces per worker thread.  Each
+ * piece is sorted with {@link TimSort}, and sorted halves are merged in
+ * parallel: the larger half is split at its middle item, the other half is
+ * split at the same key with a binary search, and the two pairs of pieces
+ * are merged independently.  Each level merges from the array into a work
+ * buffer of the same length or back, so no level copies the items back.
+ */
+final class ParallelMergeSort {
+  /**
+   * Arrays no longer than this are sorted on the calling thread, as the
+   * cost of forking would outweigh the gain.
+   */
+  static final int MIN_PARALLEL_SORT = 1 << 13;
+
+  private static final int PIECES_PER_THREAD = 4;
+
+  private ParallelMergeSort() {
+  }
+
+  /**
+   * Sorts the range of the array.  The range must already have been checked.
+   */
+  static <T> void sort(T[] array, int fromIndex, int toIndex, Comparator<? super T> comparator) {
+    sort(array, fromIndex, toIndex, comparator, ForkJoinPool.commonPool());
+  }
+
+  static <T> void sort(
+      T[] array, int fromIndex, int toIndex, Comparator<? super T> comparator, ForkJoinPool pool) {
+    int size = toIndex - fromIndex;
+    int parallelism = pool.getParallelism();
+    if (size <= MIN_PARALLEL_SORT || parallelism == 1) {
+      TimSort.sort(array, fromIndex, toIndex, comparator);
+      return;
+    }
+    int granularity = Math.max(MIN_PARALLEL_SORT, size / (parallelism * PIECES_PER_THREAD));
+    Object[] work = new Object[size];
+    pool.invoke(new SortTask<>(
+        array, (T[]) work, fromIndex, toIndex, fromIndex, false /* intoWork */, granularity, comparator));
+  }
+
+  /**
+   * Sorts {@code array[low, high)} into the same range of the array, or
+   * into the work buffer if {@code intoWork} is set.  The work buffer is
+   * indexed from {@code base}, the start of the whole range.
+   */
+  private static final class SortTask<T> extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final T[] array;
+    private final T[] work;
+    private final int low;
+    private final int high;
+    private final int base;
+    private final boolean intoWork;
+    private final int granularity;
+    private final Comparator<? super T> comparator;
+
+    SortTask(
+        T[] array,
+        T[] work,
+        int low,
+        int high,
+        int base,
+        boolean intoWork,
+        int granularity,
+        Comparator<? super T> comparator) {
+      this.array = array;
+      this.work = work;
+      this.low = low;
+      this.high = high;
+      this.base = base;
+      this.intoWork = intoWork;
+      this.granularity = granularity;
+      this.comparator = comparator;
+    }
+
+    @Override
+    protected void compute() {
+      if (high - low <= granularity) {
+        TimSort.sort(array, low, high, comparator);
+        if (intoWork) {
+          System.arraycopy(array, low, work, low - base, high - low);
+        }
+        return;
+      }
+      int middle = (low + high) >>> 1;
+      // Each half ends up in the other buffer, ready to be merged into this one
+      invokeAll(
+          new SortTask<>(array, work, low, middle, base, !intoWork, granularity, comparator),
+          new SortTask<>(array, work, middle, high, base, !intoWork, granularity, comparator));
+      T[] source = intoWork ? array : work;
+      T[] dest = intoWork ? work : array;
+      int offset = intoWork ? 0 : base;
+      int destOffset = intoWork ? base : 0;
+      new MergeTask<>(
+              source,
+              low - offset,
+              middle - offset,
+              middle - offset,
+              high - offset,
+              dest,
+              low - destOffset,
+              granularity,
+              comparator)
+          .invoke();
+    }
+  }
+
+  /**
+   * Merges two sorted ranges of {@code source} into {@code dest}, starting
+   * at {@code destIndex}.  Items of the first range come before equal items
+   * of the second.
+   */
+  private static final class MergeTask<T> extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final T[] source;
+    private final int low1;
+    private final int high1;
+    private final int low2;
+    private final int high2;
+    private final T[] dest;
+    private final int destIndex;
+    private final int granularity;
+    private final Comparator<? super T> comparator;
+
+    MergeTask(
+        T[] source,
+        int low1,
+        int high1,
+        int low2,
+        int high2,
+        T[] dest,
+        int destIndex,
+        int granularity,
+        Comparator<? super T> comparator) {
+      this.source = source;
+      this.low1 = low1;
+      this.high1 = high1;
+      this.low2 = low2;
+      this.high2 = high2;
+      this.dest = dest;
+      this.destIndex = destIndex;
+      this.granularity = granularity;
+      this.comparator = comparator;
+    }
+
+    @Override
+    protected void compute() {
+      int length1 = high1 - low1;
+      int length2 = high2 - low2;
+      if (length1 + length2 <= granularity) {
+        mergeSequentially();
+        return;
+      }
+      int split1;
+      int split2;
+      if (length1 >= length2) {
+        split1 = (low1 + high1) >>> 1;
+        // Items of the second range equal to the key go after it
+        split2 = lowerBound(source, low2, high2, source[split1]);
+      } else {
+        split2 = (low2 + high2) >>> 1;
+        // Items of the first range equal to the key go before it
+        split1 = upperBound(source, low1, high1, source[split2]);
+      }
+      int splitDest = destIndex + (split1 - low1) + (split2 - low2);
+      invokeAll(
+          new MergeTask<>(source, low1, split1, low2, split2, dest, destIndex, granularity, comparator),
+          new MergeTask<>(source, split1, high1, split2, high2, dest, splitDest, granularity, comparator));
+    }
+
+    private void mergeSequentially() {
+      int i = low1;
+      int j = low2;
+      int k = destIndex;
+      while (i < high1 && j < high2) {
+        if (comparator.compare(source[j], source[i]) < 0) {
+          dest[k++] = source[j++];
+        } else {
+          dest[k++] = source[i++];
+        }
+      }
+      System.arraycopy(source, i, dest, k, high1 - i);
+      k += high1 - i;
+      System.arraycopy(source, j, dest, k, high2 - j);
+    }
+
+    /**
+     * Returns the index of the first item in the range not less than the key.
+     */
+    private int lowerBound(T[] array, int low, int high, T key) {
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (comparator.compare(array[middle], key) < 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+
+    /**
+     * Returns the index of the first item in the range greater than the key.
+     */
+    private int upperBound(T[] array, int low, int high, T key) {
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (comparator.compare(array[middle], key) <= 0) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+  }
+}
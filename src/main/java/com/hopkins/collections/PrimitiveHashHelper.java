@@ -0,0 +1,54 @@
+package com.hopkins.collections;
+
+/**
+ * Hashing helpers shared by the open-addressing maps with primitive keys.
+ */
+final class PrimitiveHashHelper {
+  private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+  private PrimitiveHashHelper() {
+  }
+
+  /**
+   * Spreads the bits of a key so that keys that only differ in their upper
+   * bits, or that form an arithmetic sequence, still land in different
+   * buckets of a power of two table.
+   */
+  static int mix(int key) {
+    int h = key * 0x9e3779b9;
+    return h ^ (h >>> 16);
+  }
+
+  static int mix(long key) {
+    long h = key * 0x9e3779b97f4a7c15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * Returns whether the entry at {@code pos}, whose home bucket is
+   * {@code home}, may move back into the hole at {@code last}.  It may only if
+   * its home bucket is not cyclically between the two.
+   */
+  static boolean canShift(int home, int last, int pos) {
+    return last <= pos
+        ? (home <= last || home > pos)
+        : (home <= last && home > pos);
+  }
+
+  /**
+   * Returns the smallest power of two table size that can hold the specified
+   * number of entries at the specified load factor.
+   */
+  static int tableSizeFor(int expectedSize, float loadFactor) {
+    long needed = (long) Math.ceil(expectedSize / (double) loadFactor);
+    if (needed >= MAXIMUM_CAPACITY) {
+      return MAXIMUM_CAPACITY;
+    }
+    int capacity = needed <= 2 ? 2 : Integer.highestOneBit((int) needed - 1) << 1;
+    if (capacity - 1 < expectedSize) {
+      // Always leave at least one empty slot to terminate probing
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+}
@@ -0,0 +1,231 @@
+package com.hopkins.collections;
+
+/**
+ * A least significant digit radix sort for arrays of {@code int} and
+ * {@code long} keys.
+ * <p>Keys are sorted one byte at a time, from the lowest byte to the
+ * highest, by counting the keys with each byte value and then moving them
+ * to a buffer of the same length and back.  The counts for every byte are
+ * taken in one pass up front, and a byte that is the same for every key is
+ * skipped, so keys that share their high bytes, like ids or timestamps,
+ * take fewer passes.  The sign bit is flipped while counting so negative
+ * keys sort first.  Each pass is stable, which also lets
+ * {@link #sortIndices} return a stable permutation.
+ */
+final class RadixSort {
+  /**
+   * Ranges at least this long are radix sorted; shorter ones are sorted
+   * faster by comparison.
+   */
+  static final int MIN_RADIX_SORT = 1 << 12;
+
+  /**
+   * Index ranges shorter than this are insertion sorted inside the merge
+   * sort used below {@link #MIN_RADIX_SORT}.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 32;
+
+  private static final int RADIX_BITS = 8;
+  private static final int RADIX = 1 << RADIX_BITS;
+  private static final int MASK = RADIX - 1;
+
+  private RadixSort() {
+  }
+
+  /**
+   * Sorts {@code array[low, high)}.
+   */
+  static void sort(int[] array, int low, int high) {
+    int length = high - low;
+    int[] counts = new int[4 * RADIX];
+    for (int i = low; i < high; i++) {
+      int key = array[i] ^ Integer.MIN_VALUE;
+      counts[key & MASK]++;
+      counts[RADIX + ((key >>> 8) & MASK)]++;
+      counts[2 * RADIX + ((key >>> 16) & MASK)]++;
+      counts[3 * RADIX + (key >>> 24)]++;
+    }
+    int[] source = array;
+    int sourceBase = low;
+    int[] dest = new int[length];
+    int destBase = 0;
+    for (int digit = 0; digit < 4; digit++) {
+      int offset = digit * RADIX;
+      if (!toStarts(counts, offset, length)) {
+        continue;
+      }
+      int shift = digit * RADIX_BITS;
+      for (int i = sourceBase; i < sourceBase + length; i++) {
+        int value = source[i];
+        int bucket = offset + (((value ^ Integer.MIN_VALUE) >>> shift) & MASK);
+        dest[destBase + counts[bucket]++] = value;
+      }
+      int[] swap = source;
+      source = dest;
+      dest = swap;
+      int swapBase = sourceBase;
+      sourceBase = destBase;
+      destBase = swapBase;
+    }
+    if (source != array) {
+      System.arraycopy(source, 0, array, low, length);
+    }
+  }
+
+  /**
+   * Sorts {@code array[low, high)}.
+   */
+  static void sort(long[] array, int low, int high) {
+    int length = high - low;
+    int[] counts = countBytes(array, low, high);
+    long[] source = array;
+    int sourceBase = low;
+    long[] dest = new long[length];
+    int destBase = 0;
+    for (int digit = 0; digit < 8; digit++) {
+      int offset = digit * RADIX;
+      if (!toStarts(counts, offset, length)) {
+        continue;
+      }
+      int shift = digit * RADIX_BITS;
+      for (int i = sourceBase; i < sourceBase + length; i++) {
+        long value = source[i];
+        int bucket = offset + (int) (((value ^ Long.MIN_VALUE) >>> shift) & MASK);
+        dest[destBase + counts[bucket]++] = value;
+      }
+      long[] swap = source;
+      source = dest;
+      dest = swap;
+      int swapBase = sourceBase;
+      sourceBase = destBase;
+      destBase = swapBase;
+    }
+    if (source != array) {
+      System.arraycopy(source, 0, array, low, length);
+    }
+  }
+
+  /**
+   * Returns the permutation that sorts the keys: the index of the smallest
+   * key first.  Equal keys keep their relative order.  The keys are not
+   * changed.
+   */
+  static int[] sortIndices(long[] keys) {
+    int length = keys.length;
+    int[] indices = new int[length];
+    for (int i = 0; i < length; i++) {
+      indices[i] = i;
+    }
+    if (length < MIN_RADIX_SORT) {
+      mergeSortIndices(keys, indices.clone(), indices, 0, length);
+      return indices;
+    }
+    int[] counts = countBytes(keys, 0, length);
+    // The first pass reads the keys in place, later ones a copy that is
+    // moved along with the indices
+    long[] sourceKeys = keys;
+    int[] sourceIndices = indices;
+    long[] destKeys = new long[length];
+    int[] destIndices = new int[length];
+    long[] spareKeys = null;
+    for (int digit = 0; digit < 8; digit++) {
+      int offset = digit * RADIX;
+      if (!toStarts(counts, offset, length)) {
+        continue;
+      }
+      int shift = digit * RADIX_BITS;
+      for (int i = 0; i < length; i++) {
+        long key = sourceKeys[i];
+        int position = counts[offset + (int) (((key ^ Long.MIN_VALUE) >>> shift) & MASK)]++;
+        destKeys[position] = key;
+        destIndices[position] = sourceIndices[i];
+      }
+      if (sourceKeys == keys) {
+        if (spareKeys == null) {
+          spareKeys = new long[length];
+        }
+        sourceKeys = destKeys;
+        destKeys = spareKeys;
+      } else {
+        long[] swap = sourceKeys;
+        sourceKeys = destKeys;
+        destKeys = swap;
+      }
+      int[] swap = sourceIndices;
+      sourceIndices = destIndices;
+      destIndices = swap;
+    }
+    return sourceIndices;
+  }
+
+  /**
+   * Merge sorts {@code dest[low, high)} by key, using {@code source}, which
+   * holds the same indices, as the buffer.  Ties are taken from the left
+   * run first, so the sort is stable.
+   */
+  private static void mergeSortIndices(
+      long[] keys, int[] source, int[] dest, int low, int high) {
+    if (high - low < INSERTION_SORT_THRESHOLD) {
+      insertionSortIndices(keys, dest, low, high);
+      return;
+    }
+    int middle = (low + high) >>> 1;
+    mergeSortIndices(keys, dest, source, low, middle);
+    mergeSortIndices(keys, dest, source, middle, high);
+    if (keys[source[middle - 1]] <= keys[source[middle]]) {
+      System.arraycopy(source, low, dest, low, high - low);
+      return;
+    }
+    int left = low;
+    int right = middle;
+    for (int i = low; i < high; i++) {
+      if (right >= high || (left < middle && keys[source[left]] <= keys[source[right]])) {
+        dest[i] = source[left++];
+      } else {
+        dest[i] = source[right++];
+      }
+    }
+  }
+
+  private static void insertionSortIndices(long[] keys, int[] indices, int low, int high) {
+    for (int i = low + 1; i < high; i++) {
+      int index = indices[i];
+      long key = keys[index];
+      int j = i - 1;
+      while (j >= low && key < keys[indices[j]]) {
+        indices[j + 1] = indices[j];
+        j--;
+      }
+      indices[j + 1] = index;
+    }
+  }
+
+  private static int[] countBytes(long[] array, int low, int high) {
+    int[] counts = new int[8 * RADIX];
+    for (int i = low; i < high; i++) {
+      long key = array[i] ^ Long.MIN_VALUE;
+      for (int digit = 0; digit < 8; digit++) {
+        counts[digit * RADIX + (int) ((key >>> (digit * RADIX_BITS)) & MASK)]++;
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Turns the counts of one digit into the position of the first key with
+   * each value.  Returns {@code false} if every key has the same value, so
+   * the pass can be skipped.
+   */
+  private static boolean toStarts(int[] counts, int offset, int length) {
+    int start = 0;
+    for (int i = offset; i < offset + RADIX; i++) {
+      int count = counts[i];
+      if (count == length) {
+        return false;
+      }
+      counts[i] = start;
+      start += count;
+    }
+    return true;
+  }
+}
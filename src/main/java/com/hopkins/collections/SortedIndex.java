@@ -0,0 +1,255 @@
+package com.hopkins.collections;
+
+/**
+ * Read-only lookup tables over sorted keys, laid out for fast search.
+ * <p>The keys are copied into Eytzinger order: the layout of an implicit
+ * binary search tree stored breadth first, with the root at index 1 and the
+ * children of node {@code k} at {@code 2k} and {@code 2k + 1}.  A search
+ * walks down the tree choosing the child with a comparison rather than a
+ * branch, so the loop runs the same number of steps for every key and the
+ * JIT can turn the choice into a conditional move.  The top levels of the
+ * tree share a few cache lines that stay hot between searches, and the
+ * sixteen nodes four levels below any node sit next to each other, which
+ * suits the hardware prefetcher far better than the jumps of a binary
+ * search over the sorted array.
+ * <p>Searches return the position of the key in the original sorted array,
+ * so an index can sit in front of a parallel array of values.  Build an
+ * index once for a table that is read many times; it is not worth it for a
+ * single search, and it cannot be changed once built.
+ */
+public final class SortedIndex {
+
+  private SortedIndex() {
+  }
+
+  /**
+   * Returns an index over a copy of the keys, which must be in ascending
+   * order.
+   *
+   * @throws IllegalArgumentException if the keys are not sorted
+   */
+  public static OfInt of(int[] sorted) {
+    return new OfInt(sorted);
+  }
+
+  /**
+   * Returns an index over a copy of the keys, which must be in ascending
+   * order.
+   *
+   * @throws IllegalArgumentException if the keys are not sorted
+   */
+  public static OfLong of(long[] sorted) {
+    return new OfLong(sorted);
+  }
+
+  /**
+   * Returns an index over a copy of the keys, which must be in the order
+   * given by the {@link Comparator}.
+   *
+   * @throws IllegalArgumentException if the keys are not sorted
+   */
+  public static <T> OfObject<T> of(T[] sorted, Comparator<? super T> comparator) {
+    return new OfObject<>(sorted, comparator);
+  }
+
+  /**
+   * Fills the ranks of the nodes of the subtree rooted at {@code node}, in
+   * order, starting from {@code rank}.  Returns the next rank.
+   */
+  private static int fillRanks(int[] ranks, int node, int rank) {
+    if (node < ranks.length) {
+      rank = fillRanks(ranks, 2 * node, rank);
+      ranks[node] = rank++;
+      rank = fillRanks(ranks, 2 * node + 1, rank);
+    }
+    return rank;
+  }
+
+  /**
+   * Returns the ranks, in sorted order, of the nodes of a tree of the given
+   * size.  Index 0 is unused.
+   */
+  private static int[] ranks(int size) {
+    int[] ranks = new int[size + 1];
+    fillRanks(ranks, 1, 0);
+    return ranks;
+  }
+
+  /**
+   * Turns the node a search stopped past into the last node at which it
+   * went left, which holds the first key not less than the key searched
+   * for.  Returns 0 if the search never went left.
+   */
+  private static int lowerBoundNode(int node) {
+    return node >>> (Integer.numberOfTrailingZeros(~node) + 1);
+  }
+
+  private static IllegalArgumentException notSorted(int index) {
+    return new IllegalArgumentException("keys not sorted at index: " + index);
+  }
+
+  /**
+   * An index over sorted {@code int} keys.
+   */
+  public static final class OfInt {
+    private final int[] tree;
+    private final int[] ranks;
+
+    private OfInt(int[] sorted) {
+      for (int i = 1; i < sorted.length; i++) {
+        if (sorted[i] < sorted[i - 1]) {
+          throw notSorted(i);
+        }
+      }
+      ranks = ranks(sorted.length);
+      tree = new int[sorted.length + 1];
+      for (int node = 1; node < tree.length; node++) {
+        tree[node] = sorted[ranks[node]];
+      }
+    }
+
+    public int size() {
+      return ranks.length - 1;
+    }
+
+    /**
+     * Returns the position of the key in the sorted keys, or
+     * {@link List#INDEX_NOT_FOUND} if it is not present.  If the key appears
+     * more than once, the first position is returned.
+     */
+    public int indexOf(int key) {
+      int node = search(key);
+      return node != 0 && tree[node] == key ? ranks[node] : List.INDEX_NOT_FOUND;
+    }
+
+    /**
+     * Returns the position of the first key not less than the key, or
+     * {@link #size} if every key is less.
+     */
+    public int lowerBound(int key) {
+      int node = search(key);
+      return node != 0 ? ranks[node] : size();
+    }
+
+    private int search(int key) {
+      int[] tree = this.tree;
+      int node = 1;
+      while (node < tree.length) {
+        node = 2 * node + (tree[node] < key ? 1 : 0);
+      }
+      return lowerBoundNode(node);
+    }
+  }
+
+  /**
+   * An index over sorted {@code long} keys.
+   */
+  public static final class OfLong {
+    private final long[] tree;
+    private final int[] ranks;
+
+    private OfLong(long[] sorted) {
+      for (int i = 1; i < sorted.length; i++) {
+        if (sorted[i] < sorted[i - 1]) {
+          throw notSorted(i);
+        }
+      }
+      ranks = ranks(sorted.length);
+      tree = new long[sorted.length + 1];
+      for (int node = 1; node < tree.length; node++) {
+        tree[node] = sorted[ranks[node]];
+      }
+    }
+
+    public int size() {
+      return ranks.length - 1;
+    }
+
+    /**
+     * Returns the position of the key in the sorted keys, or
+     * {@link List#INDEX_NOT_FOUND} if it is not present.  If the key appears
+     * more than once, the first position is returned.
+     */
+    public int indexOf(long key) {
+      int node = search(key);
+      return node != 0 && tree[node] == key ? ranks[node] : List.INDEX_NOT_FOUND;
+    }
+
+    /**
+     * Returns the position of the first key not less than the key, or
+     * {@link #size} if every key is less.
+     */
+    public int lowerBound(long key) {
+      int node = search(key);
+      return node != 0 ? ranks[node] : size();
+    }
+
+    private int search(long key) {
+      long[] tree = this.tree;
+      int node = 1;
+      while (node < tree.length) {
+        node = 2 * node + (tree[node] < key ? 1 : 0);
+      }
+      return lowerBoundNode(node);
+    }
+  }
+
+  /**
+   * An index over keys sorted by a {@link Comparator}.  The comparator is
+   * called once per level, so the search is not branch free, but it still
+   * gains from the layout.
+   */
+  public static final class OfObject<T> {
+    private final Object[] tree;
+    private final int[] ranks;
+    private final Comparator<? super T> comparator;
+
+    private OfObject(T[] sorted, Comparator<? super T> comparator) {
+      for (int i = 1; i < sorted.length; i++) {
+        if (comparator.compare(sorted[i], sorted[i - 1]) < 0) {
+          throw notSorted(i);
+        }
+      }
+      this.comparator = comparator;
+      ranks = ranks(sorted.length);
+      tree = new Object[sorted.length + 1];
+      for (int node = 1; node < tree.length; node++) {
+        tree[node] = sorted[ranks[node]];
+      }
+    }
+
+    public int size() {
+      return ranks.length - 1;
+    }
+
+    /**
+     * Returns the position of the key in the sorted keys, or
+     * {@link List#INDEX_NOT_FOUND} if no key compares equal to it.  If
+     * several do, the first position is returned.
+     */
+    public int indexOf(T key) {
+      int node = search(key);
+      return node != 0 && comparator.compare((T) tree[node], key) == 0
+          ? ranks[node]
+          : List.INDEX_NOT_FOUND;
+    }
+
+    /**
+     * Returns the position of the first key not less than the key, or
+     * {@link #size} if every key is less.
+     */
+    public int lowerBound(T key) {
+      int node = search(key);
+      return node != 0 ? ranks[node] : size();
+    }
+
+    private int search(T key) {
+      Object[] tree = this.tree;
+      int node = 1;
+      while (node < tree.length) {
+        node = 2 * node + (comparator.compare((T) tree[node], key) < 0 ? 1 : 0);
+      }
+      return lowerBoundNode(node);
+    }
+  }
+}
@@ -115,24 +115,24 @@ public class SparseArray<E> {
     }
   }
 
+  /**
+   * Returns the index of the first key not less than the key.  The search
+   * halves the range without branching on the comparison, which the JIT can
+   * turn into a conditional move.
+   */
   private int findBestIndex(int key) {
     if (isEmpty()) {
       return 0;
     }
-    int min = 0;
-    int max = size;
-    int mid;
-    while (min < max) {
-      mid = min + (max - min) / 2;
-      if (key == keys[mid]) {
-        return mid;
-      } else if (key < keys[mid]) {
-        max = mid;
-      } else {
-        min = mid + 1;
-      }
+    int[] keys = this.keys;
+    int base = 0;
+    int length = size;
+    while (length > 1) {
+      int half = length >>> 1;
+      base = keys[base + half - 1] < key ? base + half : base;
+      length -= half;
     }
-    return min;
+    return keys[base] < key ? base + 1 : base;
   }
 
   public void remove(int key) {
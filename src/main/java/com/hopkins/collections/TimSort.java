@@ -0,0 +1,553 @@
+package com.hopkins.collections;
+
+/**
+ * A stable, adaptive merge sort for arrays of objects, in the style of
+ * TimSort.
+ * <p>The array is scanned for natural runs: stretches that are already
+ * ascending, or strictly descending and then reversed.  Runs shorter than a
+ * minimum length, chosen so that the number of runs is close to a power of
+ * two, are extended with a binary insertion sort.  Runs are pushed on a
+ * stack and merged whenever the lengths at the top of the stack stop
+ * shrinking quickly, which keeps the merges balanced.  An array that is
+ * already sorted, or made of a few sorted stretches, is sorted in close to
+ * O(n) comparisons.
+ * <p>A merge first skips the items of each run that are already in place,
+ * and then copies the shorter run to a temporary buffer that is kept for
+ * the rest of the sort.  While one run keeps winning, the merge switches to
+ * galloping: it searches the other run with exponentially growing steps
+ * and copies whole blocks at once.
+ */
+final class TimSort<T> {
+  /**
+   * Arrays shorter than this are sorted with a binary insertion sort alone.
+   */
+  private static final int MIN_MERGE = 32;
+
+  /**
+   * The number of wins in a row after which a merge starts galloping.
+   */
+  private static final int MIN_GALLOP = 7;
+
+  /**
+   * The most runs that can be pending at once.  The invariant on the run
+   * lengths makes them grow at least as fast as the Fibonacci numbers, so
+   * this is enough for any array.
+   */
+  private static final int MAX_PENDING_RUNS = 49;
+
+  private final T[] array;
+  private final Comparator<? super T> comparator;
+  private final int length;
+  private final int[] runBase = new int[MAX_PENDING_RUNS];
+  private final int[] runLength = new int[MAX_PENDING_RUNS];
+  private int pendingRuns;
+  private int minGallop = MIN_GALLOP;
+  private T[] buffer;
+
+  private TimSort(T[] array, Comparator<? super T> comparator, int length) {
+    this.array = array;
+    this.comparator = comparator;
+    this.length = length;
+    this.buffer = (T[]) new Object[Math.min(256, length >>> 1)];
+  }
+
+  /**
+   * Sorts the range of the array.  The range must already have been checked.
+   */
+  static <T> void sort(T[] array, int fromIndex, int toIndex, Comparator<? super T> comparator) {
+    int remaining = toIndex - fromIndex;
+    if (remaining < 2) {
+      return;
+    }
+    if (remaining < MIN_MERGE) {
+      int runLength = countRunAndMakeAscending(array, fromIndex, toIndex, comparator);
+      binarySort(array, fromIndex, toIndex, fromIndex + runLength, comparator);
+      return;
+    }
+
+    TimSort<T> sort = new TimSort<>(array, comparator, remaining);
+    int minRun = minRunLength(remaining);
+    int low = fromIndex;
+    do {
+      int runLength = countRunAndMakeAscending(array, low, toIndex, comparator);
+      if (runLength < minRun) {
+        int forced = Math.min(remaining, minRun);
+        binarySort(array, low, low + forced, low + runLength, comparator);
+        runLength = forced;
+      }
+      sort.pushRun(low, runLength);
+      sort.mergeCollapse();
+      low += runLength;
+      remaining -= runLength;
+    } while (remaining != 0);
+    sort.mergeForceCollapse();
+  }
+
+  /**
+   * Sorts the range with a binary insertion sort, given that the items
+   * before {@code start} are already sorted.
+   */
+  private static <T> void binarySort(T[] array, int low, int high, int start, Comparator<? super T> comparator) {
+    if (start == low) {
+      start++;
+    }
+    for (; start < high; start++) {
+      T pivot = array[start];
+      int left = low;
+      int right = start;
+      // Insert after any equal items to keep the sort stable
+      while (left < right) {
+        int middle = (left + right) >>> 1;
+        if (comparator.compare(pivot, array[middle]) < 0) {
+          right = middle;
+        } else {
+          left = middle + 1;
+        }
+      }
+      System.arraycopy(array, left, array, left + 1, start - left);
+      array[left] = pivot;
+    }
+  }
+
+  /**
+   * Returns the length of the run that starts at {@code low}, reversing it
+   * first if it is descending.  Only strictly descending runs are reversed,
+   * so that equal items keep their order.
+   */
+  private static <T> int countRunAndMakeAscending(T[] array, int low, int high, Comparator<? super T> comparator) {
+    int runHigh = low + 1;
+    if (runHigh == high) {
+      return 1;
+    }
+    if (comparator.compare(array[runHigh++], array[low]) < 0) {
+      while (runHigh < high && comparator.compare(array[runHigh], array[runHigh - 1]) < 0) {
+        runHigh++;
+      }
+      reverse(array, low, runHigh);
+    } else {
+      while (runHigh < high && comparator.compare(array[runHigh], array[runHigh - 1]) >= 0) {
+        runHigh++;
+      }
+    }
+    return runHigh - low;
+  }
+
+  private static void reverse(Object[] array, int low, int high) {
+    high--;
+    while (low < high) {
+      Object item = array[low];
+      array[low++] = array[high];
+      array[high--] = item;
+    }
+  }
+
+  /**
+   * Returns the minimum run length for an array of length {@code n}: the
+   * top five or six bits of {@code n}, plus one if any of the remaining bits
+   * are set.
+   */
+  private static int minRunLength(int n) {
+    int remainder = 0;
+    while (n >= MIN_MERGE) {
+      remainder |= n & 1;
+      n >>= 1;
+    }
+    return n + remainder;
+  }
+
+  private void pushRun(int base, int length) {
+    runBase[pendingRuns] = base;
+    runLength[pendingRuns] = length;
+    pendingRuns++;
+  }
+
+  /**
+   * Merges runs until the lengths on the stack satisfy
+   * {@code runLength[i - 2] > runLength[i - 1] + runLength[i]} and
+   * {@code runLength[i - 1] > runLength[i]} for the top four runs.
+   */
+  private void mergeCollapse() {
+    while (pendingRuns > 1) {
+      int n = pendingRuns - 2;
+      if ((n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1])
+          || (n > 1 && runLength[n - 2] <= runLength[n] + runLength[n - 1])) {
+        if (runLength[n - 1] < runLength[n + 1]) {
+          n--;
+        }
+      } else if (runLength[n] > runLength[n + 1]) {
+        break;
+      }
+      mergeAt(n);
+    }
+  }
+
+  private void mergeForceCollapse() {
+    while (pendingRuns > 1) {
+      int n = pendingRuns - 2;
+      if (n > 0 && runLength[n - 1] < runLength[n + 1]) {
+        n--;
+      }
+      mergeAt(n);
+    }
+  }
+
+  /**
+   * Merges the runs at {@code i} and {@code i + 1} on the stack.
+   */
+  private void mergeAt(int i) {
+    int base1 = runBase[i];
+    int length1 = runLength[i];
+    int base2 = runBase[i + 1];
+    int length2 = runLength[i + 1];
+
+    runLength[i] = length1 + length2;
+    if (i == pendingRuns - 3) {
+      runBase[i + 1] = runBase[i + 2];
+      runLength[i + 1] = runLength[i + 2];
+    }
+    pendingRuns--;
+
+    // Items at the start of the first run that are no greater than the start
+    // of the second run are already in place
+    int skipped = gallopRight(array[base2], array, base1, length1, 0, comparator);
+    base1 += skipped;
+    length1 -= skipped;
+    if (length1 == 0) {
+      return;
+    }
+    // As are items at the end of the second run that are no less than the
+    // end of the first run
+    length2 = gallopLeft(array[base1 + length1 - 1], array, base2, length2, length2 - 1, comparator);
+    if (length2 == 0) {
+      return;
+    }
+
+    if (length1 <= length2) {
+      mergeLow(base1, length1, base2, length2);
+    } else {
+      mergeHigh(base1, length1, base2, length2);
+    }
+  }
+
+  /**
+   * Returns the index in the range at which to insert {@code key}, before
+   * any items equal to it.  The search starts from {@code hint} and gallops
+   * outwards from there.
+   */
+  private static <T> int gallopLeft(
+      T key, T[] array, int base, int length, int hint, Comparator<? super T> comparator) {
+    int lastOffset = 0;
+    int offset = 1;
+    if (comparator.compare(key, array[base + hint]) > 0) {
+      // Gallop right until array[base + hint + lastOffset] < key <= array[base + hint + offset]
+      int maxOffset = length - hint;
+      while (offset < maxOffset && comparator.compare(key, array[base + hint + offset]) > 0) {
+        lastOffset = offset;
+        offset = (offset << 1) + 1;
+        if (offset <= 0) {
+          offset = maxOffset;
+        }
+      }
+      if (offset > maxOffset) {
+        offset = maxOffset;
+      }
+      lastOffset += hint;
+      offset += hint;
+    } else {
+      // Gallop left until array[base + hint - offset] < key <= array[base + hint - lastOffset]
+      int maxOffset = hint + 1;
+      while (offset < maxOffset && comparator.compare(key, array[base + hint - offset]) <= 0) {
+        lastOffset = offset;
+        offset = (offset << 1) + 1;
+        if (offset <= 0) {
+          offset = maxOffset;
+        }
+      }
+      if (offset > maxOffset) {
+        offset = maxOffset;
+      }
+      int previous = lastOffset;
+      lastOffset = hint - offset;
+      offset = hint - previous;
+    }
+
+    // Binary search between the two offsets
+    lastOffset++;
+    while (lastOffset < offset) {
+      int middle = lastOffset + ((offset - lastOffset) >>> 1);
+      if (comparator.compare(key, array[base + middle]) > 0) {
+        lastOffset = middle + 1;
+      } else {
+        offset = middle;
+      }
+    }
+    return offset;
+  }
+
+  /**
+   * Returns the index in the range at which to insert {@code key}, after
+   * any items equal to it.
+   */
+  private static <T> int gallopRight(
+      T key, T[] array, int base, int length, int hint, Comparator<? super T> comparator) {
+    int lastOffset = 0;
+    int offset = 1;
+    if (comparator.compare(key, array[base + hint]) < 0) {
+      // Gallop left until array[base + hint - offset] <= key < array[base + hint - lastOffset]
+      int maxOffset = hint + 1;
+      while (offset < maxOffset && comparator.compare(key, array[base + hint - offset]) < 0) {
+        lastOffset = offset;
+        offset = (offset << 1) + 1;
+        if (offset <= 0) {
+          offset = maxOffset;
+        }
+      }
+      if (offset > maxOffset) {
+        offset = maxOffset;
+      }
+      int previous = lastOffset;
+      lastOffset = hint - offset;
+      offset = hint - previous;
+    } else {
+      // Gallop right until array[base + hint + lastOffset] <= key < array[base + hint + offset]
+      int maxOffset = length - hint;
+      while (offset < maxOffset && comparator.compare(key, array[base + hint + offset]) >= 0) {
+        lastOffset = offset;
+        offset = (offset << 1) + 1;
+        if (offset <= 0) {
+          offset = maxOffset;
+        }
+      }
+      if (offset > maxOffset) {
+        offset = maxOffset;
+      }
+      lastOffset += hint;
+      offset += hint;
+    }
+
+    lastOffset++;
+    while (lastOffset < offset) {
+      int middle = lastOffset + ((offset - lastOffset) >>> 1);
+      if (comparator.compare(key, array[base + middle]) < 0) {
+        offset = middle;
+      } else {
+        lastOffset = middle + 1;
+      }
+    }
+    return offset;
+  }
+
+  /**
+   * Merges two adjacent runs from the left, copying the first, shorter run
+   * to the buffer.  The first item of the second run must belong before the
+   * first run, and the last item of the first run after the second run.
+   */
+  private void mergeLow(int base1, int length1, int base2, int length2) {
+    T[] array = this.array;
+    T[] buffer = ensureCapacity(length1);
+    System.arraycopy(array, base1, buffer, 0, length1);
+    int cursor1 = 0;
+    int cursor2 = base2;
+    int dest = base1;
+
+    array[dest++] = array[cursor2++];
+    if (--length2 == 0) {
+      System.arraycopy(buffer, cursor1, array, dest, length1);
+      return;
+    }
+    if (length1 == 1) {
+      System.arraycopy(array, cursor2, array, dest, length2);
+      array[dest + length2] = buffer[cursor1];
+      return;
+    }
+
+    Comparator<? super T> comparator = this.comparator;
+    int minGallop = this.minGallop;
+    outer:
+    while (true) {
+      int wins1 = 0;
+      int wins2 = 0;
+
+      // Merge one item at a time until one run wins often enough
+      do {
+        if (comparator.compare(array[cursor2], buffer[cursor1]) < 0) {
+          array[dest++] = array[cursor2++];
+          wins2++;
+          wins1 = 0;
+          if (--length2 == 0) {
+            break outer;
+          }
+        } else {
+          array[dest++] = buffer[cursor1++];
+          wins1++;
+          wins2 = 0;
+          if (--length1 == 1) {
+            break outer;
+          }
+        }
+      } while ((wins1 | wins2) < minGallop);
+
+      // Gallop until neither run wins by a long stretch
+      do {
+        wins1 = gallopRight(array[cursor2], buffer, cursor1, length1, 0, comparator);
+        if (wins1 != 0) {
+          System.arraycopy(buffer, cursor1, array, dest, wins1);
+          dest += wins1;
+          cursor1 += wins1;
+          length1 -= wins1;
+          if (length1 <= 1) {
+            break outer;
+          }
+        }
+        array[dest++] = array[cursor2++];
+        if (--length2 == 0) {
+          break outer;
+        }
+
+        wins2 = gallopLeft(buffer[cursor1], array, cursor2, length2, 0, comparator);
+        if (wins2 != 0) {
+          System.arraycopy(array, cursor2, array, dest, wins2);
+          dest += wins2;
+          cursor2 += wins2;
+          length2 -= wins2;
+          if (length2 == 0) {
+            break outer;
+          }
+        }
+        array[dest++] = buffer[cursor1++];
+        if (--length1 == 1) {
+          break outer;
+        }
+        minGallop--;
+      } while (wins1 >= MIN_GALLOP || wins2 >= MIN_GALLOP);
+      // Make it harder to start galloping again
+      if (minGallop < 0) {
+        minGallop = 0;
+      }
+      minGallop += 2;
+    }
+    this.minGallop = Math.max(1, minGallop);
+
+    if (length1 == 1) {
+      System.arraycopy(array, cursor2, array, dest, length2);
+      array[dest + length2] = buffer[cursor1];
+    } else if (length1 == 0) {
+      throw new IllegalArgumentException("Comparison method violates its general contract");
+    } else {
+      System.arraycopy(buffer, cursor1, array, dest, length1);
+    }
+  }
+
+  /**
+   * Merges two adjacent runs from the right, copying the second, shorter
+   * run to the buffer.
+   */
+  private void mergeHigh(int base1, int length1, int base2, int length2) {
+    T[] array = this.array;
+    T[] buffer = ensureCapacity(length2);
+    System.arraycopy(array, base2, buffer, 0, length2);
+    int cursor1 = base1 + length1 - 1;
+    int cursor2 = length2 - 1;
+    int dest = base2 + length2 - 1;
+
+    array[dest--] = array[cursor1--];
+    if (--length1 == 0) {
+      System.arraycopy(buffer, 0, array, dest - (length2 - 1), length2);
+      return;
+    }
+    if (length2 == 1) {
+      dest -= length1;
+      cursor1 -= length1;
+      System.arraycopy(array, cursor1 + 1, array, dest + 1, length1);
+      array[dest] = buffer[cursor2];
+      return;
+    }
+
+    Comparator<? super T> comparator = this.comparator;
+    int minGallop = this.minGallop;
+    outer:
+    while (true) {
+      int wins1 = 0;
+      int wins2 = 0;
+
+      do {
+        if (comparator.compare(buffer[cursor2], array[cursor1]) < 0) {
+          array[dest--] = array[cursor1--];
+          wins1++;
+          wins2 = 0;
+          if (--length1 == 0) {
+            break outer;
+          }
+        } else {
+          array[dest--] = buffer[cursor2--];
+          wins2++;
+          wins1 = 0;
+          if (--length2 == 1) {
+            break outer;
+          }
+        }
+      } while ((wins1 | wins2) < minGallop);
+
+      do {
+        wins1 = length1 - gallopRight(buffer[cursor2], array, base1, length1, length1 - 1, comparator);
+        if (wins1 != 0) {
+          dest -= wins1;
+          cursor1 -= wins1;
+          length1 -= wins1;
+          System.arraycopy(array, cursor1 + 1, array, dest + 1, wins1);
+          if (length1 == 0) {
+            break outer;
+          }
+        }
+        array[dest--] = buffer[cursor2--];
+        if (--length2 == 1) {
+          break outer;
+        }
+
+        wins2 = length2 - gallopLeft(array[cursor1], buffer, 0, length2, length2 - 1, comparator);
+        if (wins2 != 0) {
+          dest -= wins2;
+          cursor2 -= wins2;
+          length2 -= wins2;
+          System.arraycopy(buffer, cursor2 + 1, array, dest + 1, wins2);
+          if (length2 <= 1) {
+            break outer;
+          }
+        }
+        array[dest--] = array[cursor1--];
+        if (--length1 == 0) {
+          break outer;
+        }
+        minGallop--;
+      } while (wins1 >= MIN_GALLOP || wins2 >= MIN_GALLOP);
+      if (minGallop < 0) {
+        minGallop = 0;
+      }
+      minGallop += 2;
+    }
+    this.minGallop = Math.max(1, minGallop);
+
+    if (length2 == 1) {
+      dest -= length1;
+      cursor1 -= length1;
+      System.arraycopy(array, cursor1 + 1, array, dest + 1, length1);
+      array[dest] = buffer[cursor2];
+    } else if (length2 == 0) {
+      throw new IllegalArgumentException("Comparison method violates its general contract");
+    } else {
+      System.arraycopy(buffer, 0, array, dest - (length2 - 1), length2);
+    }
+  }
+
+  /**
+   * Returns the buffer, grown if needed to hold {@code minCapacity} items.
+   * The buffer never needs to hold more than half of the range.
+   */
+  private T[] ensureCapacity(int minCapacity) {
+    if (buffer.length < minCapacity) {
+      int newCapacity = Math.min(Integer.highestOneBit(minCapacity) << 1, length >>> 1);
+      buffer = (T[]) new Object[Math.max(newCapacity, minCapacity)];
+    }
+    return buffer;
+  }
+}
@@ -4,16 +4,21 @@ import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * A {@link Map} implemented with a 2-3 tree.
+ * A {@link NavigableMap} implemented with a 2-3 tree.
+ * <p>Every entry is a leaf and all leaves are at the same depth.  Each inner
+ * node has two or three children and, as pivots, the largest key under each
+ * of its children but the last, so a search descends one path from the root
+ * to a leaf.  Range views descend to the first leaf of the range and then
+ * walk to successive leaves, so visiting k keys takes O(log n + k).
  */
-public class TreeMap<K, V> implements Map<K, V> {
+public class TreeMap<K, V> implements NavigableMap<K, V> {
   private static final AtomicInteger NEXT_NODE_ID = new AtomicInteger();
 
   private final Comparator<K> comparator;
   private final MapEntryIteratorFactory<K, V> iteratorFactory = new MapEntryIteratorFactory<K, V>() {
     @Override
     public Iterator<Entry<K, V>> newIterator() {
-      return new TreeMapEntryIterator<>(root);
+      return new TreeMapEntryIterator<>(TreeMap.this, root);
     }
   };
 
@@ -36,6 +41,13 @@ public class TreeMap<K, V> implements Map<K, V> {
     putAll(map);
   }
 
+  /**
+   * Returns the {@link Comparator} that orders the keys.
+   */
+  public Comparator<K> comparator() {
+    return comparator;
+  }
+
   @Override
   public void clear() {
     root = null;
@@ -95,6 +107,195 @@ public class TreeMap<K, V> implements Map<K, V> {
     }
   }
 
+  @Override
+  public K firstKey() {
+    if (root == null) {
+      throw new NoSuchElementException();
+    }
+    return firstLeaf(root).key;
+  }
+
+  @Override
+  public K lastKey() {
+    if (root == null) {
+      throw new NoSuchElementException();
+    }
+    return lastLeaf(root).key;
+  }
+
+  @Override
+  public K floorKey(K key) {
+    return keyOrNull(floorLeaf(key));
+  }
+
+  @Override
+  public K ceilingKey(K key) {
+    return keyOrNull(ceilingLeaf(key));
+  }
+
+  @Override
+  public K higherKey(K key) {
+    return keyOrNull(higherLeaf(key));
+  }
+
+  @Override
+  public K lowerKey(K key) {
+    return keyOrNull(lowerLeaf(key));
+  }
+
+  @Override
+  public NavigableMap<K, V> subMap(K fromKey, K toKey) {
+    return subMap(fromKey, true, toKey, false);
+  }
+
+  @Override
+  public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+    if (fromKey == null || toKey == null) {
+      throw new NullPointerException();
+    }
+    if (comparator.compare(fromKey, toKey) > 0) {
+      throw new IllegalArgumentException("fromKey > toKey");
+    }
+    return new TreeSubMap<>(this, fromKey, fromInclusive, toKey, toInclusive);
+  }
+
+  @Override
+  public NavigableMap<K, V> headMap(K toKey) {
+    return headMap(toKey, false);
+  }
+
+  @Override
+  public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+    if (toKey == null) {
+      throw new NullPointerException();
+    }
+    return new TreeSubMap<>(this, null, false, toKey, inclusive);
+  }
+
+  @Override
+  public NavigableMap<K, V> tailMap(K fromKey) {
+    return tailMap(fromKey, true);
+  }
+
+  @Override
+  public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+    if (fromKey == null) {
+      throw new NullPointerException();
+    }
+    return new TreeSubMap<>(this, fromKey, inclusive, null, false);
+  }
+
+  int compareKeys(K a, K b) {
+    return comparator.compare(a, b);
+  }
+
+  LeafTreeNode<K, V> firstLeaf() {
+    return root == null ? null : firstLeaf(root);
+  }
+
+  LeafTreeNode<K, V> lastLeaf() {
+    return root == null ? null : lastLeaf(root);
+  }
+
+  /*
+   * The search for a key ends at the leaf with the smallest key greater than
+   * or equal to it, or at the last leaf if every key is smaller.  The other
+   * neighbours of a key are one step away from that leaf.
+   */
+
+  LeafTreeNode<K, V> ceilingLeaf(K key) {
+    if (root == null) {
+      return null;
+    }
+    LeafTreeNode<K, V> leaf = findNode(root, key);
+    return comparator.compare(leaf.key, key) >= 0 ? leaf : null;
+  }
+
+  LeafTreeNode<K, V> higherLeaf(K key) {
+    if (root == null) {
+      return null;
+    }
+    LeafTreeNode<K, V> leaf = findNode(root, key);
+    int order = comparator.compare(leaf.key, key);
+    return order > 0 ? leaf : order == 0 ? nextLeaf(leaf) : null;
+  }
+
+  LeafTreeNode<K, V> floorLeaf(K key) {
+    if (root == null) {
+      return null;
+    }
+    LeafTreeNode<K, V> leaf = findNode(root, key);
+    return comparator.compare(leaf.key, key) <= 0 ? leaf : previousLeaf(leaf);
+  }
+
+  LeafTreeNode<K, V> lowerLeaf(K key) {
+    if (root == null) {
+      return null;
+    }
+    LeafTreeNode<K, V> leaf = findNode(root, key);
+    return comparator.compare(leaf.key, key) < 0 ? leaf : previousLeaf(leaf);
+  }
+
+  static <K, V> LeafTreeNode<K, V> firstLeaf(TreeNode<K> node) {
+    if (node == null) {
+      return null;
+    }
+    while (!node.isLeafNode()) {
+      node = ((InnerTreeNode<K>) node).left;
+    }
+    return (LeafTreeNode<K, V>) node;
+  }
+
+  static <K, V> LeafTreeNode<K, V> lastLeaf(TreeNode<K> node) {
+    while (!node.isLeafNode()) {
+      InnerTreeNode<K> inner = (InnerTreeNode<K>) node;
+      node = inner.right != null ? inner.right : inner.middle;
+    }
+    return (LeafTreeNode<K, V>) node;
+  }
+
+  /**
+   * Returns the leaf following the specified leaf in key order, or
+   * {@code null} if it is the last.
+   */
+  static <K, V> LeafTreeNode<K, V> nextLeaf(LeafTreeNode<K, V> leaf) {
+    TreeNode<K> node = leaf;
+    InnerTreeNode<K> parent = leaf.getParent();
+    while (parent != null) {
+      if (parent.left == node) {
+        return firstLeaf(parent.middle);
+      } else if (parent.middle == node && parent.right != null) {
+        return firstLeaf(parent.right);
+      }
+      node = parent;
+      parent = parent.getParent();
+    }
+    return null;
+  }
+
+  /**
+   * Returns the leaf preceding the specified leaf in key order, or
+   * {@code null} if it is the first.
+   */
+  static <K, V> LeafTreeNode<K, V> previousLeaf(LeafTreeNode<K, V> leaf) {
+    TreeNode<K> node = leaf;
+    InnerTreeNode<K> parent = leaf.getParent();
+    while (parent != null) {
+      if (parent.right == node) {
+        return lastLeaf(parent.middle);
+      } else if (parent.middle == node) {
+        return lastLeaf(parent.left);
+      }
+      node = parent;
+      parent = parent.getParent();
+    }
+    return null;
+  }
+
+  private static <K> K keyOrNull(LeafTreeNode<K, ?> leaf) {
+    return leaf == null ? null : leaf.key;
+  }
+
   @Override
   public V get(Object key) {
     if (root == null) {
@@ -132,116 +333,62 @@ public class TreeMap<K, V> implements Map<K, V> {
       node.value = value;
       return oldValue;
     } else {
-      // Add a new node
-      addToNode(node, new LeafTreeNode<>(key, value));
+      // Add a new node next to the leaf the search ended at.  The search only
+      // ends at a leaf with a smaller key if that leaf is the last child of
+      // its parent, so the pivot slot of the leaf is never invalidated.
+      LeafTreeNode<K, V> newNode = new LeafTreeNode<>(key, value);
+      if (comparator.compare(key, node.key) < 0) {
+        splitChild(node, newNode, key, node);
+      } else {
+        splitChild(node, node, node.key, newNode);
+      }
       size++;
       return null;
     }
   }
 
-  private void addToNode(TreeNode<K> destNode, TreeNode<K> newNode) {
-    TreeNode<K> parent = destNode.getParent();
-    if (destNode.isLeafNode()) {
+  /**
+   * Replaces {@code child} in its parent with the nodes {@code a} and
+   * {@code b}, where {@code a} holds the smaller keys and {@code aMax} is the
+   * largest of them.  {@code b} takes over the pivot of {@code child}.  A
+   * parent that ends up with four children is split into two, and the split
+   * is carried up to the root, so an insertion takes O(log n).
+   */
+  private void splitChild(TreeNode<K> child, TreeNode<K> a, K aMax, TreeNode<K> b) {
+    TreeNode<K>[] children = new TreeNode[4];
+    Object[] pivots = new Object[3];
+    while (true) {
+      InnerTreeNode<K> parent = child.getParent();
       if (parent == null) {
-        makeNewRoot(destNode, newNode);
-      } else {
-        addToNode(parent, newNode);
+        // The child was the root, make a new root
+        InnerTreeNode<K> newRoot = new InnerTreeNode<>();
+        children[0] = a;
+        children[1] = b;
+        pivots[0] = aMax;
+        setChildren(newRoot, children, pivots, 0, 2);
+        root = newRoot;
+        return;
       }
-    } else {
-      InnerTreeNode<K> innerNode = (InnerTreeNode<K>) destNode;
-      if (innerNode.right == null) {
-        // the destNode has room
-        K max = getMaximum(newNode);
-        if (comparator.compare(max, innerNode.leftPivot) < 0) {
-          innerNode.right = innerNode.middle;
-          innerNode.rightPivot = innerNode.leftPivot;
-          innerNode.middle = innerNode.left;
-          innerNode.leftPivot = max;
-          innerNode.left = newNode;
-        } else if (comparator.compare(max, getMaximum(innerNode.middle)) < 0) {
-          innerNode.right = innerNode.middle;
-          innerNode.rightPivot = max;
-          innerNode.middle = newNode;
-        } else {
-          innerNode.right = newNode;
-          innerNode.rightPivot = getMaximum(innerNode.middle);
-        }
-        newNode.setParent(innerNode);
-      } else {
-        // Split the node into two
-        InnerTreeNode<K> splitNode = new InnerTreeNode<>();
-        K newNodeMax = getMaximum(newNode);
-        if (comparator.compare(newNodeMax, innerNode.leftPivot) < 0) {
-          // [New, left] [middle, right]
-          splitNode.left = newNode;
-          splitNode.leftPivot = newNodeMax;
-          splitNode.middle = innerNode.left;
-
-          innerNode.left = innerNode.middle;
-          innerNode.leftPivot = innerNode.rightPivot;
-          innerNode.middle = innerNode.right;
-        } else if (comparator.compare(newNodeMax, innerNode.rightPivot) < 0) {
-          // [left, New] [middle, right]
-          splitNode.left = innerNode.left;
-          splitNode.leftPivot = innerNode.leftPivot;
-          splitNode.middle = newNode;
-
-          innerNode.left = innerNode.middle;
-          innerNode.leftPivot = innerNode.rightPivot;
-          innerNode.middle = innerNode.right;
-        } else if (comparator.compare(newNodeMax, getMaximum(innerNode.right)) < 0) {
-          // [left, middle] [New, right]
-          splitNode.left = newNode;
-          splitNode.leftPivot = newNodeMax;
-          splitNode.middle = innerNode.right;
-        } else {
-          // [left, middle] [right, new]
-          splitNode.left = innerNode.right;
-          splitNode.leftPivot = getMaximum(innerNode.right);
-          splitNode.middle = newNode;
-        }
-        innerNode.rightPivot = null;
-        innerNode.right = null;
-        splitNode.left.setParent(splitNode);
-        splitNode.middle.setParent(splitNode);
-
-        if (innerNode.parent == null) {
-          makeNewRoot(innerNode, splitNode);
-        } else {
-          addToNode(innerNode.parent, splitNode);
-        }
-      }
-    }
-  }
-
-  private void makeNewRoot(TreeNode<K> a, TreeNode<K> b) {
-    // The destNode is the root, make a new root
-    InnerTreeNode<K> newRoot = new InnerTreeNode<>();
-    if (comparator.compare(getMaximum(a), getMaximum(b)) < 0) {
-      newRoot.left = a;
-      newRoot.leftPivot = getMaximum(a);
-      newRoot.middle = b;
-    } else {
-      newRoot.left = b;
-      newRoot.leftPivot = getMaximum(b);
-      newRoot.middle = a;
-    }
-    a.setParent(newRoot);
-    b.setParent(newRoot);
-    root = newRoot;
-  }
-
-  private K getMaximum(TreeNode<K> node) {
-    if (node.isLeafNode()) {
-      LeafTreeNode<K, V> leaf = (LeafTreeNode<K, V>) node;
-      return leaf.key;
-    } else {
-      InnerTreeNode<K> inner = (InnerTreeNode<K>) node;
-      if (inner.right == null) {
-        return getMaximum(inner.middle);
-      } else {
-        return getMaximum(inner.right);
+      int count = getChildren(parent, children, pivots);
+      int index = indexOfChild(children, count, child);
+      System.arraycopy(children, index + 1, children, index + 2, count - index - 1);
+      System.arraycopy(pivots, index, pivots, index + 1, count - index - 1);
+      children[index] = a;
+      children[index + 1] = b;
+      pivots[index] = aMax;
+      count++;
+      if (count <= 3) {
+        setChildren(parent, children, pivots, 0, count);
+        return;
       }
+      // Split the parent into two nodes with two children each
+      InnerTreeNode<K> sibling = new InnerTreeNode<>();
+      setChildren(parent, children, pivots, 0, 2);
+      setChildren(sibling, children, pivots, 2, 2);
+      child = parent;
+      a = parent;
+      aMax = (K) pivots[1];
+      b = sibling;
     }
   }
 
@@ -271,30 +418,191 @@ public class TreeMap<K, V> implements Map<K, V> {
     }
   }
 
-  private void removeNode(TreeNode<K> node) {
+  /**
+   * Removes a leaf from the tree.  Each level does a constant amount of work
+   * and rebalancing only continues upwards while a node is left with a single
+   * child, so a removal takes O(log n).
+   */
+  private void removeNode(LeafTreeNode<K, V> node) {
     InnerTreeNode<K> parent = node.getParent();
     if (parent == null) {
       // removing the root
       root = null;
-    } else if (parent.right != null) {
-      // we can just remove the child from this node directly
-      if (parent.left == node) {
-        parent.left = parent.middle;
-        parent.leftPivot = parent.rightPivot;
-        parent.middle = parent.right;
-        parent.rightPivot = null;
-        parent.right = null;
-      } else if (parent.middle == node) {
-        parent.middle = parent.right;
-        parent.rightPivot = null;
-        parent.right = null;
+      return;
+    }
+    TreeNode<K>[] children = new TreeNode[3];
+    Object[] pivots = new Object[2];
+    int count = getChildren(parent, children, pivots);
+    int index = indexOfChild(children, count, node);
+    if (index == count - 1) {
+      // The leaf holds the largest key under its parent, so the ancestor
+      // that uses that key as a pivot must use its predecessor instead
+      replacePivot(parent, (K) pivots[count - 2]);
+    }
+    removeChild(children, pivots, count, index, Math.min(index, count - 2));
+    count--;
+    if (count >= 2) {
+      setChildren(parent, children, pivots, 0, count);
+    } else {
+      fixUnderflow(parent, children[0]);
+    }
+  }
+
+  /**
+   * Sets the pivot of the nearest ancestor whose subtree to the left of the
+   * pivot ends with the largest key under {@code node}.
+   */
+  private void replacePivot(InnerTreeNode<K> node, K pivot) {
+    InnerTreeNode<K> child = node;
+    InnerTreeNode<K> parent = node.getParent();
+    while (parent != null) {
+      if (parent.left == child) {
+        parent.leftPivot = pivot;
+        return;
+      } else if (parent.middle == child && parent.right != null) {
+        parent.rightPivot = pivot;
+        return;
+      }
+      child = parent;
+      parent = parent.getParent();
+    }
+  }
+
+  /**
+   * Restores a node that has been left with a single child.  The node either
+   * borrows a child from a sibling with three children or is merged into a
+   * sibling with two, in which case its parent loses a child and may need
+   * fixing in turn.
+   */
+  private void fixUnderflow(InnerTreeNode<K> node, TreeNode<K> onlyChild) {
+    TreeNode<K>[] children = new TreeNode[3];
+    Object[] pivots = new Object[2];
+    TreeNode<K>[] siblingChildren = new TreeNode[3];
+    Object[] siblingPivots = new Object[2];
+    while (true) {
+      InnerTreeNode<K> parent = node.getParent();
+      if (parent == null) {
+        // The root has a single child, so the tree shrinks by one level
+        onlyChild.setParent(null);
+        root = onlyChild;
+        return;
+      }
+      int count = getChildren(parent, children, pivots);
+      int index = indexOfChild(children, count, node);
+      if (index > 0) {
+        InnerTreeNode<K> sibling = (InnerTreeNode<K>) children[index - 1];
+        int siblingCount = getChildren(sibling, siblingChildren, siblingPivots);
+        K siblingMax = (K) pivots[index - 1];
+        if (siblingCount == 3) {
+          // Borrow the last child of the left sibling
+          setTwoChildren(node, siblingChildren[2], siblingMax, onlyChild);
+          setChildren(sibling, siblingChildren, siblingPivots, 0, 2);
+          pivots[index - 1] = siblingPivots[1];
+          setChildren(parent, children, pivots, 0, count);
+          return;
+        }
+        // Merge into the left sibling, which takes over the pivot of the node
+        siblingChildren[2] = onlyChild;
+        siblingPivots[1] = siblingMax;
+        setChildren(sibling, siblingChildren, siblingPivots, 0, 3);
+        removeChild(children, pivots, count, index, index - 1);
       } else {
-        parent.right = null;
-        parent.rightPivot = null;
+        InnerTreeNode<K> sibling = (InnerTreeNode<K>) children[1];
+        int siblingCount = getChildren(sibling, siblingChildren, siblingPivots);
+        K onlyChildMax = (K) pivots[0];
+        if (siblingCount == 3) {
+          // Borrow the first child of the right sibling
+          setTwoChildren(node, onlyChild, onlyChildMax, siblingChildren[0]);
+          pivots[0] = siblingPivots[0];
+          setChildren(sibling, siblingChildren, siblingPivots, 1, 2);
+          setChildren(parent, children, pivots, 0, count);
+          return;
+        }
+        // Merge into the right sibling
+        System.arraycopy(siblingChildren, 0, siblingChildren, 1, 2);
+        siblingChildren[0] = onlyChild;
+        siblingPivots[1] = siblingPivots[0];
+        siblingPivots[0] = onlyChildMax;
+        setChildren(sibling, siblingChildren, siblingPivots, 0, 3);
+        removeChild(children, pivots, count, 0, 0);
+      }
+      count--;
+      if (count >= 2) {
+        setChildren(parent, children, pivots, 0, count);
+        return;
       }
+      node = parent;
+      onlyChild = children[0];
+    }
+  }
+
+  /**
+   * Copies the children and pivots of a node into the specified arrays and
+   * returns the number of children.  {@code pivots[i]} is the largest key
+   * under {@code children[i]}; the last child has no pivot.
+   */
+  private static <K> int getChildren(InnerTreeNode<K> node, TreeNode<K>[] children, Object[] pivots) {
+    children[0] = node.left;
+    children[1] = node.middle;
+    pivots[0] = node.leftPivot;
+    if (node.right == null) {
+      return 2;
+    }
+    children[2] = node.right;
+    pivots[1] = node.rightPivot;
+    return 3;
+  }
+
+  /**
+   * Makes {@code count} (2 or 3) children of the specified arrays, starting
+   * at {@code from}, the children of the node.
+   */
+  private static <K> void setChildren(
+      InnerTreeNode<K> node, TreeNode<K>[] children, Object[] pivots, int from, int count) {
+    node.left = children[from];
+    node.leftPivot = (K) pivots[from];
+    node.middle = children[from + 1];
+    if (count == 3) {
+      node.rightPivot = (K) pivots[from + 1];
+      node.right = children[from + 2];
     } else {
+      node.rightPivot = null;
+      node.right = null;
+    }
+    for (int i = from; i < from + count; i++) {
+      children[i].setParent(node);
+    }
+  }
+
+  private static <K> void setTwoChildren(InnerTreeNode<K> node, TreeNode<K> left, K leftPivot, TreeNode<K> middle) {
+    node.left = left;
+    node.leftPivot = leftPivot;
+    node.middle = middle;
+    node.rightPivot = null;
+    node.right = null;
+    left.setParent(node);
+    middle.setParent(node);
+  }
+
+  /**
+   * Removes the child at {@code childIndex} and the pivot at
+   * {@code pivotIndex} from the arrays holding {@code count} children.
+   */
+  private static <K> void removeChild(
+      TreeNode<K>[] children, Object[] pivots, int count, int childIndex, int pivotIndex) {
+    System.arraycopy(children, childIndex + 1, children, childIndex, count - childIndex - 1);
+    children[count - 1] = null;
+    System.arraycopy(pivots, pivotIndex + 1, pivots, pivotIndex, count - pivotIndex - 2);
+    pivots[count - 2] = null;
+  }
 
+  private static <K> int indexOfChild(TreeNode<K>[] children, int count, TreeNode<K> child) {
+    for (int i = 0; i < count; i++) {
+      if (children[i] == child) {
+        return i;
+      }
     }
+    throw new IllegalStateException();
   }
 
   @Override
@@ -307,6 +615,17 @@ public class TreeMap<K, V> implements Map<K, V> {
     return new MapValueCollection<>(this, iteratorFactory);
   }
 
+  /**
+   * Returns the number of levels in the tree, counting the leaves.
+   */
+  int height() {
+    int height = 0;
+    for (TreeNode<K> node = root; node != null; height++) {
+      node = node.isLeafNode() ? null : ((InnerTreeNode<K>) node).left;
+    }
+    return height;
+  }
+
   String debugString() {
     StringBuilder sb = new StringBuilder();
     sb.append("TreeMap {size: ")
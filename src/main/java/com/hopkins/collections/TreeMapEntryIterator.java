@@ -1,39 +1,34 @@
 package com.hopkins.collections;
 
+/**
+ * An {@link Iterator} over the entries in a {@link TreeMap}, in key order.
+ * An iterator for a range of the map starts at the first leaf in the range
+ * and stops at the first key past {@code toKey}.
+ */
 final class TreeMapEntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+  private final TreeMap<K, V> map;
+  private final K toKey;
+  private final boolean toInclusive;
   private TreeMap.LeafTreeNode<K, V> next;
+  private TreeMap.LeafTreeNode<K, V> lastReturned;
 
-  public TreeMapEntryIterator(TreeMap.TreeNode<K> root) {
-    this.next = findFirstLeaf(root);
+  public TreeMapEntryIterator(TreeMap<K, V> map, TreeMap.TreeNode<K> root) {
+    this(map, TreeMap.firstLeaf(root), null /* toKey */, false /* toInclusive */);
   }
 
-  private TreeMap.LeafTreeNode<K, V> findFirstLeaf(TreeMap.TreeNode<K> node) {
-    if (node == null) {
-      return null;
-    } else if (node.isLeafNode()) {
-      return (TreeMap.LeafTreeNode<K, V>) node;
-    } else {
-      TreeMap.InnerTreeNode<K> innerNode = (TreeMap.InnerTreeNode<K>) node;
-      return findFirstLeaf(innerNode.left);
-    }
+  TreeMapEntryIterator(TreeMap<K, V> map, TreeMap.LeafTreeNode<K, V> first, K toKey, boolean toInclusive) {
+    this.map = map;
+    this.toKey = toKey;
+    this.toInclusive = toInclusive;
+    this.next = checkBound(first);
   }
 
-  private TreeMap.LeafTreeNode<K, V> findNextLeaf(TreeMap.InnerTreeNode<K> node, TreeMap.TreeNode<K> lastNode) {
-    if (node == null) {
-      // We've traversed the entire tree
-      return null;
-    } else {
-      if (node.left == lastNode) {
-        // We've traversed the left node, on to the middle node
-        return findFirstLeaf(node.middle);
-      } else if (node.middle == lastNode && node.right != null) {
-        // We've traversed the middle node, on to the right node
-        return findFirstLeaf(node.right);
-      } else {
-        // We've traversed this node, on to the parent
-        return findNextLeaf(node.getParent(), node);
-      }
+  private TreeMap.LeafTreeNode<K, V> checkBound(TreeMap.LeafTreeNode<K, V> leaf) {
+    if (leaf == null || toKey == null) {
+      return leaf;
     }
+    int order = map.compareKeys(leaf.key, toKey);
+    return order < 0 || (order == 0 && toInclusive) ? leaf : null;
   }
 
   @Override
@@ -43,13 +38,22 @@ final class TreeMapEntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
 
   @Override
   public Map.Entry<K, V> next() {
-    Map.Entry<K, V> entry = next;
-    next = findNextLeaf(next.getParent(), next);
-    return entry;
+    if (next == null) {
+      throw new NoSuchElementException();
+    }
+    lastReturned = next;
+    next = checkBound(TreeMap.nextLeaf(next));
+    return lastReturned;
   }
 
   @Override
   public void remove() {
-    throw new UnsupportedOperationException();
+    if (lastReturned == null) {
+      throw new NoSuchElementException();
+    }
+    // Rebalancing moves leaves between parents but never replaces them, so
+    // the next leaf is still in the tree and its parent links are current
+    map.remove(lastReturned.key);
+    lastReturned = null;
   }
 }
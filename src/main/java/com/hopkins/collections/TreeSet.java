@@ -19,6 +19,13 @@ public class TreeSet<T> implements Set<T> {
     addAll(c);
   }
 
+  /**
+   * Returns the {@link Comparator} that orders the items.
+   */
+  public Comparator<T> comparator() {
+    return map.comparator();
+  }
+
   @Override
   public boolean add(T item) {
     if (map.containsKey(item)) {
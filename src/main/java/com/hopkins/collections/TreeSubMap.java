@@ -0,0 +1,266 @@
+package com.hopkins.collections;
+
+import com.hopkins.collections.TreeMap.LeafTreeNode;
+import java.util.Objects;
+
+/**
+ * A live view of the keys of a {@link TreeMap} between two bounds.  A
+ * {@code null} bound means the range is unbounded on that side.
+ * <p>Lookups check the bounds and then go to the backing map.  Scans start
+ * with an O(log n) descent to the first leaf in the range and then walk the
+ * leaves, so {@link #size} and iteration take O(log n + k) for k keys in
+ * the range.
+ */
+final class TreeSubMap<K, V> implements NavigableMap<K, V> {
+  private final TreeMap<K, V> map;
+  private final K fromKey;
+  private final boolean fromInclusive;
+  private final K toKey;
+  private final boolean toInclusive;
+  private final MapEntryIteratorFactory<K, V> iteratorFactory = new MapEntryIteratorFactory<K, V>() {
+    @Override
+    public Iterator<Entry<K, V>> newIterator() {
+      return new TreeMapEntryIterator<>(map, lowestLeaf(), toKey, toInclusive);
+    }
+  };
+
+  TreeSubMap(TreeMap<K, V> map, K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+    this.map = map;
+    this.fromKey = fromKey;
+    this.fromInclusive = fromInclusive;
+    this.toKey = toKey;
+    this.toInclusive = toInclusive;
+  }
+
+  private boolean tooLow(K key) {
+    if (fromKey == null) {
+      return false;
+    }
+    int order = map.compareKeys(key, fromKey);
+    return order < 0 || (order == 0 && !fromInclusive);
+  }
+
+  private boolean tooHigh(K key) {
+    if (toKey == null) {
+      return false;
+    }
+    int order = map.compareKeys(key, toKey);
+    return order > 0 || (order == 0 && !toInclusive);
+  }
+
+  private boolean inRange(Object key) {
+    return !tooLow((K) key) && !tooHigh((K) key);
+  }
+
+  /**
+   * Returns the first leaf in the range, or {@code null} if it is empty.
+   */
+  private LeafTreeNode<K, V> lowestLeaf() {
+    LeafTreeNode<K, V> leaf;
+    if (fromKey == null) {
+      leaf = map.firstLeaf();
+    } else {
+      leaf = fromInclusive ? map.ceilingLeaf(fromKey) : map.higherLeaf(fromKey);
+    }
+    return leaf == null || tooHigh(leaf.key) ? null : leaf;
+  }
+
+  /**
+   * Returns the last leaf in the range, or {@code null} if it is empty.
+   */
+  private LeafTreeNode<K, V> highestLeaf() {
+    LeafTreeNode<K, V> leaf;
+    if (toKey == null) {
+      leaf = map.lastLeaf();
+    } else {
+      leaf = toInclusive ? map.floorLeaf(toKey) : map.lowerLeaf(toKey);
+    }
+    return leaf == null || tooLow(leaf.key) ? null : leaf;
+  }
+
+  /**
+   * Returns the key of the leaf if it is within the range.
+   */
+  private K keyInRange(LeafTreeNode<K, V> leaf) {
+    return leaf == null || !inRange(leaf.key) ? null : leaf.key;
+  }
+
+  @Override
+  public void clear() {
+    Iterator<Entry<K, V>> iter = iteratorFactory.newIterator();
+    while (iter.hasNext()) {
+      iter.next();
+      iter.remove();
+    }
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return inRange(key) && map.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    Iterator<Entry<K, V>> iter = iteratorFactory.newIterator();
+    while (iter.hasNext()) {
+      if (Objects.equals(iter.next().getValue(), value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new MapEntrySet<>(this, iteratorFactory);
+  }
+
+  @Override
+  public V get(Object key) {
+    return inRange(key) ? map.get(key) : null;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return lowestLeaf() == null;
+  }
+
+  @Override
+  public Set<K> keySet() {
+    return new MapKeySet<>(this, iteratorFactory);
+  }
+
+  @Override
+  public V put(K key, V value) {
+    if (!inRange(key)) {
+      throw new IllegalArgumentException("key out of range: " + key);
+    }
+    return map.put(key, value);
+  }
+
+  @Override
+  public void putAll(Map<? extends K, ? extends V> m) {
+    Iterator<?> iter = m.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<K, V> entry = (Map.Entry<K, V>) iter.next();
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public V remove(Object key) {
+    return inRange(key) ? map.remove(key) : null;
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (LeafTreeNode<K, V> leaf = lowestLeaf(); leaf != null && !tooHigh(leaf.key); leaf = TreeMap.nextLeaf(leaf)) {
+      size++;
+    }
+    return size;
+  }
+
+  @Override
+  public Collection<V> values() {
+    return new MapValueCollection<>(this, iteratorFactory);
+  }
+
+  @Override
+  public K firstKey() {
+    LeafTreeNode<K, V> leaf = lowestLeaf();
+    if (leaf == null) {
+      throw new NoSuchElementException();
+    }
+    return leaf.key;
+  }
+
+  @Override
+  public K lastKey() {
+    LeafTreeNode<K, V> leaf = highestLeaf();
+    if (leaf == null) {
+      throw new NoSuchElementException();
+    }
+    return leaf.key;
+  }
+
+  @Override
+  public K floorKey(K key) {
+    return tooHigh(key) ? keyInRange(highestLeaf()) : keyInRange(map.floorLeaf(key));
+  }
+
+  @Override
+  public K ceilingKey(K key) {
+    return tooLow(key) ? keyInRange(lowestLeaf()) : keyInRange(map.ceilingLeaf(key));
+  }
+
+  @Override
+  public K higherKey(K key) {
+    return tooLow(key) ? keyInRange(lowestLeaf()) : keyInRange(map.higherLeaf(key));
+  }
+
+  @Override
+  public K lowerKey(K key) {
+    return tooHigh(key) ? keyInRange(highestLeaf()) : keyInRange(map.lowerLeaf(key));
+  }
+
+  @Override
+  public NavigableMap<K, V> subMap(K fromKey, K toKey) {
+    return subMap(fromKey, true, toKey, false);
+  }
+
+  @Override
+  public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+    if (fromKey == null || toKey == null) {
+      throw new NullPointerException();
+    }
+    if (map.compareKeys(fromKey, toKey) > 0) {
+      throw new IllegalArgumentException("fromKey > toKey");
+    }
+    checkBound(fromKey, fromInclusive);
+    checkBound(toKey, toInclusive);
+    return new TreeSubMap<>(map, fromKey, fromInclusive, toKey, toInclusive);
+  }
+
+  @Override
+  public NavigableMap<K, V> headMap(K toKey) {
+    return headMap(toKey, false);
+  }
+
+  @Override
+  public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+    if (toKey == null) {
+      throw new NullPointerException();
+    }
+    checkBound(toKey, inclusive);
+    return new TreeSubMap<>(map, fromKey, fromInclusive, toKey, inclusive);
+  }
+
+  @Override
+  public NavigableMap<K, V> tailMap(K fromKey) {
+    return tailMap(fromKey, true);
+  }
+
+  @Override
+  public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+    if (fromKey == null) {
+      throw new NullPointerException();
+    }
+    checkBound(fromKey, inclusive);
+    return new TreeSubMap<>(map, fromKey, inclusive, toKey, toInclusive);
+  }
+
+  /**
+   * Checks that a bound of a nested view lies within this view.  An
+   * exclusive bound may sit on an exclusive bound of this view.
+   */
+  private void checkBound(K key, boolean inclusive) {
+    boolean outside = inclusive
+        ? !inRange(key)
+        : (fromKey != null && map.compareKeys(key, fromKey) < 0)
+            || (toKey != null && map.compareKeys(key, toKey) > 0);
+    if (outside) {
+      throw new IllegalArgumentException("key out of range: " + key);
+    }
+  }
+}
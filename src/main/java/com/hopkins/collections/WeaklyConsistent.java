@@ -0,0 +1,10 @@
+package com.hopkins.collections;
+
+/**
+ * A marker interface used by {@link Collection} implementations to indicate
+ * their iterators are weakly consistent: they may see items added or miss
+ * items removed while iterating, so the number of items read need not match
+ * {@link Collection#size}.
+ */
+public interface WeaklyConsistent {
+}
@@ -1,20 +1,27 @@
 package com.hopkins.collections.stream;
 
-import com.hopkins.collections.Iterator;
 import com.hopkins.collections.NoSuchElementException;
 
-final class ArrayIterator<T> implements Iterator<T> {
+import java.util.function.Consumer;
+
+final class ArrayIterator<T> implements SplittableSource<T> {
   private final T[] array;
   private int next;
+  private final int end;
 
   ArrayIterator(T[] array) {
+    this(array, 0, array.length);
+  }
+
+  ArrayIterator(T[] array, int fromIndex, int toIndex) {
     this.array = array;
-    this.next = 0;
+    this.next = fromIndex;
+    this.end = toIndex;
   }
 
   @Override
   public boolean hasNext() {
-    return next < array.length;
+    return next < end;
   }
 
   @Override
@@ -24,4 +31,29 @@ final class ArrayIterator<T> implements Iterator<T> {
     }
     return array[next++];
   }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    int end = this.end;
+    for (int i = next; i < end; i++) {
+      action.accept(array[i]);
+    }
+    next = end;
+  }
+
+  @Override
+  public SplittableSource<T> trySplit() {
+    int mid = (next + end) >>> 1;
+    if (mid <= next) {
+      return null;
+    }
+    SplittableSource<T> prefix = new ArrayIterator<>(array, next, mid);
+    next = mid;
+    return prefix;
+  }
+
+  @Override
+  public long remaining() {
+    return end - next;
+  }
 }
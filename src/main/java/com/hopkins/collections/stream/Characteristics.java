@@ -0,0 +1,91 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Comparator;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * What is known about the items of a stream: whether their number is known
+ * ({@link #SIZED}), whether they are in order ({@link #SORTED}) and whether
+ * they are all different ({@link #DISTINCT}).
+ * <p>The size is read when a terminal operation starts rather than when the
+ * stream is made, so a stream over a collection sees the collection as it
+ * is at that point.
+ */
+final class Characteristics {
+  static final int SIZED = 1;
+  static final int SORTED = 1 << 1;
+  static final int DISTINCT = 1 << 2;
+
+  static final Characteristics NONE = new Characteristics(0, null /* size */, null /* comparator */);
+
+  static Characteristics sized(LongSupplier size) {
+    return new Characteristics(SIZED, size, null /* comparator */);
+  }
+
+  private final int flags;
+  private final LongSupplier size;
+  private final Comparator<?> comparator;
+
+  private Characteristics(int flags, LongSupplier size, Comparator<?> comparator) {
+    this.flags = flags;
+    this.size = size;
+    this.comparator = comparator;
+  }
+
+  boolean has(int flag) {
+    return (flags & flag) != 0;
+  }
+
+  /**
+   * Returns the number of items, or {@link Sink#UNKNOWN_SIZE}.
+   */
+  long size() {
+    return has(SIZED) ? size.getAsLong() : Sink.UNKNOWN_SIZE;
+  }
+
+  /**
+   * Returns {@code true} if the items are known to be sorted by the
+   * specified {@link Comparator}.
+   */
+  boolean isSortedBy(Comparator<?> comparator) {
+    return has(SORTED) && this.comparator.equals(comparator);
+  }
+
+  Characteristics without(int flags) {
+    int newFlags = this.flags & ~flags;
+    return newFlags == this.flags
+        ? this
+        : new Characteristics(
+            newFlags,
+            (newFlags & SIZED) != 0 ? size : null,
+            (newFlags & SORTED) != 0 ? comparator : null);
+  }
+
+  Characteristics withDistinct() {
+    return new Characteristics(flags | DISTINCT, size, comparator);
+  }
+
+  Characteristics withSorted(Comparator<?> comparator) {
+    return new Characteristics(flags | SORTED, size, comparator);
+  }
+
+  /**
+   * Returns these characteristics with the number of items known.
+   */
+  Characteristics withSize(LongSupplier size) {
+    return new Characteristics(flags | SIZED, size, comparator);
+  }
+
+  /**
+   * Returns the characteristics after a stage that changes the number of
+   * items, such as {@link Stream#limit}.
+   */
+  Characteristics resized(LongUnaryOperator resize) {
+    if (!has(SIZED)) {
+      return this;
+    }
+    LongSupplier oldSize = size;
+    return new Characteristics(flags, () -> resize.applyAsLong(oldSize.getAsLong()), comparator);
+  }
+}
@@ -1,35 +1,124 @@
 package com.hopkins.collections.stream;
 
+import com.hopkins.collections.ArraySet;
+import com.hopkins.collections.Collections;
+import com.hopkins.collections.Set;
+
 import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * Accumulates the items of a stream into a mutable container and then
+ * turns the container into the result.
+ * <p>A collector with a {@link #combiner} can be used by a parallel stream
+ * to fill one container per piece of the source and then merge them.  A
+ * collector without one, made by the factories that take no combiner,
+ * makes a parallel stream gather its items and accumulate them on the
+ * calling thread.
+ */
 public interface Collector<T, A, R> {
 
+  /**
+   * Properties of a collector that let a stream take shortcuts.
+   */
+  enum Characteristics {
+    /**
+     * The accumulator may be called from several threads at once on the
+     * same container.  Together with {@link #UNORDERED}, this lets a
+     * parallel stream fill one shared container rather than combining one
+     * per piece.
+     */
+    CONCURRENT,
+
+    /**
+     * The result does not depend on the order in which items are
+     * accumulated.
+     */
+    UNORDERED,
+
+    /**
+     * The finisher returns the container as is, so it need not be called.
+     */
+    IDENTITY_FINISH
+  }
+
   static <T, A, R> Collector<T, A, R> of(
       Supplier<A> supplier, BiConsumer<A, T> accumulator, Function<A, R> finisher) {
-    return new CollectorImpl<T, A, R>(supplier, accumulator, finisher);
+    return new CollectorImpl<T, A, R>(
+        supplier, accumulator, null /* combiner */, finisher, Collections.<Characteristics>emptySet());
   }
 
   static <T, A> Collector<T, A, A> of(Supplier<A> supplier, BiConsumer<A, T> accumulator) {
-    return new CollectorImpl<T, A, A>(supplier, accumulator, Function.identity());
+    return new CollectorImpl<T, A, A>(
+        supplier,
+        accumulator,
+        null /* combiner */,
+        Function.identity(),
+        CollectorImpl.setOf(Characteristics.IDENTITY_FINISH));
+  }
+
+  static <T, A, R> Collector<T, A, R> of(
+      Supplier<A> supplier,
+      BiConsumer<A, T> accumulator,
+      BinaryOperator<A> combiner,
+      Function<A, R> finisher,
+      Characteristics... characteristics) {
+    return new CollectorImpl<T, A, R>(
+        supplier, accumulator, combiner, finisher, CollectorImpl.setOf(characteristics));
+  }
+
+  static <T, A> Collector<T, A, A> of(
+      Supplier<A> supplier,
+      BiConsumer<A, T> accumulator,
+      BinaryOperator<A> combiner,
+      Characteristics... characteristics) {
+    Set<Characteristics> set = new ArraySet<>(characteristics.length + 1);
+    Collections.addAll(set, characteristics);
+    set.add(Characteristics.IDENTITY_FINISH);
+    return new CollectorImpl<T, A, A>(
+        supplier, accumulator, combiner, Function.identity(), Collections.unmodifiableSet(set));
   }
 
   BiConsumer<A, T> accumulator();
 
+  /**
+   * Returns a function that merges the second container into the first,
+   * or {@code null} if partial results cannot be merged.
+   */
+  BinaryOperator<A> combiner();
+
   Function<A, R> finisher();
 
   Supplier<A> supplier();
 
+  Set<Characteristics> characteristics();
+
   final class CollectorImpl<T, A, R> implements Collector<T, A, R> {
     private final Supplier<A> supplier;
     private final BiConsumer<A, T> accumulator;
+    private final BinaryOperator<A> combiner;
     private final Function<A, R> finisher;
+    private final Set<Characteristics> characteristics;
 
-    CollectorImpl(Supplier<A> supplier, BiConsumer<A, T> accumulator, Function<A, R> finisher) {
+    CollectorImpl(
+        Supplier<A> supplier,
+        BiConsumer<A, T> accumulator,
+        BinaryOperator<A> combiner,
+        Function<A, R> finisher,
+        Set<Characteristics> characteristics) {
       this.supplier = supplier;
       this.accumulator = accumulator;
+      this.combiner = combiner;
       this.finisher = finisher;
+      this.characteristics = characteristics;
+    }
+
+    static Set<Characteristics> setOf(Characteristics... characteristics) {
+      Set<Characteristics> set = new ArraySet<>(characteristics.length);
+      Collections.addAll(set, characteristics);
+      return Collections.unmodifiableSet(set);
     }
 
     @Override
@@ -37,6 +126,11 @@ public interface Collector<T, A, R> {
       return accumulator;
     }
 
+    @Override
+    public BinaryOperator<A> combiner() {
+      return combiner;
+    }
+
     @Override
     public Function<A, R> finisher() {
       return finisher;
@@ -46,5 +140,10 @@ public interface Collector<T, A, R> {
     public Supplier<A> supplier() {
       return supplier;
     }
+
+    @Override
+    public Set<Characteristics> characteristics() {
+      return characteristics;
+    }
   }
 }
@@ -2,14 +2,37 @@ package com.hopkins.collections.stream;
 
 import com.hopkins.collections.*;
 
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 public final class Collectors {
-  private static final Collector TO_LIST = Collector.of(ArrayList::new, List::add);
-  private static final Collector TO_SET = Collector.of(HashSet::new, Set::add);
-  private static final Collector JOINING =
-      Collector.of(StringBuilder::new, StringBuilder::append, StringBuilder::toString);
+  private static final Collector TO_LIST = Collector.of(
+      ArrayList::new,
+      List::add,
+      (List left, List right) -> {
+        left.addAll(right);
+        return left;
+      });
+  private static final Collector TO_SET = Collector.of(
+      HashSet::new,
+      Set::add,
+      (Set left, Set right) -> {
+        left.addAll(right);
+        return left;
+      },
+      Collector.Characteristics.UNORDERED);
+  private static final Collector JOINING = Collector.of(
+      StringBuilder::new,
+      StringBuilder::append,
+      StringBuilder::append,
+      StringBuilder::toString);
 
   private Collectors() {
   }
@@ -19,7 +42,13 @@ public final class Collectors {
   }
 
   public static <T> Collector<T, Collection<T>, Collection<T>> toCollection(Supplier<Collection<T>> supplier) {
-    return Collector.of(supplier, Collection::add);
+    return Collector.of(
+        supplier,
+        Collection::add,
+        (left, right) -> {
+          left.addAll(right);
+          return left;
+        });
   }
 
   public static <T> Collector<T, Set<T>, Set<T>> toSet() {
@@ -31,34 +60,303 @@ public final class Collectors {
   }
 
   public static Collector<String, StringBuilder, String> joining(String delimiter) {
-    return Collector.of(
-        StringBuilder::new,
-        (builder, item) -> appendWithDelimiter(builder, "", item, delimiter),
-        StringBuilder::toString);
+    return joining(delimiter, "", "");
   }
 
+  /**
+   * Returns a collector that joins the items with {@code delimiter} between
+   * them, inside {@code prefix} and {@code suffix}.  The builder holds the
+   * delimiter before every item, so that builders from parallel pieces can
+   * simply be appended to each other, and the first one is left out when
+   * the result is made.
+   */
   public static Collector<String, StringBuilder, String> joining(String delimiter, String prefix, String suffix) {
     return Collector.of(
         StringBuilder::new,
-        (builder, item) -> appendWithDelimiter(builder, prefix, item, delimiter),
-        (builder) -> builder.append(suffix).toString());
+        (builder, item) -> builder.append(delimiter).append(item),
+        StringBuilder::append,
+        builder -> builder.length() == 0
+            ? prefix + suffix
+            : prefix + builder.substring(delimiter.length()) + suffix);
   }
 
-  private static void appendWithDelimiter(StringBuilder builder, String prefix, String item, String delimiter) {
-    builder
-        .append(builder.length() == 0 ? prefix : delimiter)
-        .append(item);
+  public static <T, S> Collector<T, Map<S, List<T>>, Map<S, List<T>>> groupingBy(Function<T, S> groupMapper) {
+    return (Collector) groupingBy(groupMapper, HashMap::new, toList());
   }
 
-  public static <T, S> Collector<T, Map<S, List<T>>, Map<S, List<T>>> groupingBy(Function<T, S> groupMapper) {
+  public static <T, K, D> Collector<T, ?, Map<K, D>> groupingBy(
+      Function<? super T, ? extends K> classifier, Collector<? super T, ?, D> downstream) {
+    return groupingBy(classifier, HashMap::new, downstream);
+  }
+
+  /**
+   * Returns a collector that groups the items by key into a map made by
+   * {@code mapFactory}, collecting the items of each group with
+   * {@code downstream}.  Each item takes a single lookup to find its group,
+   * and no list of the items in a group is made unless {@code downstream}
+   * makes one.  Items classified as {@code null} are grouped under a
+   * {@code null} key if the map allows one.
+   */
+  public static <T, K, D, A, M extends Map<K, D>> Collector<T, ?, M> groupingBy(
+      Function<? super T, ? extends K> classifier,
+      Supplier<M> mapFactory,
+      Collector<? super T, A, D> downstream) {
+    Objects.requireNonNull(classifier);
+    Objects.requireNonNull(mapFactory);
+    Supplier<A> downstreamSupplier = downstream.supplier();
+    BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+    BinaryOperator<A> downstreamCombiner = downstream.combiner();
+    // The groups hold the downstream containers until the finisher swaps in
+    // the results
+    Supplier<Map<K, A>> supplier = (Supplier) mapFactory;
+    BiConsumer<Map<K, A>, T> accumulator = (groups, item) -> {
+      A container = groups.computeIfAbsent(classifier.apply(item), unused -> downstreamSupplier.get());
+      ((BiConsumer<A, T>) downstreamAccumulator).accept(container, item);
+    };
+    BinaryOperator<Map<K, A>> combiner = downstreamCombiner == null ? null : (left, right) -> {
+      Iterator<Map.Entry<K, A>> iter = right.entrySet().iterator();
+      while (iter.hasNext()) {
+        Map.Entry<K, A> entry = iter.next();
+        left.merge(entry.getKey(), entry.getValue(), downstreamCombiner);
+      }
+      return left;
+    };
+    if (downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)) {
+      return (Collector) Collector.of(
+          supplier, accumulator, combiner, Function.identity(), Collector.Characteristics.IDENTITY_FINISH);
+    }
+    Function<A, D> downstreamFinisher = downstream.finisher();
+    Function<Map<K, A>, M> finisher = groups -> {
+      Iterator<Map.Entry<K, A>> iter = groups.entrySet().iterator();
+      while (iter.hasNext()) {
+        Map.Entry<K, A> entry = iter.next();
+        entry.setValue((A) downstreamFinisher.apply(entry.getValue()));
+      }
+      return (M) groups;
+    };
+    return Collector.of(supplier, accumulator, combiner, finisher);
+  }
+
+  public static <T> Collector<T, ?, Map<Boolean, List<T>>> partitioningBy(Predicate<? super T> predicate) {
+    return partitioningBy(predicate, toList());
+  }
+
+  /**
+   * Returns a collector that splits the items into those that match the
+   * predicate and those that do not, collecting each part with
+   * {@code downstream}.  The map always has both keys.
+   */
+  public static <T, D, A> Collector<T, ?, Map<Boolean, D>> partitioningBy(
+      Predicate<? super T> predicate, Collector<? super T, A, D> downstream) {
+    Objects.requireNonNull(predicate);
+    Supplier<A> downstreamSupplier = downstream.supplier();
+    BiConsumer<A, T> downstreamAccumulator = (BiConsumer) downstream.accumulator();
+    BinaryOperator<A> downstreamCombiner = downstream.combiner();
+    Function<A, D> downstreamFinisher = downstream.finisher();
+    return Collector.of(
+        () -> new Partition<>(downstreamSupplier.get(), downstreamSupplier.get()),
+        (Partition<A> partition, T item) ->
+            downstreamAccumulator.accept(predicate.test(item) ? partition.matching : partition.other, item),
+        downstreamCombiner == null ? null : (left, right) -> new Partition<>(
+            downstreamCombiner.apply(left.matching, right.matching),
+            downstreamCombiner.apply(left.other, right.other)),
+        partition -> {
+          Map<Boolean, D> result = new HashMap<>(2);
+          result.put(true, downstreamFinisher.apply(partition.matching));
+          result.put(false, downstreamFinisher.apply(partition.other));
+          return result;
+        });
+  }
+
+  private static final class Partition<A> {
+    final A matching;
+    final A other;
+
+    Partition(A matching, A other) {
+      this.matching = matching;
+      this.other = other;
+    }
+  }
+
+  /**
+   * Returns a collector that adapts the items with {@code mapper} before
+   * passing them to {@code downstream}.
+   */
+  public static <T, U, A, R> Collector<T, A, R> mapping(
+      Function<? super T, ? extends U> mapper, Collector<? super U, A, R> downstream) {
+    Objects.requireNonNull(mapper);
+    BiConsumer<A, U> downstreamAccumulator = (BiConsumer) downstream.accumulator();
+    return new Collector.CollectorImpl<>(
+        downstream.supplier(),
+        (A container, T item) -> downstreamAccumulator.accept(container, mapper.apply(item)),
+        downstream.combiner(),
+        downstream.finisher(),
+        downstream.characteristics());
+  }
+
+  public static <T> Collector<T, ?, Long> summingLong(ToLongFunction<? super T> mapper) {
+    Objects.requireNonNull(mapper);
+    return Collector.of(
+        () -> new long[1],
+        (long[] sum, T item) -> sum[0] += mapper.applyAsLong(item),
+        (left, right) -> {
+          left[0] += right[0];
+          return left;
+        },
+        sum -> sum[0]);
+  }
+
+  /**
+   * Returns a collector of the mean of the values, or {@code 0} if there
+   * are no items.
+   */
+  public static <T> Collector<T, ?, Double> averagingDouble(ToDoubleFunction<? super T> mapper) {
+    Objects.requireNonNull(mapper);
+    // Holds the sum and the number of values
+    return Collector.of(
+        () -> new double[2],
+        (double[] state, T item) -> {
+          state[0] += mapper.applyAsDouble(item);
+          state[1]++;
+        },
+        (left, right) -> {
+          left[0] += right[0];
+          left[1] += right[1];
+          return left;
+        },
+        state -> state[1] == 0 ? 0.0 : state[0] / state[1]);
+  }
+
+  public static <T> Collector<T, ?, Optional<T>> reducing(BinaryOperator<T> operator) {
+    Objects.requireNonNull(operator);
+    return Collector.of(
+        () -> new Reduction<T>(null /* value */, false /* present */),
+        (Reduction<T> reduction, T item) -> reduction.add(item, operator),
+        (left, right) -> {
+          if (right.present) {
+            left.add(right.value, operator);
+          }
+          return left;
+        },
+        reduction -> reduction.present ? Optional.of(reduction.value) : Optional.<T>empty());
+  }
+
+  public static <T> Collector<T, ?, T> reducing(T identity, BinaryOperator<T> operator) {
+    return reducing(identity, Function.<T>identity(), operator);
+  }
+
+  /**
+   * Returns a collector that maps each item and then folds the results into
+   * {@code identity} with {@code operator}.
+   */
+  public static <T, U> Collector<T, ?, U> reducing(
+      U identity, Function<? super T, ? extends U> mapper, BinaryOperator<U> operator) {
+    Objects.requireNonNull(mapper);
+    Objects.requireNonNull(operator);
+    return Collector.of(
+        () -> new Reduction<U>(identity, true /* present */),
+        (Reduction<U> reduction, T item) -> reduction.add(mapper.apply(item), operator),
+        (left, right) -> {
+          left.add(right.value, operator);
+          return left;
+        },
+        reduction -> reduction.value);
+  }
+
+  private static final class Reduction<T> {
+    T value;
+    boolean present;
+
+    Reduction(T value, boolean present) {
+      this.value = value;
+      this.present = present;
+    }
+
+    void add(T item, BinaryOperator<T> operator) {
+      value = present ? operator.apply(value, item) : item;
+      present = true;
+    }
+  }
+
+  /**
+   * Returns a collector that passes every item to both collectors and then
+   * merges their results, so that two aggregates are computed in one pass
+   * over the items.
+   */
+  public static <T, R1, R2, R> Collector<T, ?, R> teeing(
+      Collector<? super T, ?, R1> first,
+      Collector<? super T, ?, R2> second,
+      BiFunction<? super R1, ? super R2, R> merger) {
+    return teeing0(first, second, merger);
+  }
+
+  private static <T, A1, A2, R1, R2, R> Collector<T, ?, R> teeing0(
+      Collector<? super T, A1, R1> first,
+      Collector<? super T, A2, R2> second,
+      BiFunction<? super R1, ? super R2, R> merger) {
+    Objects.requireNonNull(merger);
+    Supplier<A1> firstSupplier = first.supplier();
+    Supplier<A2> secondSupplier = second.supplier();
+    BiConsumer<A1, T> firstAccumulator = (BiConsumer) first.accumulator();
+    BiConsumer<A2, T> secondAccumulator = (BiConsumer) second.accumulator();
+    BinaryOperator<A1> firstCombiner = first.combiner();
+    BinaryOperator<A2> secondCombiner = second.combiner();
+    Function<A1, R1> firstFinisher = first.finisher();
+    Function<A2, R2> secondFinisher = second.finisher();
+    BinaryOperator<Tee<A1, A2>> combiner = firstCombiner == null || secondCombiner == null
+        ? null
+        : (left, right) -> new Tee<>(
+            firstCombiner.apply(left.first, right.first),
+            secondCombiner.apply(left.second, right.second));
+    Collector.Characteristics[] characteristics =
+        first.characteristics().contains(Collector.Characteristics.UNORDERED)
+                && second.characteristics().contains(Collector.Characteristics.UNORDERED)
+            ? new Collector.Characteristics[] {Collector.Characteristics.UNORDERED}
+            : new Collector.Characteristics[0];
+    return Collector.of(
+        () -> new Tee<>(firstSupplier.get(), secondSupplier.get()),
+        (Tee<A1, A2> tee, T item) -> {
+          firstAccumulator.accept(tee.first, item);
+          secondAccumulator.accept(tee.second, item);
+        },
+        combiner,
+        tee -> merger.apply(firstFinisher.apply(tee.first), secondFinisher.apply(tee.second)),
+        characteristics);
+  }
+
+  private static final class Tee<A1, A2> {
+    final A1 first;
+    final A2 second;
+
+    Tee(A1 first, A2 second) {
+      this.first = first;
+      this.second = second;
+    }
+  }
+
+  /**
+   * Returns a collector of the first {@code k} items in the order given by
+   * the {@link Comparator}.  Only {@code k} items are held at a time.
+   */
+  public static <T> Collector<T, ?, List<T>> topK(int k, Comparator<? super T> comparator) {
+    if (k < 0) {
+      throw new IllegalArgumentException("k must be non-negative: " + k);
+    }
+    Objects.requireNonNull(comparator);
     return Collector.of(
-        HashMap::new,
-        (Map<S, List<T>> result, T item) -> {
-          S key = groupMapper.apply(item);
-          if (!result.containsKey(key)) {
-            result.put(key, new ArrayList<>());
+        () -> new TopKBuffer<T>(k, comparator),
+        TopKBuffer::add,
+        (left, right) -> {
+          left.addAll(right);
+          return left;
+        },
+        (buffer) -> {
+          T[] items = buffer.toSortedArray();
+          List<T> result = new ArrayList<>(items.length);
+          for (int i = 0; i < items.length; i++) {
+            result.add(items[i]);
           }
-          result.get(key).add(item);
+          return result;
         });
   }
 
@@ -66,6 +364,11 @@ public final class Collectors {
     return Collector.of(
         () -> new long[]{0L},
         (arr, item) -> arr[0]++,
-        (arr) -> arr[0]);
+        (left, right) -> {
+          left[0] += right[0];
+          return left;
+        },
+        (arr) -> arr[0],
+        Collector.Characteristics.UNORDERED);
   }
 }
@@ -0,0 +1,24 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.HashSet;
+import com.hopkins.collections.Set;
+
+final class DistinctSink<T> extends Sink.ChainedSink<T, T> {
+  private final Set<T> seen = new HashSet<>();
+
+  DistinctSink(Sink<? super T> downstream) {
+    super(downstream);
+  }
+
+  @Override
+  public void begin(long size) {
+    downstream.begin(UNKNOWN_SIZE);
+  }
+
+  @Override
+  public void accept(T item) {
+    if (seen.add(item)) {
+      downstream.accept(item);
+    }
+  }
+}
@@ -0,0 +1,397 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Arrays;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+/**
+ * A sequence of {@code double} values that supports aggregate operations,
+ * without boxing each value.
+ * <p>Like {@link Stream}, nothing is read until a terminal operation is
+ * called, and the terminal operation pushes every value through the stages
+ * in a single loop.  It always runs on the calling thread.
+ */
+public final class DoubleStream {
+  private static final DoubleStream EMPTY = of();
+
+  public static DoubleStream empty() {
+    return EMPTY;
+  }
+
+  public static DoubleStream of(double... values) {
+    Objects.requireNonNull(values);
+    return new DoubleStream(new Values(values), false /* shortCircuit */);
+  }
+
+  private final SinkSource<Sink.OfDouble> source;
+  private final boolean shortCircuit;
+
+  DoubleStream(SinkSource<Sink.OfDouble> source, boolean shortCircuit) {
+    this.source = source;
+    this.shortCircuit = shortCircuit;
+  }
+
+  /**
+   * Returns a stream that pushes each value through {@code stage} on its way
+   * to the sink of the next stage.
+   */
+  private DoubleStream then(Function<Sink.OfDouble, Sink.OfDouble> stage, boolean shortCircuit) {
+    return new DoubleStream(
+        SinkSource.chain(source, stage, false /* cancellable */),
+        this.shortCircuit || shortCircuit);
+  }
+
+  private <S extends Sink.OfDouble> S run(S sink, boolean cancellable) {
+    source.run(sink, shortCircuit || cancellable);
+    return sink;
+  }
+
+  public DoubleStream filter(DoublePredicate predicate) {
+    Objects.requireNonNull(predicate);
+    return then(
+        sink -> new Sink.ChainedDouble<Double>(sink) {
+          @Override
+          public void begin(long size) {
+            downstream.begin(Sink.UNKNOWN_SIZE);
+          }
+
+          @Override
+          public void accept(double value) {
+            if (predicate.test(value)) {
+              downstream.accept(value);
+            }
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public DoubleStream map(DoubleUnaryOperator mapper) {
+    Objects.requireNonNull(mapper);
+    return then(
+        sink -> new Sink.ChainedDouble<Double>(sink) {
+          @Override
+          public void accept(double value) {
+            downstream.accept(mapper.applyAsDouble(value));
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public DoubleStream peek(DoubleConsumer consumer) {
+    Objects.requireNonNull(consumer);
+    return then(
+        sink -> new Sink.ChainedDouble<Double>(sink) {
+          @Override
+          public void accept(double value) {
+            consumer.accept(value);
+            downstream.accept(value);
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public DoubleStream limit(long numToKeep) {
+    if (numToKeep < 0) {
+      throw new IllegalArgumentException();
+    }
+    return then(
+        sink -> new Sink.ChainedDouble<Double>(sink) {
+          private long remaining = numToKeep;
+
+          @Override
+          public void begin(long size) {
+            downstream.begin(size < 0 ? Sink.UNKNOWN_SIZE : Math.min(size, numToKeep));
+          }
+
+          @Override
+          public void accept(double value) {
+            if (remaining > 0) {
+              remaining--;
+              downstream.accept(value);
+            }
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return remaining == 0 || downstream.cancellationRequested();
+          }
+
+          @Override
+          public boolean cancellable() {
+            return true;
+          }
+        },
+        true /* shortCircuit */);
+  }
+
+  public DoubleStream skip(long numToSkip) {
+    if (numToSkip < 0) {
+      throw new IllegalArgumentException();
+    } else if (numToSkip == 0) {
+      return this;
+    }
+    return then(
+        sink -> new Sink.ChainedDouble<Double>(sink) {
+          private long skipped;
+
+          @Override
+          public void begin(long size) {
+            downstream.begin(size < 0 ? Sink.UNKNOWN_SIZE : Math.max(0, size - numToSkip));
+          }
+
+          @Override
+          public void accept(double value) {
+            if (skipped < numToSkip) {
+              skipped++;
+            } else {
+              downstream.accept(value);
+            }
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public DoubleStream sorted() {
+    return then(
+        sink -> new Sink.ChainedDouble<Double>(sink) {
+          private SpinedBuffer.OfDouble buffer;
+
+          @Override
+          public void begin(long size) {
+            buffer = new SpinedBuffer.OfDouble();
+          }
+
+          @Override
+          public void accept(double value) {
+            buffer.add(value);
+          }
+
+          @Override
+          public void end() {
+            double[] values = buffer.asArray();
+            buffer = null;
+            Arrays.sort(values);
+            downstream.begin(values.length);
+            for (int i = 0; i < values.length && !downstream.cancellationRequested(); i++) {
+              downstream.accept(values[i]);
+            }
+            downstream.end();
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return false;
+          }
+
+          @Override
+          public boolean cancellable() {
+            return false;
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public <R> Stream<R> mapToObj(DoubleFunction<? extends R> mapper) {
+    Objects.requireNonNull(mapper);
+    return Stream.fromSource(
+        SinkSource.chain(
+            source,
+            (Sink<R> sink) -> new Sink.ChainedDouble<R>(sink) {
+              @Override
+              public void accept(double value) {
+                downstream.accept(mapper.apply(value));
+              }
+            },
+            shortCircuit));
+  }
+
+  public Stream<Double> boxed() {
+    return mapToObj(Double::valueOf);
+  }
+
+  public void forEach(DoubleConsumer consumer) {
+    Objects.requireNonNull(consumer);
+    run((Sink.OfDouble) consumer::accept, false /* cancellable */);
+  }
+
+  public double[] toArray() {
+    SpinedBuffer.OfDouble buffer = new SpinedBuffer.OfDouble();
+    run((Sink.OfDouble) buffer::add, false /* cancellable */);
+    return buffer.asArray();
+  }
+
+  public double reduce(double identity, DoubleBinaryOperator operator) {
+    Objects.requireNonNull(operator);
+    double[] result = {identity};
+    run((Sink.OfDouble) value -> result[0] = operator.applyAsDouble(result[0], value), false /* cancellable */);
+    return result[0];
+  }
+
+  public OptionalDouble reduce(DoubleBinaryOperator operator) {
+    Objects.requireNonNull(operator);
+    ReducingDoubleSink sink = run(new ReducingDoubleSink(operator), false /* cancellable */);
+    return sink.empty ? OptionalDouble.empty() : OptionalDouble.of(sink.result);
+  }
+
+  /**
+   * The source behind {@link #of}, which can also be read one value at a
+   * time.
+   */
+  private static final class Values implements SinkSource<Sink.OfDouble> {
+    private final double[] values;
+
+    Values(double[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public void run(Sink.OfDouble sink, boolean cancellable) {
+      sink.begin(values.length);
+      if (cancellable) {
+        for (int i = 0; i < values.length && !sink.cancellationRequested(); i++) {
+          sink.accept(values[i]);
+        }
+      } else {
+        for (double value : values) {
+          sink.accept(value);
+        }
+      }
+      sink.end();
+    }
+
+    @Override
+    public Cursor open(Sink.OfDouble sink) {
+      sink.begin(values.length);
+      int[] index = {0};
+      return () -> {
+        if (index[0] == values.length || sink.cancellationRequested()) {
+          sink.end();
+          return false;
+        }
+        sink.accept(values[index[0]++]);
+        return true;
+      };
+    }
+  }
+
+  private static final class ReducingDoubleSink implements Sink.OfDouble {
+    private final DoubleBinaryOperator operator;
+    private boolean empty = true;
+    private double result;
+
+    ReducingDoubleSink(DoubleBinaryOperator operator) {
+      this.operator = operator;
+    }
+
+    @Override
+    public void accept(double value) {
+      if (empty) {
+        empty = false;
+        result = value;
+      } else {
+        result = operator.applyAsDouble(result, value);
+      }
+    }
+  }
+
+  public double sum() {
+    // The statistics add up the values with compensation for rounding
+    return summaryStatistics().getSum();
+  }
+
+  public OptionalDouble min() {
+    return reduce(Math::min);
+  }
+
+  public OptionalDouble max() {
+    return reduce(Math::max);
+  }
+
+  public long count() {
+    long[] count = {0L};
+    run((Sink.OfDouble) value -> count[0]++, false /* cancellable */);
+    return count[0];
+  }
+
+  public OptionalDouble average() {
+    DoubleSummaryStatistics statistics = summaryStatistics();
+    return statistics.getCount() == 0
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(statistics.getAverage());
+  }
+
+  public DoubleSummaryStatistics summaryStatistics() {
+    DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+    run((Sink.OfDouble) statistics::accept, false /* cancellable */);
+    return statistics;
+  }
+
+  public OptionalDouble findFirst() {
+    boolean[] found = {false};
+    double[] first = new double[1];
+    run(
+        new Sink.OfDouble() {
+          @Override
+          public void accept(double value) {
+            if (!found[0]) {
+              found[0] = true;
+              first[0] = value;
+            }
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return found[0];
+          }
+
+          @Override
+          public boolean cancellable() {
+            return true;
+          }
+        },
+        true /* cancellable */);
+    return found[0] ? OptionalDouble.of(first[0]) : OptionalDouble.empty();
+  }
+
+  public boolean anyMatch(DoublePredicate predicate) {
+    Objects.requireNonNull(predicate);
+    boolean[] found = {false};
+    run(
+        new Sink.OfDouble() {
+          @Override
+          public void accept(double value) {
+            if (predicate.test(value)) {
+              found[0] = true;
+            }
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return found[0];
+          }
+
+          @Override
+          public boolean cancellable() {
+            return true;
+          }
+        },
+        true /* cancellable */);
+    return found[0];
+  }
+
+  public boolean allMatch(DoublePredicate predicate) {
+    return !anyMatch(predicate.negate());
+  }
+
+  public boolean noneMatch(DoublePredicate predicate) {
+    return !anyMatch(predicate);
+  }
+}
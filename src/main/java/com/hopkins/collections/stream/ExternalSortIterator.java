@@ -0,0 +1,72 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Comparator;
+import com.hopkins.collections.Iterator;
+
+import java.io.File;
+
+/**
+ * Sorts the items of the source with an {@link ExternalSorter} when it is
+ * first read, then hands them out in order.  Closing it deletes the files
+ * of a sort that was not read to the end.
+ */
+final class ExternalSortIterator<T> implements Iterator<T>, AutoCloseable {
+  private final Iterator<T> source;
+  private final Comparator<? super T> comparator;
+  private final SerializerSpec<T> serializer;
+  private final int memoryBudget;
+  private final File directory;
+  private ExternalSorter.MergeIterator<T> sorted;
+
+  ExternalSortIterator(
+      Iterator<T> source,
+      Comparator<? super T> comparator,
+      SerializerSpec<T> serializer,
+      int memoryBudget,
+      File directory) {
+    this.source = source;
+    this.comparator = comparator;
+    this.serializer = serializer;
+    this.memoryBudget = memoryBudget;
+    this.directory = directory;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (sorted == null) {
+      moveToFirst();
+    }
+    return sorted.hasNext();
+  }
+
+  @Override
+  public T next() {
+    if (sorted == null) {
+      moveToFirst();
+    }
+    return sorted.next();
+  }
+
+  private void moveToFirst() {
+    ExternalSorter<T> sorter = new ExternalSorter<>(comparator, serializer, memoryBudget, directory);
+    boolean read = false;
+    try {
+      while (source.hasNext()) {
+        sorter.add(source.next());
+      }
+      read = true;
+    } finally {
+      if (!read) {
+        sorter.close();
+      }
+    }
+    sorted = sorter.iterator();
+  }
+
+  @Override
+  public void close() {
+    if (sorted != null) {
+      sorted.close();
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Comparator;
+
+import java.io.File;
+
+/**
+ * Passes every item to an {@link ExternalSorter}, then pushes them on in
+ * order when the upstream ends.  Closing it deletes the files of a sort
+ * that never ended, such as when an earlier stage threw.
+ */
+final class ExternalSortSink<T> extends Sink.ChainedSink<T, T> implements AutoCloseable {
+  private final Comparator<? super T> comparator;
+  private final SerializerSpec<T> serializer;
+  private final int memoryBudget;
+  private final File directory;
+  private ExternalSorter<T> sorter;
+  private long size;
+
+  ExternalSortSink(
+      Sink<? super T> downstream,
+      Comparator<? super T> comparator,
+      SerializerSpec<T> serializer,
+      int memoryBudget,
+      File directory) {
+    super(downstream);
+    this.comparator = comparator;
+    this.serializer = serializer;
+    this.memoryBudget = memoryBudget;
+    this.directory = directory;
+  }
+
+  @Override
+  public void begin(long size) {
+    sorter = new ExternalSorter<>(comparator, serializer, memoryBudget, directory);
+    this.size = 0;
+  }
+
+  @Override
+  public void accept(T item) {
+    sorter.add(item);
+    size++;
+  }
+
+  @Override
+  public void end() {
+    // Closing the merge deletes the runs left over if the downstream
+    // cancelled or failed
+    try (ExternalSorter.MergeIterator<T> iter = sorter.iterator()) {
+      sorter = null;
+      downstream.begin(size);
+      while (iter.hasNext() && !downstream.cancellationRequested()) {
+        downstream.accept(iter.next());
+      }
+      downstream.end();
+    }
+  }
+
+  @Override
+  public void close() {
+    if (sorter != null) {
+      sorter.close();
+      sorter = null;
+    }
+  }
+
+  @Override
+  public boolean cancellationRequested() {
+    // The items have to be sorted before any of them can be passed on
+    return false;
+  }
+
+  @Override
+  public boolean cancellable() {
+    return false;
+  }
+}
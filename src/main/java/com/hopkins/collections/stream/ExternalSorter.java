@@ -0,0 +1,380 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.ArrayList;
+import com.hopkins.collections.Arrays;
+import com.hopkins.collections.Comparator;
+import com.hopkins.collections.Iterator;
+import com.hopkins.collections.List;
+import com.hopkins.collections.NoSuchElementException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Sorts more items than fit in memory by spilling sorted runs to temporary
+ * files.
+ * <p>Items are gathered in a buffer of {@code memoryBudget} items.  Each
+ * time the buffer fills up it is sorted and written to a file as a run.
+ * {@link #iterator} then merges the runs, and the items left in the buffer,
+ * with a heap of one cursor per run.  The first item of each run is kept in
+ * memory, so a file is only opened once the merge reads past that item.  At
+ * most {@link #MAX_FAN_IN} runs are merged at once: if there are more,
+ * groups of them are first merged into longer runs, over as many passes as
+ * it takes.  Equal items are ordered by run and each run is sorted stably,
+ * so the output is the same as a stable sort.  If the buffer never fills up
+ * nothing is written and the items are sorted in memory.
+ * <p>The files are written to {@code directory}, or to the default
+ * temporary directory if it is {@code null}.  Each file is deleted once the
+ * merge has read it to the end or merged it into a longer run, or when the
+ * merge or the sorter is closed.
+ */
+final class ExternalSorter<T> {
+  /**
+   * The most runs merged at once, which bounds the number of files open at
+   * the same time.
+   */
+  static final int MAX_FAN_IN = 128;
+  private static final int IO_BUFFER_SIZE = 1 << 16;
+
+  private final Comparator<? super T> comparator;
+  private final SerializerSpec<T> serializer;
+  private final File directory;
+  private List<RunFile<T>> runFiles = new ArrayList<>();
+  private Object[] buffer;
+  private int size;
+
+  ExternalSorter(
+      Comparator<? super T> comparator, SerializerSpec<T> serializer, int memoryBudget, File directory) {
+    this.comparator = comparator;
+    this.serializer = serializer;
+    this.directory = directory;
+    this.buffer = new Object[memoryBudget];
+  }
+
+  void add(T item) {
+    if (size == buffer.length) {
+      boolean spilled = false;
+      try {
+        spill();
+        spilled = true;
+      } finally {
+        if (!spilled) {
+          close();
+        }
+      }
+    }
+    buffer[size++] = item;
+  }
+
+  private void spill() {
+    // The sorter empties the buffer as it hands out the items, so the
+    // buffer can be filled again afterwards
+    HeapSorter<T> sorter = new HeapSorter<>((T[]) buffer, comparator);
+    Run<T>[] runs = new Run[] {new MemoryRun<>(0, sorter)};
+    runFiles.add(write(new MergeIterator<>(runs, comparator), size));
+    size = 0;
+  }
+
+  /**
+   * Writes the {@code size} items of {@code items}, at least one, to a new
+   * run file.  The file is deleted if the write fails.
+   */
+  private RunFile<T> write(Iterator<T> items, long size) {
+    File file;
+    try {
+      file = File.createTempFile("stream-sort", ".run", directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    boolean written = false;
+    try {
+      T first = items.next();
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), IO_BUFFER_SIZE))) {
+        while (items.hasNext()) {
+          serializer.write(items.next(), out);
+        }
+      }
+      written = true;
+      return new RunFile<>(file, first, size);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      if (!written) {
+        file.delete();
+      }
+    }
+  }
+
+  /**
+   * Merges consecutive groups of {@link #MAX_FAN_IN} run files into one run
+   * file each.  Keeping the groups in order keeps equal items in order.
+   */
+  private void mergePass() {
+    List<RunFile<T>> merged = new ArrayList<>();
+    boolean done = false;
+    try {
+      for (int start = 0; start < runFiles.size(); start += MAX_FAN_IN) {
+        int end = Math.min(start + MAX_FAN_IN, runFiles.size());
+        if (end - start == 1) {
+          merged.add(runFiles.get(start));
+          continue;
+        }
+        Run<T>[] runs = new Run[end - start];
+        long total = 0;
+        for (int i = start; i < end; i++) {
+          runs[i - start] = new FileRun<>(i - start, runFiles.get(i), serializer);
+          total += runFiles.get(i).size;
+        }
+        MergeIterator<T> iter = new MergeIterator<>(runs, comparator);
+        try {
+          merged.add(write(iter, total));
+        } finally {
+          iter.close();
+        }
+      }
+      done = true;
+    } finally {
+      if (!done) {
+        for (int i = 0; i < merged.size(); i++) {
+          merged.get(i).file.delete();
+        }
+      }
+    }
+    runFiles = merged;
+  }
+
+  /**
+   * Returns the items in order.  No more items can be added.  Closing the
+   * iterator deletes the run files it has not read to the end.
+   */
+  MergeIterator<T> iterator() {
+    HeapSorter<T> inMemory = new HeapSorter<>((T[]) Arrays.copyOf(buffer, size), comparator);
+    buffer = null;
+    boolean merged = false;
+    try {
+      // Leave room for the items still in memory
+      while (runFiles.size() >= MAX_FAN_IN) {
+        mergePass();
+      }
+      merged = true;
+    } finally {
+      if (!merged) {
+        close();
+      }
+    }
+    Run<T>[] runs = new Run[runFiles.size() + 1];
+    for (int i = 0; i < runFiles.size(); i++) {
+      runs[i] = new FileRun<>(i, runFiles.get(i), serializer);
+    }
+    runs[runFiles.size()] = new MemoryRun<>(runFiles.size(), inMemory);
+    runFiles = new ArrayList<>();
+    return new MergeIterator<>(runs, comparator);
+  }
+
+  /**
+   * Deletes the run files that have not been handed to a merge yet.
+   */
+  void close() {
+    for (int i = 0; i < runFiles.size(); i++) {
+      runFiles.get(i).file.delete();
+    }
+    runFiles = new ArrayList<>();
+    buffer = null;
+  }
+
+  /**
+   * A sorted run written to a file, apart from its first item.
+   */
+  private static final class RunFile<T> {
+    final File file;
+    final T first;
+    final long size;
+
+    RunFile(File file, T first, long size) {
+      this.file = file;
+      this.first = first;
+      this.size = size;
+    }
+  }
+
+  /**
+   * A sorted sequence of items being merged, positioned on its next item.
+   */
+  private abstract static class Run<T> {
+    final int index;
+    T head;
+
+    Run(int index) {
+      this.index = index;
+    }
+
+    /**
+     * Moves to the next item, returning {@code false} at the end of the run.
+     */
+    abstract boolean advance();
+
+    /**
+     * Releases whatever the run holds.  It is not advanced afterwards.
+     */
+    void close() {
+    }
+  }
+
+  private static final class MemoryRun<T> extends Run<T> {
+    private final HeapSorter<T> sorter;
+
+    MemoryRun(int index, HeapSorter<T> sorter) {
+      super(index);
+      this.sorter = sorter;
+    }
+
+    @Override
+    boolean advance() {
+      if (!sorter.hasNext()) {
+        head = null;
+        return false;
+      }
+      head = sorter.next();
+      return true;
+    }
+  }
+
+  private static final class FileRun<T> extends Run<T> {
+    private final RunFile<T> run;
+    private final SerializerSpec<T> serializer;
+    private long remaining;
+    private boolean started;
+    private DataInputStream in;
+
+    FileRun(int index, RunFile<T> run, SerializerSpec<T> serializer) {
+      super(index);
+      this.run = run;
+      this.remaining = run.size;
+      this.serializer = serializer;
+    }
+
+    @Override
+    boolean advance() {
+      if (!started) {
+        // The first item is in memory, so the file is not opened yet
+        started = true;
+        remaining--;
+        head = run.first;
+        return true;
+      }
+      if (remaining == 0) {
+        head = null;
+        close();
+        return false;
+      }
+      try {
+        if (in == null) {
+          in = new DataInputStream(new BufferedInputStream(new FileInputStream(run.file), IO_BUFFER_SIZE));
+        }
+        remaining--;
+        head = serializer.read(in);
+        return true;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    void close() {
+      try {
+        if (in != null) {
+          in.close();
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } finally {
+        in = null;
+        run.file.delete();
+      }
+    }
+  }
+
+  /**
+   * Merges sorted runs with a binary heap ordered by each run's next item,
+   * and by run index between equal items.  Closing it closes the runs it
+   * has not read to the end.
+   */
+  static final class MergeIterator<T> implements Iterator<T>, AutoCloseable {
+    private final Comparator<? super T> comparator;
+    private final Run<T>[] heap;
+    private int size;
+
+    MergeIterator(Run<T>[] runs, Comparator<? super T> comparator) {
+      this.comparator = comparator;
+      this.heap = runs;
+      for (int i = 0; i < runs.length; i++) {
+        if (runs[i].advance()) {
+          heap[size++] = runs[i];
+        }
+      }
+      for (int i = (size >>> 1) - 1; i >= 0; i--) {
+        siftDown(i, heap[i]);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return size > 0;
+    }
+
+    @Override
+    public T next() {
+      if (size == 0) {
+        throw new NoSuchElementException();
+      }
+      Run<T> run = heap[0];
+      T item = run.head;
+      if (!run.advance()) {
+        run = heap[--size];
+        heap[size] = null;
+      }
+      if (size > 0) {
+        siftDown(0, run);
+      }
+      return item;
+    }
+
+    @Override
+    public void close() {
+      while (size > 0) {
+        Run<T> run = heap[--size];
+        heap[size] = null;
+        run.close();
+      }
+    }
+
+    private boolean before(Run<T> a, Run<T> b) {
+      int order = comparator.compare(a.head, b.head);
+      return order < 0 || (order == 0 && a.index < b.index);
+    }
+
+    private void siftDown(int hole, Run<T> run) {
+      int half = size >>> 1;
+      while (hole < half) {
+        int child = 2 * hole + 1;
+        if (child + 1 < size && before(heap[child + 1], heap[child])) {
+          child++;
+        }
+        if (!before(heap[child], run)) {
+          break;
+        }
+        heap[hole] = heap[child];
+        hole = child;
+      }
+      heap[hole] = run;
+    }
+  }
+}
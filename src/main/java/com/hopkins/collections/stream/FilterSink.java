@@ -0,0 +1,24 @@
+package com.hopkins.collections.stream;
+
+import java.util.function.Predicate;
+
+final class FilterSink<T> extends Sink.ChainedSink<T, T> {
+  private final Predicate<T> predicate;
+
+  FilterSink(Sink<? super T> downstream, Predicate<T> predicate) {
+    super(downstream);
+    this.predicate = predicate;
+  }
+
+  @Override
+  public void begin(long size) {
+    downstream.begin(UNKNOWN_SIZE);
+  }
+
+  @Override
+  public void accept(T item) {
+    if (predicate.test(item)) {
+      downstream.accept(item);
+    }
+  }
+}
@@ -1,12 +1,21 @@
 package com.hopkins.collections.stream;
 
 import com.hopkins.collections.Iterator;
+import com.hopkins.collections.NoSuchElementException;
 
 import java.util.function.Function;
 
+/**
+ * Reads the items of each inner stream in turn, mapping the next item of
+ * the source only when the current inner stream runs out.  A {@code null}
+ * inner stream is treated as empty.  Each inner stream is closed once it
+ * has run out.
+ */
 final class FlatMapIterator<T, R> implements Iterator<R> {
   private final Iterator<T> source;
   private final Function<T, Stream<R>> mapper;
+  private Stream<R> currentStream;
+  private Iterator<R> current;
 
   FlatMapIterator(Iterator<T> source, Function<T, Stream<R>> mapper) {
     this.source = source;
@@ -15,11 +24,25 @@ final class FlatMapIterator<T, R> implements Iterator<R> {
 
   @Override
   public boolean hasNext() {
-    return false;
+    while (current == null || !current.hasNext()) {
+      if (currentStream != null) {
+        currentStream.close();
+        currentStream = null;
+      }
+      if (!source.hasNext()) {
+        return false;
+      }
+      currentStream = mapper.apply(source.next());
+      current = currentStream == null ? null : currentStream.iterator();
+    }
+    return true;
   }
 
   @Override
   public R next() {
-    return null;
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return current.next();
   }
 }
@@ -0,0 +1,51 @@
+package com.hopkins.collections.stream;
+
+import java.util.function.Function;
+
+/**
+ * Pushes the items of each inner stream on to the next stage as they are
+ * read, stopping part way through an inner stream if the next stage asks.
+ * Each inner stream is closed once its items have been pushed.
+ */
+final class FlatMapSink<T, R> extends Sink.ChainedSink<T, R> {
+  private final Function<T, Stream<R>> mapper;
+  private final Sink<R> passThrough;
+
+  FlatMapSink(Sink<? super R> downstream, Function<T, Stream<R>> mapper) {
+    super(downstream);
+    this.mapper = mapper;
+    // Inner streams call begin and end around their items, which must not
+    // reach the next stage
+    this.passThrough = new Sink<R>() {
+      @Override
+      public void accept(R item) {
+        downstream.accept(item);
+      }
+
+      @Override
+      public boolean cancellationRequested() {
+        return downstream.cancellationRequested();
+      }
+
+      @Override
+      public boolean cancellable() {
+        return downstream.cancellable();
+      }
+    };
+  }
+
+  @Override
+  public void begin(long size) {
+    downstream.begin(UNKNOWN_SIZE);
+  }
+
+  @Override
+  public void accept(T item) {
+    Stream<R> inner = mapper.apply(item);
+    if (inner != null) {
+      try (Stream<R> stream = inner) {
+        stream.pushInto(passThrough);
+      }
+    }
+  }
+}
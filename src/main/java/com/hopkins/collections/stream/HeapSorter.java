@@ -0,0 +1,107 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Comparator;
+import com.hopkins.collections.NoSuchElementException;
+
+/**
+ * Hands out items in sorted order one at a time, doing only as much of the
+ * sort as has been asked for.
+ * <p>The items are heapified in O(n) up front and each call to
+ * {@link #next} pops the smallest in O(log n), so a consumer that stops
+ * after k items pays O(n + k log n) rather than a full sort.  A pop walks
+ * the hole at the root down to a leaf before sifting the last item up from
+ * there, which takes about half the comparisons of a plain sift down, so
+ * draining every item costs about as much as a full sort.  Equal items come
+ * out in the order they were given, as the heap holds indexes into the
+ * array and breaks ties by index.
+ */
+final class HeapSorter<T> {
+  private final T[] items;
+  private final Comparator<? super T> comparator;
+  private final int[] heap;
+  private int size;
+
+  HeapSorter(T[] items, Comparator<? super T> comparator) {
+    this.items = items;
+    this.comparator = comparator;
+    this.size = items.length;
+    this.heap = new int[size];
+    for (int i = 0; i < size; i++) {
+      heap[i] = i;
+    }
+    for (int i = (size >>> 1) - 1; i >= 0; i--) {
+      siftDown(i, heap[i]);
+    }
+  }
+
+  int remaining() {
+    return size;
+  }
+
+  boolean hasNext() {
+    return size > 0;
+  }
+
+  T next() {
+    if (size == 0) {
+      throw new NoSuchElementException();
+    }
+    int first = heap[0];
+    size--;
+    if (size > 0) {
+      int last = heap[size];
+      int hole = 0;
+      int half = size >>> 1;
+      while (hole < half) {
+        int child = 2 * hole + 1;
+        if (child + 1 < size && before(heap[child + 1], heap[child])) {
+          child++;
+        }
+        heap[hole] = heap[child];
+        hole = child;
+      }
+      siftUp(hole, last);
+    }
+    T item = items[first];
+    // Let go of the item, as nothing compares against it anymore
+    items[first] = null;
+    return item;
+  }
+
+  /**
+   * Returns {@code true} if the item at index {@code a} comes before the
+   * item at index {@code b}.
+   */
+  private boolean before(int a, int b) {
+    int order = comparator.compare(items[a], items[b]);
+    return order < 0 || (order == 0 && a < b);
+  }
+
+  private void siftDown(int hole, int index) {
+    int half = size >>> 1;
+    while (hole < half) {
+      int child = 2 * hole + 1;
+      if (child + 1 < size && before(heap[child + 1], heap[child])) {
+        child++;
+      }
+      if (!before(heap[child], index)) {
+        break;
+      }
+      heap[hole] = heap[child];
+      hole = child;
+    }
+    heap[hole] = index;
+  }
+
+  private void siftUp(int hole, int index) {
+    while (hole > 0) {
+      int parent = (hole - 1) >>> 1;
+      if (!before(index, heap[parent])) {
+        break;
+      }
+      heap[hole] = heap[parent];
+      hole = parent;
+    }
+    heap[hole] = index;
+  }
+}
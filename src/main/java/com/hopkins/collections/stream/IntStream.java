@@ -0,0 +1,505 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Arrays;
+
+import java.util.IntSummaryStatistics;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A sequence of {@code int} values that supports aggregate operations,
+ * without boxing each value.
+ * <p>Like {@link Stream}, nothing is read until a terminal operation is
+ * called, and the terminal operation pushes every value through the stages
+ * in a single loop.  It always runs on the calling thread.
+ */
+public final class IntStream {
+  private static final IntStream EMPTY = of();
+
+  public static IntStream empty() {
+    return EMPTY;
+  }
+
+  public static IntStream of(int... values) {
+    Objects.requireNonNull(values);
+    return new IntStream(new Values(values), false /* shortCircuit */);
+  }
+
+  /**
+   * Returns the values from {@code startInclusive} up to but not including
+   * {@code endExclusive}, in order.
+   */
+  public static IntStream range(int startInclusive, int endExclusive) {
+    if (startInclusive >= endExclusive) {
+      return empty();
+    }
+    return rangeClosed(startInclusive, endExclusive - 1);
+  }
+
+  /**
+   * Returns the values from {@code startInclusive} up to and including
+   * {@code endInclusive}, in order.
+   */
+  public static IntStream rangeClosed(int startInclusive, int endInclusive) {
+    if (startInclusive > endInclusive) {
+      return empty();
+    }
+    return new IntStream(new Range(startInclusive, endInclusive), false /* shortCircuit */);
+  }
+
+  private final SinkSource<Sink.OfInt> source;
+  private final boolean shortCircuit;
+
+  IntStream(SinkSource<Sink.OfInt> source, boolean shortCircuit) {
+    this.source = source;
+    this.shortCircuit = shortCircuit;
+  }
+
+  /**
+   * Returns a stream that pushes each value through {@code stage} on its way
+   * to the sink of the next stage.
+   */
+  private IntStream then(Function<Sink.OfInt, Sink.OfInt> stage, boolean shortCircuit) {
+    return new IntStream(
+        SinkSource.chain(source, stage, false /* cancellable */),
+        this.shortCircuit || shortCircuit);
+  }
+
+  private <S extends Sink.OfInt> S run(S sink, boolean cancellable) {
+    source.run(sink, shortCircuit || cancellable);
+    return sink;
+  }
+
+  public IntStream filter(IntPredicate predicate) {
+    Objects.requireNonNull(predicate);
+    return then(
+        sink -> new Sink.ChainedInt<Integer>(sink) {
+          @Override
+          public void begin(long size) {
+            downstream.begin(Sink.UNKNOWN_SIZE);
+          }
+
+          @Override
+          public void accept(int value) {
+            if (predicate.test(value)) {
+              downstream.accept(value);
+            }
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public IntStream map(IntUnaryOperator mapper) {
+    Objects.requireNonNull(mapper);
+    return then(
+        sink -> new Sink.ChainedInt<Integer>(sink) {
+          @Override
+          public void accept(int value) {
+            downstream.accept(mapper.applyAsInt(value));
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public IntStream peek(IntConsumer consumer) {
+    Objects.requireNonNull(consumer);
+    return then(
+        sink -> new Sink.ChainedInt<Integer>(sink) {
+          @Override
+          public void accept(int value) {
+            consumer.accept(value);
+            downstream.accept(value);
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public IntStream limit(long numToKeep) {
+    if (numToKeep < 0) {
+      throw new IllegalArgumentException();
+    }
+    return then(
+        sink -> new Sink.ChainedInt<Integer>(sink) {
+          private long remaining = numToKeep;
+
+          @Override
+          public void begin(long size) {
+            downstream.begin(size < 0 ? Sink.UNKNOWN_SIZE : Math.min(size, numToKeep));
+          }
+
+          @Override
+          public void accept(int value) {
+            if (remaining > 0) {
+              remaining--;
+              downstream.accept(value);
+            }
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return remaining == 0 || downstream.cancellationRequested();
+          }
+
+          @Override
+          public boolean cancellable() {
+            return true;
+          }
+        },
+        true /* shortCircuit */);
+  }
+
+  public IntStream skip(long numToSkip) {
+    if (numToSkip < 0) {
+      throw new IllegalArgumentException();
+    } else if (numToSkip == 0) {
+      return this;
+    }
+    return then(
+        sink -> new Sink.ChainedInt<Integer>(sink) {
+          private long skipped;
+
+          @Override
+          public void begin(long size) {
+            downstream.begin(size < 0 ? Sink.UNKNOWN_SIZE : Math.max(0, size - numToSkip));
+          }
+
+          @Override
+          public void accept(int value) {
+            if (skipped < numToSkip) {
+              skipped++;
+            } else {
+              downstream.accept(value);
+            }
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public IntStream sorted() {
+    return then(
+        sink -> new Sink.ChainedInt<Integer>(sink) {
+          private SpinedBuffer.OfInt buffer;
+
+          @Override
+          public void begin(long size) {
+            buffer = new SpinedBuffer.OfInt();
+          }
+
+          @Override
+          public void accept(int value) {
+            buffer.add(value);
+          }
+
+          @Override
+          public void end() {
+            int[] values = buffer.asArray();
+            buffer = null;
+            Arrays.sort(values);
+            downstream.begin(values.length);
+            for (int i = 0; i < values.length && !downstream.cancellationRequested(); i++) {
+              downstream.accept(values[i]);
+            }
+            downstream.end();
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return false;
+          }
+
+          @Override
+          public boolean cancellable() {
+            return false;
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public <R> Stream<R> mapToObj(IntFunction<? extends R> mapper) {
+    Objects.requireNonNull(mapper);
+    if (source instanceof Range) {
+      // A plain range can be split and read lazily without the push source
+      Range range = (Range) source;
+      return Stream.fromSplittable(new RangeSource<>(range.first, range.last, value -> mapper.apply((int) value)));
+    }
+    return Stream.fromSource(
+        SinkSource.chain(
+            source,
+            (Sink<R> sink) -> new Sink.ChainedInt<R>(sink) {
+              @Override
+              public void accept(int value) {
+                downstream.accept(mapper.apply(value));
+              }
+            },
+            shortCircuit));
+  }
+
+  public Stream<Integer> boxed() {
+    return mapToObj(Integer::valueOf);
+  }
+
+  public LongStream asLongStream() {
+    return new LongStream(
+        SinkSource.chain(
+            source,
+            sink -> new Sink.ChainedInt<Long>(sink) {
+              @Override
+              public void accept(int value) {
+                downstream.accept((long) value);
+              }
+            },
+            shortCircuit),
+        false /* shortCircuit */);
+  }
+
+  public DoubleStream asDoubleStream() {
+    return new DoubleStream(
+        SinkSource.chain(
+            source,
+            sink -> new Sink.ChainedInt<Double>(sink) {
+              @Override
+              public void accept(int value) {
+                downstream.accept((double) value);
+              }
+            },
+            shortCircuit),
+        false /* shortCircuit */);
+  }
+
+  public void forEach(IntConsumer consumer) {
+    Objects.requireNonNull(consumer);
+    run((Sink.OfInt) consumer::accept, false /* cancellable */);
+  }
+
+  public int[] toArray() {
+    SpinedBuffer.OfInt buffer = new SpinedBuffer.OfInt();
+    run((Sink.OfInt) buffer::add, false /* cancellable */);
+    return buffer.asArray();
+  }
+
+  public int reduce(int identity, IntBinaryOperator operator) {
+    Objects.requireNonNull(operator);
+    int[] result = {identity};
+    run((Sink.OfInt) value -> result[0] = operator.applyAsInt(result[0], value), false /* cancellable */);
+    return result[0];
+  }
+
+  public OptionalInt reduce(IntBinaryOperator operator) {
+    Objects.requireNonNull(operator);
+    ReducingIntSink sink = run(new ReducingIntSink(operator), false /* cancellable */);
+    return sink.empty ? OptionalInt.empty() : OptionalInt.of(sink.result);
+  }
+
+  /**
+   * The source behind {@link #of}, which can also be read one value at a
+   * time.
+   */
+  private static final class Values implements SinkSource<Sink.OfInt> {
+    private final int[] values;
+
+    Values(int[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public void run(Sink.OfInt sink, boolean cancellable) {
+      sink.begin(values.length);
+      if (cancellable) {
+        for (int i = 0; i < values.length && !sink.cancellationRequested(); i++) {
+          sink.accept(values[i]);
+        }
+      } else {
+        for (int value : values) {
+          sink.accept(value);
+        }
+      }
+      sink.end();
+    }
+
+    @Override
+    public Cursor open(Sink.OfInt sink) {
+      sink.begin(values.length);
+      int[] index = {0};
+      return () -> {
+        if (index[0] == values.length || sink.cancellationRequested()) {
+          sink.end();
+          return false;
+        }
+        sink.accept(values[index[0]++]);
+        return true;
+      };
+    }
+  }
+
+  /**
+   * The source behind {@link #rangeClosed}, which can also be read one
+   * value at a time.
+   */
+  private static final class Range implements SinkSource<Sink.OfInt> {
+    private final int first;
+    private final int last;
+
+    Range(int first, int last) {
+      this.first = first;
+      this.last = last;
+    }
+
+    private long size() {
+      return (long) last - first + 1;
+    }
+
+    @Override
+    public void run(Sink.OfInt sink, boolean cancellable) {
+      sink.begin(size());
+      int value = first;
+      while (!(cancellable && sink.cancellationRequested())) {
+        sink.accept(value);
+        if (value == last) {
+          break;
+        }
+        value++;
+      }
+      sink.end();
+    }
+
+    @Override
+    public Cursor open(Sink.OfInt sink) {
+      sink.begin(size());
+      int[] next = {first};
+      boolean[] done = {false};
+      return () -> {
+        if (done[0] || sink.cancellationRequested()) {
+          sink.end();
+          return false;
+        }
+        int value = next[0];
+        if (value == last) {
+          done[0] = true;
+        } else {
+          next[0]++;
+        }
+        sink.accept(value);
+        return true;
+      };
+    }
+  }
+
+  private static final class ReducingIntSink implements Sink.OfInt {
+    private final IntBinaryOperator operator;
+    private boolean empty = true;
+    private int result;
+
+    ReducingIntSink(IntBinaryOperator operator) {
+      this.operator = operator;
+    }
+
+    @Override
+    public void accept(int value) {
+      if (empty) {
+        empty = false;
+        result = value;
+      } else {
+        result = operator.applyAsInt(result, value);
+      }
+    }
+  }
+
+  public int sum() {
+    return reduce(0, Integer::sum);
+  }
+
+  public OptionalInt min() {
+    return reduce(Math::min);
+  }
+
+  public OptionalInt max() {
+    return reduce(Math::max);
+  }
+
+  public long count() {
+    long[] count = {0L};
+    run((Sink.OfInt) value -> count[0]++, false /* cancellable */);
+    return count[0];
+  }
+
+  public OptionalDouble average() {
+    IntSummaryStatistics statistics = summaryStatistics();
+    return statistics.getCount() == 0
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(statistics.getAverage());
+  }
+
+  public IntSummaryStatistics summaryStatistics() {
+    IntSummaryStatistics statistics = new IntSummaryStatistics();
+    run((Sink.OfInt) statistics::accept, false /* cancellable */);
+    return statistics;
+  }
+
+  public OptionalInt findFirst() {
+    boolean[] found = {false};
+    int[] first = new int[1];
+    run(
+        new Sink.OfInt() {
+          @Override
+          public void accept(int value) {
+            if (!found[0]) {
+              found[0] = true;
+              first[0] = value;
+            }
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return found[0];
+          }
+
+          @Override
+          public boolean cancellable() {
+            return true;
+          }
+        },
+        true /* cancellable */);
+    return found[0] ? OptionalInt.of(first[0]) : OptionalInt.empty();
+  }
+
+  public boolean anyMatch(IntPredicate predicate) {
+    Objects.requireNonNull(predicate);
+    boolean[] found = {false};
+    run(
+        new Sink.OfInt() {
+          @Override
+          public void accept(int value) {
+            if (predicate.test(value)) {
+              found[0] = true;
+            }
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return found[0];
+          }
+
+          @Override
+          public boolean cancellable() {
+            return true;
+          }
+        },
+        true /* cancellable */);
+    return found[0];
+  }
+
+  public boolean allMatch(IntPredicate predicate) {
+    return !anyMatch(predicate.negate());
+  }
+
+  public boolean noneMatch(IntPredicate predicate) {
+    return !anyMatch(predicate);
+  }
+}
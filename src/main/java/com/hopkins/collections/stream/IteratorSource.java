@@ -0,0 +1,50 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Iterator;
+
+/**
+ * A {@link SplittableSource} over an {@link Iterator} that cannot be split
+ * itself.  Each split copies the next batch of items into an array, with
+ * batches growing by {@link #BATCH_UNIT} each time so that a long source is
+ * split into a modest number of pieces.
+ */
+final class IteratorSource<T> implements SplittableSource<T> {
+  static final int BATCH_UNIT = 1 << 10;
+  static final int MAX_BATCH = 1 << 25;
+
+  private final Iterator<T> source;
+  private int batch;
+
+  IteratorSource(Iterator<T> source) {
+    this.source = source;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return source.hasNext();
+  }
+
+  @Override
+  public T next() {
+    return source.next();
+  }
+
+  @Override
+  public SplittableSource<T> trySplit() {
+    if (!source.hasNext()) {
+      return null;
+    }
+    batch = Math.min(batch + BATCH_UNIT, MAX_BATCH);
+    Object[] items = new Object[batch];
+    int count = 0;
+    while (count < batch && source.hasNext()) {
+      items[count++] = source.next();
+    }
+    return new ArrayIterator<>((T[]) items, 0, count);
+  }
+
+  @Override
+  public long remaining() {
+    return source.hasNext() ? UNKNOWN_SIZE : 0;
+  }
+}
@@ -0,0 +1,45 @@
+package com.hopkins.collections.stream;
+
+import java.util.function.Supplier;
+
+/**
+ * A {@link SplittableSource} that is created the first time it is used.
+ * Parallel streams use it for the output of a stateful operation, which
+ * can only be computed once all of its input is known.
+ */
+final class LazySource<T> implements SplittableSource<T> {
+  private Supplier<SplittableSource<T>> supplier;
+  private SplittableSource<T> source;
+
+  LazySource(Supplier<SplittableSource<T>> supplier) {
+    this.supplier = supplier;
+  }
+
+  private SplittableSource<T> source() {
+    if (source == null) {
+      source = supplier.get();
+      supplier = null;
+    }
+    return source;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return source().hasNext();
+  }
+
+  @Override
+  public T next() {
+    return source().next();
+  }
+
+  @Override
+  public SplittableSource<T> trySplit() {
+    return source().trySplit();
+  }
+
+  @Override
+  public long remaining() {
+    return source().remaining();
+  }
+}
@@ -0,0 +1,33 @@
+package com.hopkins.collections.stream;
+
+final class LimitSink<T> extends Sink.ChainedSink<T, T> {
+  private int numToKeep;
+
+  LimitSink(Sink<? super T> downstream, int numToKeep) {
+    super(downstream);
+    this.numToKeep = numToKeep;
+  }
+
+  @Override
+  public void begin(long size) {
+    downstream.begin(size < 0 ? UNKNOWN_SIZE : Math.min(size, numToKeep));
+  }
+
+  @Override
+  public void accept(T item) {
+    if (numToKeep > 0) {
+      numToKeep--;
+      downstream.accept(item);
+    }
+  }
+
+  @Override
+  public boolean cancellationRequested() {
+    return numToKeep == 0 || downstream.cancellationRequested();
+  }
+
+  @Override
+  public boolean cancellable() {
+    return true;
+  }
+}
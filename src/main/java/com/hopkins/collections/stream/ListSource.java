@@ -0,0 +1,74 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.List;
+import com.hopkins.collections.NoSuchElementException;
+import com.hopkins.collections.RandomAccess;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link SplittableSource} over a {@link RandomAccess} {@link List}, which
+ * reads items by index so that it can split at any point.
+ * <p>The end of the range is fixed when the first split is made, so the
+ * list should not change size while a stream is reading it.
+ */
+final class ListSource<T> implements SplittableSource<T> {
+  private final List<T> list;
+  private int next;
+  private int end;
+
+  ListSource(List<T> list) {
+    this(list, 0, -1 /* end */);
+  }
+
+  private ListSource(List<T> list, int fromIndex, int toIndex) {
+    this.list = list;
+    this.next = fromIndex;
+    this.end = toIndex;
+  }
+
+  private int end() {
+    if (end < 0) {
+      end = list.size();
+    }
+    return end;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return next < end();
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return list.get(next++);
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    int end = end();
+    for (int i = next; i < end; i++) {
+      action.accept(list.get(i));
+    }
+    next = end;
+  }
+
+  @Override
+  public SplittableSource<T> trySplit() {
+    int mid = (next + end()) >>> 1;
+    if (mid <= next) {
+      return null;
+    }
+    SplittableSource<T> prefix = new ListSource<>(list, next, mid);
+    next = mid;
+    return prefix;
+  }
+
+  @Override
+  public long remaining() {
+    return end() - next;
+  }
+}
@@ -0,0 +1,493 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Arrays;
+
+import java.util.LongSummaryStatistics;
+import java.util.Objects;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * A sequence of {@code long} values that supports aggregate operations,
+ * without boxing each value.
+ * <p>Like {@link Stream}, nothing is read until a terminal operation is
+ * called, and the terminal operation pushes every value through the stages
+ * in a single loop.  It always runs on the calling thread.
+ */
+public final class LongStream {
+  private static final LongStream EMPTY = of();
+
+  public static LongStream empty() {
+    return EMPTY;
+  }
+
+  public static LongStream of(long... values) {
+    Objects.requireNonNull(values);
+    return new LongStream(new Values(values), false /* shortCircuit */);
+  }
+
+  /**
+   * Returns the values from {@code startInclusive} up to but not including
+   * {@code endExclusive}, in order.
+   */
+  public static LongStream range(long startInclusive, long endExclusive) {
+    if (startInclusive >= endExclusive) {
+      return empty();
+    }
+    return rangeClosed(startInclusive, endExclusive - 1);
+  }
+
+  /**
+   * Returns the values from {@code startInclusive} up to and including
+   * {@code endInclusive}, in order.
+   */
+  public static LongStream rangeClosed(long startInclusive, long endInclusive) {
+    if (startInclusive > endInclusive) {
+      return empty();
+    }
+    return new LongStream(new Range(startInclusive, endInclusive), false /* shortCircuit */);
+  }
+
+  private final SinkSource<Sink.OfLong> source;
+  private final boolean shortCircuit;
+
+  LongStream(SinkSource<Sink.OfLong> source, boolean shortCircuit) {
+    this.source = source;
+    this.shortCircuit = shortCircuit;
+  }
+
+  /**
+   * Returns a stream that pushes each value through {@code stage} on its way
+   * to the sink of the next stage.
+   */
+  private LongStream then(Function<Sink.OfLong, Sink.OfLong> stage, boolean shortCircuit) {
+    return new LongStream(
+        SinkSource.chain(source, stage, false /* cancellable */),
+        this.shortCircuit || shortCircuit);
+  }
+
+  private <S extends Sink.OfLong> S run(S sink, boolean cancellable) {
+    source.run(sink, shortCircuit || cancellable);
+    return sink;
+  }
+
+  public LongStream filter(LongPredicate predicate) {
+    Objects.requireNonNull(predicate);
+    return then(
+        sink -> new Sink.ChainedLong<Long>(sink) {
+          @Override
+          public void begin(long size) {
+            downstream.begin(Sink.UNKNOWN_SIZE);
+          }
+
+          @Override
+          public void accept(long value) {
+            if (predicate.test(value)) {
+              downstream.accept(value);
+            }
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public LongStream map(LongUnaryOperator mapper) {
+    Objects.requireNonNull(mapper);
+    return then(
+        sink -> new Sink.ChainedLong<Long>(sink) {
+          @Override
+          public void accept(long value) {
+            downstream.accept(mapper.applyAsLong(value));
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public LongStream peek(LongConsumer consumer) {
+    Objects.requireNonNull(consumer);
+    return then(
+        sink -> new Sink.ChainedLong<Long>(sink) {
+          @Override
+          public void accept(long value) {
+            consumer.accept(value);
+            downstream.accept(value);
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public LongStream limit(long numToKeep) {
+    if (numToKeep < 0) {
+      throw new IllegalArgumentException();
+    }
+    return then(
+        sink -> new Sink.ChainedLong<Long>(sink) {
+          private long remaining = numToKeep;
+
+          @Override
+          public void begin(long size) {
+            downstream.begin(size < 0 ? Sink.UNKNOWN_SIZE : Math.min(size, numToKeep));
+          }
+
+          @Override
+          public void accept(long value) {
+            if (remaining > 0) {
+              remaining--;
+              downstream.accept(value);
+            }
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return remaining == 0 || downstream.cancellationRequested();
+          }
+
+          @Override
+          public boolean cancellable() {
+            return true;
+          }
+        },
+        true /* shortCircuit */);
+  }
+
+  public LongStream skip(long numToSkip) {
+    if (numToSkip < 0) {
+      throw new IllegalArgumentException();
+    } else if (numToSkip == 0) {
+      return this;
+    }
+    return then(
+        sink -> new Sink.ChainedLong<Long>(sink) {
+          private long skipped;
+
+          @Override
+          public void begin(long size) {
+            downstream.begin(size < 0 ? Sink.UNKNOWN_SIZE : Math.max(0, size - numToSkip));
+          }
+
+          @Override
+          public void accept(long value) {
+            if (skipped < numToSkip) {
+              skipped++;
+            } else {
+              downstream.accept(value);
+            }
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public LongStream sorted() {
+    return then(
+        sink -> new Sink.ChainedLong<Long>(sink) {
+          private SpinedBuffer.OfLong buffer;
+
+          @Override
+          public void begin(long size) {
+            buffer = new SpinedBuffer.OfLong();
+          }
+
+          @Override
+          public void accept(long value) {
+            buffer.add(value);
+          }
+
+          @Override
+          public void end() {
+            long[] values = buffer.asArray();
+            buffer = null;
+            Arrays.sort(values);
+            downstream.begin(values.length);
+            for (int i = 0; i < values.length && !downstream.cancellationRequested(); i++) {
+              downstream.accept(values[i]);
+            }
+            downstream.end();
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return false;
+          }
+
+          @Override
+          public boolean cancellable() {
+            return false;
+          }
+        },
+        false /* shortCircuit */);
+  }
+
+  public <R> Stream<R> mapToObj(LongFunction<? extends R> mapper) {
+    Objects.requireNonNull(mapper);
+    if (source instanceof Range) {
+      // A plain range can be split and read lazily without the push source
+      Range range = (Range) source;
+      return Stream.fromSplittable(new RangeSource<>(range.first, range.last, mapper));
+    }
+    return Stream.fromSource(
+        SinkSource.chain(
+            source,
+            (Sink<R> sink) -> new Sink.ChainedLong<R>(sink) {
+              @Override
+              public void accept(long value) {
+                downstream.accept(mapper.apply(value));
+              }
+            },
+            shortCircuit));
+  }
+
+  public Stream<Long> boxed() {
+    return mapToObj(Long::valueOf);
+  }
+
+  public DoubleStream asDoubleStream() {
+    return new DoubleStream(
+        SinkSource.chain(
+            source,
+            sink -> new Sink.ChainedLong<Double>(sink) {
+              @Override
+              public void accept(long value) {
+                downstream.accept((double) value);
+              }
+            },
+            shortCircuit),
+        false /* shortCircuit */);
+  }
+
+  public void forEach(LongConsumer consumer) {
+    Objects.requireNonNull(consumer);
+    run((Sink.OfLong) consumer::accept, false /* cancellable */);
+  }
+
+  public long[] toArray() {
+    SpinedBuffer.OfLong buffer = new SpinedBuffer.OfLong();
+    run((Sink.OfLong) buffer::add, false /* cancellable */);
+    return buffer.asArray();
+  }
+
+  public long reduce(long identity, LongBinaryOperator operator) {
+    Objects.requireNonNull(operator);
+    long[] result = {identity};
+    run((Sink.OfLong) value -> result[0] = operator.applyAsLong(result[0], value), false /* cancellable */);
+    return result[0];
+  }
+
+  public OptionalLong reduce(LongBinaryOperator operator) {
+    Objects.requireNonNull(operator);
+    ReducingLongSink sink = run(new ReducingLongSink(operator), false /* cancellable */);
+    return sink.empty ? OptionalLong.empty() : OptionalLong.of(sink.result);
+  }
+
+  /**
+   * The source behind {@link #of}, which can also be read one value at a
+   * time.
+   */
+  private static final class Values implements SinkSource<Sink.OfLong> {
+    private final long[] values;
+
+    Values(long[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public void run(Sink.OfLong sink, boolean cancellable) {
+      sink.begin(values.length);
+      if (cancellable) {
+        for (int i = 0; i < values.length && !sink.cancellationRequested(); i++) {
+          sink.accept(values[i]);
+        }
+      } else {
+        for (long value : values) {
+          sink.accept(value);
+        }
+      }
+      sink.end();
+    }
+
+    @Override
+    public Cursor open(Sink.OfLong sink) {
+      sink.begin(values.length);
+      int[] index = {0};
+      return () -> {
+        if (index[0] == values.length || sink.cancellationRequested()) {
+          sink.end();
+          return false;
+        }
+        sink.accept(values[index[0]++]);
+        return true;
+      };
+    }
+  }
+
+  /**
+   * The source behind {@link #rangeClosed}, which can also be read one
+   * value at a time.
+   */
+  private static final class Range implements SinkSource<Sink.OfLong> {
+    private final long first;
+    private final long last;
+
+    Range(long first, long last) {
+      this.first = first;
+      this.last = last;
+    }
+
+    private long size() {
+      // A range wider than Long.MAX_VALUE has no size that fits
+      long size = last - first + 1;
+      return size > 0 ? size : Sink.UNKNOWN_SIZE;
+    }
+
+    @Override
+    public void run(Sink.OfLong sink, boolean cancellable) {
+      sink.begin(size());
+      long value = first;
+      while (!(cancellable && sink.cancellationRequested())) {
+        sink.accept(value);
+        if (value == last) {
+          break;
+        }
+        value++;
+      }
+      sink.end();
+    }
+
+    @Override
+    public Cursor open(Sink.OfLong sink) {
+      sink.begin(size());
+      long[] next = {first};
+      boolean[] done = {false};
+      return () -> {
+        if (done[0] || sink.cancellationRequested()) {
+          sink.end();
+          return false;
+        }
+        long value = next[0];
+        if (value == last) {
+          done[0] = true;
+        } else {
+          next[0]++;
+        }
+        sink.accept(value);
+        return true;
+      };
+    }
+  }
+
+  private static final class ReducingLongSink implements Sink.OfLong {
+    private final LongBinaryOperator operator;
+    private boolean empty = true;
+    private long result;
+
+    ReducingLongSink(LongBinaryOperator operator) {
+      this.operator = operator;
+    }
+
+    @Override
+    public void accept(long value) {
+      if (empty) {
+        empty = false;
+        result = value;
+      } else {
+        result = operator.applyAsLong(result, value);
+      }
+    }
+  }
+
+  public long sum() {
+    return reduce(0L, Long::sum);
+  }
+
+  public OptionalLong min() {
+    return reduce(Math::min);
+  }
+
+  public OptionalLong max() {
+    return reduce(Math::max);
+  }
+
+  public long count() {
+    long[] count = {0L};
+    run((Sink.OfLong) value -> count[0]++, false /* cancellable */);
+    return count[0];
+  }
+
+  public OptionalDouble average() {
+    LongSummaryStatistics statistics = summaryStatistics();
+    return statistics.getCount() == 0
+        ? OptionalDouble.empty()
+        : OptionalDouble.of(statistics.getAverage());
+  }
+
+  public LongSummaryStatistics summaryStatistics() {
+    LongSummaryStatistics statistics = new LongSummaryStatistics();
+    run((Sink.OfLong) statistics::accept, false /* cancellable */);
+    return statistics;
+  }
+
+  public OptionalLong findFirst() {
+    boolean[] found = {false};
+    long[] first = new long[1];
+    run(
+        new Sink.OfLong() {
+          @Override
+          public void accept(long value) {
+            if (!found[0]) {
+              found[0] = true;
+              first[0] = value;
+            }
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return found[0];
+          }
+
+          @Override
+          public boolean cancellable() {
+            return true;
+          }
+        },
+        true /* cancellable */);
+    return found[0] ? OptionalLong.of(first[0]) : OptionalLong.empty();
+  }
+
+  public boolean anyMatch(LongPredicate predicate) {
+    Objects.requireNonNull(predicate);
+    boolean[] found = {false};
+    run(
+        new Sink.OfLong() {
+          @Override
+          public void accept(long value) {
+            if (predicate.test(value)) {
+              found[0] = true;
+            }
+          }
+
+          @Override
+          public boolean cancellationRequested() {
+            return found[0];
+          }
+
+          @Override
+          public boolean cancellable() {
+            return true;
+          }
+        },
+        true /* cancellable */);
+    return found[0];
+  }
+
+  public boolean allMatch(LongPredicate predicate) {
+    return !anyMatch(predicate.negate());
+  }
+
+  public boolean noneMatch(LongPredicate predicate) {
+    return !anyMatch(predicate);
+  }
+}
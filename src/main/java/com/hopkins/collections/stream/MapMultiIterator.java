@@ -0,0 +1,45 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Iterator;
+import com.hopkins.collections.NoSuchElementException;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Buffers the results the mapper gives for one item of the source at a
+ * time, reusing the same buffer for each item.
+ */
+final class MapMultiIterator<T, R> implements Iterator<R> {
+  private final Iterator<T> source;
+  private final BiConsumer<? super T, ? super Consumer<R>> mapper;
+  private final SpinedBuffer<R> buffer = new SpinedBuffer<>();
+  private final Consumer<R> adder = buffer::add;
+  private int nextIndex;
+
+  MapMultiIterator(Iterator<T> source, BiConsumer<? super T, ? super Consumer<R>> mapper) {
+    this.source = source;
+    this.mapper = mapper;
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (nextIndex >= buffer.size()) {
+      if (!source.hasNext()) {
+        return false;
+      }
+      buffer.clear();
+      nextIndex = 0;
+      mapper.accept(source.next(), adder);
+    }
+    return true;
+  }
+
+  @Override
+  public R next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return buffer.get(nextIndex++);
+  }
+}
@@ -0,0 +1,27 @@
+package com.hopkins.collections.stream;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Hands the next stage to the mapper as the consumer of its results, so
+ * nothing is allocated per item.
+ */
+final class MapMultiSink<T, R> extends Sink.ChainedSink<T, R> {
+  private final BiConsumer<? super T, ? super Consumer<R>> mapper;
+
+  MapMultiSink(Sink<? super R> downstream, BiConsumer<? super T, ? super Consumer<R>> mapper) {
+    super(downstream);
+    this.mapper = mapper;
+  }
+
+  @Override
+  public void begin(long size) {
+    downstream.begin(UNKNOWN_SIZE);
+  }
+
+  @Override
+  public void accept(T item) {
+    mapper.accept(item, (Consumer<R>) downstream);
+  }
+}
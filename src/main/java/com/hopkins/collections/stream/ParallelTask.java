@@ -0,0 +1,73 @@
+package com.hopkins.collections.stream;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Evaluates a stream pipeline over a {@link SplittableSource} on the common
+ * {@link ForkJoinPool}.
+ * <p>A task splits its source until the piece is small enough, forking the
+ * prefix and carrying on with the rest itself.  Each leaf runs its own copy
+ * of the pipeline over its piece, and the results are combined prefix first
+ * so that order is kept.  Splitting aims for about four leaves per worker
+ * thread.
+ */
+final class ParallelTask<S, R> extends RecursiveTask<R> {
+  private static final long serialVersionUID = 1L;
+  private static final int LEAVES_PER_THREAD = 4;
+
+  /**
+   * Runs the pipeline and returns the combined result.  Once {@code done} is
+   * set, tasks stop splitting and leaves are expected to return early.
+   */
+  static <S, R> R evaluate(
+      SplittableSource<S> source,
+      Function<SplittableSource<S>, R> leaf,
+      BinaryOperator<R> combiner,
+      AtomicBoolean done) {
+    long threshold = Math.max(
+        1L, source.remaining() / (ForkJoinPool.getCommonPoolParallelism() * LEAVES_PER_THREAD));
+    return ForkJoinPool.commonPool()
+        .invoke(new ParallelTask<>(source, leaf, combiner, done, threshold));
+  }
+
+  private final SplittableSource<S> source;
+  private final Function<SplittableSource<S>, R> leaf;
+  private final BinaryOperator<R> combiner;
+  private final AtomicBoolean done;
+  private final long threshold;
+
+  private ParallelTask(
+      SplittableSource<S> source,
+      Function<SplittableSource<S>, R> leaf,
+      BinaryOperator<R> combiner,
+      AtomicBoolean done,
+      long threshold) {
+    this.source = source;
+    this.leaf = leaf;
+    this.combiner = combiner;
+    this.done = done;
+    this.threshold = threshold;
+  }
+
+  private ParallelTask<S, R> child(SplittableSource<S> source) {
+    return new ParallelTask<>(source, leaf, combiner, done, threshold);
+  }
+
+  @Override
+  protected R compute() {
+    if (source.remaining() > threshold && (done == null || !done.get())) {
+      SplittableSource<S> prefix = source.trySplit();
+      if (prefix != null) {
+        ParallelTask<S, R> left = child(prefix);
+        left.fork();
+        R right = child(source).compute();
+        return combiner.apply(left.join(), right);
+      }
+    }
+    return leaf.apply(source);
+  }
+}
@@ -0,0 +1,18 @@
+package com.hopkins.collections.stream;
+
+import java.util.function.Consumer;
+
+final class PeekSink<T> extends Sink.ChainedSink<T, T> {
+  private final Consumer<T> consumer;
+
+  PeekSink(Sink<? super T> downstream, Consumer<T> consumer) {
+    super(downstream);
+    this.consumer = consumer;
+  }
+
+  @Override
+  public void accept(T item) {
+    consumer.accept(item);
+    downstream.accept(item);
+  }
+}
@@ -0,0 +1,86 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Arrays;
+import com.hopkins.collections.Iterator;
+import com.hopkins.collections.NoSuchElementException;
+
+/**
+ * The head of a {@link Stream} whose items come from a {@link SinkSource},
+ * such as a primitive stream mapped to objects.
+ * <p>Terminal operations push items straight from the source.  Reading it
+ * as an {@link Iterator} opens the source and advances it only until the
+ * next item comes out, holding any extra items a stage lets out at once.
+ * A source that cannot be opened is run to the end into a buffer the first
+ * time an item is asked for.
+ */
+final class PushSource<T> implements Iterator<T> {
+  private final SinkSource<Sink<T>> source;
+  private boolean opened;
+  private SinkSource.Cursor cursor;
+  private boolean ended;
+  private Object[] pending = new Object[4];
+  private int read;
+  private int write;
+  private Iterator<T> buffered;
+
+  PushSource(SinkSource<Sink<T>> source) {
+    this.source = source;
+  }
+
+  void run(Sink<T> sink, boolean cancellable) {
+    source.run(sink, cancellable);
+  }
+
+  private void open() {
+    opened = true;
+    cursor = source.open(new Sink<T>() {
+      @Override
+      public void accept(T item) {
+        if (write == pending.length) {
+          pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+        pending[write++] = item;
+      }
+
+      @Override
+      public boolean cancellable() {
+        // The reader may stop at any item
+        return true;
+      }
+    });
+    if (cursor == null) {
+      SpinedBuffer<T> buffer = new SpinedBuffer<>();
+      source.run(buffer::add, false /* cancellable */);
+      buffered = buffer.source();
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (!opened) {
+      open();
+    }
+    if (buffered != null) {
+      return buffered.hasNext();
+    }
+    while (read == write && !ended) {
+      read = 0;
+      write = 0;
+      ended = !cursor.advance();
+    }
+    return read < write;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    if (buffered != null) {
+      return buffered.next();
+    }
+    T item = (T) pending[read];
+    pending[read++] = null;
+    return item;
+  }
+}
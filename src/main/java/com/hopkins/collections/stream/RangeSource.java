@@ -0,0 +1,88 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.NoSuchElementException;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * A {@link SplittableSource} over a range of {@code long} values, each
+ * mapped to an item as it is read.  It backs a primitive range that is
+ * mapped straight to objects, so the stream can be read lazily and split
+ * evenly without buffering the range.
+ */
+final class RangeSource<T> implements SplittableSource<T> {
+  private final LongFunction<? extends T> mapper;
+  private long next;
+  private final long last;
+  private boolean done;
+
+  /**
+   * Covers the values from {@code first} up to and including {@code last},
+   * which must not be less than {@code first}.
+   */
+  RangeSource(long first, long last, LongFunction<? extends T> mapper) {
+    this.next = first;
+    this.last = last;
+    this.mapper = mapper;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return !done;
+  }
+
+  @Override
+  public T next() {
+    if (done) {
+      throw new NoSuchElementException();
+    }
+    long value = next;
+    if (value == last) {
+      done = true;
+    } else {
+      next++;
+    }
+    return mapper.apply(value);
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    if (done) {
+      return;
+    }
+    done = true;
+    long value = next;
+    long last = this.last;
+    while (true) {
+      action.accept(mapper.apply(value));
+      if (value == last) {
+        break;
+      }
+      value++;
+    }
+    next = last;
+  }
+
+  @Override
+  public SplittableSource<T> trySplit() {
+    if (done || next == last) {
+      return null;
+    }
+    // The difference may not fit in a signed long, so halve it unsigned
+    long middle = next + ((last - next) >>> 1);
+    SplittableSource<T> prefix = new RangeSource<>(next, middle, mapper);
+    next = middle + 1;
+    return prefix;
+  }
+
+  @Override
+  public long remaining() {
+    if (done) {
+      return 0;
+    }
+    long remaining = last - next + 1;
+    // A range wider than Long.MAX_VALUE has no size that fits
+    return remaining > 0 ? remaining : UNKNOWN_SIZE;
+  }
+}
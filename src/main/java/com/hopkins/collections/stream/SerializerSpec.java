@@ -0,0 +1,54 @@
+package com.hopkins.collections.stream;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes items to and reads them back from a binary stream, so that
+ * {@link Stream#sorted(com.hopkins.collections.Comparator, SerializerSpec, int)}
+ * can spill items to disk.  {@link #read} must return an item equal to the
+ * one that was written.
+ */
+public interface SerializerSpec<T> {
+
+  void write(T item, DataOutput out) throws IOException;
+
+  T read(DataInput in) throws IOException;
+
+  /**
+   * Returns a serializer for strings of any length, written as UTF-8.
+   */
+  static SerializerSpec<String> strings() {
+    return new SerializerSpec<String>() {
+      @Override
+      public void write(String item, DataOutput out) throws IOException {
+        byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+
+      @Override
+      public String read(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+      }
+    };
+  }
+
+  static SerializerSpec<Long> longs() {
+    return new SerializerSpec<Long>() {
+      @Override
+      public void write(Long item, DataOutput out) throws IOException {
+        out.writeLong(item);
+      }
+
+      @Override
+      public Long read(DataInput in) throws IOException {
+        return in.readLong();
+      }
+    };
+  }
+}
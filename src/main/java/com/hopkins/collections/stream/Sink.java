@@ -0,0 +1,211 @@
+package com.hopkins.collections.stream;
+
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A consumer of the items of a stream, used to push items through a chain
+ * of stages rather than pulling them through a chain of iterators.
+ * <p>A traversal calls {@link #begin} once, then {@link #accept} for each
+ * item, then {@link #end}.  A sink that needs no more items, such as the
+ * sink for {@link Stream#limit}, returns {@code true} from
+ * {@link #cancellationRequested} and the traversal stops early.
+ * <p>The sinks of the primitive streams take unboxed values through the
+ * primitive {@code accept} methods, which other sinks do not support.
+ */
+interface Sink<T> extends Consumer<T> {
+  /**
+   * The size passed to {@link #begin} when the number of items is not known.
+   */
+  long UNKNOWN_SIZE = -1;
+
+  default void begin(long size) {
+  }
+
+  default void accept(int value) {
+    throw new IllegalStateException("Sink does not accept int values");
+  }
+
+  default void accept(long value) {
+    throw new IllegalStateException("Sink does not accept long values");
+  }
+
+  default void accept(double value) {
+    throw new IllegalStateException("Sink does not accept double values");
+  }
+
+  default void end() {
+  }
+
+  default boolean cancellationRequested() {
+    return false;
+  }
+
+  /**
+   * Returns {@code true} if this sink, or one after it, may ask for the
+   * traversal to stop early.  A stage that has to read every item before it
+   * passes any on, such as the sink for {@link Stream#sorted}, can pick a
+   * cheaper way to order them when every item will be taken.
+   */
+  default boolean cancellable() {
+    return false;
+  }
+
+  /**
+   * A sink that passes items on to another sink, along with calls to
+   * {@link #begin}, {@link #end}, {@link #cancellationRequested} and
+   * {@link #cancellable}.
+   */
+  abstract class ChainedSink<T, R> implements Sink<T> {
+    protected final Sink<? super R> downstream;
+
+    ChainedSink(Sink<? super R> downstream) {
+      this.downstream = downstream;
+    }
+
+    @Override
+    public void begin(long size) {
+      downstream.begin(size);
+    }
+
+    @Override
+    public void end() {
+      downstream.end();
+    }
+
+    @Override
+    public boolean cancellationRequested() {
+      return downstream.cancellationRequested();
+    }
+
+    @Override
+    public boolean cancellable() {
+      return downstream.cancellable();
+    }
+  }
+
+  interface OfInt extends Sink<Integer>, IntConsumer {
+    @Override
+    void accept(int value);
+
+    @Override
+    default void accept(Integer value) {
+      accept(value.intValue());
+    }
+  }
+
+  interface OfLong extends Sink<Long>, LongConsumer {
+    @Override
+    void accept(long value);
+
+    @Override
+    default void accept(Long value) {
+      accept(value.longValue());
+    }
+  }
+
+  interface OfDouble extends Sink<Double>, DoubleConsumer {
+    @Override
+    void accept(double value);
+
+    @Override
+    default void accept(Double value) {
+      accept(value.doubleValue());
+    }
+  }
+
+  /**
+   * A sink of int values that passes items on to another sink.
+   */
+  abstract class ChainedInt<R> implements OfInt {
+    protected final Sink<? super R> downstream;
+
+    ChainedInt(Sink<? super R> downstream) {
+      this.downstream = downstream;
+    }
+
+    @Override
+    public void begin(long size) {
+      downstream.begin(size);
+    }
+
+    @Override
+    public void end() {
+      downstream.end();
+    }
+
+    @Override
+    public boolean cancellationRequested() {
+      return downstream.cancellationRequested();
+    }
+
+    @Override
+    public boolean cancellable() {
+      return downstream.cancellable();
+    }
+  }
+
+  /**
+   * A sink of long values that passes items on to another sink.
+   */
+  abstract class ChainedLong<R> implements OfLong {
+    protected final Sink<? super R> downstream;
+
+    ChainedLong(Sink<? super R> downstream) {
+      this.downstream = downstream;
+    }
+
+    @Override
+    public void begin(long size) {
+      downstream.begin(size);
+    }
+
+    @Override
+    public void end() {
+      downstream.end();
+    }
+
+    @Override
+    public boolean cancellationRequested() {
+      return downstream.cancellationRequested();
+    }
+
+    @Override
+    public boolean cancellable() {
+      return downstream.cancellable();
+    }
+  }
+
+  /**
+   * A sink of double values that passes items on to another sink.
+   */
+  abstract class ChainedDouble<R> implements OfDouble {
+    protected final Sink<? super R> downstream;
+
+    ChainedDouble(Sink<? super R> downstream) {
+      this.downstream = downstream;
+    }
+
+    @Override
+    public void begin(long size) {
+      downstream.begin(size);
+    }
+
+    @Override
+    public void end() {
+      downstream.end();
+    }
+
+    @Override
+    public boolean cancellationRequested() {
+      return downstream.cancellationRequested();
+    }
+
+    @Override
+    public boolean cancellable() {
+      return downstream.cancellable();
+    }
+  }
+}
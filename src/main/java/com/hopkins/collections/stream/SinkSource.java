@@ -0,0 +1,59 @@
+package com.hopkins.collections.stream;
+
+import java.util.function.Function;
+
+/**
+ * A source that pushes its items into a {@link Sink}.  Running it calls
+ * {@link Sink#begin}, then {@link Sink#accept} with each item, then
+ * {@link Sink#end}.  When {@code cancellable} is set, it stops as soon as
+ * the sink requests cancellation.
+ * <p>A source that can also push its items one at a time, such as a range,
+ * returns a {@link Cursor} from {@link #open}, which lets a stream read it
+ * lazily as an iterator.
+ */
+interface SinkSource<S extends Sink<?>> {
+  void run(S sink, boolean cancellable);
+
+  /**
+   * Calls {@link Sink#begin} and returns a cursor that pushes the items into
+   * the sink one at a time, or returns {@code null} if this source can only
+   * be run to the end in one go.
+   */
+  default Cursor open(S sink) {
+    return null;
+  }
+
+  /**
+   * Returns a source that passes every item through {@code stage} on its
+   * way to the sink.  It can be opened if this source can.  If
+   * {@code cancellable} is set, it is run as cancellable whether or not the
+   * caller asks, for a stage that can stop early.
+   */
+  static <S extends Sink<?>, D extends Sink<?>> SinkSource<D> chain(
+      SinkSource<S> source, Function<D, S> stage, boolean cancellable) {
+    return new SinkSource<D>() {
+      @Override
+      public void run(D sink, boolean runCancellable) {
+        source.run(stage.apply(sink), runCancellable || cancellable);
+      }
+
+      @Override
+      public Cursor open(D sink) {
+        return source.open(stage.apply(sink));
+      }
+    };
+  }
+
+  /**
+   * Pushes the items of an opened source one at a time.
+   */
+  interface Cursor {
+    /**
+     * Pushes the next item into the sink and returns {@code true}.  If there
+     * are no items left, or the sink has requested cancellation, calls
+     * {@link Sink#end} instead and returns {@code false}, after which it
+     * must not be called again.
+     */
+    boolean advance();
+  }
+}
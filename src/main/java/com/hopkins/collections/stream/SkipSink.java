@@ -0,0 +1,25 @@
+package com.hopkins.collections.stream;
+
+final class SkipSink<T> extends Sink.ChainedSink<T, T> {
+  private final int numToSkip;
+  private int numSkipped;
+
+  SkipSink(Sink<? super T> downstream, int numToSkip) {
+    super(downstream);
+    this.numToSkip = numToSkip;
+  }
+
+  @Override
+  public void begin(long size) {
+    downstream.begin(size < 0 ? UNKNOWN_SIZE : Math.max(0, size - numToSkip));
+  }
+
+  @Override
+  public void accept(T item) {
+    if (numSkipped < numToSkip) {
+      numSkipped++;
+    } else {
+      downstream.accept(item);
+    }
+  }
+}
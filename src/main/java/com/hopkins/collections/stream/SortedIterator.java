@@ -3,12 +3,18 @@ package com.hopkins.collections.stream;
 import com.hopkins.collections.Arrays;
 import com.hopkins.collections.Comparator;
 import com.hopkins.collections.Iterator;
+import java.util.function.Consumer;
 
+/**
+ * Reads every item on the first call, then sorts them lazily, so that a
+ * caller that stops early pays only for the items it took.  A caller that
+ * takes every item with {@link #forEachRemaining} gets a full sort with
+ * {@link Arrays#sort} instead.
+ */
 final class SortedIterator<T> implements Iterator<T> {
   private final Iterator<T> source;
   private final Comparator<? super T> comparator;
-  private T[] items;
-  private int nextIndex;
+  private HeapSorter<T> sorter;
 
   SortedIterator(Iterator<T> source, Comparator<? super T> comparator) {
     this.source = source;
@@ -17,24 +23,44 @@ final class SortedIterator<T> implements Iterator<T> {
 
   @Override
   public boolean hasNext() {
-    if (items == null) {
+    if (sorter == null) {
       moveToFirst();
     }
-    return nextIndex < items.length;
-
+    return sorter.hasNext();
   }
 
   @Override
   public T next() {
-    return (T) items[nextIndex++];
+    if (sorter == null) {
+      moveToFirst();
+    }
+    return sorter.next();
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super T> action) {
+    if (sorter != null) {
+      while (sorter.hasNext()) {
+        action.accept(sorter.next());
+      }
+      return;
+    }
+    T[] items = readAll();
+    Arrays.sort(items, comparator);
+    for (int i = 0; i < items.length; i++) {
+      action.accept(items[i]);
+    }
   }
 
   private void moveToFirst() {
+    sorter = new HeapSorter<>(readAll(), comparator);
+  }
+
+  private T[] readAll() {
     SpinedBuffer<T> buffer = new SpinedBuffer<>();
     while (source.hasNext()) {
       buffer.add(source.next());
     }
-    items = (T[]) buffer.asArray(Object[]::new);
-    Arrays.sort(items, comparator);
+    return (T[]) buffer.asArray(Object[]::new);
   }
 }
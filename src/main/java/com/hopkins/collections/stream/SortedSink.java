@@ -0,0 +1,64 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Arrays;
+import com.hopkins.collections.Comparator;
+
+/**
+ * Buffers every item, then pushes them on in order when the upstream ends.
+ * If the downstream may cancel early, such as {@link Stream#findFirst}, the
+ * items are sorted as they are pushed so that it does not pay for a full
+ * sort.  Otherwise they are sorted up front with {@link Arrays#sort}, which
+ * is faster when every item is taken and close to O(n) on input that is
+ * already sorted.
+ */
+final class SortedSink<T> extends Sink.ChainedSink<T, T> {
+  private final Comparator<? super T> comparator;
+  private SpinedBuffer<T> buffer;
+
+  SortedSink(Sink<? super T> downstream, Comparator<? super T> comparator) {
+    super(downstream);
+    this.comparator = comparator;
+  }
+
+  @Override
+  public void begin(long size) {
+    buffer = new SpinedBuffer<>();
+  }
+
+  @Override
+  public void accept(T item) {
+    buffer.add(item);
+  }
+
+  @Override
+  public void end() {
+    T[] items = (T[]) buffer.asArray(Object[]::new);
+    buffer = null;
+    if (!downstream.cancellable()) {
+      Arrays.sort(items, comparator);
+      downstream.begin(items.length);
+      for (int i = 0; i < items.length; i++) {
+        downstream.accept(items[i]);
+      }
+      downstream.end();
+      return;
+    }
+    HeapSorter<T> sorter = new HeapSorter<>(items, comparator);
+    downstream.begin(sorter.remaining());
+    while (sorter.hasNext() && !downstream.cancellationRequested()) {
+      downstream.accept(sorter.next());
+    }
+    downstream.end();
+  }
+
+  @Override
+  public boolean cancellationRequested() {
+    // The items have to be sorted before any of them can be passed on
+    return false;
+  }
+
+  @Override
+  public boolean cancellable() {
+    return false;
+  }
+}
@@ -1,7 +1,9 @@
 package com.hopkins.collections.stream;
 
 import com.hopkins.collections.Arrays;
+import com.hopkins.collections.NoSuchElementException;
 
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
 
 final class SpinedBuffer<T> {
@@ -112,4 +114,218 @@ final class SpinedBuffer<T> {
     }
     return destArray;
   }
+
+  /**
+   * Returns a {@link SplittableSource} over the items in the buffer.  The
+   * buffer should not be changed while the source is in use.
+   */
+  public SplittableSource<T> source() {
+    Object[][] chunks = new Object[spineIndex + 1][];
+    for (int i = 0; i < spineIndex; i++) {
+      chunks[i] = spineArray[i];
+    }
+    chunks[spineIndex] = curChunk;
+    return new ChunkSource<>(chunks, 0, 0, spineIndex, elementIndex);
+  }
+
+  /**
+   * A source over a run of chunks.  Every chunk before the last is full, so
+   * a source spanning several chunks splits on a chunk boundary and a source
+   * within one chunk splits it in half.
+   */
+  private static final class ChunkSource<T> implements SplittableSource<T> {
+    private final Object[][] chunks;
+    private int chunk;
+    private int index;
+    private final int lastChunk;
+    private final int lastEnd;
+
+    ChunkSource(Object[][] chunks, int chunk, int index, int lastChunk, int lastEnd) {
+      this.chunks = chunks;
+      this.chunk = chunk;
+      this.index = index;
+      this.lastChunk = lastChunk;
+      this.lastEnd = lastEnd;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return chunk < lastChunk || index < lastEnd;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      T item = (T) chunks[chunk][index++];
+      if (chunk < lastChunk && index == chunks[chunk].length) {
+        chunk++;
+        index = 0;
+      }
+      return item;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      for (; chunk <= lastChunk; chunk++) {
+        Object[] items = chunks[chunk];
+        int end = chunk < lastChunk ? items.length : lastEnd;
+        for (int i = index; i < end; i++) {
+          action.accept((T) items[i]);
+        }
+        index = 0;
+      }
+      chunk = lastChunk;
+      index = lastEnd;
+    }
+
+    @Override
+    public SplittableSource<T> trySplit() {
+      SplittableSource<T> prefix;
+      if (chunk < lastChunk) {
+        int mid = (chunk + lastChunk + 1) >>> 1;
+        prefix = new ChunkSource<>(chunks, chunk, index, mid - 1, chunks[mid - 1].length);
+        chunk = mid;
+        index = 0;
+      } else {
+        int mid = (index + lastEnd) >>> 1;
+        if (mid <= index) {
+          return null;
+        }
+        prefix = new ChunkSource<>(chunks, chunk, index, chunk, mid);
+        index = mid;
+      }
+      return prefix;
+    }
+
+    @Override
+    public long remaining() {
+      long remaining = lastEnd - index;
+      for (int i = chunk; i < lastChunk; i++) {
+        remaining += chunks[i].length;
+      }
+      return remaining;
+    }
+  }
+
+  /**
+   * A buffer of int values, kept in chunks that double in size so that
+   * adding a value never copies the values already added.
+   */
+  static final class OfInt {
+    private int[][] spineArray = new int[DEFAULT_SPINE_CAPACITY][];
+    private int spineIndex;
+    private int[] curChunk = new int[DEFAULT_CAPACITY];
+    private int elementIndex;
+    private int size;
+
+    public void add(int value) {
+      if (elementIndex == curChunk.length) {
+        if (spineIndex == spineArray.length) {
+          spineArray = Arrays.copyOf(spineArray, spineArray.length * 2);
+        }
+        spineArray[spineIndex++] = curChunk;
+        curChunk = new int[Math.min(curChunk.length * 2, MAX_CHUNK_SIZE)];
+        elementIndex = 0;
+      }
+      curChunk[elementIndex++] = value;
+      size++;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public int[] asArray() {
+      int[] destArray = new int[size];
+      int index = 0;
+      for (int i = 0; i < spineIndex; i++) {
+        System.arraycopy(spineArray[i], 0, destArray, index, spineArray[i].length);
+        index += spineArray[i].length;
+      }
+      System.arraycopy(curChunk, 0, destArray, index, elementIndex);
+      return destArray;
+    }
+  }
+
+  /**
+   * A buffer of long values, kept in chunks that double in size so that
+   * adding a value never copies the values already added.
+   */
+  static final class OfLong {
+    private long[][] spineArray = new long[DEFAULT_SPINE_CAPACITY][];
+    private int spineIndex;
+    private long[] curChunk = new long[DEFAULT_CAPACITY];
+    private int elementIndex;
+    private int size;
+
+    public void add(long value) {
+      if (elementIndex == curChunk.length) {
+        if (spineIndex == spineArray.length) {
+          spineArray = Arrays.copyOf(spineArray, spineArray.length * 2);
+        }
+        spineArray[spineIndex++] = curChunk;
+        curChunk = new long[Math.min(curChunk.length * 2, MAX_CHUNK_SIZE)];
+        elementIndex = 0;
+      }
+      curChunk[elementIndex++] = value;
+      size++;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public long[] asArray() {
+      long[] destArray = new long[size];
+      int index = 0;
+      for (int i = 0; i < spineIndex; i++) {
+        System.arraycopy(spineArray[i], 0, destArray, index, spineArray[i].length);
+        index += spineArray[i].length;
+      }
+      System.arraycopy(curChunk, 0, destArray, index, elementIndex);
+      return destArray;
+    }
+  }
+
+  /**
+   * A buffer of double values, kept in chunks that double in size so that
+   * adding a value never copies the values already added.
+   */
+  static final class OfDouble {
+    private double[][] spineArray = new double[DEFAULT_SPINE_CAPACITY][];
+    private int spineIndex;
+    private double[] curChunk = new double[DEFAULT_CAPACITY];
+    private int elementIndex;
+    private int size;
+
+    public void add(double value) {
+      if (elementIndex == curChunk.length) {
+        if (spineIndex == spineArray.length) {
+          spineArray = Arrays.copyOf(spineArray, spineArray.length * 2);
+        }
+        spineArray[spineIndex++] = curChunk;
+        curChunk = new double[Math.min(curChunk.length * 2, MAX_CHUNK_SIZE)];
+        elementIndex = 0;
+      }
+      curChunk[elementIndex++] = value;
+      size++;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public double[] asArray() {
+      double[] destArray = new double[size];
+      int index = 0;
+      for (int i = 0; i < spineIndex; i++) {
+        System.arraycopy(spineArray[i], 0, destArray, index, spineArray[i].length);
+        index += spineArray[i].length;
+      }
+      System.arraycopy(curChunk, 0, destArray, index, elementIndex);
+      return destArray;
+    }
+  }
 }
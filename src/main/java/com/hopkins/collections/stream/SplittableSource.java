@@ -0,0 +1,28 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Iterator;
+
+/**
+ * An {@link Iterator} over a source of items that can be split in two, so
+ * that the halves can be traversed by different threads.
+ * <p>A split hands a prefix of the remaining items to a new source and
+ * keeps the rest, so combining the results of the prefix before the results
+ * of this source keeps the items in order.
+ */
+interface SplittableSource<T> extends Iterator<T> {
+  /**
+   * The value of {@link #remaining} when the number of items is not known.
+   */
+  long UNKNOWN_SIZE = Long.MAX_VALUE;
+
+  /**
+   * Splits off a prefix of the remaining items into a new source, or returns
+   * {@code null} if this source cannot be split.
+   */
+  SplittableSource<T> trySplit();
+
+  /**
+   * Returns the number of items left to traverse, or {@link #UNKNOWN_SIZE}.
+   */
+  long remaining();
+}
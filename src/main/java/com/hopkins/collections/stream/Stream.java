@@ -4,19 +4,49 @@ import com.hopkins.collections.*;
 import com.hopkins.collections.Iterable;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.*;
 
-public class Stream<T> {
-  private static final Stream EMPTY = new Stream<>(Collections.emptyIterator());
+/**
+ * A sequence of items that supports aggregate operations.
+ * <p>A stream is a source of items and a chain of stages.  Nothing is read
+ * from the source until a terminal operation, such as {@link #collect} or
+ * {@link #count}, is called.  Terminal operations push the items through a
+ * chain of {@link Sink}s in a single loop over the source, which only checks
+ * whether to stop early when a stage or the terminal operation can stop
+ * early.  {@link #iterator} instead pulls items one at a time through a
+ * chain of iterators, so that it reads no more of the source than needed.
+ * <p>A {@link #parallel} stream splits its source into pieces and runs the
+ * stages over each piece on the common {@link java.util.concurrent.ForkJoinPool}.
+ * Lists with {@link RandomAccess} and arrays split evenly; other sources are
+ * split by copying batches of items.  The functions passed to a parallel
+ * stream may be called from several threads at once.  The stateful
+ * operations ({@link #sorted}, {@link #distinct}, {@link #limit} and
+ * {@link #skip}) need all of their input, so they gather the items from the
+ * stages before them and the stream carries on in parallel from there.
+ * <p>Closing a stream runs the handlers given to {@link #onClose} by it and
+ * by the streams it was made from, such as the one that deletes the files
+ * of a {@link #sorted(Comparator, SerializerSpec, int) sort that spills to
+ * disk} if its iterator is dropped before the end.
+ */
+public class Stream<T> implements AutoCloseable {
 
   public static <R> Stream<R> concat(Stream<R> first, Stream<R> second) {
     Objects.requireNonNull(first);
     Objects.requireNonNull(second);
-    return new Stream<>(new ConcatIterator<>(first.source, second.source));
+    Characteristics characteristics =
+        first.characteristics.has(Characteristics.SIZED) && second.characteristics.has(Characteristics.SIZED)
+            ? Characteristics.sized(() -> first.characteristics.size() + second.characteristics.size())
+            : Characteristics.NONE;
+    Stream<R> stream =
+        new Stream<>(new ConcatIterator<>(first.source(), second.source()), characteristics)
+            .onClose(first::close)
+            .onClose(second::close);
+    return first.parallel || second.parallel ? stream.parallel() : stream;
   }
 
   public static <R> Stream<R> empty() {
-    return EMPTY;
+    return new Stream<>(Collections.emptyIterator(), Characteristics.sized(() -> 0));
   }
 
   public static <R> Stream<R> generate(Supplier<R> supplier) {
@@ -33,90 +63,526 @@ public class Stream<T> {
     return new Stream<R>(iterable.iterator());
   }
 
+  /**
+   * Returns a stream over the items of a {@link Collection}.  A {@link List}
+   * with {@link RandomAccess} is read by index, so that a parallel stream
+   * can split it evenly.  The items of a {@link Set} are known to be
+   * distinct, and the items of a {@link TreeSet} are known to be sorted.
+   * The size is known up front unless the collection is
+   * {@link WeaklyConsistent}.
+   */
+  public static <R> Stream<R> of(Collection<R> collection) {
+    Characteristics characteristics = collection instanceof WeaklyConsistent
+        ? Characteristics.NONE
+        : Characteristics.sized(collection::size);
+    if (collection instanceof Set) {
+      characteristics = characteristics.withDistinct();
+    }
+    if (collection instanceof TreeSet) {
+      characteristics = characteristics.withSorted(((TreeSet<R>) collection).comparator());
+    }
+    if (collection instanceof List && collection instanceof RandomAccess) {
+      return new Stream<R>(new ListSource<>((List<R>) collection), characteristics);
+    }
+    return new Stream<R>(collection.iterator(), characteristics);
+  }
+
   @SafeVarargs
   public static <R> Stream<R> of(R... array) {
     Objects.requireNonNull(array);
-    return new Stream<R>(new ArrayIterator<>(array));
+    return new Stream<R>(new ArrayIterator<>(array), Characteristics.sized(() -> array.length));
+  }
+
+  /**
+   * Returns a stream whose items are pushed by {@code source}.
+   */
+  static <R> Stream<R> fromSource(SinkSource<Sink<R>> source) {
+    return new Stream<R>(new PushSource<>(source));
+  }
+
+  /**
+   * Returns a stream over the items of {@code source}.  Its size is the
+   * number of items the source has left now, if that is known.
+   */
+  static <R> Stream<R> fromSplittable(SplittableSource<R> source) {
+    long size = source.remaining();
+    return new Stream<R>(
+        source,
+        size == SplittableSource.UNKNOWN_SIZE ? Characteristics.NONE : Characteristics.sized(() -> size));
   }
 
-  private final Iterator<T> source;
+  private final Iterator<Object> head;
+  private final Function<Iterator<Object>, Iterator<T>> stages;
+  private final Function<Sink<T>, Sink<Object>> sinks;
+  private final Characteristics characteristics;
+  private final boolean shortCircuit;
+  private final boolean parallel;
+  private final CloseHandlers closeHandlers;
 
   private Stream(Iterator<T> source) {
-    this.source = source;
+    this(source, Characteristics.NONE);
   }
 
-  public boolean anyMatch(Predicate<T> predicate) {
-    while (source.hasNext()) {
-      if (predicate.test(source.next())) {
-        return true;
+  private Stream(Iterator<T> source, Characteristics characteristics) {
+    this(
+        source,
+        iter -> (Iterator<T>) iter,
+        sink -> (Sink<Object>) sink,
+        characteristics,
+        false /* shortCircuit */,
+        false /* parallel */,
+        new CloseHandlers());
+  }
+
+  private Stream(
+      Iterator<?> head,
+      Function<Iterator<Object>, Iterator<T>> stages,
+      Function<Sink<T>, Sink<Object>> sinks,
+      Characteristics characteristics,
+      boolean shortCircuit,
+      boolean parallel,
+      CloseHandlers closeHandlers) {
+    this.head = (Iterator<Object>) head;
+    this.stages = stages;
+    this.sinks = sinks;
+    this.characteristics = characteristics;
+    this.shortCircuit = shortCircuit;
+    this.parallel = parallel;
+    this.closeHandlers = closeHandlers;
+  }
+
+  /**
+   * Returns a stream that adds a stage to the end of this stream, given as
+   * both an iterator that pulls from the stage before it and a sink that
+   * pushes to the stage after it, along with the characteristics of the
+   * items that come out of the stage.
+   */
+  private <R> Stream<R> then(
+      Function<Iterator<T>, Iterator<R>> pull,
+      Function<Sink<R>, Sink<T>> push,
+      Characteristics characteristics) {
+    return then(pull, push, characteristics, false /* shortCircuit */);
+  }
+
+  private <R> Stream<R> then(
+      Function<Iterator<T>, Iterator<R>> pull,
+      Function<Sink<R>, Sink<T>> push,
+      Characteristics characteristics,
+      boolean shortCircuit) {
+    return new Stream<>(
+        head,
+        stages.andThen(pull),
+        push.andThen(sinks),
+        characteristics,
+        this.shortCircuit || shortCircuit,
+        parallel,
+        closeHandlers);
+  }
+
+  /**
+   * Returns a parallel stream that reads from a source which is made when
+   * the stream is first used.  The number of items is known once the source
+   * has been made.  Closing it closes this stream.
+   */
+  private <R> Stream<R> barrier(Supplier<SplittableSource<R>> supplier, Characteristics characteristics) {
+    LazySource<R> source = new LazySource<>(supplier);
+    return new Stream<R>(source, characteristics.withSize(source::remaining)).onClose(this::close).parallel();
+  }
+
+  /**
+   * Returns an iterator over the items of this stream, read on the calling
+   * thread.
+   */
+  private Iterator<T> source() {
+    return stages.apply(head);
+  }
+
+  /**
+   * Pushes the items of {@code source} through the stages of this stream
+   * into {@code sink}.  The loop checks {@link Sink#cancellationRequested}
+   * only if a stage or the terminal operation can stop early.
+   */
+  private <S extends Sink<T>> S traverse(Iterator<Object> source, S sink, boolean cancellable) {
+    Sink<Object> wrapped = sinks.apply(sink);
+    if (source instanceof PushSource) {
+      ((PushSource<Object>) source).run(wrapped, shortCircuit || cancellable);
+      return sink;
+    }
+    long size = Sink.UNKNOWN_SIZE;
+    if (source instanceof SplittableSource) {
+      long remaining = ((SplittableSource<Object>) source).remaining();
+      size = remaining == SplittableSource.UNKNOWN_SIZE ? Sink.UNKNOWN_SIZE : remaining;
+    }
+    wrapped.begin(size);
+    if (shortCircuit || cancellable) {
+      while (!wrapped.cancellationRequested() && source.hasNext()) {
+        wrapped.accept(source.next());
       }
+    } else {
+      source.forEachRemaining(wrapped);
     }
-    return false;
+    wrapped.end();
+    return sink;
   }
 
-  public boolean allMatch(Predicate<T> predicate) {
-    while (source.hasNext()) {
-      if (!predicate.test(source.next())) {
-        return false;
-      }
+  /**
+   * Pushes the items of this stream into a sink that belongs to another
+   * stream, stopping as soon as the sink asks.  The sink's
+   * {@link Sink#begin} and {@link Sink#end} are called as well, so it
+   * should ignore them.
+   */
+  void pushInto(Sink<? super T> sink) {
+    traverse(head, (Sink<T>) sink, true /* cancellable */);
+  }
+
+  /**
+   * Pushes pieces of the source through the stages in parallel, calling
+   * {@code leaf} on each piece and merging the results with
+   * {@code combiner}.
+   */
+  private <R> R evaluate(Function<SplittableSource<Object>, R> leaf, BinaryOperator<R> combiner, AtomicBoolean done) {
+    return ParallelTask.evaluate((SplittableSource<Object>) head, leaf, combiner, done);
+  }
+
+  /**
+   * Returns an iterator over the items of this stream.  Items are read from
+   * the source as the iterator is advanced, on the calling thread.
+   */
+  public Iterator<T> iterator() {
+    return source();
+  }
+
+  /**
+   * Returns this stream, which runs {@code handler} when it, or a stream
+   * made from it, is closed.
+   */
+  public Stream<T> onClose(Runnable handler) {
+    Objects.requireNonNull(handler);
+    closeHandlers.add(handler::run);
+    return this;
+  }
+
+  /**
+   * Runs the close handlers of this stream and of the streams it was made
+   * from, in the order they were added.  Every handler runs even if one
+   * throws; the first exception is thrown with the others suppressed.
+   */
+  @Override
+  public void close() {
+    closeHandlers.close();
+  }
+
+  /**
+   * Returns an equivalent stream that runs in parallel.
+   */
+  public Stream<T> parallel() {
+    if (parallel) {
+      return this;
     }
-    return true;
+    Iterator<?> source = head instanceof SplittableSource ? head : new IteratorSource<>(head);
+    return new Stream<>(source, stages, sinks, characteristics, shortCircuit, true /* parallel */, closeHandlers);
+  }
+
+  /**
+   * Returns an equivalent stream that runs on the calling thread.
+   */
+  public Stream<T> sequential() {
+    return parallel
+        ? new Stream<>(head, stages, sinks, characteristics, shortCircuit, false /* parallel */, closeHandlers)
+        : this;
+  }
+
+  public boolean isParallel() {
+    return parallel;
+  }
+
+  public boolean anyMatch(Predicate<T> predicate) {
+    if (parallel) {
+      AtomicBoolean found = new AtomicBoolean();
+      evaluate(piece -> traverse(piece, new MatchSink<>(predicate, found), true /* cancellable */), (left, right) -> left, found);
+      return found.get();
+    }
+    return traverse(head, new MatchSink<>(predicate, new AtomicBoolean()), true /* cancellable */).found.get();
+  }
+
+  public boolean allMatch(Predicate<T> predicate) {
+    return !anyMatch(predicate.negate());
   }
 
   public boolean noneMatch(Predicate<T> predicate) {
-    while (source.hasNext()) {
-      if (predicate.test(source.next())) {
-        return false;
+    return !anyMatch(predicate);
+  }
+
+  /**
+   * A sink that stops once an item matches.  Parallel pieces share the flag,
+   * so every piece stops once any of them finds a match.
+   */
+  private static final class MatchSink<T> implements Sink<T> {
+    private final Predicate<T> predicate;
+    private final AtomicBoolean found;
+
+    MatchSink(Predicate<T> predicate, AtomicBoolean found) {
+      this.predicate = predicate;
+      this.found = found;
+    }
+
+    @Override
+    public void accept(T item) {
+      if (!found.get() && predicate.test(item)) {
+        found.set(true);
       }
     }
-    return true;
+
+    @Override
+    public boolean cancellationRequested() {
+      return found.get();
+    }
+
+    @Override
+    public boolean cancellable() {
+      return true;
+    }
   }
 
   public Optional<T> findFirst() {
-    if (source.hasNext()) {
-      return Optional.of(source.next());
-    }
-    return Optional.empty();
+    FirstSink<T> sink = traverse(head, new FirstSink<>(), true /* cancellable */);
+    return sink.found ? Optional.of(sink.first) : Optional.empty();
   }
 
   public Optional<T> findAny() {
     return findFirst();
   }
 
+  private static final class FirstSink<T> implements Sink<T> {
+    private T first;
+    private boolean found;
+
+    @Override
+    public void accept(T item) {
+      if (!found) {
+        first = item;
+        found = true;
+      }
+    }
+
+    @Override
+    public boolean cancellationRequested() {
+      return found;
+    }
+
+    @Override
+    public boolean cancellable() {
+      return true;
+    }
+  }
+
+  /**
+   * Returns the number of items.  When the number is known without reading
+   * the items, such as for a stream over a collection with only
+   * {@link #map} and {@link #peek} stages, the stages are not run.
+   */
   public long count() {
-    long count = 0;
-    while (source.hasNext()) {
-      source.next();
-      count++;
+    if (characteristics.has(Characteristics.SIZED)) {
+      return characteristics.size();
+    }
+    if (parallel) {
+      return evaluate(this::countItems, Long::sum, null /* done */);
     }
-    return count;
+    return countItems(head);
   }
 
+  private long countItems(Iterator<Object> source) {
+    long[] count = {0L};
+    traverse(source, item -> count[0]++, false /* cancellable */);
+    return count[0];
+  }
+
+  /**
+   * Returns a stream of the distinct items.  A stream that is already known
+   * to be distinct, such as a stream over a {@link Set}, is returned as is.
+   */
   public Stream<T> distinct() {
-    return new Stream<>(new DistinctIterator<>(source));
+    if (characteristics.has(Characteristics.DISTINCT)) {
+      return this;
+    }
+    Characteristics distinct = characteristics.without(Characteristics.SIZED).withDistinct();
+    if (parallel) {
+      return barrier(() -> new ArrayIterator<>((T[]) Stream.of(toArray()).distinct().toArray()), distinct);
+    }
+    return then(DistinctIterator::new, DistinctSink::new, distinct);
   }
 
   public Stream<T> sorted() {
     return sorted((Comparator) Comparator.naturalOrder());
   }
 
+  /**
+   * Returns a stream of the items in the order given by the
+   * {@link Comparator}.  A stream that is already sorted by the same
+   * comparator, such as a stream over a {@link TreeSet}, is returned as is.
+   */
   public Stream<T> sorted(Comparator<? super T> comparator) {
     Objects.requireNonNull(comparator);
-    return new Stream<>(new SortedIterator<>(source, comparator));
+    if (characteristics.isSortedBy(comparator)) {
+      return this;
+    }
+    Characteristics sorted = characteristics.withSorted(comparator);
+    if (parallel) {
+      return new SortedStream<>(
+          barrier(
+              () -> {
+                T[] items = (T[]) toArray();
+                Arrays.sort(items, comparator);
+                return new ArrayIterator<>(items);
+              },
+              sorted),
+          this,
+          comparator);
+    }
+    return new SortedStream<>(
+        then(iter -> new SortedIterator<>(iter, comparator), sink -> new SortedSink<>(sink, comparator), sorted),
+        this,
+        comparator);
+  }
+
+  /**
+   * Returns a stream of the items in the order given by the
+   * {@link Comparator}, holding at most {@code memoryBudget} items in memory.
+   * Once more items arrive, sorted runs of items are written to temporary
+   * files with {@code serializer} and merged as the stream is read.  The
+   * sort is stable.
+   * <p>A parallel stream sorts on one thread, as the runs have to be written
+   * in order, and carries on in parallel after the sort.
+   */
+  public Stream<T> sorted(Comparator<? super T> comparator, SerializerSpec<T> serializer, int memoryBudget) {
+    Objects.requireNonNull(comparator);
+    Objects.requireNonNull(serializer);
+    if (memoryBudget < 1) {
+      throw new IllegalArgumentException("memoryBudget must be positive: " + memoryBudget);
+    }
+    if (characteristics.isSortedBy(comparator)) {
+      return this;
+    }
+    Characteristics sorted = characteristics.withSorted(comparator);
+    if (parallel) {
+      // The iterator reads nothing until the parallel stream first splits it
+      Iterator<T> iter = sequential().sorted(comparator, serializer, memoryBudget).iterator();
+      return new Stream<T>(new IteratorSource<>(iter), sorted).onClose(this::close).parallel();
+    }
+    // Closing the stream deletes the files of a sort that is dropped part
+    // way through
+    return then(
+        iter -> closeHandlers.add(
+            new ExternalSortIterator<>(iter, comparator, serializer, memoryBudget, null /* directory */)),
+        sink -> closeHandlers.add(
+            new ExternalSortSink<>(sink, comparator, serializer, memoryBudget, null /* directory */)),
+        sorted);
+  }
+
+  /**
+   * A sorted stream that remembers the stream before the sort, so that a
+   * {@link #limit} right after the sort keeps only the items it needs.
+   */
+  private static final class SortedStream<T> extends Stream<T> {
+    private final Stream<T> unsorted;
+    private final Comparator<? super T> comparator;
+
+    SortedStream(Stream<T> sorted, Stream<T> unsorted, Comparator<? super T> comparator) {
+      super(
+          sorted.head,
+          sorted.stages,
+          sorted.sinks,
+          sorted.characteristics,
+          sorted.shortCircuit,
+          sorted.parallel,
+          sorted.closeHandlers);
+      this.unsorted = unsorted;
+      this.comparator = comparator;
+    }
+
+    @Override
+    public Stream<T> limit(int numToKeep) {
+      return unsorted.topK(numToKeep, comparator);
+    }
+  }
+
+  /**
+   * Returns a stream of the first {@code k} items in the order given by the
+   * {@link Comparator}, the same as {@code sorted(comparator).limit(k)}.
+   * Only {@code k} items are held at a time, so this takes O(n log k) time
+   * and O(k) memory rather than sorting every item.
+   */
+  public Stream<T> topK(int k, Comparator<? super T> comparator) {
+    Objects.requireNonNull(comparator);
+    if (k < 0) {
+      throw new IllegalArgumentException("k must be non-negative: " + k);
+    } else if (k == 0) {
+      Stream<T> empty = Stream.<T>empty().onClose(this::close);
+      return parallel ? empty.parallel() : empty;
+    }
+    if (characteristics.isSortedBy(comparator)) {
+      return limit(k);
+    }
+    Characteristics topK = characteristics.withSorted(comparator).resized(size -> Math.min(size, k));
+    if (parallel) {
+      return barrier(
+          () -> {
+            TopKBuffer<T> buffer = evaluate(
+                piece -> {
+                  TopKBuffer<T> pieceBuffer = new TopKBuffer<>(k, comparator);
+                  traverse(piece, pieceBuffer::add, false /* cancellable */);
+                  return pieceBuffer;
+                },
+                (left, right) -> {
+                  left.addAll(right);
+                  return left;
+                },
+                null /* done */);
+            return new ArrayIterator<>(buffer.toSortedArray());
+          },
+          topK);
+    }
+    return then(
+        iter -> new TopKIterator<>(iter, k, comparator), sink -> new TopKSink<>(sink, k, comparator), topK);
   }
 
   public <R> Stream<R> flatMap(Function<T, Stream<R>> mapper) {
     Objects.requireNonNull(mapper);
-    return new Stream<>(new FlatMapIterator(source, mapper));
+    return then(
+        iter -> new FlatMapIterator<>(iter, mapper), sink -> new FlatMapSink<>(sink, mapper), Characteristics.NONE);
+  }
+
+  /**
+   * Returns a stream of the items that {@code mapper} passes to the
+   * consumer for each item of this stream.  Unlike {@link #flatMap}, no
+   * stream is made for each item.
+   */
+  public <R> Stream<R> mapMulti(BiConsumer<? super T, ? super Consumer<R>> mapper) {
+    Objects.requireNonNull(mapper);
+    return then(
+        iter -> new MapMultiIterator<>(iter, mapper),
+        sink -> new MapMultiSink<>(sink, mapper),
+        Characteristics.NONE);
   }
 
   public Stream<T> limit(int numToKeep) {
     if (numToKeep < 0) {
       throw new IllegalArgumentException();
     } else if (numToKeep == 0) {
-      return empty();
+      Stream<T> empty = Stream.<T>empty().onClose(this::close);
+      return parallel ? empty.parallel() : empty;
     }
-    return new Stream<>(new LimitIterator<>(source, numToKeep));
+    if (parallel) {
+      // Pull only as many items as are needed, so that a limit on an
+      // endless source still finishes
+      return barrier(
+          () -> new ArrayIterator<>((T[]) sequential().limit(numToKeep).toArray()), characteristics);
+    }
+    return then(
+        iter -> new LimitIterator<>(iter, numToKeep),
+        sink -> new LimitSink<>(sink, numToKeep),
+        characteristics.resized(size -> Math.min(size, numToKeep)),
+        true /* shortCircuit */);
   }
 
   public Stream<T> skip(int numToSkip) {
@@ -125,12 +591,26 @@ public class Stream<T> {
     } else if (numToSkip == 0) {
       return this;
     }
-    return new Stream<>(new SkipIterator<>(source, numToSkip));
+    if (parallel) {
+      return barrier(
+          () -> {
+            T[] items = (T[]) toArray();
+            return new ArrayIterator<>(items, Math.min(numToSkip, items.length), items.length);
+          },
+          characteristics);
+    }
+    return then(
+        iter -> new SkipIterator<>(iter, numToSkip),
+        sink -> new SkipSink<>(sink, numToSkip),
+        characteristics.resized(size -> Math.max(0, size - numToSkip)));
   }
 
   public Stream<T> filter(Predicate<T> predicate) {
     Objects.requireNonNull(predicate);
-    return new Stream<>(new FilterIterator<>(source, predicate));
+    return then(
+        iter -> new FilterIterator<>(iter, predicate),
+        sink -> new FilterSink<>(sink, predicate),
+        characteristics.without(Characteristics.SIZED));
   }
 
   public <R> Stream<R> map(Function<T, R> mapper) {
@@ -138,27 +618,169 @@ public class Stream<T> {
     if (mapper == Function.identity()) {
       return (Stream<R>) this;
     }
-    return new Stream<>(new TransformIterator<>(source, mapper));
+    return then(
+        iter -> new TransformIterator<>(iter, mapper),
+        sink -> new TransformSink<>(sink, mapper),
+        characteristics.without(Characteristics.SORTED | Characteristics.DISTINCT));
+  }
+
+  /**
+   * Returns a source that pushes the items of this stream through
+   * {@code stage}, for a primitive stream made from this one.  Opening it
+   * pulls the items one at a time through the iterator of this stream.
+   */
+  private <S extends Sink<?>> SinkSource<S> pushTo(Function<S, Sink<T>> stage) {
+    return new SinkSource<S>() {
+      @Override
+      public void run(S sink, boolean cancellable) {
+        traverse(head, stage.apply(sink), cancellable);
+      }
+
+      @Override
+      public Cursor open(S sink) {
+        Sink<T> first = stage.apply(sink);
+        Iterator<T> iter = source();
+        first.begin(Sink.UNKNOWN_SIZE);
+        return () -> {
+          if (!first.cancellationRequested() && iter.hasNext()) {
+            first.accept(iter.next());
+            return true;
+          }
+          first.end();
+          return false;
+        };
+      }
+    };
+  }
+
+  public IntStream mapToInt(ToIntFunction<? super T> mapper) {
+    Objects.requireNonNull(mapper);
+    return new IntStream(
+        pushTo(sink -> new Sink.ChainedSink<T, Integer>(sink) {
+          @Override
+          public void accept(T item) {
+            downstream.accept(mapper.applyAsInt(item));
+          }
+        }),
+        false /* shortCircuit */);
+  }
+
+  public LongStream mapToLong(ToLongFunction<? super T> mapper) {
+    Objects.requireNonNull(mapper);
+    return new LongStream(
+        pushTo(sink -> new Sink.ChainedSink<T, Long>(sink) {
+          @Override
+          public void accept(T item) {
+            downstream.accept(mapper.applyAsLong(item));
+          }
+        }),
+        false /* shortCircuit */);
+  }
+
+  public DoubleStream mapToDouble(ToDoubleFunction<? super T> mapper) {
+    Objects.requireNonNull(mapper);
+    return new DoubleStream(
+        pushTo(sink -> new Sink.ChainedSink<T, Double>(sink) {
+          @Override
+          public void accept(T item) {
+            downstream.accept(mapper.applyAsDouble(item));
+          }
+        }),
+        false /* shortCircuit */);
   }
 
   public Stream<T> peek(Consumer<T> consumer) {
     Objects.requireNonNull(consumer);
-    return new Stream<>(new PeekIterator<>(source, consumer));
+    return then(iter -> new PeekIterator<>(iter, consumer), sink -> new PeekSink<>(sink, consumer), characteristics);
   }
 
+  /**
+   * Collects the items using the specified {@link Collector}.
+   * <p>A parallel stream fills a container for each piece of its source and
+   * merges them in order with the collector's combiner.  A collector that is
+   * {@link Collector.Characteristics#CONCURRENT} and
+   * {@link Collector.Characteristics#UNORDERED} instead has every piece
+   * accumulate into one shared container.  A collector without a combiner
+   * makes a parallel stream gather its items in parallel and then accumulate
+   * them in order on the calling thread.
+   */
   public <R, A> R collect(Collector<T, A, R> collector) {
-    A mutableValue = collector.supplier().get();
     BiConsumer<A, T> accumulator = collector.accumulator();
-    while (source.hasNext()) {
-      T item = source.next();
-      accumulator.accept(mutableValue, item);
+    BinaryOperator<A> combiner = collector.combiner();
+    Set<Collector.Characteristics> flags = collector.characteristics();
+    A mutableValue;
+    if (!parallel) {
+      A result = collector.supplier().get();
+      traverse(head, item -> accumulator.accept(result, item), false /* cancellable */);
+      mutableValue = result;
+    } else if (flags.contains(Collector.Characteristics.CONCURRENT)
+        && flags.contains(Collector.Characteristics.UNORDERED)) {
+      A result = collector.supplier().get();
+      forEach(item -> accumulator.accept(result, item));
+      mutableValue = result;
+    } else if (combiner != null) {
+      Supplier<A> supplier = collector.supplier();
+      mutableValue = evaluate(
+          source -> {
+            A result = supplier.get();
+            traverse(source, item -> accumulator.accept(result, item), false /* cancellable */);
+            return result;
+          },
+          combiner,
+          null /* done */);
+    } else {
+      A result = collector.supplier().get();
+      T[] items = (T[]) toArray();
+      for (T item : items) {
+        accumulator.accept(result, item);
+      }
+      mutableValue = result;
+    }
+    if (flags.contains(Collector.Characteristics.IDENTITY_FINISH)) {
+      return (R) mutableValue;
     }
     return collector.finisher().apply(mutableValue);
   }
 
+  /**
+   * Collects the items into a container made by {@code supplier}.  A
+   * parallel stream makes a container for each piece of its source and then
+   * merges them in order, calling {@code combiner} to add the contents of
+   * the second container to the first.
+   */
+  public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
+    Objects.requireNonNull(supplier);
+    Objects.requireNonNull(accumulator);
+    Objects.requireNonNull(combiner);
+    Function<Iterator<Object>, R> leaf = source -> {
+      R result = supplier.get();
+      traverse(source, item -> accumulator.accept(result, item), false /* cancellable */);
+      return result;
+    };
+    if (parallel) {
+      return evaluate(
+          leaf::apply,
+          (left, right) -> {
+            combiner.accept(left, right);
+            return left;
+          },
+          null /* done */);
+    }
+    return leaf.apply(head);
+  }
+
+  /**
+   * Calls the consumer with each item.  A parallel stream may call it from
+   * several threads at once and in any order.
+   */
   public void forEach(Consumer<T> consumer) {
-    while (source.hasNext()) {
-      consumer.accept(source.next());
+    if (parallel) {
+      evaluate(
+          source -> traverse(source, consumer::accept, false /* cancellable */),
+          (left, right) -> null,
+          null /* done */);
+    } else {
+      traverse(head, consumer::accept, false /* cancellable */);
     }
   }
 
@@ -167,10 +789,100 @@ public class Stream<T> {
   }
 
   public <A> A[] toArray(IntFunction<A[]> generator) {
-    SpinedBuffer<T> buffer = new SpinedBuffer<>();
-    while (source.hasNext()) {
-      buffer.add(source.next());
+    if (parallel) {
+      List<Object[]> pieces = evaluate(
+          source -> {
+            SpinedBuffer<T> buffer = new SpinedBuffer<>();
+            traverse(source, buffer::add, false /* cancellable */);
+            List<Object[]> piece = new ArrayList<>(1);
+            piece.add(buffer.asArray(Object[]::new));
+            return piece;
+          },
+          (left, right) -> {
+            left.addAll(right);
+            return left;
+          },
+          null /* done */);
+      int size = 0;
+      for (int i = 0; i < pieces.size(); i++) {
+        size += pieces.get(i).length;
+      }
+      A[] destArray = generator.apply(size);
+      int index = 0;
+      for (int i = 0; i < pieces.size(); i++) {
+        Object[] piece = pieces.get(i);
+        System.arraycopy(piece, 0, destArray, index, piece.length);
+        index += piece.length;
+      }
+      return destArray;
     }
+    if (characteristics.has(Characteristics.SIZED)) {
+      // Fill one array of the reported size rather than growing a buffer.
+      // Should the source yield more items than it reported, the rest go
+      // to a buffer, and should it yield fewer the array is trimmed.
+      A[] destArray = generator.apply((int) characteristics.size());
+      Object[] dest = destArray;
+      int[] index = {0};
+      SpinedBuffer<T> overflow = new SpinedBuffer<>();
+      traverse(
+          head,
+          item -> {
+            if (index[0] < dest.length) {
+              dest[index[0]++] = item;
+            } else {
+              overflow.add(item);
+            }
+          },
+          false /* cancellable */);
+      if (index[0] == dest.length && overflow.isEmpty()) {
+        return destArray;
+      }
+      A[] result = generator.apply(index[0] + overflow.size());
+      System.arraycopy(destArray, 0, result, 0, index[0]);
+      for (int i = 0; i < overflow.size(); i++) {
+        result[index[0] + i] = (A) overflow.get(i);
+      }
+      return result;
+    }
+    SpinedBuffer<T> buffer = new SpinedBuffer<>();
+    traverse(head, buffer::add, false /* cancellable */);
     return buffer.asArray(generator);
   }
+
+  /**
+   * The close handlers shared by a stream and the streams made from it.
+   * Closing runs the handlers added so far and forgets them.
+   */
+  private static final class CloseHandlers {
+    private List<AutoCloseable> handlers = new ArrayList<>();
+
+    synchronized <C extends AutoCloseable> C add(C handler) {
+      handlers.add(handler);
+      return handler;
+    }
+
+    void close() {
+      List<AutoCloseable> toClose;
+      synchronized (this) {
+        toClose = handlers;
+        handlers = new ArrayList<>();
+      }
+      RuntimeException failure = null;
+      for (int i = 0; i < toClose.size(); i++) {
+        try {
+          toClose.get(i).close();
+        } catch (Exception e) {
+          RuntimeException wrapped = e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+          if (failure == null) {
+            failure = wrapped;
+          } else {
+            failure.addSuppressed(wrapped);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+  }
 }
@@ -0,0 +1,125 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Arrays;
+import com.hopkins.collections.Comparator;
+
+/**
+ * Keeps the first {@code k} items in the order given by a
+ * {@link Comparator}, using O(k) memory.
+ * <p>The items are held in a binary heap with the last item in order at the
+ * root, so an item that does not make the cut is turned away with one
+ * comparison and one that does replaces the root in O(log k).  Each item is
+ * numbered as it is added and equal items are ordered by that number, so
+ * the result matches a stable sort followed by a limit.
+ */
+final class TopKBuffer<T> {
+  private final int capacity;
+  private final Comparator<? super T> comparator;
+  private Object[] items;
+  private long[] sequences;
+  private int size;
+  private long nextSequence;
+
+  TopKBuffer(int capacity, Comparator<? super T> comparator) {
+    this.capacity = capacity;
+    this.comparator = comparator;
+    // Grow up to the capacity, as the upstream may have far fewer items
+    int initialCapacity = Math.min(capacity, 16);
+    this.items = new Object[initialCapacity];
+    this.sequences = new long[initialCapacity];
+  }
+
+  int size() {
+    return size;
+  }
+
+  void add(T item) {
+    long sequence = nextSequence++;
+    if (size < capacity) {
+      if (size == items.length) {
+        grow();
+      }
+      siftUp(size++, item, sequence);
+    } else if (size > 0 && comparator.compare(item, (T) items[0]) < 0) {
+      // An equal item came earlier, so only a strictly smaller one is kept
+      siftDown(0, item, sequence);
+    }
+  }
+
+  private void grow() {
+    int newLength = (int) Math.min(capacity, items.length * 2L);
+    items = Arrays.copyOf(items, newLength);
+    long[] newSequences = new long[newLength];
+    System.arraycopy(sequences, 0, newSequences, 0, size);
+    sequences = newSequences;
+  }
+
+  /**
+   * Adds the items of a buffer that was filled from items later in the
+   * stream than the items of this one.
+   */
+  void addAll(TopKBuffer<T> later) {
+    T[] sorted = later.toSortedArray();
+    for (int i = 0; i < sorted.length; i++) {
+      add(sorted[i]);
+    }
+  }
+
+  /**
+   * Returns the items in order, emptying the buffer.
+   */
+  T[] toSortedArray() {
+    Object[] sorted = new Object[size];
+    // Popping the root gives the items from last to first
+    while (size > 0) {
+      sorted[size - 1] = items[0];
+      size--;
+      if (size > 0) {
+        siftDown(0, (T) items[size], sequences[size]);
+      }
+      items[size] = null;
+    }
+    return (T[]) sorted;
+  }
+
+  /**
+   * Returns {@code true} if the first item comes after the second.
+   */
+  private boolean after(T a, long aSequence, T b, long bSequence) {
+    int order = comparator.compare(a, b);
+    return order > 0 || (order == 0 && aSequence > bSequence);
+  }
+
+  private void siftUp(int index, T item, long sequence) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (!after(item, sequence, (T) items[parent], sequences[parent])) {
+        break;
+      }
+      items[index] = items[parent];
+      sequences[index] = sequences[parent];
+      index = parent;
+    }
+    items[index] = item;
+    sequences[index] = sequence;
+  }
+
+  private void siftDown(int index, T item, long sequence) {
+    int half = size >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      int right = child + 1;
+      if (right < size && after((T) items[right], sequences[right], (T) items[child], sequences[child])) {
+        child = right;
+      }
+      if (!after((T) items[child], sequences[child], item, sequence)) {
+        break;
+      }
+      items[index] = items[child];
+      sequences[index] = sequences[child];
+      index = child;
+    }
+    items[index] = item;
+    sequences[index] = sequence;
+  }
+}
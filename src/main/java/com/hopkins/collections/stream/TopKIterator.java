@@ -0,0 +1,50 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Comparator;
+import com.hopkins.collections.Iterator;
+import com.hopkins.collections.NoSuchElementException;
+
+/**
+ * Iterates over the first {@code k} items of a source in the order given by
+ * a {@link Comparator}.
+ * <p>Nothing is read until the first call to {@link #hasNext} or
+ * {@link #next}, which drains the source into a {@link TopKBuffer}, so at
+ * most {@code k} items are held however long the source is.
+ */
+final class TopKIterator<T> implements Iterator<T> {
+  private final Iterator<T> source;
+  private final int k;
+  private final Comparator<? super T> comparator;
+  private T[] items;
+  private int nextIndex;
+
+  TopKIterator(Iterator<T> source, int k, Comparator<? super T> comparator) {
+    this.source = source;
+    this.k = k;
+    this.comparator = comparator;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (items == null) {
+      moveToFirst();
+    }
+    return nextIndex < items.length;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return items[nextIndex++];
+  }
+
+  private void moveToFirst() {
+    TopKBuffer<T> buffer = new TopKBuffer<>(k, comparator);
+    while (source.hasNext()) {
+      buffer.add(source.next());
+    }
+    items = buffer.toSortedArray();
+  }
+}
@@ -0,0 +1,51 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Comparator;
+
+/**
+ * Keeps the first {@code k} items in order, then pushes them on when the
+ * upstream ends.
+ */
+final class TopKSink<T> extends Sink.ChainedSink<T, T> {
+  private final int k;
+  private final Comparator<? super T> comparator;
+  private TopKBuffer<T> buffer;
+
+  TopKSink(Sink<? super T> downstream, int k, Comparator<? super T> comparator) {
+    super(downstream);
+    this.k = k;
+    this.comparator = comparator;
+  }
+
+  @Override
+  public void begin(long size) {
+    buffer = new TopKBuffer<>(k, comparator);
+  }
+
+  @Override
+  public void accept(T item) {
+    buffer.add(item);
+  }
+
+  @Override
+  public void end() {
+    T[] items = buffer.toSortedArray();
+    buffer = null;
+    downstream.begin(items.length);
+    for (int i = 0; i < items.length && !downstream.cancellationRequested(); i++) {
+      downstream.accept(items[i]);
+    }
+    downstream.end();
+  }
+
+  @Override
+  public boolean cancellationRequested() {
+    // Any later item could still make the cut
+    return false;
+  }
+
+  @Override
+  public boolean cancellable() {
+    return false;
+  }
+}
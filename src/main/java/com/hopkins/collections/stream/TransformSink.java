@@ -0,0 +1,17 @@
+package com.hopkins.collections.stream;
+
+import java.util.function.Function;
+
+final class TransformSink<T, R> extends Sink.ChainedSink<T, R> {
+  private final Function<T, R> mapper;
+
+  TransformSink(Sink<? super R> downstream, Function<T, R> mapper) {
+    super(downstream);
+    this.mapper = mapper;
+  }
+
+  @Override
+  public void accept(T item) {
+    downstream.accept(mapper.apply(item));
+  }
+}
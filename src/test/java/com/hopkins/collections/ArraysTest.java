@@ -2,6 +2,7 @@ package com.hopkins.collections;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -167,4 +168,332 @@ public class ArraysTest {
     assertThat(Arrays.binarySearch(array, "A", Collections.reverseOrder()))
         .isEqualTo(-1);
   }
+
+  @Test
+  public void sort_withInts_matchesJavaSort() {
+    Random random = new Random(1234);
+    for (int size : new int[] {0, 1, 5, 17, 100, 1000}) {
+      int[] array = new int[size];
+      for (int i = 0; i < size; i++) {
+        array[i] = random.nextInt(size + 1) - size / 2;
+      }
+      int[] expected = array.clone();
+      java.util.Arrays.sort(expected);
+
+      Arrays.sort(array);
+
+      assertThat(array).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void sort_withLongRange_sortsOnlyRange() {
+    long[] array = {5, 4, 3, 2, 1};
+
+    Arrays.sort(array, 1, 4);
+
+    assertThat(array).isEqualTo(new long[] {5, 2, 3, 4, 1});
+  }
+
+  @Test
+  public void sort_withDoubles_ordersNaNAndNegativeZero() {
+    double[] array = {Double.NaN, 1.0, 0.0, -0.0, Double.NEGATIVE_INFINITY, -1.0};
+
+    Arrays.sort(array);
+
+    double[] expected = {Double.NEGATIVE_INFINITY, -1.0, -0.0, 0.0, 1.0, Double.NaN};
+    assertThat(java.util.Arrays.equals(array, expected)).isTrue();
+  }
+
+  @Test
+  public void sort_withInts_largeAndPatterned_matchesJavaSort() {
+    Random random = new Random(24);
+    for (int size : new int[] {33, 500, 4095, 4096, 20000}) {
+      int[][] inputs = {
+          randomInts(random, size, Integer.MAX_VALUE),
+          randomInts(random, size, 3),
+          ascendingInts(size),
+          descendingInts(size),
+      };
+      for (int[] array : inputs) {
+        int[] expected = array.clone();
+        java.util.Arrays.sort(expected);
+
+        Arrays.sort(array);
+
+        assertThat(array).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void sort_withLongs_matchesJavaSort() {
+    Random random = new Random(24);
+    for (int size : new int[] {0, 1, 100, 4096, 20000}) {
+      long[] wide = new long[size];
+      long[] timestamps = new long[size];
+      for (int i = 0; i < size; i++) {
+        wide[i] = random.nextLong();
+        timestamps[i] = 1_600_000_000_000L + random.nextInt(1_000_000);
+      }
+      for (long[] array : new long[][] {wide, timestamps}) {
+        long[] expected = array.clone();
+        java.util.Arrays.sort(expected);
+
+        Arrays.sort(array);
+
+        assertThat(array).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void sort_withIntRange_radixSortsOnlyRange() {
+    int[] array = descendingInts(10000);
+    int[] expected = array.clone();
+    java.util.Arrays.sort(expected, 100, 9900);
+
+    Arrays.sort(array, 100, 9900);
+
+    assertThat(array).isEqualTo(expected);
+  }
+
+  @Test
+  public void sort_withDoubles_largeMatchesJavaSort() {
+    Random random = new Random(24);
+    double[] specials = {Double.NaN, -0.0, 0.0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    for (int size : new int[] {10, 100, 10000}) {
+      double[] array = new double[size];
+      for (int i = 0; i < size; i++) {
+        array[i] = random.nextInt(4) == 0
+            ? specials[random.nextInt(specials.length)]
+            : random.nextInt(100) - 50;
+      }
+      double[] expected = array.clone();
+      java.util.Arrays.sort(expected);
+
+      Arrays.sort(array);
+
+      assertThat(java.util.Arrays.equals(array, expected)).isTrue();
+    }
+  }
+
+  @Test
+  public void sortIndices_isStablePermutation() {
+    Random random = new Random(24);
+    for (int size : new int[] {0, 1, 50, 1000, 4095, 10000}) {
+      long[] keys = new long[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = random.nextInt(100) - 50;
+      }
+      long[] copy = keys.clone();
+
+      int[] indices = Arrays.sortIndices(keys);
+
+      assertThat(keys).isEqualTo(copy);
+      assertThat(indices.length).isEqualTo(size);
+      for (int i = 1; i < size; i++) {
+        long previous = keys[indices[i - 1]];
+        long current = keys[indices[i]];
+        assertThat(previous).isAtMost(current);
+        if (previous == current) {
+          assertThat(indices[i - 1]).isLessThan(indices[i]);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void sortIndices_belowRadixThreshold_withDescendingKeys() {
+    long[] keys = new long[4000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = keys.length - i / 2;
+    }
+
+    int[] indices = Arrays.sortIndices(keys);
+
+    for (int i = 0; i < keys.length; i += 2) {
+      assertThat(indices[i]).isEqualTo(keys.length - 2 - i);
+      assertThat(indices[i + 1]).isEqualTo(keys.length - 1 - i);
+    }
+  }
+
+  @Test
+  public void fill_withPrimitiveRange() {
+    int[] ints = new int[5];
+    long[] longs = new long[5];
+    double[] doubles = new double[5];
+
+    Arrays.fill(ints, 1, 3, 7);
+    Arrays.fill(longs, 9L);
+    Arrays.fill(doubles, 4, 5, 0.5);
+
+    assertThat(ints).isEqualTo(new int[] {0, 7, 7, 0, 0});
+    assertThat(longs).isEqualTo(new long[] {9, 9, 9, 9, 9});
+    assertThat(java.util.Arrays.equals(doubles, new double[] {0, 0, 0, 0, 0.5})).isTrue();
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void fill_withPrimitiveRange_outOfBounds_throws() {
+    Arrays.fill(new int[3], 1, 4, 7);
+  }
+
+  @Test
+  public void copyOf_withPrimitives() {
+    int[] ints = {1, 2, 3};
+    long[] longs = {1, 2, 3};
+    double[] doubles = {1, 2, 3};
+
+    assertThat(Arrays.copyOf(ints, 2)).isEqualTo(new int[] {1, 2});
+    assertThat(Arrays.copyOf(longs, 5)).isEqualTo(new long[] {1, 2, 3, 0, 0});
+    assertThat(java.util.Arrays.equals(Arrays.copyOfRange(doubles, 1, 4), new double[] {2, 3, 0}))
+        .isTrue();
+    assertThat(Arrays.copyOfRange(ints, 3, 3)).isEqualTo(new int[0]);
+  }
+
+  private static int[] randomInts(Random random, int size, int bound) {
+    int[] array = new int[size];
+    for (int i = 0; i < size; i++) {
+      array[i] = random.nextInt(bound) - bound / 2;
+    }
+    return array;
+  }
+
+  private static int[] ascendingInts(int size) {
+    int[] array = new int[size];
+    for (int i = 0; i < size; i++) {
+      array[i] = i;
+    }
+    return array;
+  }
+
+  private static int[] descendingInts(int size) {
+    int[] array = new int[size];
+    for (int i = 0; i < size; i++) {
+      array[i] = size - i;
+    }
+    return array;
+  }
+
+  @Test
+  public void binarySearch_withPrimitives() {
+    int[] ints = {1, 3, 5, 7};
+    long[] longs = {1, 3, 5, 7};
+    double[] doubles = {1, 3, 5, 7};
+
+    assertThat(Arrays.binarySearch(ints, 5)).isEqualTo(2);
+    assertThat(Arrays.binarySearch(ints, 4)).isEqualTo(-1);
+    assertThat(Arrays.binarySearch(longs, 1L)).isEqualTo(0);
+    assertThat(Arrays.binarySearch(longs, 1, 4, 1L)).isEqualTo(-1);
+    assertThat(Arrays.binarySearch(doubles, 7.0)).isEqualTo(3);
+  }
+
+  @Test
+  public void binarySearch_withSortedIndex() {
+    SortedIndex.OfInt ints = SortedIndex.of(new int[] {1, 3, 5, 7});
+    SortedIndex.OfLong longs = SortedIndex.of(new long[] {1, 3, 5, 7});
+    SortedIndex.OfObject<String> strings =
+        SortedIndex.of(new String[] {"a", "c", "e"}, Comparator.<String>naturalOrder());
+
+    assertThat(Arrays.binarySearch(ints, 5)).isEqualTo(2);
+    assertThat(Arrays.binarySearch(ints, 4)).isEqualTo(-1);
+    assertThat(Arrays.binarySearch(longs, 7L)).isEqualTo(3);
+    assertThat(Arrays.binarySearch(strings, "c")).isEqualTo(1);
+    assertThat(Arrays.binarySearch(strings, "d")).isEqualTo(-1);
+  }
+
+  @Test
+  public void sort_withObjects_isStable() {
+    Random random = new Random(21);
+    for (int size : new int[] {0, 1, 2, 31, 32, 33, 100, 1000, 50000}) {
+      // Each item holds a key with many duplicates and its original position
+      int[][] items = new int[size][];
+      for (int i = 0; i < size; i++) {
+        items[i] = new int[] {random.nextInt(20), i};
+      }
+      int[][] expected = items.clone();
+      java.util.Arrays.sort(expected, (a, b) -> Integer.compare(a[0], b[0]));
+
+      Arrays.sort(items, (a, b) -> Integer.compare(a[0], b[0]));
+
+      for (int i = 0; i < size; i++) {
+        assertThat(items[i]).isSameAs(expected[i]);
+      }
+    }
+  }
+
+  @Test
+  public void sort_withObjects_matchesJavaSortOnRunsAndReversals() {
+    Random random = new Random(22);
+    Integer[] array = new Integer[100000];
+    int index = 0;
+    while (index < array.length) {
+      // Stretches that ascend, descend or are random
+      int runLength = Math.min(array.length - index, 1 + random.nextInt(2000));
+      int start = random.nextInt(1000000);
+      int shape = random.nextInt(3);
+      for (int i = 0; i < runLength; i++) {
+        array[index + i] = shape == 0 ? start + i : shape == 1 ? start - i : random.nextInt(1000000);
+      }
+      index += runLength;
+    }
+    Integer[] expected = array.clone();
+    java.util.Arrays.sort(expected);
+
+    Arrays.sort(array, Comparator.NATURAL_ORDER);
+
+    assertThat(array).isEqualTo(expected);
+  }
+
+  @Test
+  public void sort_withObjects_isAdaptive() {
+    long[] compares = {0};
+    Comparator<Integer> comparator = (a, b) -> {
+      compares[0]++;
+      return Integer.compare(a, b);
+    };
+    // Two sorted halves
+    Integer[] array = new Integer[100000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = i < array.length / 2 ? 2 * i : 2 * (i - array.length / 2) + 1;
+    }
+
+    Arrays.sort(array, comparator);
+
+    for (int i = 0; i < array.length; i++) {
+      assertThat(array[i]).isEqualTo(i);
+    }
+    assertThat(compares[0]).isLessThan(3L * array.length);
+  }
+
+  @Test
+  public void sort_withObjectRange_sortsOnlyRange() {
+    String[] array = {"d", "c", "b", "a", "e"};
+
+    Arrays.sort(array, 1, 4, Comparator.NATURAL_ORDER);
+
+    assertThat(array).asList().containsExactly("d", "a", "b", "c", "e").inOrder();
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void sort_withObjectRange_outOfBounds_throws() {
+    Arrays.sort(new String[2], 0, 3, Comparator.NATURAL_ORDER);
+  }
+
+  @Test
+  public void parallelSort_matchesSort() {
+    Random random = new Random(23);
+    for (int size : new int[] {0, 1, 100, 100000}) {
+      String[] array = new String[size];
+      for (int i = 0; i < size; i++) {
+        array[i] = Integer.toString(random.nextInt(), 36);
+      }
+      String[] expected = array.clone();
+      java.util.Arrays.sort(expected);
+
+      Arrays.parallelSort(array, Comparator.NATURAL_ORDER);
+
+      assertThat(array).isEqualTo(expected);
+    }
+  }
 }
@@ -0,0 +1,194 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BTreeMapTest {
+
+  private BTreeMap<String, Integer> map;
+
+  @Before
+  public void setup() {
+    map = new BTreeMap<>();
+  }
+
+  @Test
+  public void init() {
+    assertThat(map.isEmpty()).isTrue();
+
+    map = new BTreeMap<>(Collections.singletonMap("a", 1));
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get("a")).isEqualTo(1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void init_withNullComparator_throws() {
+    new BTreeMap<>((Comparator) null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void init_withTinyNodeCapacity_throws() {
+    new BTreeMap<String, Integer>(Comparator.NATURAL_ORDER, 2);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void put_withNullKey_throws() {
+    map.put(null, 1);
+  }
+
+  @Test
+  public void put_returnsOldValue() {
+    assertThat(map.put("a", 1)).isNull();
+    assertThat(map.put("a", 2)).isEqualTo(1);
+    assertThat(map.get("a")).isEqualTo(2);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void remove_returnsValue() {
+    map.put("a", 1);
+    map.put("b", 2);
+
+    assertThat(map.remove("a")).isEqualTo(1);
+    assertThat(map.remove("a")).isNull();
+    assertThat(map.containsKey("b")).isTrue();
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void containsValue() {
+    map.put("a", 1);
+    map.put("b", null);
+
+    assertThat(map.containsValue(1)).isTrue();
+    assertThat(map.containsValue(null)).isTrue();
+    assertThat(map.containsValue(3)).isFalse();
+  }
+
+  @Test
+  public void firstKey_lastKey() {
+    BTreeMap<Integer, Integer> ints = new BTreeMap<>(Comparator.NATURAL_ORDER, 4);
+    for (int i = 100; i > 0; i--) {
+      ints.put(i, i);
+    }
+
+    assertThat(ints.firstKey()).isEqualTo(1);
+    assertThat(ints.lastKey()).isEqualTo(100);
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void firstKey_whenEmpty_throws() {
+    map.firstKey();
+  }
+
+  @Test
+  public void keySet_isSorted() {
+    BTreeMap<Integer, Integer> ints = new BTreeMap<>(Comparator.NATURAL_ORDER, 4);
+    Random random = new Random(1234);
+    for (int i = 0; i < 1000; i++) {
+      ints.put(random.nextInt(), i);
+    }
+
+    Integer previous = null;
+    int count = 0;
+    Iterator<Integer> iter = ints.keySet().iterator();
+    while (iter.hasNext()) {
+      Integer key = iter.next();
+      if (previous != null) {
+        assertThat(key).isGreaterThan(previous);
+      }
+      previous = key;
+      count++;
+    }
+    assertThat(count).isEqualTo(ints.size());
+  }
+
+  @Test
+  public void height_staysLogarithmic() {
+    BTreeMap<Integer, Integer> ints = new BTreeMap<>(Comparator.NATURAL_ORDER, 8);
+    for (int i = 0; i < 10000; i++) {
+      ints.put(i, i);
+    }
+    // Every node but the root holds at least 4 keys
+    assertThat(ints.height()).isAtMost(8);
+
+    for (int i = 0; i < 9990; i++) {
+      ints.remove(i);
+    }
+    assertThat(ints.height()).isAtMost(3);
+    assertThat(ints.firstKey()).isEqualTo(9990);
+  }
+
+  @Test
+  public void iteratorRemove_removesEntries() {
+    BTreeMap<Integer, Integer> ints = new BTreeMap<>(Comparator.NATURAL_ORDER, 4);
+    for (int i = 0; i < 200; i++) {
+      ints.put(i, i);
+    }
+
+    int visited = 0;
+    Iterator<Map.Entry<Integer, Integer>> iter = ints.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<Integer, Integer> entry = iter.next();
+      assertThat(entry.getKey()).isEqualTo(visited);
+      visited++;
+      if (entry.getKey() % 3 != 0) {
+        iter.remove();
+      }
+    }
+
+    assertThat(visited).isEqualTo(200);
+    assertThat(ints.size()).isEqualTo(67);
+    for (int i = 0; i < 200; i++) {
+      assertThat(ints.containsKey(i)).isEqualTo(i % 3 == 0);
+    }
+  }
+
+  @Test
+  public void entrySetValue_updatesMap() {
+    map.put("a", 1);
+
+    map.entrySet().iterator().next().setValue(2);
+
+    assertThat(map.get("a")).isEqualTo(2);
+  }
+
+  @Test
+  public void randomOperations_matchJavaTreeMap() {
+    for (int nodeCapacity : new int[] {3, 4, 5, 32}) {
+      Random random = new Random(nodeCapacity);
+      BTreeMap<Integer, Integer> actual = new BTreeMap<>(Comparator.NATURAL_ORDER, nodeCapacity);
+      java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+      for (int i = 0; i < 20000; i++) {
+        int key = random.nextInt(1000);
+        if (random.nextInt(3) > 0) {
+          assertThat(actual.put(key, i)).isEqualTo(expected.put(key, i));
+        } else {
+          assertThat(actual.remove(key)).isEqualTo(expected.remove(key));
+        }
+        assertThat(actual.size()).isEqualTo(expected.size());
+      }
+
+      java.util.Iterator<java.util.Map.Entry<Integer, Integer>> expectedIter =
+          expected.entrySet().iterator();
+      Iterator<Map.Entry<Integer, Integer>> actualIter = actual.entrySet().iterator();
+      while (expectedIter.hasNext()) {
+        java.util.Map.Entry<Integer, Integer> expectedEntry = expectedIter.next();
+        Map.Entry<Integer, Integer> actualEntry = actualIter.next();
+        assertThat(actualEntry.getKey()).isEqualTo(expectedEntry.getKey());
+        assertThat(actualEntry.getValue()).isEqualTo(expectedEntry.getValue());
+      }
+      assertThat(actualIter.hasNext()).isFalse();
+
+      // Drain the map completely
+      for (int key = 0; key < 1000; key++) {
+        assertThat(actual.remove(key)).isEqualTo(expected.remove(key));
+      }
+      assertThat(actual.isEmpty()).isTrue();
+      assertThat(actual.height()).isEqualTo(1);
+    }
+  }
+}
@@ -110,23 +110,6 @@ public class CollectionsTest {
     assertThat(list.get(3)).isEqualTo("a");
   }
 
-  @Test
-  public void selectionSort() {
-    List<String> list = Arrays.asList("e", "z", "c", "g", "a", "y", "h", "l");
-    Collections.selectionSort(list, 0, list.size(), Comparator.naturalOrder());
-
-    assertThat(list.toArray()).asList()
-        .containsExactly("a", "c", "e", "g", "h", "l", "y", "z")
-        .inOrder();
-
-    list = Arrays.asList("a", "c", "e", "g", "h", "l", "y", "z");
-    Collections.selectionSort(list, 0, list.size(), Comparator.naturalOrder());
-
-    assertThat(list.toArray()).asList()
-        .containsExactly("a", "c", "e", "g", "h", "l", "y", "z")
-        .inOrder();
-  }
-
   @Test
   public void sort() {
     List<String> list = new ArrayList<>(100);
@@ -153,6 +136,42 @@ public class CollectionsTest {
     Collections.sort(list);
   }
 
+  @Test
+  public void sort_fixedSizeList() {
+    List<String> list = Arrays.asList("e", "z", "c", "g", "a", "y", "h", "l");
+    Collections.sort(list);
+
+    assertThat(list.toArray()).asList()
+        .containsExactly("a", "c", "e", "g", "h", "l", "y", "z")
+        .inOrder();
+  }
+
+  @Test
+  public void sort_linkedList() {
+    LinkedList<Integer> list = new LinkedList<>();
+    for (int i = 0; i < 1000; i++) {
+      list.add((i * 7919) % 1000);
+    }
+
+    Collections.sort(list, Collections.reverseOrder());
+
+    Iterator<Integer> iter = list.iterator();
+    for (int i = 999; i >= 0; i--) {
+      assertThat(iter.next()).isEqualTo(i);
+    }
+    assertThat(iter.hasNext()).isFalse();
+  }
+
+  @Test
+  public void sort_isStable() {
+    List<String> list = new ArrayList<>(Arrays.asList("bb", "a", "cc", "b", "aa", "c"));
+    Collections.sort(list, (a, b) -> Integer.compare(a.length(), b.length()));
+
+    assertThat(list.toArray()).asList()
+        .containsExactly("a", "b", "c", "bb", "cc", "aa")
+        .inOrder();
+  }
+
   @Test
   public void shuffle() {
     List<Integer> list = new ArrayList<>(100);
@@ -164,4 +183,22 @@ public class CollectionsTest {
 
     assertThat(list.toArray()).asList().containsExactly(copy.toArray());
   }
+
+  @Test
+  public void parallelSort() {
+    LinkedList<Integer> linkedList = new LinkedList<>();
+    ArrayList<Integer> arrayList = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      linkedList.add((i * 7919) % 20000);
+      arrayList.add((i * 7919) % 20000);
+    }
+
+    Collections.parallelSort(linkedList);
+    Collections.parallelSort(arrayList, Collections.reverseOrder());
+
+    for (int i = 0; i < 20000; i++) {
+      assertThat(linkedList.get(i)).isEqualTo(i);
+      assertThat(arrayList.get(i)).isEqualTo(19999 - i);
+    }
+  }
 }
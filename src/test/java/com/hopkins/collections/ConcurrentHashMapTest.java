@@ -0,0 +1,334 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentHashMapTest {
+  private static final int THREADS = 4;
+
+  private ConcurrentHashMap<String, Integer> map;
+
+  @Before
+  public void setup() {
+    map = new ConcurrentHashMap<>();
+  }
+
+  @Test
+  public void init_withMap() {
+    map.put("one", 1);
+    map.put("two", 2);
+    map.put("three", 3);
+
+    ConcurrentHashMap<String, Integer> map2 = new ConcurrentHashMap<>(map);
+    map.remove("one");
+
+    assertThat(map2.size()).isEqualTo(3);
+    assertThat(map2.containsKey("one")).isTrue();
+    assertThat(map2.get("two")).isEqualTo(2);
+  }
+
+  @Test
+  public void put_returnsOldValue() {
+    assertThat(map.put("one", 1)).isNull();
+    assertThat(map.put("one", 2)).isEqualTo(1);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void put_withNullKey_throws() {
+    map.put(null, 1);
+  }
+
+  @Test(expected = NullPointerException.class)
+  public void put_withNullValue_throws() {
+    map.put("one", null);
+  }
+
+  @Test
+  public void remove_returnsValue() {
+    map.put("one", 1);
+    map.put("two", 2);
+
+    assertThat(map.remove("one")).isEqualTo(1);
+    assertThat(map.remove("one")).isNull();
+    assertThat(map.get("two")).isEqualTo(2);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void clear_removesAll() {
+    for (int i = 0; i < 100; i++) {
+      map.put("key" + i, i);
+    }
+    map.clear();
+
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get("key1")).isNull();
+  }
+
+  @Test
+  public void containsValue() {
+    map.put("one", 1);
+
+    assertThat(map.containsValue(1)).isTrue();
+    assertThat(map.containsValue(2)).isFalse();
+  }
+
+  @Test
+  public void putIfAbsent_keepsExistingValue() {
+    assertThat(map.putIfAbsent("one", 1)).isNull();
+    assertThat(map.putIfAbsent("one", 2)).isEqualTo(1);
+    assertThat(map.get("one")).isEqualTo(1);
+  }
+
+  @Test
+  public void computeIfAbsent_withNullResult_storesNothing() {
+    assertThat(map.computeIfAbsent("one", key -> null)).isNull();
+    assertThat(map.containsKey("one")).isFalse();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void computeIfAbsent_withRecursiveUpdate_throws() {
+    map.computeIfAbsent("one", key -> map.computeIfAbsent("one", k -> 1));
+  }
+
+  @Test
+  public void merge_withNullResult_removesEntry() {
+    assertThat(map.merge("one", 1, Integer::sum)).isEqualTo(1);
+    assertThat(map.merge("one", 2, Integer::sum)).isEqualTo(3);
+    assertThat(map.merge("one", 2, (a, b) -> null)).isNull();
+    assertThat(map.containsKey("one")).isFalse();
+  }
+
+  @Test
+  public void capacity_growsAsPowerOfTwo() {
+    map = new ConcurrentHashMap<>(2);
+    for (int i = 0; i < 1000; i++) {
+      map.put("key" + i, i);
+    }
+    assertThat(Integer.bitCount(map.capacity())).isEqualTo(1);
+    assertThat(map.capacity()).isAtLeast(1024);
+    for (int i = 0; i < 1000; i++) {
+      assertThat(map.get("key" + i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void entrySetValue_updatesMap() {
+    map.put("one", 1);
+
+    Map.Entry<String, Integer> entry = map.entrySet().iterator().next();
+    entry.setValue(2);
+
+    assertThat(map.get("one")).isEqualTo(2);
+  }
+
+  @Test
+  public void iteratorRemove_removesEntries() {
+    for (int i = 0; i < 100; i++) {
+      map.put("key" + i, i);
+    }
+
+    int visited = 0;
+    Iterator<Map.Entry<String, Integer>> iter = map.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<String, Integer> entry = iter.next();
+      visited++;
+      if (entry.getValue() % 2 == 0) {
+        iter.remove();
+      }
+    }
+
+    assertThat(visited).isEqualTo(100);
+    assertThat(map.size()).isEqualTo(50);
+  }
+
+  @Test
+  public void iterator_whilePutting_visitsOriginalKeysOnce() {
+    for (int i = 0; i < 100; i++) {
+      map.put("key" + i, i);
+    }
+
+    java.util.HashSet<String> seen = new java.util.HashSet<>();
+    int added = 0;
+    Iterator<String> iter = map.keySet().iterator();
+    while (iter.hasNext()) {
+      assertThat(seen.add(iter.next())).isTrue();
+      // Keep the map resizing underneath the iterator
+      for (int j = 0; j < 10; j++) {
+        map.put("new" + added++, 0);
+      }
+    }
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(seen).contains("key" + i);
+    }
+  }
+
+  @Test
+  public void randomOperations_matchJavaHashMap() {
+    Random random = new Random(1234);
+    ConcurrentHashMap<Integer, Integer> actual = new ConcurrentHashMap<>();
+    java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 20000; i++) {
+      int key = random.nextInt(500);
+      switch (random.nextInt(4)) {
+        case 0:
+          assertThat(actual.put(key, i)).isEqualTo(expected.put(key, i));
+          break;
+        case 1:
+          assertThat(actual.remove(key)).isEqualTo(expected.remove(key));
+          break;
+        case 2:
+          assertThat(actual.putIfAbsent(key, i)).isEqualTo(expected.putIfAbsent(key, i));
+          break;
+        default:
+          assertThat(actual.merge(key, 1, Integer::sum)).isEqualTo(expected.merge(key, 1, Integer::sum));
+          break;
+      }
+      assertThat(actual.size()).isEqualTo(expected.size());
+    }
+    for (int key = 0; key < 500; key++) {
+      assertThat(actual.get(key)).isEqualTo(expected.get(key));
+    }
+  }
+
+  @Test
+  public void concurrentPuts_acrossResizes_keepAllEntries() throws Exception {
+    ConcurrentHashMap<Integer, Integer> ints = new ConcurrentHashMap<>(1);
+    int perThread = 20000;
+    runConcurrently(thread -> {
+      for (int i = 0; i < perThread; i++) {
+        int key = thread * perThread + i;
+        ints.put(key, key);
+      }
+    });
+
+    assertThat(ints.size()).isEqualTo(THREADS * perThread);
+    for (int key = 0; key < THREADS * perThread; key++) {
+      assertThat(ints.get(key)).isEqualTo(key);
+    }
+    int visited = 0;
+    Iterator<Integer> iter = ints.keySet().iterator();
+    while (iter.hasNext()) {
+      iter.next();
+      visited++;
+    }
+    assertThat(visited).isEqualTo(THREADS * perThread);
+  }
+
+  @Test
+  public void concurrentMerge_countsEveryUpdate() throws Exception {
+    ConcurrentHashMap<Integer, Integer> counts = new ConcurrentHashMap<>();
+    runConcurrently(thread -> {
+      for (int i = 0; i < 10000; i++) {
+        counts.merge(i % 100, 1, Integer::sum);
+      }
+    });
+
+    assertThat(counts.size()).isEqualTo(100);
+    for (int key = 0; key < 100; key++) {
+      assertThat(counts.get(key)).isEqualTo(THREADS * 100);
+    }
+  }
+
+  @Test
+  public void concurrentComputeIfAbsent_callsFunctionOncePerKey() throws Exception {
+    ConcurrentHashMap<Integer, Integer> values = new ConcurrentHashMap<>();
+    AtomicInteger calls = new AtomicInteger();
+    runConcurrently(thread -> {
+      for (int i = 0; i < 1000; i++) {
+        values.computeIfAbsent(i, key -> {
+          calls.incrementAndGet();
+          return key;
+        });
+      }
+    });
+
+    assertThat(calls.get()).isEqualTo(1000);
+    assertThat(values.size()).isEqualTo(1000);
+  }
+
+  @Test
+  public void concurrentPutIfAbsent_storesFirstValue() throws Exception {
+    ConcurrentHashMap<Integer, Integer> values = new ConcurrentHashMap<>();
+    AtomicInteger winners = new AtomicInteger();
+    runConcurrently(thread -> {
+      for (int i = 0; i < 1000; i++) {
+        if (values.putIfAbsent(i, thread) == null) {
+          winners.incrementAndGet();
+        }
+      }
+    });
+
+    assertThat(winners.get()).isEqualTo(1000);
+    assertThat(values.size()).isEqualTo(1000);
+  }
+
+  @Test
+  public void toArray_duringConcurrentPutsAndRemoves_holdsNoNulls() throws Exception {
+    ConcurrentHashMap<Integer, Integer> ints = new ConcurrentHashMap<>(1);
+    AtomicInteger writersLeft = new AtomicInteger(THREADS / 2);
+    runConcurrently(thread -> {
+      if (thread % 2 == 0) {
+        Random random = new Random(thread);
+        for (int i = 0; i < 50000; i++) {
+          int key = random.nextInt(2000);
+          if (random.nextBoolean()) {
+            ints.put(key, key);
+          } else {
+            ints.remove(key);
+          }
+        }
+        writersLeft.decrementAndGet();
+        return;
+      }
+      do {
+        assertNoNulls(ints.keySet().toArray());
+        assertNoNulls(ints.keySet().toArray(new Integer[0]));
+        assertNoNulls(ints.values().toArray());
+        assertNoNulls(ints.values().toArray(new Integer[0]));
+        assertNoNulls(ints.entrySet().toArray());
+      } while (writersLeft.get() > 0);
+    });
+  }
+
+  private static void assertNoNulls(Object[] array) {
+    for (int i = 0; i < array.length; i++) {
+      assertThat(array[i]).isNotNull();
+    }
+  }
+
+  private static void runConcurrently(ThreadBody body) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    AtomicInteger failures = new AtomicInteger();
+    Thread[] threads = new Thread[THREADS];
+    for (int t = 0; t < THREADS; t++) {
+      int thread = t;
+      threads[t] = new Thread(() -> {
+        try {
+          start.await();
+          body.run(thread);
+        } catch (Throwable e) {
+          failures.incrementAndGet();
+        }
+      });
+      threads[t].start();
+    }
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertThat(failures.get()).isEqualTo(0);
+  }
+
+  private interface ThreadBody {
+    void run(int thread);
+  }
+}
@@ -2,6 +2,7 @@ package com.hopkins.collections;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -207,4 +208,348 @@ public class HashMapTest {
 
     assertThat(map.get("one")).isEqualTo(2);
   }
+
+  @Test
+  public void get_withNegativeHashCode() {
+    HashMap<Integer, String> negative = new HashMap<>();
+    negative.put(-7, "minus seven");
+
+    assertThat(negative.get(-7)).isEqualTo("minus seven");
+    assertThat(negative.remove(-7)).isEqualTo("minus seven");
+  }
+
+  @Test
+  public void put_withCollidingComparableKeys_convertsToTree() {
+    HashMap<ComparableCollidingKey, Integer> colliding = new HashMap<>(64);
+    for (int i = 0; i < 100; i++) {
+      colliding.put(new ComparableCollidingKey(i), i);
+    }
+
+    assertThat(colliding.isTreeBin(new ComparableCollidingKey(0))).isTrue();
+    assertThat(colliding.size()).isEqualTo(100);
+    for (int i = 0; i < 100; i++) {
+      assertThat(colliding.get(new ComparableCollidingKey(i))).isEqualTo(i);
+    }
+    assertThat(colliding.get(new ComparableCollidingKey(100))).isNull();
+    assertThat(colliding.put(new ComparableCollidingKey(5), 50)).isEqualTo(5);
+    assertThat(colliding.keySet().toArray()).hasLength(100);
+  }
+
+  @Test
+  public void put_withCollidingKeys_convertsToTree() {
+    HashMap<CollidingKey, Integer> colliding = new HashMap<>(64);
+    for (int i = 0; i < 20; i++) {
+      colliding.put(new CollidingKey(i), i);
+    }
+
+    assertThat(colliding.isTreeBin(new CollidingKey(0))).isTrue();
+    for (int i = 0; i < 20; i++) {
+      assertThat(colliding.get(new CollidingKey(i))).isEqualTo(i);
+    }
+    for (int i = 0; i < 20; i += 2) {
+      assertThat(colliding.remove(new CollidingKey(i))).isEqualTo(i);
+    }
+    for (int i = 0; i < 20; i++) {
+      assertThat(colliding.containsKey(new CollidingKey(i))).isEqualTo(i % 2 == 1);
+    }
+  }
+
+  @Test
+  public void remove_fromTree_convertsBackToChain() {
+    HashMap<ComparableCollidingKey, Integer> colliding = new HashMap<>(64);
+    for (int i = 0; i < 10; i++) {
+      colliding.put(new ComparableCollidingKey(i), i);
+    }
+    assertThat(colliding.isTreeBin(new ComparableCollidingKey(0))).isTrue();
+
+    for (int i = 0; i < 5; i++) {
+      colliding.remove(new ComparableCollidingKey(i));
+    }
+
+    assertThat(colliding.isTreeBin(new ComparableCollidingKey(0))).isFalse();
+    assertThat(colliding.size()).isEqualTo(5);
+    assertThat(colliding.get(new ComparableCollidingKey(7))).isEqualTo(7);
+  }
+
+  @Test
+  public void put_withCollidingKeysInSmallTable_resizes() {
+    HashMap<ComparableCollidingKey, Integer> colliding = new HashMap<>(4, 100f /* loadFactor */);
+    for (int i = 0; i < 20; i++) {
+      colliding.put(new ComparableCollidingKey(i), i);
+    }
+
+    assertThat(colliding.capacity()).isAtLeast(HashMap.MIN_TREEIFY_CAPACITY);
+    assertThat(colliding.isTreeBin(new ComparableCollidingKey(0))).isTrue();
+  }
+
+  @Test
+  public void iteratorRemove_fromTree_visitsEveryEntry() {
+    HashMap<ComparableCollidingKey, Integer> colliding = new HashMap<>(64);
+    for (int i = 0; i < 40; i++) {
+      colliding.put(new ComparableCollidingKey(i), i);
+    }
+
+    int visited = 0;
+    Iterator<Map.Entry<ComparableCollidingKey, Integer>> iter = colliding.entrySet().iterator();
+    while (iter.hasNext()) {
+      iter.next();
+      iter.remove();
+      visited++;
+    }
+
+    assertThat(visited).isEqualTo(40);
+    assertThat(colliding.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void randomOperations_withCollidingKeys_matchJavaHashMap() {
+    Random random = new Random(4321);
+    HashMap<ComparableCollidingKey, Integer> actual = new HashMap<>();
+    java.util.HashMap<ComparableCollidingKey, Integer> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 20000; i++) {
+      ComparableCollidingKey key = new ComparableCollidingKey(random.nextInt(300));
+      if (random.nextInt(3) > 0) {
+        assertThat(actual.put(key, i)).isEqualTo(expected.put(key, i));
+      } else {
+        assertThat(actual.remove(key)).isEqualTo(expected.remove(key));
+      }
+      assertThat(actual.size()).isEqualTo(expected.size());
+    }
+    for (int id = 0; id < 300; id++) {
+      ComparableCollidingKey key = new ComparableCollidingKey(id);
+      assertThat(actual.get(key)).isEqualTo(expected.get(key));
+    }
+  }
+
+  @Test
+  public void put_withIncrementalResize_migratesGradually() {
+    HashMap<Integer, Integer> incremental = new HashMap<>(16, 0.75f, true /* incrementalResize */);
+    for (int i = 0; i < 13; i++) {
+      incremental.put(i, i);
+    }
+
+    assertThat(incremental.isResizing()).isTrue();
+    assertThat(incremental.capacity()).isEqualTo(32);
+    for (int i = 0; i < 13; i++) {
+      assertThat(incremental.get(i)).isEqualTo(i);
+    }
+    assertThat(incremental.keySet().toArray()).hasLength(13);
+
+    for (int i = 13; i < 20; i++) {
+      incremental.put(i, i);
+    }
+    assertThat(incremental.isResizing()).isFalse();
+    assertThat(incremental.size()).isEqualTo(20);
+  }
+
+  @Test
+  public void iteratorRemove_duringIncrementalResize_visitsEveryEntry() {
+    HashMap<Integer, Integer> incremental = new HashMap<>(16, 0.75f, true /* incrementalResize */);
+    for (int i = 0; i < 13; i++) {
+      incremental.put(i, i);
+    }
+    assertThat(incremental.isResizing()).isTrue();
+
+    int visited = 0;
+    Iterator<Map.Entry<Integer, Integer>> iter = incremental.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<Integer, Integer> entry = iter.next();
+      assertThat(incremental.get(entry.getKey())).isEqualTo(entry.getValue());
+      if (entry.getKey() % 2 == 0) {
+        iter.remove();
+      }
+      visited++;
+    }
+
+    assertThat(visited).isEqualTo(13);
+    assertThat(incremental.size()).isEqualTo(6);
+    assertThat(incremental.isResizing()).isTrue();
+  }
+
+  @Test
+  public void get_withIncrementalResize_migratesGradually() {
+    HashMap<Integer, Integer> incremental = new HashMap<>(64, 0.75f, true /* incrementalResize */);
+    for (int i = 0; i < 49; i++) {
+      incremental.put(i, i);
+    }
+    assertThat(incremental.isResizing()).isTrue();
+
+    for (int i = 0; i < 15; i++) {
+      assertThat(incremental.get(i)).isEqualTo(i);
+    }
+    assertThat(incremental.isResizing()).isTrue();
+    assertThat(incremental.get(15)).isEqualTo(15);
+
+    assertThat(incremental.isResizing()).isFalse();
+  }
+
+  @Test
+  public void put_withIncrementalResize_finishesEachMigrationBeforeTheNextResize() {
+    float[] loadFactors = {0.1f, 0.5f, 0.75f, 1f, 4f};
+    for (float loadFactor : loadFactors) {
+      HashMap<Integer, Integer> incremental = new HashMap<>(2, loadFactor, true /* incrementalResize */);
+      for (int i = 0; i < 20000; i++) {
+        incremental.put(i, i);
+        // A resize that had to wait for a migration would leave the table
+        // fuller than its load factor
+        assertThat((float) incremental.size()).isAtMost(incremental.capacity() * loadFactor);
+      }
+      assertThat(incremental.get(12345)).isEqualTo(12345);
+    }
+  }
+
+  @Test
+  public void randomOperations_withIncrementalResize_matchJavaHashMap() {
+    Random random = new Random(8765);
+    HashMap<Integer, Integer> actual = new HashMap<>(2, 0.75f, true /* incrementalResize */);
+    java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 50000; i++) {
+      int key = random.nextInt(5000);
+      if (random.nextInt(4) > 0) {
+        assertThat(actual.put(key, i)).isEqualTo(expected.put(key, i));
+      } else {
+        assertThat(actual.remove(key)).isEqualTo(expected.remove(key));
+      }
+      assertThat(actual.size()).isEqualTo(expected.size());
+    }
+    for (int key = 0; key < 5000; key++) {
+      assertThat(actual.get(key)).isEqualTo(expected.get(key));
+    }
+    assertThat(actual.entrySet().toArray()).hasLength(expected.size());
+  }
+
+  @Test
+  public void computeIfAbsent() {
+    map.put("a", 1);
+    int[] calls = {0};
+
+    assertThat(map.computeIfAbsent("a", key -> ++calls[0])).isEqualTo(1);
+    assertThat(map.computeIfAbsent("b", key -> ++calls[0])).isEqualTo(1);
+    assertThat(map.computeIfAbsent("c", key -> null)).isNull();
+
+    assertThat(calls[0]).isEqualTo(1);
+    assertThat(map.get("b")).isEqualTo(1);
+    assertThat(map.containsKey("c")).isFalse();
+    assertThat(map.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void merge() {
+    assertThat(map.merge("a", 1, Integer::sum)).isEqualTo(1);
+    assertThat(map.merge("a", 2, Integer::sum)).isEqualTo(3);
+    assertThat(map.merge("a", 5, (oldValue, value) -> null)).isNull();
+
+    assertThat(map.containsKey("a")).isFalse();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void merge_withIncrementalResize() {
+    HashMap<Integer, Integer> counts = new HashMap<>(4, 0.75f, true /* incrementalResize */);
+    for (int i = 0; i < 1000; i++) {
+      counts.merge(i % 100, 1, Integer::sum);
+    }
+
+    assertThat(counts.size()).isEqualTo(100);
+    for (int i = 0; i < 100; i++) {
+      assertThat(counts.get(i)).isEqualTo(10);
+    }
+  }
+
+  @Test
+  public void computeIfAbsent_andMerge_onMissingKey_hashOnce() {
+    HashMap<CountingKey, Integer> counts = new HashMap<>();
+    CountingKey first = new CountingKey(1);
+    CountingKey second = new CountingKey(2);
+
+    counts.computeIfAbsent(first, key -> 1);
+    counts.merge(second, 1, Integer::sum);
+
+    assertThat(first.hashCalls).isEqualTo(1);
+    assertThat(second.hashCalls).isEqualTo(1);
+    assertThat(counts.get(first)).isEqualTo(1);
+    assertThat(counts.get(second)).isEqualTo(1);
+  }
+
+  @Test
+  public void computeIfAbsent_whenFunctionChangesMap_looksUpAgain() {
+    HashMap<Integer, Integer> values = new HashMap<>(4);
+
+    values.computeIfAbsent(-1, key -> {
+      for (int i = 0; i < 100; i++) {
+        values.put(i, i);
+      }
+      return key;
+    });
+
+    assertThat(values.size()).isEqualTo(101);
+    assertThat(values.get(-1)).isEqualTo(-1);
+    for (int i = 0; i < 100; i++) {
+      assertThat(values.get(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void computeIfAbsent_withCollidingKeys_treeifiesBucket() {
+    HashMap<CollidingKey, Integer> values = new HashMap<>(64);
+    int keys = HashMap.TREEIFY_THRESHOLD + 4;
+    for (int i = 0; i < keys; i++) {
+      values.computeIfAbsent(new CollidingKey(i), key -> key.id);
+    }
+
+    assertThat(values.isTreeBin(new CollidingKey(0))).isTrue();
+    for (int i = 0; i < keys; i++) {
+      assertThat(values.get(new CollidingKey(i))).isEqualTo(i);
+    }
+  }
+
+  private static final class CountingKey {
+    final int id;
+    int hashCalls;
+
+    CountingKey(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      hashCalls++;
+      return id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof CountingKey && ((CountingKey) obj).id == id;
+    }
+  }
+
+  private static class CollidingKey {
+    final int id;
+
+    CollidingKey(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof CollidingKey && ((CollidingKey) obj).id == id;
+    }
+  }
+
+  private static final class ComparableCollidingKey extends CollidingKey
+      implements Comparable<ComparableCollidingKey> {
+    ComparableCollidingKey(int id) {
+      super(id);
+    }
+
+    @Override
+    public int compareTo(ComparableCollidingKey other) {
+      return Integer.compare(id, other.id);
+    }
+  }
 }
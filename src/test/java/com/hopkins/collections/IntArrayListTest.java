@@ -0,0 +1,175 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IntArrayListTest {
+  private IntArrayList list;
+
+  @Before
+  public void setUp() {
+    list = new IntArrayList();
+  }
+
+  @Test
+  public void init() {
+    assertThat(list.isEmpty()).isTrue();
+    assertThat(list.capacity()).isEqualTo(10 /* defaultCapacity */);
+
+    list = new IntArrayList(50);
+    assertThat(list.capacity()).isEqualTo(50);
+
+    IntArrayList source = new IntArrayList();
+    source.addAll(1, 2);
+    list = new IntArrayList(source);
+    assertThat(list.size()).isEqualTo(2);
+    assertThat(list.get(1)).isEqualTo(2);
+  }
+
+  @Test
+  public void add_growsCapacity() {
+    for (int i = 0; i < 100; i++) {
+      assertThat(list.add(i)).isTrue();
+    }
+
+    assertThat(list.size()).isEqualTo(100);
+    assertThat(list.capacity()).isAtLeast(100);
+    assertThat(list.get(99)).isEqualTo(99);
+  }
+
+  @Test
+  public void add_withIndex() {
+    list.addAll(1, 3);
+    list.add(1, 2);
+
+    assertThat(list.toArray()).isEqualTo(new int[] {1, 2, 3});
+  }
+
+  @Test
+  public void addAll_withIndex() {
+    list.addAll(1, 3);
+    IntArrayList other = new IntArrayList();
+    other.add(2);
+    other.add(2);
+    list.addAll(1, other);
+
+    assertThat(list.toArray()).isEqualTo(new int[] {1, 2, 2, 3});
+  }
+
+  @Test
+  public void set_returnsOldValue() {
+    list.add(1);
+
+    assertThat(list.set(0, 2)).isEqualTo(1);
+    assertThat(list.get(0)).isEqualTo(2);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void get_pastSize_throws() {
+    list.add(1);
+
+    list.get(1);
+  }
+
+  @Test
+  public void removeAt_shiftsValues() {
+    list.addAll(1, 2, 3);
+
+    assertThat(list.removeAt(1)).isEqualTo(2);
+    assertThat(list.toArray()).isEqualTo(new int[] {1, 3});
+    assertThat(list.removeAt(1)).isEqualTo(3);
+    assertThat(list.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void indexOf() {
+    list.addAll(1, 2, 1);
+
+    assertThat(list.indexOf(1)).isEqualTo(0);
+    assertThat(list.lastIndexOf(1)).isEqualTo(2);
+    assertThat(list.indexOf(3)).isEqualTo(List.INDEX_NOT_FOUND);
+    assertThat(list.contains(2)).isTrue();
+  }
+
+  @Test
+  public void trimToSize() {
+    list.addAll(1, 2);
+    list.trimToSize();
+
+    assertThat(list.capacity()).isEqualTo(2);
+    list.add(3);
+    assertThat(list.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void ensureCapacity() {
+    list.ensureCapacity(1000);
+
+    assertThat(list.capacity()).isAtLeast(1000);
+    assertThat(list.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void subList_writesThrough() {
+    list.addAll(1, 2, 3, 1);
+    IntList sub = list.subList(1, 3);
+
+    assertThat(sub.size()).isEqualTo(2);
+    assertThat(sub.get(0)).isEqualTo(2);
+    assertThat(sub.indexOf(3)).isEqualTo(1);
+    assertThat(sub.indexOf(1)).isEqualTo(List.INDEX_NOT_FOUND);
+
+    sub.set(0, 1);
+    sub.add(2);
+    assertThat(list.toArray()).isEqualTo(new int[] {1, 1, 3, 2, 1});
+
+    sub.clear();
+    assertThat(sub.isEmpty()).isTrue();
+    assertThat(list.toArray()).isEqualTo(new int[] {1, 1});
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void subList_pastSize_throws() {
+    list.add(1);
+
+    list.subList(0, 2);
+  }
+
+  @Test
+  public void forEach_visitsInOrder() {
+    list.addAll(1, 2, 3);
+    IntArrayList copy = new IntArrayList();
+
+    list.forEach(copy::add);
+
+    assertThat(copy.toArray()).isEqualTo(list.toArray());
+  }
+
+  @Test
+  public void sort_andBinarySearch() {
+    Random random = new Random(1234);
+    for (int i = 0; i < 1000; i++) {
+      list.add(random.nextInt(100));
+    }
+    list.add(1);
+    list.sort();
+
+    for (int i = 1; i < list.size(); i++) {
+      assertThat(list.get(i - 1)).isAtMost(list.get(i));
+    }
+    assertThat(list.get(list.binarySearch(1))).isEqualTo(1);
+  }
+
+  @Test
+  public void toArray_withRange() {
+    list.addAll(1, 2, 3);
+    int[] dest = new int[3];
+
+    list.toArray(1, 3, dest, 1);
+
+    assertThat(dest).isEqualTo(new int[] {0, 2, 3});
+  }
+}
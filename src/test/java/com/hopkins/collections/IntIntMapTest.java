@@ -0,0 +1,172 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IntIntMapTest {
+
+  private IntIntMap map;
+
+  @Before
+  public void setup() {
+    map = new IntIntMap();
+  }
+
+  @Test
+  public void get_withMissingKey_returnsZero() {
+    assertThat(map.get(17)).isEqualTo(0);
+    assertThat(map.getOrDefault(17, 1)).isEqualTo(1);
+  }
+
+  @Test
+  public void put_returnsOldValue() {
+    assertThat(map.put(17, 1)).isEqualTo(0);
+    assertThat(map.put(17, 2)).isEqualTo(1);
+    assertThat(map.get(17)).isEqualTo(2);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void put_withZeroKey() {
+    map.put(0, 1);
+
+    assertThat(map.containsKey(0)).isTrue();
+    assertThat(map.get(0)).isEqualTo(1);
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.remove(0)).isEqualTo(1);
+    assertThat(map.containsKey(0)).isFalse();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void put_withNegativeKey() {
+    map.put(-42, 1);
+
+    assertThat(map.get(-42)).isEqualTo(1);
+    assertThat(map.containsKey(17)).isFalse();
+  }
+
+  @Test
+  public void containsValue() {
+    map.put(0, 1);
+    map.put(17, 2);
+
+    assertThat(map.containsValue(1)).isTrue();
+    assertThat(map.containsValue(2)).isTrue();
+    assertThat(map.containsValue(-1)).isFalse();
+  }
+
+  @Test
+  public void clear_removesAll() {
+    map.put(0, 1);
+    map.put(17, 2);
+    map.clear();
+
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.containsKey(0)).isFalse();
+    assertThat(map.containsKey(17)).isFalse();
+  }
+
+  @Test
+  public void capacity_isPowerOfTwo() {
+    map = new IntIntMap(3 /* initialCapacity */);
+    for (int i = 0; i < 100; i++) {
+      map.put(i * 31, i);
+      assertThat(Integer.bitCount(map.capacity())).isEqualTo(1);
+    }
+    assertThat(map.size()).isEqualTo(100);
+  }
+
+  @Test
+  public void cursor_visitsEveryEntry() {
+    for (int i = 0; i < 100; i++) {
+      map.put(i * 31, i);
+    }
+
+    java.util.HashSet<Integer> seen = new java.util.HashSet<>();
+    IntIntMap.Cursor cursor = map.cursor();
+    while (cursor.next()) {
+      assertThat(seen.add(cursor.key())).isTrue();
+      assertThat(cursor.value()).isEqualTo(map.get(cursor.key()));
+    }
+
+    assertThat(seen.size()).isEqualTo(100);
+    assertThat(cursor.next()).isFalse();
+  }
+
+  @Test
+  public void cursor_reset_visitsAgain() {
+    map.put(0, 1);
+    map.put(17, 2);
+
+    IntIntMap.Cursor cursor = map.cursor();
+    int count = 0;
+    while (cursor.next()) {
+      count++;
+    }
+    cursor.reset();
+    while (cursor.next()) {
+      count++;
+    }
+
+    assertThat(count).isEqualTo(4);
+  }
+
+  @Test
+  public void cursorSetValue_updatesMap() {
+    map.put(0, 1);
+    map.put(17, 1);
+
+    IntIntMap.Cursor cursor = map.cursor();
+    while (cursor.next()) {
+      assertThat(cursor.setValue(2)).isEqualTo(1);
+    }
+
+    assertThat(map.get(0)).isEqualTo(2);
+    assertThat(map.get(17)).isEqualTo(2);
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void cursorKey_beforeNext_throws() {
+    map.put(17, 1);
+
+    map.cursor().key();
+  }
+
+  @Test
+  public void addTo_countsOccurrences() {
+    for (int i = 0; i < 10; i++) {
+      map.addTo(0, 1);
+      map.addTo(17, 2);
+    }
+
+    assertThat(map.get(0)).isEqualTo(10);
+    assertThat(map.get(17)).isEqualTo(20);
+    assertThat(map.addTo(-42, 5)).isEqualTo(5);
+    assertThat(map.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void randomOperations_matchJavaHashMap() {
+    Random random = new Random(1234);
+    java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 20000; i++) {
+      int key = random.nextInt(500) - 250;
+      int value = i;
+      if (random.nextBoolean()) {
+        map.put(key, value);
+        expected.put(key, value);
+      } else {
+        assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+        assertThat(map.remove(key)).isEqualTo(expected.containsKey(key) ? expected.remove(key) : 0);
+      }
+      assertThat(map.size()).isEqualTo(expected.size());
+    }
+    for (int key = -250; key < 250; key++) {
+      assertThat(map.getOrDefault(key, -1)).isEqualTo(expected.getOrDefault(key, -1));
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IntObjectMapTest {
+
+  private IntObjectMap<String> map;
+
+  @Before
+  public void setup() {
+    map = new IntObjectMap<>();
+  }
+
+  @Test
+  public void get_withMissingKey_returnsNull() {
+    assertThat(map.get(17)).isNull();
+    assertThat(map.getOrDefault(17, "a")).isEqualTo("a");
+  }
+
+  @Test
+  public void put_returnsOldValue() {
+    assertThat(map.put(17, "a")).isNull();
+    assertThat(map.put(17, "b")).isEqualTo("a");
+    assertThat(map.get(17)).isEqualTo("b");
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void put_withZeroKey() {
+    map.put(0, "a");
+
+    assertThat(map.containsKey(0)).isTrue();
+    assertThat(map.get(0)).isEqualTo("a");
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.remove(0)).isEqualTo("a");
+    assertThat(map.containsKey(0)).isFalse();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void put_withNegativeKey() {
+    map.put(-42, "a");
+
+    assertThat(map.get(-42)).isEqualTo("a");
+    assertThat(map.containsKey(17)).isFalse();
+  }
+
+  @Test
+  public void containsValue() {
+    map.put(0, "a");
+    map.put(17, "b");
+
+    assertThat(map.containsValue("a")).isTrue();
+    assertThat(map.containsValue("b")).isTrue();
+    assertThat(map.containsValue("c")).isFalse();
+  }
+
+  @Test
+  public void clear_removesAll() {
+    map.put(0, "a");
+    map.put(17, "b");
+    map.clear();
+
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.containsKey(0)).isFalse();
+    assertThat(map.containsKey(17)).isFalse();
+  }
+
+  @Test
+  public void capacity_isPowerOfTwo() {
+    map = new IntObjectMap<>(3 /* initialCapacity */);
+    for (int i = 0; i < 100; i++) {
+      map.put(i * 31, "v" + i);
+      assertThat(Integer.bitCount(map.capacity())).isEqualTo(1);
+    }
+    assertThat(map.size()).isEqualTo(100);
+  }
+
+  @Test
+  public void cursor_visitsEveryEntry() {
+    for (int i = 0; i < 100; i++) {
+      map.put(i * 31, "v" + i);
+    }
+
+    java.util.HashSet<Integer> seen = new java.util.HashSet<>();
+    IntObjectMap.Cursor<String> cursor = map.cursor();
+    while (cursor.next()) {
+      assertThat(seen.add(cursor.key())).isTrue();
+      assertThat(cursor.value()).isEqualTo(map.get(cursor.key()));
+    }
+
+    assertThat(seen.size()).isEqualTo(100);
+    assertThat(cursor.next()).isFalse();
+  }
+
+  @Test
+  public void cursor_reset_visitsAgain() {
+    map.put(0, "a");
+    map.put(17, "b");
+
+    IntObjectMap.Cursor<String> cursor = map.cursor();
+    int count = 0;
+    while (cursor.next()) {
+      count++;
+    }
+    cursor.reset();
+    while (cursor.next()) {
+      count++;
+    }
+
+    assertThat(count).isEqualTo(4);
+  }
+
+  @Test
+  public void cursorSetValue_updatesMap() {
+    map.put(0, "a");
+    map.put(17, "a");
+
+    IntObjectMap.Cursor<String> cursor = map.cursor();
+    while (cursor.next()) {
+      assertThat(cursor.setValue("b")).isEqualTo("a");
+    }
+
+    assertThat(map.get(0)).isEqualTo("b");
+    assertThat(map.get(17)).isEqualTo("b");
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void cursorKey_beforeNext_throws() {
+    map.put(17, "a");
+
+    map.cursor().key();
+  }
+
+  @Test
+  public void randomOperations_matchJavaHashMap() {
+    Random random = new Random(1234);
+    java.util.HashMap<Integer, String> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 20000; i++) {
+      int key = random.nextInt(500) - 250;
+      String value = "v" + i;
+      if (random.nextBoolean()) {
+        map.put(key, value);
+        expected.put(key, value);
+      } else {
+        assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+        assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+      }
+      assertThat(map.size()).isEqualTo(expected.size());
+    }
+    for (int key = -250; key < 250; key++) {
+      assertThat(map.getOrDefault(key, "c")).isEqualTo(expected.getOrDefault(key, "c"));
+    }
+  }
+}
@@ -48,6 +48,24 @@ public class LinkedListTest {
     assertThat(list.getFirst()).isEqualTo("more first");
   }
 
+  @Test
+  public void get_atEveryIndex_returnsItem() {
+    list.addAll(Arrays.asList("zero", "one", "two", "three", "four"));
+
+    assertThat(list.get(0)).isEqualTo("zero");
+    assertThat(list.get(2)).isEqualTo("two");
+    assertThat(list.get(3)).isEqualTo("three");
+    assertThat(list.get(4)).isEqualTo("four");
+  }
+
+  @Test
+  public void remove_atMiddleIndex_removesItem() {
+    list.addAll(Arrays.asList("zero", "one", "two", "three"));
+
+    assertThat(list.remove(2)).isEqualTo("two");
+    assertThat(list.toArray()).asList().containsExactly("zero", "one", "three").inOrder();
+  }
+
   @Test(expected = NoSuchElementException.class)
   public void getFirst_whenEmpty_throws() {
     list.getFirst();
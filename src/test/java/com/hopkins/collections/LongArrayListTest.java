@@ -0,0 +1,175 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LongArrayListTest {
+  private LongArrayList list;
+
+  @Before
+  public void setUp() {
+    list = new LongArrayList();
+  }
+
+  @Test
+  public void init() {
+    assertThat(list.isEmpty()).isTrue();
+    assertThat(list.capacity()).isEqualTo(10 /* defaultCapacity */);
+
+    list = new LongArrayList(50);
+    assertThat(list.capacity()).isEqualTo(50);
+
+    LongArrayList source = new LongArrayList();
+    source.addAll(1L, 2L);
+    list = new LongArrayList(source);
+    assertThat(list.size()).isEqualTo(2);
+    assertThat(list.get(1)).isEqualTo(2L);
+  }
+
+  @Test
+  public void add_growsCapacity() {
+    for (int i = 0; i < 100; i++) {
+      assertThat(list.add(i)).isTrue();
+    }
+
+    assertThat(list.size()).isEqualTo(100);
+    assertThat(list.capacity()).isAtLeast(100);
+    assertThat(list.get(99)).isEqualTo(99L);
+  }
+
+  @Test
+  public void add_withIndex() {
+    list.addAll(1L, 3L);
+    list.add(1, 2L);
+
+    assertThat(list.toArray()).isEqualTo(new long[] {1L, 2L, 3L});
+  }
+
+  @Test
+  public void addAll_withIndex() {
+    list.addAll(1L, 3L);
+    LongArrayList other = new LongArrayList();
+    other.add(2L);
+    other.add(2L);
+    list.addAll(1, other);
+
+    assertThat(list.toArray()).isEqualTo(new long[] {1L, 2L, 2L, 3L});
+  }
+
+  @Test
+  public void set_returnsOldValue() {
+    list.add(1L);
+
+    assertThat(list.set(0, 2L)).isEqualTo(1L);
+    assertThat(list.get(0)).isEqualTo(2L);
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void get_pastSize_throws() {
+    list.add(1L);
+
+    list.get(1);
+  }
+
+  @Test
+  public void removeAt_shiftsValues() {
+    list.addAll(1L, 2L, 3L);
+
+    assertThat(list.removeAt(1)).isEqualTo(2L);
+    assertThat(list.toArray()).isEqualTo(new long[] {1L, 3L});
+    assertThat(list.removeAt(1)).isEqualTo(3L);
+    assertThat(list.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void indexOf() {
+    list.addAll(1L, 2L, 1L);
+
+    assertThat(list.indexOf(1L)).isEqualTo(0);
+    assertThat(list.lastIndexOf(1L)).isEqualTo(2);
+    assertThat(list.indexOf(3L)).isEqualTo(List.INDEX_NOT_FOUND);
+    assertThat(list.contains(2L)).isTrue();
+  }
+
+  @Test
+  public void trimToSize() {
+    list.addAll(1L, 2L);
+    list.trimToSize();
+
+    assertThat(list.capacity()).isEqualTo(2);
+    list.add(3L);
+    assertThat(list.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void ensureCapacity() {
+    list.ensureCapacity(1000);
+
+    assertThat(list.capacity()).isAtLeast(1000);
+    assertThat(list.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void subList_writesThrough() {
+    list.addAll(1L, 2L, 3L, 1L);
+    LongList sub = list.subList(1, 3);
+
+    assertThat(sub.size()).isEqualTo(2);
+    assertThat(sub.get(0)).isEqualTo(2L);
+    assertThat(sub.indexOf(3L)).isEqualTo(1);
+    assertThat(sub.indexOf(1L)).isEqualTo(List.INDEX_NOT_FOUND);
+
+    sub.set(0, 1L);
+    sub.add(2L);
+    assertThat(list.toArray()).isEqualTo(new long[] {1L, 1L, 3L, 2L, 1L});
+
+    sub.clear();
+    assertThat(sub.isEmpty()).isTrue();
+    assertThat(list.toArray()).isEqualTo(new long[] {1L, 1L});
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void subList_pastSize_throws() {
+    list.add(1L);
+
+    list.subList(0, 2);
+  }
+
+  @Test
+  public void forEach_visitsInOrder() {
+    list.addAll(1L, 2L, 3L);
+    LongArrayList copy = new LongArrayList();
+
+    list.forEach(copy::add);
+
+    assertThat(copy.toArray()).isEqualTo(list.toArray());
+  }
+
+  @Test
+  public void sort_andBinarySearch() {
+    Random random = new Random(1234);
+    for (int i = 0; i < 1000; i++) {
+      list.add(random.nextLong());
+    }
+    list.add(1L);
+    list.sort();
+
+    for (int i = 1; i < list.size(); i++) {
+      assertThat(list.get(i - 1)).isAtMost(list.get(i));
+    }
+    assertThat(list.get(list.binarySearch(1L))).isEqualTo(1L);
+  }
+
+  @Test
+  public void toArray_withRange() {
+    list.addAll(1L, 2L, 3L);
+    long[] dest = new long[3];
+
+    list.toArray(1, 3, dest, 1);
+
+    assertThat(dest).isEqualTo(new long[] {0, 2L, 3L});
+  }
+}
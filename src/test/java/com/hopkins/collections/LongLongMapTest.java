@@ -0,0 +1,172 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LongLongMapTest {
+
+  private LongLongMap map;
+
+  @Before
+  public void setup() {
+    map = new LongLongMap();
+  }
+
+  @Test
+  public void get_withMissingKey_returnsZero() {
+    assertThat(map.get(17L)).isEqualTo(0);
+    assertThat(map.getOrDefault(17L, 1L)).isEqualTo(1L);
+  }
+
+  @Test
+  public void put_returnsOldValue() {
+    assertThat(map.put(17L, 1L)).isEqualTo(0);
+    assertThat(map.put(17L, 2L)).isEqualTo(1L);
+    assertThat(map.get(17L)).isEqualTo(2L);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void put_withZeroKey() {
+    map.put(0L, 1L);
+
+    assertThat(map.containsKey(0L)).isTrue();
+    assertThat(map.get(0L)).isEqualTo(1L);
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.remove(0L)).isEqualTo(1L);
+    assertThat(map.containsKey(0L)).isFalse();
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void put_withNegativeKey() {
+    map.put(-42L, 1L);
+
+    assertThat(map.get(-42L)).isEqualTo(1L);
+    assertThat(map.containsKey(17L)).isFalse();
+  }
+
+  @Test
+  public void containsValue() {
+    map.put(0L, 1L);
+    map.put(17L, 2L);
+
+    assertThat(map.containsValue(1L)).isTrue();
+    assertThat(map.containsValue(2L)).isTrue();
+    assertThat(map.containsValue(-1L)).isFalse();
+  }
+
+  @Test
+  public void clear_removesAll() {
+    map.put(0L, 1L);
+    map.put(17L, 2L);
+    map.clear();
+
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.containsKey(0L)).isFalse();
+    assertThat(map.containsKey(17L)).isFalse();
+  }
+
+  @Test
+  public void capacity_isPowerOfTwo() {
+    map = new LongLongMap(3 /* initialCapacity */);
+    for (int i = 0; i < 100; i++) {
+      map.put(i * 31L, i);
+      assertThat(Integer.bitCount(map.capacity())).isEqualTo(1);
+    }
+    assertThat(map.size()).isEqualTo(100);
+  }
+
+  @Test
+  public void cursor_visitsEveryEntry() {
+    for (int i = 0; i < 100; i++) {
+      map.put(i * 31L, i);
+    }
+
+    java.util.HashSet<Long> seen = new java.util.HashSet<>();
+    LongLongMap.Cursor cursor = map.cursor();
+    while (cursor.next()) {
+      assertThat(seen.add(cursor.key())).isTrue();
+      assertThat(cursor.value()).isEqualTo(map.get(cursor.key()));
+    }
+
+    assertThat(seen.size()).isEqualTo(100);
+    assertThat(cursor.next()).isFalse();
+  }
+
+  @Test
+  public void cursor_reset_visitsAgain() {
+    map.put(0L, 1L);
+    map.put(17L, 2L);
+
+    LongLongMap.Cursor cursor = map.cursor();
+    int count = 0;
+    while (cursor.next()) {
+      count++;
+    }
+    cursor.reset();
+    while (cursor.next()) {
+      count++;
+    }
+
+    assertThat(count).isEqualTo(4);
+  }
+
+  @Test
+  public void cursorSetValue_updatesMap() {
+    map.put(0L, 1L);
+    map.put(17L, 1L);
+
+    LongLongMap.Cursor cursor = map.cursor();
+    while (cursor.next()) {
+      assertThat(cursor.setValue(2L)).isEqualTo(1L);
+    }
+
+    assertThat(map.get(0L)).isEqualTo(2L);
+    assertThat(map.get(17L)).isEqualTo(2L);
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void cursorKey_beforeNext_throws() {
+    map.put(17L, 1L);
+
+    map.cursor().key();
+  }
+
+  @Test
+  public void addTo_countsOccurrences() {
+    for (int i = 0; i < 10; i++) {
+      map.addTo(0L, 1);
+      map.addTo(17L, 2);
+    }
+
+    assertThat(map.get(0L)).isEqualTo(10);
+    assertThat(map.get(17L)).isEqualTo(20);
+    assertThat(map.addTo(-42L, 5)).isEqualTo(5);
+    assertThat(map.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void randomOperations_matchJavaHashMap() {
+    Random random = new Random(1234);
+    java.util.HashMap<Long, Long> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 20000; i++) {
+      long key = random.nextInt(500) - 250;
+      long value = i;
+      if (random.nextBoolean()) {
+        map.put(key, value);
+        expected.put(key, value);
+      } else {
+        assertThat(map.containsKey(key)).isEqualTo(expected.containsKey(key));
+        assertThat(map.remove(key)).isEqualTo(expected.containsKey(key) ? expected.remove(key) : 0L);
+      }
+      assertThat(map.size()).isEqualTo(expected.size());
+    }
+    for (long key = -250; key < 250; key++) {
+      assertThat(map.getOrDefault(key, -1L)).isEqualTo(expected.getOrDefault(key, -1L));
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OpenHashMapTest {
+
+  private OpenHashMap<String, Integer> map;
+
+  @Before
+  public void setup() {
+    map = new OpenHashMap<>();
+  }
+
+  @Test
+  public void init_withMap() {
+    map.put("one", 1);
+    map.put("two", 2);
+    map.put("three", 3);
+
+    OpenHashMap<String, Integer> map2 = new OpenHashMap<>(map);
+    map.remove("one");
+
+    assertThat(map2.size()).isEqualTo(3);
+    assertThat(map2.containsKey("one")).isTrue();
+    assertThat(map2.get("two")).isEqualTo(2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void init_withFullLoadFactor_throws() {
+    new OpenHashMap<String, Integer>(16, 1.0f);
+  }
+
+  @Test
+  public void size_afterPutSameKey_doesNotIncrease() {
+    map.put("one", 1);
+    map.put("one", 2);
+
+    assertThat(map.size()).isEqualTo(1);
+    assertThat(map.get("one")).isEqualTo(2);
+  }
+
+  @Test
+  public void put_returnsOldValue() {
+    assertThat(map.put("one", 1)).isNull();
+    assertThat(map.put("one", 2)).isEqualTo(1);
+  }
+
+  @Test
+  public void put_withNullKey() {
+    map.put(null, 1);
+
+    assertThat(map.containsKey(null)).isTrue();
+    assertThat(map.get(null)).isEqualTo(1);
+    assertThat(map.keySet().contains(null)).isTrue();
+    assertThat(map.remove(null)).isEqualTo(1);
+    assertThat(map.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void containsValue() {
+    map.put("one", 1);
+    map.put("two", null);
+
+    assertThat(map.containsValue(1)).isTrue();
+    assertThat(map.containsValue(null)).isTrue();
+    assertThat(map.containsValue(3)).isFalse();
+  }
+
+  @Test
+  public void remove_returnsValue() {
+    map.put("one", 1);
+    map.put("two", 2);
+
+    assertThat(map.remove("one")).isEqualTo(1);
+    assertThat(map.remove("one")).isNull();
+    assertThat(map.get("two")).isEqualTo(2);
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void capacity_isPowerOfTwo() {
+    map = new OpenHashMap<>(3 /* initialCapacity */);
+    for (int i = 0; i < 100; i++) {
+      map.put("key" + i, i);
+      assertThat(Integer.bitCount(map.capacity())).isEqualTo(1);
+    }
+    assertThat(map.size()).isEqualTo(100);
+  }
+
+  @Test
+  public void clear_removesAll() {
+    map.put("one", 1);
+    map.clear();
+
+    assertThat(map.isEmpty()).isTrue();
+    assertThat(map.get("one")).isNull();
+  }
+
+  @Test
+  public void entrySetValue_updatesMap() {
+    map.put("one", 1);
+
+    Map.Entry<String, Integer> entry = map.entrySet().iterator().next();
+    entry.setValue(2);
+
+    assertThat(map.get("one")).isEqualTo(2);
+  }
+
+  @Test
+  public void values_toArray() {
+    map.put("one", 1);
+    map.put("two", 2);
+    map.put("three", 3);
+
+    assertThat(map.values().toArray()).asList().containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void iteratorRemove_withCollidingKeys_visitsEveryEntry() {
+    // All keys hash to the same bucket, so removals shift entries around the
+    // end of the table
+    OpenHashMap<CollidingKey, Integer> colliding = new OpenHashMap<>(8);
+    for (int i = 0; i < 8; i++) {
+      colliding.put(new CollidingKey(i), i);
+    }
+
+    int visited = 0;
+    Iterator<Map.Entry<CollidingKey, Integer>> iter = colliding.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<CollidingKey, Integer> entry = iter.next();
+      visited++;
+      if (entry.getValue() % 2 == 0) {
+        iter.remove();
+      }
+    }
+
+    assertThat(visited).isEqualTo(8);
+    assertThat(colliding.size()).isEqualTo(4);
+    for (int i = 0; i < 8; i++) {
+      assertThat(colliding.containsKey(new CollidingKey(i))).isEqualTo(i % 2 == 1);
+    }
+  }
+
+  @Test
+  public void randomOperations_matchJavaHashMap() {
+    Random random = new Random(1234);
+    OpenHashMap<Integer, Integer> actual = new OpenHashMap<>();
+    java.util.HashMap<Integer, Integer> expected = new java.util.HashMap<>();
+    for (int i = 0; i < 20000; i++) {
+      int key = random.nextInt(500);
+      if (random.nextBoolean()) {
+        assertThat(actual.put(key, i)).isEqualTo(expected.put(key, i));
+      } else {
+        assertThat(actual.remove(key)).isEqualTo(expected.remove(key));
+      }
+      assertThat(actual.size()).isEqualTo(expected.size());
+    }
+    for (int key = 0; key < 500; key++) {
+      assertThat(actual.get(key)).isEqualTo(expected.get(key));
+    }
+  }
+
+  @Test
+  public void iteratorRemove_withRandomKeys_visitsEveryEntry() {
+    Random random = new Random(5678);
+    for (int round = 0; round < 50; round++) {
+      OpenHashMap<Integer, Integer> actual = new OpenHashMap<>();
+      int count = 1 + random.nextInt(200);
+      for (int i = 0; i < count; i++) {
+        actual.put(random.nextInt(), i);
+      }
+      int originalSize = actual.size();
+      int size = originalSize;
+
+      java.util.HashSet<Integer> seen = new java.util.HashSet<>();
+      Iterator<Map.Entry<Integer, Integer>> iter = actual.entrySet().iterator();
+      while (iter.hasNext()) {
+        Map.Entry<Integer, Integer> entry = iter.next();
+        assertThat(seen.add(entry.getKey())).isTrue();
+        if (random.nextBoolean()) {
+          iter.remove();
+          size--;
+        }
+      }
+
+      assertThat(actual.size()).isEqualTo(size);
+      assertThat(seen.size()).isEqualTo(originalSize);
+    }
+  }
+
+  private static final class CollidingKey {
+    private final int id;
+
+    CollidingKey(int id) {
+      this.id = id;
+    }
+
+    @Override
+    public int hashCode() {
+      return 42;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof CollidingKey && ((CollidingKey) obj).id == id;
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class ParallelMergeSortTest {
+
+  private static ForkJoinPool pool;
+
+  @BeforeClass
+  public static void setupPool() {
+    // The machine running the tests may have a single core, so force several
+    // workers to exercise the parallel merge
+    pool = new ForkJoinPool(4);
+  }
+
+  @AfterClass
+  public static void shutdownPool() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void sort_isStable() {
+    Random random = new Random(22);
+    for (int keys : new int[] {3, 1000000}) {
+      int[][] items = new int[200000][];
+      for (int i = 0; i < items.length; i++) {
+        items[i] = new int[] {random.nextInt(keys), i};
+      }
+      int[][] expected = items.clone();
+      java.util.Arrays.sort(expected, (a, b) -> Integer.compare(a[0], b[0]));
+
+      ParallelMergeSort.sort(items, 0, items.length, (a, b) -> Integer.compare(a[0], b[0]), pool);
+
+      for (int i = 0; i < items.length; i++) {
+        assertThat(items[i]).isSameAs(expected[i]);
+      }
+    }
+  }
+
+  @Test
+  public void sort_withRange_sortsOnlyRange() {
+    Integer[] array = new Integer[100000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = array.length - i;
+    }
+
+    ParallelMergeSort.sort(array, 10, array.length - 10, Comparator.NATURAL_ORDER, pool);
+
+    assertThat(array[0]).isEqualTo(array.length);
+    assertThat(array[9]).isEqualTo(array.length - 9);
+    for (int i = 10; i < array.length - 10; i++) {
+      assertThat(array[i]).isEqualTo(i + 1);
+    }
+    assertThat(array[array.length - 1]).isEqualTo(1);
+  }
+}
@@ -0,0 +1,92 @@
+package com.hopkins.collections;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class SortedIndexTest {
+
+  @Test
+  public void indexOf_withInts_findsEveryKey() {
+    for (int size = 0; size < 70; size++) {
+      int[] keys = new int[size];
+      for (int i = 0; i < size; i++) {
+        keys[i] = 2 * i;
+      }
+      SortedIndex.OfInt index = SortedIndex.of(keys);
+
+      assertThat(index.size()).isEqualTo(size);
+      for (int i = 0; i < size; i++) {
+        assertThat(index.indexOf(2 * i)).isEqualTo(i);
+        assertThat(index.indexOf(2 * i + 1)).isEqualTo(List.INDEX_NOT_FOUND);
+      }
+      assertThat(index.indexOf(-1)).isEqualTo(List.INDEX_NOT_FOUND);
+    }
+  }
+
+  @Test
+  public void lowerBound_withInts_matchesLinearScan() {
+    Random random = new Random(25);
+    int[] keys = new int[1000];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextInt(500) - 250;
+    }
+    Arrays.sort(keys);
+    SortedIndex.OfInt index = SortedIndex.of(keys);
+
+    for (int key = -260; key <= 260; key++) {
+      int expected = 0;
+      while (expected < keys.length && keys[expected] < key) {
+        expected++;
+      }
+      assertThat(index.lowerBound(key)).isEqualTo(expected);
+      int position = index.indexOf(key);
+      if (expected < keys.length && keys[expected] == key) {
+        // Duplicates resolve to the first
+        assertThat(position).isEqualTo(expected);
+      } else {
+        assertThat(position).isEqualTo(List.INDEX_NOT_FOUND);
+      }
+    }
+  }
+
+  @Test
+  public void indexOf_withLongs_handlesExtremes() {
+    long[] keys = {Long.MIN_VALUE, -5, 0, 1L << 40, Long.MAX_VALUE};
+    SortedIndex.OfLong index = SortedIndex.of(keys);
+
+    for (int i = 0; i < keys.length; i++) {
+      assertThat(index.indexOf(keys[i])).isEqualTo(i);
+    }
+    assertThat(index.indexOf(1)).isEqualTo(List.INDEX_NOT_FOUND);
+    assertThat(index.lowerBound(1)).isEqualTo(3);
+    assertThat(index.lowerBound(Long.MAX_VALUE)).isEqualTo(4);
+  }
+
+  @Test
+  public void indexOf_withObjects_usesComparator() {
+    String[] keys = {"pear", "kiwi", "fig", "apple"};
+    SortedIndex.OfObject<String> index = SortedIndex.of(keys, Collections.reverseOrder());
+
+    assertThat(index.indexOf("fig")).isEqualTo(2);
+    assertThat(index.indexOf("plum")).isEqualTo(List.INDEX_NOT_FOUND);
+    assertThat(index.lowerBound("banana")).isEqualTo(3);
+    assertThat(index.lowerBound("zebra")).isEqualTo(0);
+  }
+
+  @Test
+  public void of_copiesKeys() {
+    int[] keys = {1, 2, 3};
+    SortedIndex.OfInt index = SortedIndex.of(keys);
+
+    keys[1] = 5;
+
+    assertThat(index.indexOf(2)).isEqualTo(1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void of_withUnsortedKeys_throws() {
+    SortedIndex.of(new long[] {1, 3, 2});
+  }
+}
@@ -92,4 +92,20 @@ public class SparseArrayTest {
     assertThat(empty.getKeys()).asList().containsExactly(0, 5).inOrder();
     assertThat(empty.getValues()).asList().containsExactly("zero", "five").inOrder();
   }
+
+  @Test
+  public void put_manyKeysOutOfOrder_keepsKeysSorted() {
+    for (int i = 0; i < 200; i++) {
+      int key = (i * 37) % 200 - 100;
+      empty.put(key, String.valueOf(key));
+    }
+
+    assertThat(empty.size()).isEqualTo(200);
+    int[] keys = empty.getKeys();
+    for (int i = 0; i < 200; i++) {
+      assertThat(keys[i]).isEqualTo(i - 100);
+      assertThat(empty.indexOfKey(i - 100)).isEqualTo(i);
+    }
+    assertThat(empty.indexOfKey(100)).isEqualTo(-1);
+  }
 }
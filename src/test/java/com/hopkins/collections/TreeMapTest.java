@@ -2,6 +2,7 @@ package com.hopkins.collections;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -99,6 +100,98 @@ public class TreeMapTest {
     assertThat(map.size()).isEqualTo(2);
   }
 
+  @Test
+  public void remove_withThreeChildParent() {
+    map.put("a", 1);
+    map.put("b", 2);
+    map.put("c", 3);
+
+    assertThat(map.remove("c")).isEqualTo(3);
+    assertThat(map.remove("b")).isEqualTo(2);
+    assertThat(map.get("a")).isEqualTo(1);
+    assertThat(map.containsKey("b")).isFalse();
+    assertThat(map.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void remove_largestKey_updatesPivots() {
+    TreeMap<Integer, Integer> ints = new TreeMap<>();
+    for (int i = 0; i < 100; i++) {
+      ints.put(i, i);
+    }
+    // Removing keys from the high end of each subtree forces the ancestors
+    // to replace pivots with predecessors
+    for (int i = 99; i >= 0; i -= 2) {
+      assertThat(ints.remove(i)).isEqualTo(i);
+    }
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(ints.get(i)).isEqualTo(i % 2 == 0 ? i : null);
+    }
+  }
+
+  @Test
+  public void remove_allKeys_shrinksTree() {
+    TreeMap<Integer, Integer> ints = new TreeMap<>();
+    for (int i = 0; i < 1000; i++) {
+      ints.put(i, i);
+    }
+    assertThat(ints.height()).isAtMost(11);
+
+    for (int i = 0; i < 1000; i++) {
+      assertThat(ints.remove(i)).isEqualTo(i);
+      // A 2-3 tree with n leaves has at most log2(n) + 1 levels
+      int size = ints.size();
+      assertThat(ints.height()).isAtMost(size == 0 ? 0 : 33 - Integer.numberOfLeadingZeros(size));
+    }
+    assertThat(ints.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void iteratorRemove_removesEntries() {
+    TreeMap<Integer, Integer> ints = new TreeMap<>();
+    for (int i = 0; i < 200; i++) {
+      ints.put(i, i);
+    }
+
+    int visited = 0;
+    Iterator<Map.Entry<Integer, Integer>> iter = ints.entrySet().iterator();
+    while (iter.hasNext()) {
+      Map.Entry<Integer, Integer> entry = iter.next();
+      assertThat(entry.getKey()).isEqualTo(visited);
+      visited++;
+      if (entry.getKey() % 3 != 0) {
+        iter.remove();
+      }
+    }
+
+    assertThat(visited).isEqualTo(200);
+    assertThat(ints.size()).isEqualTo(67);
+  }
+
+  @Test
+  public void randomOperations_matchJavaTreeMap() {
+    Random random = new Random(1234);
+    TreeMap<Integer, Integer> actual = new TreeMap<>();
+    java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+    for (int i = 0; i < 20000; i++) {
+      int key = random.nextInt(500);
+      if (random.nextInt(3) > 0) {
+        assertThat(actual.put(key, i)).isEqualTo(expected.put(key, i));
+      } else {
+        assertThat(actual.remove(key)).isEqualTo(expected.remove(key));
+      }
+      assertThat(actual.size()).isEqualTo(expected.size());
+    }
+
+    for (int key = 0; key < 500; key++) {
+      assertThat(actual.get(key)).isEqualTo(expected.get(key));
+    }
+    assertThat(actual.keySet().toArray()).asList()
+        .containsExactlyElementsIn(expected.keySet())
+        .inOrder();
+  }
+
   @Test
   public void containsKey() {
     assertThat(map.containsKey("one")).isFalse();
@@ -207,4 +300,129 @@ public class TreeMapTest {
     System.err.println("\n[[ Seven Item TreeMap ]]");
     System.err.println(map.debugString());
   }
+
+  @Test
+  public void firstKey_lastKey() {
+    map.put("b", 2);
+    map.put("a", 1);
+    map.put("c", 3);
+
+    assertThat(map.firstKey()).isEqualTo("a");
+    assertThat(map.lastKey()).isEqualTo("c");
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void firstKey_whenEmpty_throws() {
+    map.firstKey();
+  }
+
+  @Test
+  public void floorKey_ceilingKey_higherKey_lowerKey() {
+    TreeMap<Integer, Integer> ints = new TreeMap<>();
+    for (int i = 0; i < 100; i += 10) {
+      ints.put(i, i);
+    }
+
+    assertThat(ints.floorKey(25)).isEqualTo(20);
+    assertThat(ints.floorKey(20)).isEqualTo(20);
+    assertThat(ints.floorKey(-1)).isNull();
+    assertThat(ints.ceilingKey(25)).isEqualTo(30);
+    assertThat(ints.ceilingKey(30)).isEqualTo(30);
+    assertThat(ints.ceilingKey(91)).isNull();
+    assertThat(ints.higherKey(30)).isEqualTo(40);
+    assertThat(ints.higherKey(90)).isNull();
+    assertThat(ints.lowerKey(30)).isEqualTo(20);
+    assertThat(ints.lowerKey(0)).isNull();
+  }
+
+  @Test
+  public void subMap_isLiveView() {
+    TreeMap<Integer, Integer> ints = new TreeMap<>();
+    for (int i = 0; i < 100; i++) {
+      ints.put(i, i);
+    }
+    NavigableMap<Integer, Integer> sub = ints.subMap(10, 20);
+
+    assertThat(sub.size()).isEqualTo(10);
+    assertThat(sub.firstKey()).isEqualTo(10);
+    assertThat(sub.lastKey()).isEqualTo(19);
+    assertThat(sub.containsKey(20)).isFalse();
+    assertThat(sub.get(5)).isNull();
+    assertThat(sub.floorKey(50)).isEqualTo(19);
+    assertThat(sub.ceilingKey(0)).isEqualTo(10);
+
+    ints.remove(15);
+    sub.remove(10);
+    assertThat(sub.size()).isEqualTo(8);
+    assertThat(ints.containsKey(10)).isFalse();
+    assertThat(sub.keySet().toArray()).asList()
+        .containsExactly(11, 12, 13, 14, 16, 17, 18, 19)
+        .inOrder();
+
+    sub.clear();
+    assertThat(sub.isEmpty()).isTrue();
+    assertThat(ints.size()).isEqualTo(90);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void subMapPut_outOfRange_throws() {
+    TreeMap<Integer, Integer> ints = new TreeMap<>();
+
+    ints.subMap(10, 20).put(20, 0);
+  }
+
+  @Test
+  public void headMap_tailMap() {
+    TreeMap<Integer, Integer> ints = new TreeMap<>();
+    for (int i = 0; i < 10; i++) {
+      ints.put(i, i);
+    }
+
+    assertThat(ints.headMap(3).keySet().toArray()).asList().containsExactly(0, 1, 2).inOrder();
+    assertThat(ints.headMap(3, true).lastKey()).isEqualTo(3);
+    assertThat(ints.tailMap(7).keySet().toArray()).asList().containsExactly(7, 8, 9).inOrder();
+    assertThat(ints.tailMap(7, false).firstKey()).isEqualTo(8);
+    assertThat(ints.tailMap(2).headMap(5).keySet().toArray()).asList()
+        .containsExactly(2, 3, 4)
+        .inOrder();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void nestedView_outsideRange_throws() {
+    TreeMap<Integer, Integer> ints = new TreeMap<>();
+
+    ints.subMap(10, 20).headMap(30);
+  }
+
+  @Test
+  public void subMap_matchesJavaTreeMap() {
+    Random random = new Random(5678);
+    TreeMap<Integer, Integer> actual = new TreeMap<>();
+    java.util.TreeMap<Integer, Integer> expected = new java.util.TreeMap<>();
+    for (int i = 0; i < 500; i++) {
+      int key = random.nextInt(1000);
+      actual.put(key, i);
+      expected.put(key, i);
+    }
+
+    for (int i = 0; i < 500; i++) {
+      int from = random.nextInt(1000);
+      int to = from + random.nextInt(200);
+      boolean fromInclusive = random.nextBoolean();
+      boolean toInclusive = random.nextBoolean();
+      NavigableMap<Integer, Integer> sub = actual.subMap(from, fromInclusive, to, toInclusive);
+      java.util.NavigableMap<Integer, Integer> expectedSub =
+          expected.subMap(from, fromInclusive, to, toInclusive);
+
+      assertThat(sub.size()).isEqualTo(expectedSub.size());
+      int probe = random.nextInt(1400) - 200;
+      assertThat(sub.floorKey(probe)).isEqualTo(expectedSub.floorKey(probe));
+      assertThat(sub.ceilingKey(probe)).isEqualTo(expectedSub.ceilingKey(probe));
+      assertThat(sub.higherKey(probe)).isEqualTo(expectedSub.higherKey(probe));
+      assertThat(sub.lowerKey(probe)).isEqualTo(expectedSub.lowerKey(probe));
+      assertThat(sub.keySet().toArray()).asList()
+          .containsExactlyElementsIn(expectedSub.keySet())
+          .inOrder();
+    }
+  }
 }
@@ -1,7 +1,12 @@
 package com.hopkins.collections.stream;
 
+import com.hopkins.collections.ConcurrentHashMap;
 import com.hopkins.collections.List;
 import com.hopkins.collections.Map;
+import com.hopkins.collections.Optional;
+import com.hopkins.collections.Set;
+import com.hopkins.collections.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Test;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -71,4 +76,203 @@ public class CollectorsTest {
     assertThat(result.get("s").toArray()).asList().containsExactly("sarah", "stanislov");
     assertThat(result.get("z").toArray()).asList().containsExactly("zola");
   }
+
+  @Test
+  public void topK() {
+    List<String> result = names.collect(Collectors.topK(3, (a, b) -> Integer.compare(a.length(), b.length())));
+
+    assertThat(result.toArray()).asList()
+        .containsExactly("bj", "bob", "anna")
+        .inOrder();
+  }
+
+  @Test
+  public void joining_withEmptyItems() {
+    String result = Stream.of("", "a", "").collect(Collectors.joining(","));
+
+    assertThat(result).isEqualTo(",a,");
+  }
+
+  @Test
+  public void joining_withDelimiter_accumulatesIntoStringBuilder() {
+    Collector<String, StringBuilder, String> collector = Collectors.joining(",", "[", "]");
+
+    String result = Stream.of("a", "b").collect(collector);
+
+    assertThat(result).isEqualTo("[a,b]");
+  }
+
+  @Test
+  public void joining_withPrefixAndSuffix_withEmpty() {
+    String result = Stream.<String>empty().collect(Collectors.joining(", ", "[", "]"));
+
+    assertThat(result).isEqualTo("[]");
+  }
+
+  @Test
+  public void characteristics() {
+    assertThat(Collectors.toList().characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)).isTrue();
+    assertThat(Collectors.toSet().characteristics().contains(Collector.Characteristics.UNORDERED)).isTrue();
+    assertThat(Collectors.counting().characteristics().contains(Collector.Characteristics.IDENTITY_FINISH))
+        .isFalse();
+  }
+
+  @Test
+  public void parallel_collect_combinesPieces() {
+    Integer[] numbers = new Integer[20000];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = i;
+    }
+
+    List<Integer> list = Stream.of(numbers).parallel().collect(Collectors.toList());
+    Set<Integer> set = Stream.of(numbers).parallel().map(i -> i % 100).collect(Collectors.toSet());
+    long count = Stream.of(numbers).parallel().filter(i -> i % 3 == 0).collect(Collectors.counting());
+    String joined = Stream.of(numbers).parallel().limit(5).map(String::valueOf).collect(Collectors.joining(","));
+    Map<Integer, List<Integer>> groups =
+        Stream.of(numbers).parallel().collect(Collectors.groupingBy(i -> i % 3));
+
+    assertThat(list.size()).isEqualTo(numbers.length);
+    for (int i = 0; i < numbers.length; i++) {
+      assertThat(list.get(i)).isEqualTo(i);
+    }
+    assertThat(set.size()).isEqualTo(100);
+    assertThat(count).isEqualTo(6667);
+    assertThat(joined).isEqualTo("0,1,2,3,4");
+    assertThat(groups.get(1).size()).isEqualTo(6667);
+    for (int i = 0; i < groups.get(2).size(); i++) {
+      assertThat(groups.get(2).get(i)).isEqualTo(3 * i + 2);
+    }
+  }
+
+  @Test
+  public void parallel_collect_withConcurrentCollector_sharesOneContainer() {
+    Integer[] numbers = new Integer[20000];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = i;
+    }
+    AtomicInteger containers = new AtomicInteger();
+    Collector<Integer, ConcurrentHashMap<Integer, Integer>, ConcurrentHashMap<Integer, Integer>> collector =
+        Collector.of(
+            () -> {
+              containers.incrementAndGet();
+              return new ConcurrentHashMap<>();
+            },
+            (map, item) -> map.put(item, item),
+            (left, right) -> {
+              left.putAll(right);
+              return left;
+            },
+            Collector.Characteristics.CONCURRENT,
+            Collector.Characteristics.UNORDERED);
+
+    ConcurrentHashMap<Integer, Integer> result = Stream.of(numbers).parallel().collect(collector);
+
+    assertThat(result.size()).isEqualTo(numbers.length);
+    assertThat(containers.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void groupingBy_withNullKey_groupsUnderNull() {
+    Map<String, List<String>> result =
+        names.collect(Collectors.groupingBy(item -> item.startsWith("s") ? null : "other"));
+
+    assertThat(result.get(null).toArray()).asList().containsExactly("sarah", "stanislov").inOrder();
+    assertThat(result.get("other").toArray()).asList().containsExactly("anna", "bob", "bj", "zola").inOrder();
+  }
+
+  @Test
+  public void groupingBy_withDownstream() {
+    Map<Integer, Long> result = names.collect(Collectors.groupingBy(String::length, Collectors.counting()));
+
+    assertThat(result.get(2)).isEqualTo(1);
+    assertThat(result.get(3)).isEqualTo(1);
+    assertThat(result.get(4)).isEqualTo(2);
+    assertThat(result.get(5)).isEqualTo(1);
+    assertThat(result.get(9)).isEqualTo(1);
+  }
+
+  @Test
+  public void groupingBy_withMapFactory() {
+    TreeMap<String, String> result = names.collect(Collectors.groupingBy(
+        item -> item.substring(0, 1), TreeMap::new, Collectors.joining("+")));
+
+    assertThat(result.keySet().toArray()).asList().containsExactly("a", "b", "s", "z").inOrder();
+    assertThat(result.get("b")).isEqualTo("bob+bj");
+    assertThat(result.get("s")).isEqualTo("sarah+stanislov");
+  }
+
+  @Test
+  public void partitioningBy() {
+    Map<Boolean, List<String>> result = names.collect(Collectors.partitioningBy(item -> item.length() > 3));
+    Map<Boolean, Long> empty = Stream.<String>empty().collect(
+        Collectors.partitioningBy(item -> item.isEmpty(), Collectors.counting()));
+
+    assertThat(result.get(true).toArray()).asList()
+        .containsExactly("anna", "sarah", "stanislov", "zola")
+        .inOrder();
+    assertThat(result.get(false).toArray()).asList().containsExactly("bob", "bj").inOrder();
+    assertThat(empty.get(true)).isEqualTo(0);
+    assertThat(empty.get(false)).isEqualTo(0);
+  }
+
+  @Test
+  public void mapping() {
+    String result = names.collect(Collectors.mapping(item -> item.substring(0, 1), Collectors.joining()));
+
+    assertThat(result).isEqualTo("abbssz");
+  }
+
+  @Test
+  public void summingLong_averagingDouble() {
+    long sum = names.collect(Collectors.summingLong(String::length));
+    double average = Stream.of(1, 2, 3, 4).collect(Collectors.averagingDouble(item -> item));
+    double emptyAverage = Stream.<Integer>empty().collect(Collectors.averagingDouble(item -> item));
+
+    assertThat(sum).isEqualTo(27);
+    assertThat(average).isEqualTo(2.5);
+    assertThat(emptyAverage).isEqualTo(0.0);
+  }
+
+  @Test
+  public void reducing() {
+    Optional<String> longest =
+        names.collect(Collectors.reducing((a, b) -> b.length() > a.length() ? b : a));
+    Optional<String> none = Stream.<String>empty().collect(Collectors.reducing((a, b) -> a));
+    int total = Stream.of(1, 2, 3).collect(Collectors.reducing(10, Integer::sum));
+    int totalLength = Stream.of("a", "bb").collect(Collectors.reducing(0, String::length, Integer::sum));
+
+    assertThat(longest.get()).isEqualTo("stanislov");
+    assertThat(none.isPresent()).isFalse();
+    assertThat(total).isEqualTo(16);
+    assertThat(totalLength).isEqualTo(3);
+  }
+
+  @Test
+  public void teeing() {
+    String result = names.collect(Collectors.teeing(
+        Collectors.counting(),
+        Collectors.summingLong(String::length),
+        (count, sum) -> count + "/" + sum));
+
+    assertThat(result).isEqualTo("6/27");
+  }
+
+  @Test
+  public void parallel_groupingBy_withSeveralAggregates() {
+    Integer[] numbers = new Integer[30000];
+    for (int i = 0; i < numbers.length; i++) {
+      numbers[i] = i;
+    }
+
+    Map<Integer, Double> averages = Stream.of(numbers).parallel().collect(Collectors.groupingBy(
+        i -> i % 3,
+        Collectors.teeing(
+            Collectors.summingLong(i -> i),
+            Collectors.counting(),
+            (sum, count) -> (double) sum / count)));
+
+    assertThat(averages.get(0)).isEqualTo(14998.5);
+    assertThat(averages.get(1)).isEqualTo(14999.5);
+    assertThat(averages.get(2)).isEqualTo(15000.5);
+  }
 }
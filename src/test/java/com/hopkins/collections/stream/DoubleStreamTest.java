@@ -0,0 +1,51 @@
+package com.hopkins.collections.stream;
+
+import java.util.DoubleSummaryStatistics;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class DoubleStreamTest {
+
+  @Test
+  public void of_toArray() {
+    assertThat(DoubleStream.of(1.5, -2.0).toArray()).isEqualTo(new double[] {1.5, -2.0}, 0.0);
+    assertThat(DoubleStream.empty().toArray()).isEmpty();
+  }
+
+  @Test
+  public void sum_compensatesForRounding() {
+    double[] values = new double[10];
+    java.util.Arrays.fill(values, 0.1);
+
+    assertThat(DoubleStream.of(values).sum()).isEqualTo(1.0);
+  }
+
+  @Test
+  public void min_max_average() {
+    assertThat(DoubleStream.of(2.5, -1.0, 4.0).min().getAsDouble()).isEqualTo(-1.0);
+    assertThat(DoubleStream.of(2.5, -1.0, 4.0).max().getAsDouble()).isEqualTo(4.0);
+    assertThat(DoubleStream.of(1.0, 2.0).average().getAsDouble()).isEqualTo(1.5);
+    assertThat(DoubleStream.empty().max().isPresent()).isFalse();
+  }
+
+  @Test
+  public void summaryStatistics() {
+    DoubleSummaryStatistics statistics = DoubleStream.of(1.0, 2.0, 3.0).summaryStatistics();
+
+    assertThat(statistics.getCount()).isEqualTo(3L);
+    assertThat(statistics.getSum()).isEqualTo(6.0);
+  }
+
+  @Test
+  public void sorted() {
+    assertThat(DoubleStream.of(3.0, -0.5, 1.0).sorted().toArray()).isEqualTo(new double[] {-0.5, 1.0, 3.0}, 0.0);
+  }
+
+  @Test
+  public void streamMapToDouble() {
+    double total = Stream.of(1, 2, 3).mapToDouble(value -> value / 2.0).sum();
+
+    assertThat(total).isEqualTo(3.0);
+  }
+}
@@ -0,0 +1,214 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.ArrayList;
+import com.hopkins.collections.Comparator;
+import com.hopkins.collections.Iterator;
+import com.hopkins.collections.List;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+public class ExternalSorterTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void iterator_mergesSpilledRuns() {
+    Random random = new Random(20);
+    long[] expected = new long[10000];
+    ExternalSorter<Long> sorter =
+        new ExternalSorter<>(Comparator.NATURAL_ORDER, SerializerSpec.longs(), 1000, folder.getRoot());
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = random.nextLong();
+      sorter.add(expected[i]);
+    }
+    java.util.Arrays.sort(expected);
+
+    Iterator<Long> iter = sorter.iterator();
+
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(iter.next()).isEqualTo(expected[i]);
+    }
+    assertThat(iter.hasNext()).isFalse();
+  }
+
+  @Test
+  public void iterator_keepsEqualItemsInOrder() {
+    ExternalSorter<String> sorter = new ExternalSorter<>(
+        (a, b) -> Character.compare(a.charAt(0), b.charAt(0)), SerializerSpec.strings(), 3, folder.getRoot());
+    String[] items = {"b0", "a0", "b1", "a1", "c0", "a2", "b2", "a3"};
+    for (String item : items) {
+      sorter.add(item);
+    }
+
+    Iterator<String> iter = sorter.iterator();
+
+    String[] sorted = new String[items.length];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = iter.next();
+    }
+    assertThat(sorted).asList().containsExactly("a0", "a1", "a2", "a3", "b0", "b1", "b2", "c0").inOrder();
+  }
+
+  @Test
+  public void iterator_deletesRunFilesOnceRead() {
+    ExternalSorter<String> sorter =
+        new ExternalSorter<>(Comparator.NATURAL_ORDER, SerializerSpec.strings(), 10, folder.getRoot());
+    for (int i = 0; i < 100; i++) {
+      sorter.add("item" + (100 - i));
+    }
+    // The last ten items stay in memory
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(9);
+
+    Iterator<String> iter = sorter.iterator();
+    while (iter.hasNext()) {
+      iter.next();
+    }
+
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(0);
+  }
+
+  @Test
+  public void iterator_withMoreRunsThanFanIn_mergesInPasses() {
+    Random random = new Random(21);
+    long[] expected = new long[200000];
+    ExternalSorter<Long> sorter =
+        new ExternalSorter<>(Comparator.NATURAL_ORDER, SerializerSpec.longs(), 100, folder.getRoot());
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = random.nextLong();
+      sorter.add(expected[i]);
+    }
+    java.util.Arrays.sort(expected);
+
+    Iterator<Long> iter = sorter.iterator();
+
+    // The 1999 runs are merged down to 16 before the merge starts
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(16);
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(iter.next()).isEqualTo(expected[i]);
+    }
+    assertThat(iter.hasNext()).isFalse();
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(0);
+  }
+
+  @Test
+  public void close_deletesRunFilesNotReadToTheEnd() {
+    ExternalSorter<String> sorter =
+        new ExternalSorter<>(Comparator.NATURAL_ORDER, SerializerSpec.strings(), 10, folder.getRoot());
+    for (int i = 0; i < 100; i++) {
+      sorter.add("item" + (100 - i));
+    }
+
+    ExternalSorter.MergeIterator<String> iter = sorter.iterator();
+    assertThat(iter.next()).isEqualTo("item1");
+    iter.close();
+
+    assertThat(iter.hasNext()).isFalse();
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(0);
+  }
+
+  @Test
+  public void add_whenWriteFails_deletesRunFiles() {
+    SerializerSpec<String> failing = new SerializerSpec<String>() {
+      private int writes;
+
+      @Override
+      public void write(String item, DataOutput out) throws IOException {
+        if (++writes > 25) {
+          throw new IOException("disk full");
+        }
+        SerializerSpec.strings().write(item, out);
+      }
+
+      @Override
+      public String read(DataInput in) throws IOException {
+        return SerializerSpec.strings().read(in);
+      }
+    };
+    ExternalSorter<String> sorter = new ExternalSorter<>(Comparator.NATURAL_ORDER, failing, 10, folder.getRoot());
+
+    try {
+      for (int i = 0; i < 100; i++) {
+        sorter.add("item" + i);
+      }
+      fail();
+    } catch (UncheckedIOException expected) {
+      assertThat(expected.getCause().getMessage()).isEqualTo("disk full");
+    }
+
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(0);
+  }
+
+  @Test
+  public void sink_whenDownstreamCancels_deletesRunFiles() {
+    List<Long> found = new ArrayList<>();
+    Sink<Long> first = new Sink<Long>() {
+      @Override
+      public void accept(Long item) {
+        found.add(item);
+      }
+
+      @Override
+      public boolean cancellationRequested() {
+        return !found.isEmpty();
+      }
+    };
+    ExternalSortSink<Long> sink =
+        new ExternalSortSink<>(first, Comparator.NATURAL_ORDER, SerializerSpec.longs(), 100, folder.getRoot());
+
+    sink.begin(Sink.UNKNOWN_SIZE);
+    for (long i = 0; i < 50000; i++) {
+      sink.accept(Long.valueOf(49999 - i));
+    }
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(499);
+    sink.end();
+
+    assertThat(found.size()).isEqualTo(1);
+    assertThat(found.get(0)).isEqualTo(0L);
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(0);
+  }
+
+  @Test
+  public void sink_close_beforeEnd_deletesRunFiles() {
+    ExternalSortSink<String> sink = new ExternalSortSink<>(
+        item -> { }, Comparator.NATURAL_ORDER, SerializerSpec.strings(), 10, folder.getRoot());
+    sink.begin(Sink.UNKNOWN_SIZE);
+    for (int i = 0; i < 100; i++) {
+      sink.accept("item" + i);
+    }
+
+    sink.close();
+
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(0);
+  }
+
+  @Test
+  public void sortIterator_close_deletesRunFilesNotReadToTheEnd() {
+    List<String> items = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      items.add("item" + (100 - i));
+    }
+    ExternalSortIterator<String> iter = new ExternalSortIterator<>(
+        items.iterator(), Comparator.NATURAL_ORDER, SerializerSpec.strings(), 10, folder.getRoot());
+
+    assertThat(iter.next()).isEqualTo("item1");
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(9);
+    iter.close();
+
+    assertThat(countRunFiles(folder.getRoot())).isEqualTo(0);
+  }
+
+  private static int countRunFiles(File dir) {
+    File[] files = dir.listFiles((parent, name) -> name.startsWith("stream-sort") && name.endsWith(".run"));
+    return files == null ? 0 : files.length;
+  }
+}
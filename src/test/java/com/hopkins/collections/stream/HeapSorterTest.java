@@ -0,0 +1,66 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Comparator;
+import com.hopkins.collections.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class HeapSorterTest {
+
+  @Test
+  public void next_returnsItemsInOrder() {
+    Random random = new Random(1234);
+    Integer[] items = new Integer[1000];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = random.nextInt(200);
+    }
+    Integer[] expected = items.clone();
+    java.util.Arrays.sort(expected);
+
+    HeapSorter<Integer> sorter = new HeapSorter<>(items, Comparator.NATURAL_ORDER);
+
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(sorter.remaining()).isEqualTo(expected.length - i);
+      assertThat(sorter.next()).isEqualTo(expected[i]);
+    }
+    assertThat(sorter.hasNext()).isFalse();
+  }
+
+  @Test
+  public void next_keepsEqualItemsInOrder() {
+    String[] items = {"b1", "a1", "b2", "a2", "c1", "a3", "b3"};
+
+    HeapSorter<String> sorter =
+        new HeapSorter<>(items, (a, b) -> Character.compare(a.charAt(0), b.charAt(0)));
+
+    String[] sorted = new String[items.length];
+    for (int i = 0; i < sorted.length; i++) {
+      sorted[i] = sorter.next();
+    }
+    assertThat(sorted).asList().containsExactly("a1", "a2", "a3", "b1", "b2", "b3", "c1").inOrder();
+  }
+
+  @Test
+  public void next_comparesInLinearTimeForTheFirstItem() {
+    long[] compares = {0};
+    Integer[] items = new Integer[10000];
+    for (int i = 0; i < items.length; i++) {
+      items[i] = items.length - i;
+    }
+
+    HeapSorter<Integer> sorter = new HeapSorter<>(items, (a, b) -> {
+      compares[0]++;
+      return Integer.compare(a, b);
+    });
+
+    assertThat(sorter.next()).isEqualTo(1);
+    assertThat(compares[0]).isLessThan(3L * items.length);
+  }
+
+  @Test(expected = NoSuchElementException.class)
+  public void next_whenEmpty_throws() {
+    new HeapSorter<>(new Integer[0], Comparator.NATURAL_ORDER).next();
+  }
+}
@@ -0,0 +1,193 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Iterator;
+
+import java.util.IntSummaryStatistics;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class IntStreamTest {
+
+  @Test
+  public void range() {
+    assertThat(IntStream.range(0, 5).toArray()).isEqualTo(new int[] {0, 1, 2, 3, 4});
+    assertThat(IntStream.range(5, 5).toArray()).isEmpty();
+    assertThat(IntStream.rangeClosed(-2, 2).toArray()).isEqualTo(new int[] {-2, -1, 0, 1, 2});
+  }
+
+  @Test
+  public void rangeClosed_atMaxValue_stops() {
+    assertThat(IntStream.rangeClosed(Integer.MAX_VALUE - 1, Integer.MAX_VALUE).count()).isEqualTo(2L);
+  }
+
+  @Test
+  public void filterMapSorted() {
+    int[] values = IntStream.of(9, 4, 7, 2, 8, 1)
+        .filter(value -> value % 2 == 0)
+        .map(value -> value * 10)
+        .sorted()
+        .toArray();
+
+    assertThat(values).isEqualTo(new int[] {20, 40, 80});
+  }
+
+  @Test
+  public void limitAndSkip() {
+    assertThat(IntStream.range(0, 100).skip(10).limit(3).toArray()).isEqualTo(new int[] {10, 11, 12});
+  }
+
+  @Test
+  public void limit_stopsReadingTheSource() {
+    AtomicInteger reads = new AtomicInteger();
+
+    IntStream.range(0, 1000).peek(value -> reads.incrementAndGet()).limit(5).toArray();
+
+    assertThat(reads.get()).isEqualTo(5);
+  }
+
+  @Test
+  public void sum_min_max_average() {
+    assertThat(IntStream.rangeClosed(1, 100).sum()).isEqualTo(5050);
+    assertThat(IntStream.of(3, -1, 7).min().getAsInt()).isEqualTo(-1);
+    assertThat(IntStream.of(3, -1, 7).max().getAsInt()).isEqualTo(7);
+    assertThat(IntStream.of(1, 2).average().getAsDouble()).isEqualTo(1.5);
+    assertThat(IntStream.empty().min().isPresent()).isFalse();
+    assertThat(IntStream.empty().average().isPresent()).isFalse();
+  }
+
+  @Test
+  public void summaryStatistics() {
+    IntSummaryStatistics statistics = IntStream.of(4, 8, 15, 16, 23, 42).summaryStatistics();
+
+    assertThat(statistics.getCount()).isEqualTo(6L);
+    assertThat(statistics.getSum()).isEqualTo(108L);
+    assertThat(statistics.getMin()).isEqualTo(4);
+    assertThat(statistics.getMax()).isEqualTo(42);
+  }
+
+  @Test
+  public void matchAndFindFirst() {
+    assertThat(IntStream.range(0, 10).anyMatch(value -> value == 9)).isTrue();
+    assertThat(IntStream.range(0, 10).allMatch(value -> value < 10)).isTrue();
+    assertThat(IntStream.range(0, 10).noneMatch(value -> value > 5)).isFalse();
+    assertThat(IntStream.range(5, 10).findFirst().getAsInt()).isEqualTo(5);
+    assertThat(IntStream.empty().findFirst().isPresent()).isFalse();
+  }
+
+  @Test
+  public void reduce() {
+    assertThat(IntStream.rangeClosed(1, 5).reduce(1, (a, b) -> a * b)).isEqualTo(120);
+    assertThat(IntStream.rangeClosed(1, 5).reduce((a, b) -> a * b).getAsInt()).isEqualTo(120);
+  }
+
+  @Test
+  public void mapToObj_andBoxed() {
+    Object[] names = IntStream.range(0, 3).mapToObj(value -> "item " + value).toArray();
+    Object[] boxed = IntStream.range(0, 3).boxed().toArray();
+
+    assertThat(names).asList().containsExactly("item 0", "item 1", "item 2").inOrder();
+    assertThat(boxed).asList().containsExactly(0, 1, 2).inOrder();
+  }
+
+  @Test
+  public void mapToObj_iterator_readsBufferedItems() {
+    Iterator<Integer> iter = IntStream.range(0, 3).boxed().iterator();
+
+    assertThat(iter.next()).isEqualTo(0);
+    assertThat(iter.next()).isEqualTo(1);
+    assertThat(iter.next()).isEqualTo(2);
+    assertThat(iter.hasNext()).isFalse();
+  }
+
+  @Test
+  public void mapToObj_thenLimit_stopsReadingTheSource() {
+    AtomicInteger reads = new AtomicInteger();
+
+    Object[] items = IntStream.range(0, 1000)
+        .peek(value -> reads.incrementAndGet())
+        .boxed()
+        .limit(3)
+        .toArray();
+
+    assertThat(items).asList().containsExactly(0, 1, 2).inOrder();
+    assertThat(reads.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void streamMapToInt() {
+    int total = Stream.of("a", "bb", "ccc").mapToInt(String::length).sum();
+
+    assertThat(total).isEqualTo(6);
+  }
+
+  @Test
+  public void asLongStream_asDoubleStream() {
+    assertThat(IntStream.of(Integer.MAX_VALUE, 1).asLongStream().sum()).isEqualTo(Integer.MAX_VALUE + 1L);
+    assertThat(IntStream.of(1, 2).asDoubleStream().toArray()).isEqualTo(new double[] {1.0, 2.0}, 0.0);
+  }
+
+  @Test
+  public void toArray_largeStream() {
+    int[] values = IntStream.range(0, 100000).toArray();
+
+    assertThat(values.length).isEqualTo(100000);
+    for (int i = 0; i < values.length; i++) {
+      assertThat(values[i]).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void boxed_iterator_readsTheRangeLazily() {
+    Iterator<Integer> iter = IntStream.range(0, Integer.MAX_VALUE).boxed().iterator();
+
+    assertThat(iter.next()).isEqualTo(0);
+    assertThat(iter.next()).isEqualTo(1);
+  }
+
+  @Test
+  public void boxed_parallel_anyMatch_overHugeRange() {
+    assertThat(IntStream.range(0, Integer.MAX_VALUE).boxed().parallel().anyMatch(x -> x == 5)).isTrue();
+  }
+
+  @Test
+  public void boxed_insideFlatMap_readsTheRangeLazily() {
+    Iterator<Integer> iter = Stream.of(1, 2)
+        .flatMap(x -> IntStream.range(0, Integer.MAX_VALUE).boxed())
+        .iterator();
+
+    assertThat(iter.next()).isEqualTo(0);
+  }
+
+  @Test
+  public void filter_thenMapToObj_iterator_readsLazily() {
+    AtomicInteger reads = new AtomicInteger();
+    Iterator<String> iter = IntStream.range(0, Integer.MAX_VALUE)
+        .peek(value -> reads.incrementAndGet())
+        .filter(value -> value % 3 == 2)
+        .mapToObj(String::valueOf)
+        .iterator();
+
+    assertThat(iter.next()).isEqualTo("2");
+    assertThat(iter.next()).isEqualTo("5");
+    assertThat(reads.get()).isEqualTo(6);
+    assertThat(iter.hasNext()).isTrue();
+  }
+
+  @Test
+  public void of_boxed_iterator_endsAfterLastValue() {
+    Iterator<Integer> iter = IntStream.of(3, 1).map(value -> value * 2).boxed().iterator();
+
+    assertThat(iter.next()).isEqualTo(6);
+    assertThat(iter.next()).isEqualTo(2);
+    assertThat(iter.hasNext()).isFalse();
+  }
+
+  @Test
+  public void boxed_parallel_sum_matchesSequential() {
+    long sum = IntStream.range(0, 100000).boxed().parallel().mapToLong(Integer::longValue).sum();
+
+    assertThat(sum).isEqualTo(100000L * 99999L / 2);
+  }
+}
@@ -0,0 +1,71 @@
+package com.hopkins.collections.stream;
+
+import com.hopkins.collections.Iterator;
+
+import java.util.LongSummaryStatistics;
+import org.junit.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LongStreamTest {
+
+  @Test
+  public void range() {
+    assertThat(LongStream.range(0, 4).toArray()).isEqualTo(new long[] {0, 1, 2, 3});
+    assertThat(LongStream.rangeClosed(Long.MAX_VALUE - 1, Long.MAX_VALUE).count()).isEqualTo(2L);
+  }
+
+  @Test
+  public void rangeClosed_widerThanLongMaxValue_isCancellable() {
+    assertThat(LongStream.rangeClosed(Long.MIN_VALUE, Long.MAX_VALUE).limit(3).toArray())
+        .isEqualTo(new long[] {Long.MIN_VALUE, Long.MIN_VALUE + 1, Long.MIN_VALUE + 2});
+  }
+
+  @Test
+  public void sum_min_max_average() {
+    assertThat(LongStream.rangeClosed(1, 1000000).sum()).isEqualTo(500000500000L);
+    assertThat(LongStream.of(5, 1, 3).min().getAsLong()).isEqualTo(1L);
+    assertThat(LongStream.of(5, 1, 3).max().getAsLong()).isEqualTo(5L);
+    assertThat(LongStream.of(1, 2, 3, 4).average().getAsDouble()).isEqualTo(2.5);
+  }
+
+  @Test
+  public void summaryStatistics() {
+    LongSummaryStatistics statistics = LongStream.of(10, 20, 30).summaryStatistics();
+
+    assertThat(statistics.getCount()).isEqualTo(3L);
+    assertThat(statistics.getSum()).isEqualTo(60L);
+    assertThat(statistics.getMax()).isEqualTo(30L);
+  }
+
+  @Test
+  public void filterMapSorted() {
+    long[] values = LongStream.of(30, 10, 25, 20).filter(value -> value % 10 == 0).map(value -> -value).sorted().toArray();
+
+    assertThat(values).isEqualTo(new long[] {-30, -20, -10});
+  }
+
+  @Test
+  public void streamMapToLong_andBoxed() {
+    Object[] items = Stream.of("a", "bb").mapToLong(String::length).boxed().toArray();
+
+    assertThat(items).asList().containsExactly(1L, 2L).inOrder();
+  }
+
+  @Test
+  public void boxed_overFullRange_readsLazily() {
+    Iterator<Long> iter = LongStream.rangeClosed(Long.MIN_VALUE, Long.MAX_VALUE)
+        .boxed()
+        .iterator();
+
+    assertThat(iter.next()).isEqualTo(Long.MIN_VALUE);
+    assertThat(iter.next()).isEqualTo(Long.MIN_VALUE + 1);
+  }
+
+  @Test
+  public void boxed_atMaxValue_stops() {
+    Object[] items = LongStream.rangeClosed(Long.MAX_VALUE - 1, Long.MAX_VALUE).boxed().parallel().toArray();
+
+    assertThat(items).asList().containsExactly(Long.MAX_VALUE - 1, Long.MAX_VALUE).inOrder();
+  }
+}
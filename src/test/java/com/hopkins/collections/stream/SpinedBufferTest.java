@@ -69,4 +69,56 @@ public class SpinedBufferTest {
 
     assertThat(array).isEqualTo(expected);
   }
+
+  @Test
+  public void source_splitsIntoPiecesInOrder() {
+    SpinedBuffer<Integer> buffer = new SpinedBuffer<>();
+    for (int i = 0; i < 1000; i++) {
+      buffer.add(i);
+    }
+
+    SplittableSource<Integer> source = buffer.source();
+    assertThat(source.remaining()).isEqualTo(1000L);
+    SplittableSource<Integer> prefix = source.trySplit();
+    SplittableSource<Integer> prefixOfPrefix = prefix.trySplit();
+    assertThat(prefixOfPrefix.remaining() + prefix.remaining() + source.remaining()).isEqualTo(1000L);
+
+    int expected = 0;
+    for (SplittableSource<Integer> piece : new SplittableSource[] {prefixOfPrefix, prefix, source}) {
+      while (piece.hasNext()) {
+        assertThat(piece.next()).isEqualTo(expected++);
+      }
+      assertThat(piece.remaining()).isEqualTo(0L);
+    }
+    assertThat(expected).isEqualTo(1000);
+  }
+
+  @Test
+  public void source_splitsDownToSingleItems() {
+    SpinedBuffer<Integer> buffer = new SpinedBuffer<>();
+    buffer.add(1);
+    buffer.add(2);
+
+    SplittableSource<Integer> source = buffer.source();
+    SplittableSource<Integer> prefix = source.trySplit();
+
+    assertThat(prefix.next()).isEqualTo(1);
+    assertThat(source.trySplit()).isNull();
+    assertThat(source.next()).isEqualTo(2);
+  }
+
+  @Test
+  public void ofInt_asArray() {
+    SpinedBuffer.OfInt buffer = new SpinedBuffer.OfInt();
+    for (int i = 0; i < 1000; i++) {
+      buffer.add(i);
+    }
+
+    int[] values = buffer.asArray();
+    assertThat(buffer.size()).isEqualTo(1000);
+    assertThat(values.length).isEqualTo(1000);
+    for (int i = 0; i < values.length; i++) {
+      assertThat(values[i]).isEqualTo(i);
+    }
+  }
 }
@@ -1,11 +1,20 @@
 package com.hopkins.collections.stream;
 
+import com.hopkins.collections.ArrayList;
 import com.hopkins.collections.Comparator;
+import com.hopkins.collections.ConcurrentHashMap;
+import com.hopkins.collections.HashSet;
+import com.hopkins.collections.Iterator;
+import com.hopkins.collections.LinkedList;
 import com.hopkins.collections.List;
 import com.hopkins.collections.Optional;
+import com.hopkins.collections.TreeSet;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Test;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
 
 public class StreamTest {
 
@@ -127,4 +136,661 @@ public class StreamTest {
   public void allMatch_withEmpty_returnsTrue() {
     assertThat(Stream.<String>empty().allMatch(item -> item.startsWith("a"))).isTrue();
   }
+
+  @Test
+  public void parallel_toArray_keepsOrder() {
+    List<Integer> list = new ArrayList<>();
+    for (int i = 0; i < 100000; i++) {
+      list.add(i);
+    }
+
+    Integer[] items = Stream.of(list)
+        .parallel()
+        .filter(item -> item % 3 == 0)
+        .map(item -> item * 2)
+        .toArray(Integer[]::new);
+
+    assertThat(items.length).isEqualTo(33334);
+    for (int i = 0; i < items.length; i++) {
+      assertThat(items[i]).isEqualTo(i * 6);
+    }
+  }
+
+  @Test
+  public void parallel_count() {
+    Integer[] array = new Integer[100000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = i;
+    }
+
+    assertThat(Stream.of(array).parallel().filter(item -> item % 2 == 0).count()).isEqualTo(50000L);
+    assertThat(Stream.<Integer>empty().parallel().count()).isEqualTo(0L);
+  }
+
+  @Test
+  public void parallel_anyMatch_allMatch_noneMatch() {
+    Integer[] array = new Integer[100000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = i;
+    }
+
+    assertThat(Stream.of(array).parallel().anyMatch(item -> item == 99999)).isTrue();
+    assertThat(Stream.of(array).parallel().anyMatch(item -> item < 0)).isFalse();
+    assertThat(Stream.of(array).parallel().allMatch(item -> item >= 0)).isTrue();
+    assertThat(Stream.of(array).parallel().noneMatch(item -> item == 500)).isFalse();
+  }
+
+  @Test
+  public void parallel_collect_combinesInOrder() {
+    Integer[] array = new Integer[100000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = i;
+    }
+
+    ArrayList<Integer> result = Stream.of(array)
+        .parallel()
+        .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+
+    assertThat(result.size()).isEqualTo(array.length);
+    for (int i = 0; i < array.length; i++) {
+      assertThat(result.get(i)).isEqualTo(i);
+    }
+  }
+
+  @Test
+  public void parallel_collectWithCollector() {
+    List<String> result = Stream.of("c", "a", "b").parallel().collect(Collectors.toList());
+
+    assertThat(result.toArray()).asList().containsExactly("c", "a", "b").inOrder();
+  }
+
+  @Test
+  public void parallel_statefulOperations_matchSequential() {
+    Integer[] array = new Integer[50000];
+    Random random = new Random(1234);
+    for (int i = 0; i < array.length; i++) {
+      array[i] = random.nextInt(10000);
+    }
+
+    Object[] expected = Stream.of(array).distinct().sorted().skip(100).limit(5000).toArray();
+    Object[] actual = Stream.of(array).parallel().distinct().sorted().skip(100).limit(5000).toArray();
+
+    assertThat(actual).isEqualTo(expected);
+  }
+
+  @Test
+  public void parallel_withEndlessSource_limitFinishes() {
+    Object[] items = Stream.iterator(0, item -> item + 1)
+        .parallel()
+        .limit(5000)
+        .map(item -> item * 2)
+        .toArray();
+
+    assertThat(items.length).isEqualTo(5000);
+    assertThat(items[4999]).isEqualTo(9998);
+  }
+
+  @Test
+  public void parallel_withLinkedList_splitsInBatches() {
+    LinkedList<Integer> list = new LinkedList<>();
+    for (int i = 0; i < 10000; i++) {
+      list.add(i);
+    }
+
+    Object[] items = Stream.of(list).parallel().map(item -> item + 1).toArray();
+
+    assertThat(items.length).isEqualTo(10000);
+    for (int i = 0; i < items.length; i++) {
+      assertThat(items[i]).isEqualTo(i + 1);
+    }
+  }
+
+  @Test
+  public void parallel_forEach_visitsEveryItem() {
+    Integer[] array = new Integer[10000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = i;
+    }
+    AtomicLong sum = new AtomicLong();
+
+    Stream.of(array).parallel().forEach(sum::addAndGet);
+
+    assertThat(sum.get()).isEqualTo(49995000L);
+  }
+
+  @Test
+  public void sequential_afterParallel() {
+    Stream<String> stream = Stream.of("a", "b").parallel();
+
+    assertThat(stream.isParallel()).isTrue();
+    assertThat(stream.sequential().isParallel()).isFalse();
+    assertThat(stream.sequential().toArray()).asList().containsExactly("a", "b").inOrder();
+  }
+
+  @Test
+  public void longPipeline_matchesIterator() {
+    Integer[] array = new Integer[1000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = i;
+    }
+
+    Object[] pushed = Stream.of(array)
+        .filter(item -> item % 2 == 0)
+        .map(item -> item * 3)
+        .skip(10)
+        .peek(item -> { })
+        .filter(item -> item % 4 == 0)
+        .limit(100)
+        .toArray();
+    Iterator<Integer> pulled = Stream.of(array)
+        .filter(item -> item % 2 == 0)
+        .map(item -> item * 3)
+        .skip(10)
+        .peek(item -> { })
+        .filter(item -> item % 4 == 0)
+        .limit(100)
+        .iterator();
+
+    assertThat(pushed.length).isEqualTo(100);
+    for (Object item : pushed) {
+      assertThat(pulled.next()).isEqualTo(item);
+    }
+    assertThat(pulled.hasNext()).isFalse();
+  }
+
+  @Test
+  public void iterator_readsLazily() {
+    AtomicLong reads = new AtomicLong();
+
+    Iterator<Integer> iter = Stream.iterator(0, item -> item + 1)
+        .peek(item -> reads.incrementAndGet())
+        .map(item -> item * 2)
+        .iterator();
+
+    assertThat(reads.get()).isEqualTo(0L);
+    assertThat(iter.next()).isEqualTo(0);
+    assertThat(iter.next()).isEqualTo(2);
+    assertThat(reads.get()).isEqualTo(2L);
+  }
+
+  @Test
+  public void shortCircuitOperations_stopReading() {
+    AtomicLong reads = new AtomicLong();
+
+    assertThat(Stream.iterator(0, item -> item + 1)
+        .peek(item -> reads.incrementAndGet())
+        .anyMatch(item -> item == 10)).isTrue();
+    assertThat(reads.get()).isEqualTo(11L);
+
+    reads.set(0);
+    assertThat(Stream.of(1, 2, 3, 4).peek(item -> reads.incrementAndGet()).findFirst().get()).isEqualTo(1);
+    assertThat(reads.get()).isEqualTo(1L);
+
+    reads.set(0);
+    assertThat(Stream.generate(() -> "a").peek(item -> reads.incrementAndGet()).limit(5).count()).isEqualTo(5L);
+    assertThat(reads.get()).isEqualTo(5L);
+  }
+
+  @Test
+  public void sortedThenLimit_pushesSortedPrefix() {
+    Object[] items = Stream.of(5, 3, 9, 1, 7).sorted().limit(3).toArray();
+
+    assertThat(items).asList().containsExactly(1, 3, 5).inOrder();
+  }
+
+  @Test
+  public void flatMap() {
+    Object[] items = Stream.of("a,b", "", "c")
+        .flatMap(item -> item.isEmpty() ? null : Stream.of(item.split(",")))
+        .toArray();
+
+    assertThat(items).asList().containsExactly("a", "b", "c").inOrder();
+  }
+
+  @Test
+  public void flatMap_iterator_readsLazily() {
+    AtomicLong mapped = new AtomicLong();
+
+    Iterator<Integer> iter = Stream.iterator(0, item -> item + 1)
+        .flatMap(item -> {
+          mapped.incrementAndGet();
+          return Stream.of(item, item);
+        })
+        .iterator();
+
+    assertThat(iter.next()).isEqualTo(0);
+    assertThat(iter.next()).isEqualTo(0);
+    assertThat(iter.next()).isEqualTo(1);
+    assertThat(mapped.get()).isEqualTo(2L);
+  }
+
+  @Test
+  public void flatMap_thenLimit_stopsInsideAnEndlessInnerStream() {
+    Object[] items = Stream.of(1, 2)
+        .flatMap(item -> Stream.generate(() -> item))
+        .limit(3)
+        .toArray();
+
+    assertThat(items).asList().containsExactly(1, 1, 1).inOrder();
+  }
+
+  @Test
+  public void flatMap_withStatefulInnerStream() {
+    Object[] items = Stream.of(3, 2)
+        .flatMap(item -> Stream.of(item, 1, item * 10).sorted())
+        .toArray();
+
+    assertThat(items).asList().containsExactly(1, 3, 30, 1, 2, 20).inOrder();
+  }
+
+  @Test
+  public void mapMulti() {
+    Stream<Integer> stream = Stream.of(0, 1, 2, 3)
+        .mapMulti((Integer item, java.util.function.Consumer<Integer> consumer) -> {
+          for (int i = 0; i < item; i++) {
+            consumer.accept(item);
+          }
+        });
+
+    assertThat(stream.toArray()).asList().containsExactly(1, 2, 2, 3, 3, 3).inOrder();
+  }
+
+  @Test
+  public void mapMulti_iterator() {
+    Iterator<String> iter = Stream.of("ab", "", "c")
+        .mapMulti((String item, java.util.function.Consumer<String> consumer) -> {
+          for (char c : item.toCharArray()) {
+            consumer.accept(String.valueOf(c));
+          }
+        })
+        .iterator();
+
+    assertThat(iter.next()).isEqualTo("a");
+    assertThat(iter.next()).isEqualTo("b");
+    assertThat(iter.next()).isEqualTo("c");
+    assertThat(iter.hasNext()).isFalse();
+  }
+
+  @Test
+  public void sorted_overTreeSet_doesNotCompareAgain() {
+    AtomicLong compares = new AtomicLong();
+    Comparator<Integer> comparator = (a, b) -> {
+      compares.incrementAndGet();
+      return Integer.compare(a, b);
+    };
+    TreeSet<Integer> set = new TreeSet<>(comparator);
+    set.add(3);
+    set.add(1);
+    set.add(2);
+    compares.set(0);
+
+    Object[] sorted = Stream.of(set).sorted(comparator).toArray();
+
+    assertThat(sorted).asList().containsExactly(1, 2, 3).inOrder();
+    assertThat(compares.get()).isEqualTo(0);
+  }
+
+  @Test
+  public void sorted_overTreeSet_withOtherComparator_sorts() {
+    TreeSet<Integer> set = new TreeSet<>();
+    set.add(3);
+    set.add(1);
+    set.add(2);
+
+    Object[] sorted = Stream.of(set).sorted((a, b) -> Integer.compare(b, a)).toArray();
+
+    assertThat(sorted).asList().containsExactly(3, 2, 1).inOrder();
+  }
+
+  @Test
+  public void distinct_overSet_isElided() {
+    HashSet<String> set = new HashSet<>();
+    set.add("a");
+    set.add("b");
+    Stream<String> stream = Stream.of(set);
+
+    assertThat(stream.distinct()).isSameAs(stream);
+    assertThat(stream.map(String::length).distinct().count()).isEqualTo(1);
+  }
+
+  @Test
+  public void count_overSizedSource_skipsStages() {
+    AtomicLong peeked = new AtomicLong();
+    ArrayList<Integer> list = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      list.add(i);
+    }
+
+    assertThat(Stream.of(list).peek(item -> peeked.incrementAndGet()).skip(2).limit(5).count()).isEqualTo(5);
+    assertThat(peeked.get()).isEqualTo(0);
+    assertThat(Stream.of(list).filter(item -> item % 2 == 0).count()).isEqualTo(5);
+    assertThat(Stream.concat(Stream.of(1, 2), Stream.of(list)).skip(20).count()).isEqualTo(0);
+  }
+
+  @Test
+  public void toArray_overConcurrentKeySet_toleratesConcurrentPut() {
+    ConcurrentHashMap<Integer, Integer> map = new ConcurrentHashMap<>();
+    for (int i = 0; i < 10; i++) {
+      map.put(i, i);
+    }
+
+    Integer[] keys = Stream.of(map.keySet())
+        .peek(key -> {
+          if (key == 0) {
+            map.put(100, 0);
+          }
+        })
+        .toArray(Integer[]::new);
+
+    assertThat(keys).asList().containsAllOf(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+  }
+
+  @Test
+  public void toArray_whenSizeIsWrong_keepsEveryItem() {
+    LinkedList<Integer> under = new LinkedList<Integer>() {
+      @Override
+      public int size() {
+        return 2;
+      }
+    };
+    LinkedList<Integer> over = new LinkedList<Integer>() {
+      @Override
+      public int size() {
+        return 10;
+      }
+    };
+    for (int i = 0; i < 5; i++) {
+      under.add(i);
+      over.add(i);
+    }
+
+    assertThat(Stream.of(under).toArray(Integer[]::new)).asList().containsExactly(0, 1, 2, 3, 4).inOrder();
+    assertThat(Stream.of(over).toArray(Integer[]::new)).asList().containsExactly(0, 1, 2, 3, 4).inOrder();
+  }
+
+  @Test
+  public void toArray_overSizedSource() {
+    LinkedList<String> list = new LinkedList<>();
+    list.add("a");
+    list.add("bb");
+    list.add("ccc");
+
+    Integer[] lengths = Stream.of(list).map(String::length).skip(1).toArray(Integer[]::new);
+
+    assertThat(lengths).asList().containsExactly(2, 3).inOrder();
+  }
+
+  @Test
+  public void topK() {
+    Random random = new Random(16);
+    Integer[] array = new Integer[10000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = random.nextInt(1000);
+    }
+    Integer[] expected = array.clone();
+    java.util.Arrays.sort(expected);
+
+    Object[] top = Stream.of(array).topK(10, Comparator.NATURAL_ORDER).toArray();
+    Iterator<Integer> iter = Stream.of(array).topK(10, Comparator.NATURAL_ORDER).iterator();
+
+    assertThat(top).asList().containsExactly((Object[]) java.util.Arrays.copyOf(expected, 10)).inOrder();
+    for (int i = 0; i < 10; i++) {
+      assertThat(iter.next()).isEqualTo(expected[i]);
+    }
+    assertThat(iter.hasNext()).isFalse();
+  }
+
+  @Test
+  public void topK_isStable() {
+    String[] words = {"bb", "a1", "cc", "a2", "dd", "a3", "a4"};
+
+    Object[] top = Stream.of(words).topK(3, (a, b) -> Character.compare(a.charAt(0), b.charAt(0))).toArray();
+
+    assertThat(top).asList().containsExactly("a1", "a2", "a3").inOrder();
+  }
+
+  @Test
+  public void topK_withFewerItems() {
+    assertThat(Stream.of(3, 1, 2).topK(10, Comparator.NATURAL_ORDER).toArray())
+        .asList()
+        .containsExactly(1, 2, 3)
+        .inOrder();
+    assertThat(Stream.of(3, 1, 2).topK(0, Comparator.NATURAL_ORDER).count()).isEqualTo(0);
+  }
+
+  @Test
+  public void sorted_thenLimit_keepsOnlyTheLimit() {
+    AtomicLong compares = new AtomicLong();
+    Comparator<Integer> comparator = (a, b) -> {
+      compares.incrementAndGet();
+      return Integer.compare(a, b);
+    };
+    Integer[] array = new Integer[10000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = array.length - i;
+    }
+
+    Object[] top = Stream.of(array).sorted(comparator).limit(3).toArray();
+
+    assertThat(top).asList().containsExactly(1, 2, 3).inOrder();
+    // A full sort would take far more comparisons
+    assertThat(compares.get()).isLessThan(3L * array.length);
+  }
+
+  @Test
+  public void parallel_topK_matchesSequential() {
+    Random random = new Random(17);
+    Integer[] array = new Integer[50000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = random.nextInt(100);
+    }
+    Comparator<Integer> byTens = (a, b) -> Integer.compare(a / 10, b / 10);
+
+    Object[] sequential = Stream.of(array).sorted(byTens).limit(500).toArray();
+    Object[] parallel = Stream.of(array).parallel().topK(500, byTens).toArray();
+
+    assertThat(parallel).asList().containsExactly(sequential).inOrder();
+  }
+
+  @Test
+  public void sorted_thenFindFirst_doesNotSortEverything() {
+    AtomicLong compares = new AtomicLong();
+    Integer[] array = new Integer[10000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (i * 7919) % array.length;
+    }
+
+    Optional<Integer> first = Stream.of(array)
+        .sorted((a, b) -> {
+          compares.incrementAndGet();
+          return Integer.compare(a, b);
+        })
+        .findFirst();
+
+    assertThat(first.get()).isEqualTo(0);
+    assertThat(compares.get()).isLessThan(3L * array.length);
+  }
+
+  @Test
+  public void sorted_thenToArray_onSortedInput_comparesLinearly() {
+    AtomicLong compares = new AtomicLong();
+    Integer[] array = new Integer[10000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = i;
+    }
+    Comparator<Integer> comparator = (a, b) -> {
+      compares.incrementAndGet();
+      return Integer.compare(a, b);
+    };
+
+    Object[] pushed = Stream.of(array).sorted(comparator).toArray();
+    long pushedCompares = compares.getAndSet(0);
+    List<Integer> pulled = new ArrayList<>();
+    Stream.of(array).sorted(comparator).iterator().forEachRemaining(pulled::add);
+
+    assertThat(pushed).asList().containsExactly((Object[]) array).inOrder();
+    assertThat(pulled.size()).isEqualTo(array.length);
+    assertThat(pushedCompares).isLessThan(2L * array.length);
+    assertThat(compares.get()).isLessThan(2L * array.length);
+  }
+
+  @Test
+  public void sorted_insideFlatMap_thenFindFirst_stillSortsLazily() {
+    AtomicLong compares = new AtomicLong();
+    Integer[] array = new Integer[10000];
+    for (int i = 0; i < array.length; i++) {
+      array[i] = (i * 7919) % array.length;
+    }
+
+    Optional<Integer> first = Stream.of(1)
+        .flatMap(unused -> Stream.of(array).sorted((a, b) -> {
+          compares.incrementAndGet();
+          return Integer.compare(a, b);
+        }))
+        .findFirst();
+
+    assertThat(first.get()).isEqualTo(0);
+    assertThat(compares.get()).isLessThan(3L * array.length);
+  }
+
+  @Test
+  public void sorted_isStable() {
+    String[] words = {"b1", "a1", "b2", "a2", "c1", "a3"};
+    Comparator<String> byLetter = (a, b) -> Character.compare(a.charAt(0), b.charAt(0));
+
+    Object[] pushed = Stream.of(words).sorted(byLetter).toArray();
+    Iterator<String> pulled = Stream.of(words).sorted(byLetter).iterator();
+
+    assertThat(pushed).asList().containsExactly("a1", "a2", "a3", "b1", "b2", "c1").inOrder();
+    assertThat(pulled.next()).isEqualTo("a1");
+    assertThat(pulled.next()).isEqualTo("a2");
+    assertThat(pulled.next()).isEqualTo("a3");
+  }
+
+  @Test
+  public void sorted_withMemoryBudget() {
+    Random random = new Random(21);
+    String[] words = new String[5000];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = Integer.toString(random.nextInt(100000), 36);
+    }
+    String[] expected = words.clone();
+    java.util.Arrays.sort(expected);
+
+    Object[] pushed =
+        Stream.of(words).sorted(Comparator.<String>naturalOrder(), SerializerSpec.strings(), 300).toArray();
+    Object[] parallel = Stream.of(words)
+        .parallel()
+        .sorted(Comparator.<String>naturalOrder(), SerializerSpec.strings(), 300)
+        .map(String::toUpperCase)
+        .toArray();
+    Iterator<String> pulled =
+        Stream.of(words).sorted(Comparator.<String>naturalOrder(), SerializerSpec.strings(), 300).iterator();
+
+    assertThat(pushed).asList().containsExactly((Object[]) expected).inOrder();
+    assertThat(parallel).hasLength(expected.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertThat(parallel[i]).isEqualTo(expected[i].toUpperCase());
+      assertThat(pulled.next()).isEqualTo(expected[i]);
+    }
+    assertThat(pulled.hasNext()).isFalse();
+  }
+
+  @Test
+  public void topK_withNegativeK_throwsWithMessage() {
+    try {
+      Stream.of("a").topK(-1, Comparator.NATURAL_ORDER);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertThat(expected.getMessage()).isEqualTo("k must be non-negative: -1");
+    }
+    try {
+      Collectors.topK(-2, Comparator.NATURAL_ORDER);
+      fail();
+    } catch (IllegalArgumentException expected) {
+      assertThat(expected.getMessage()).isEqualTo("k must be non-negative: -2");
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sorted_withZeroMemoryBudget_throws() {
+    Stream.of("a").sorted(Comparator.NATURAL_ORDER, SerializerSpec.strings(), 0);
+  }
+
+  @Test
+  public void close_runsHandlersOfEarlierStages() {
+    List<String> closed = new ArrayList<>();
+    Stream<String> stream = Stream.of("a", "b")
+        .onClose(() -> closed.add("first"))
+        .map(String::toUpperCase)
+        .onClose(() -> closed.add("second"))
+        .parallel()
+        .skip(1);
+
+    stream.close();
+
+    assertThat(closed.size()).isEqualTo(2);
+    assertThat(closed.get(0)).isEqualTo("first");
+    assertThat(closed.get(1)).isEqualTo("second");
+  }
+
+  @Test
+  public void close_whenHandlerThrows_runsTheOthers() {
+    List<String> closed = new ArrayList<>();
+    Stream<String> stream = Stream.of("a")
+        .onClose(() -> {
+          throw new IllegalStateException("first");
+        })
+        .onClose(() -> closed.add("second"));
+
+    try {
+      stream.close();
+      fail();
+    } catch (IllegalStateException expected) {
+      assertThat(expected.getMessage()).isEqualTo("first");
+    }
+    assertThat(closed.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void concat_close_closesBothStreams() {
+    List<String> closed = new ArrayList<>();
+    Stream<String> first = Stream.of("a").onClose(() -> closed.add("first"));
+    Stream<String> second = Stream.of("b").onClose(() -> closed.add("second"));
+
+    Stream.concat(first, second).limit(0).close();
+
+    assertThat(closed.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void flatMap_closesEachInnerStream() {
+    List<Integer> closed = new ArrayList<>();
+
+    Object[] pushed = Stream.of(1, 2)
+        .flatMap(x -> Stream.of(x, x).onClose(() -> closed.add(x)))
+        .toArray();
+    Iterator<Integer> pulled = Stream.of(3)
+        .flatMap(x -> Stream.of(x).onClose(() -> closed.add(x)))
+        .iterator();
+    while (pulled.hasNext()) {
+      pulled.next();
+    }
+
+    assertThat(pushed).hasLength(4);
+    assertThat(closed.size()).isEqualTo(3);
+  }
+
+  @Test
+  public void sorted_withMemoryBudget_closeAfterDroppingIterator_succeeds() {
+    Stream<Long> stream = LongStream.range(0, 5000)
+        .map(value -> 4999 - value)
+        .boxed()
+        .sorted(Comparator.NATURAL_ORDER, SerializerSpec.longs(), 100);
+    Iterator<Long> iter = stream.iterator();
+
+    assertThat(iter.next()).isEqualTo(0L);
+    stream.close();
+    stream.close();
+  }
 }